@@ -4,6 +4,9 @@ import com.myerp.inventory.dto.ProductDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 /**
  * ProductClient
@@ -24,4 +27,14 @@ public interface ProductClient {
      */
     @GetMapping("/products/{id}")
     ProductDto getProductById(@PathVariable("id") Long id);
+
+    /**
+     * since 시각(같은 시각이면 afterId 초과) 이후 생성·수정·삭제된 상품을 (updatedAt, id) 순으로 조회합니다.
+     * 상품 정보 복제본(ProductReplicaService)의 초기 적재와 주기적 동기화에 사용합니다.
+     *
+     * @param since ISO-8601 형식의 LocalDateTime 문자열
+     */
+    @GetMapping("/products/changes")
+    List<ProductDto> getChanges(@RequestParam("since") String since, @RequestParam("afterId") Long afterId,
+            @RequestParam("size") int size);
 }
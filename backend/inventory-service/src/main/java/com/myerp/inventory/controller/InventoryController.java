@@ -1,17 +1,36 @@
 package com.myerp.inventory.controller;
 
+import com.myerp.inventory.dto.AsOfQuantityDto;
+import com.myerp.inventory.dto.CursorPage;
 import com.myerp.inventory.dto.InventoryResponseDto;
+import com.myerp.inventory.dto.LowStockPageDto;
+import com.myerp.inventory.dto.ReorderSuggestionDto;
 import com.myerp.inventory.dto.StockAdjustmentRequest;
+import com.myerp.inventory.dto.StockContentionDto;
+import com.myerp.inventory.dto.ValuationReportDto;
 import com.myerp.inventory.model.InventoryHistory;
+import com.myerp.inventory.service.ConsumptionForecastService;
 import com.myerp.inventory.service.InventoryService;
+import com.myerp.inventory.service.InventorySnapshotService;
+import com.myerp.inventory.service.InventoryValuationService;
+import com.myerp.inventory.service.StockImportService;
+import com.myerp.inventory.service.StockStripeService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
 /**
  * InventoryController
  * 외부(Frontend 또는 타 서비스)로부터 들어오는 재고 관련 HTTP 요청을 핸들링합니다.
@@ -24,6 +43,21 @@ public class InventoryController {
     @Autowired
     private InventoryService inventoryService;
 
+    @Autowired
+    private StockStripeService stockStripeService;
+
+    @Autowired
+    private InventorySnapshotService inventorySnapshotService;
+
+    @Autowired
+    private StockImportService stockImportService;
+
+    @Autowired
+    private InventoryValuationService inventoryValuationService;
+
+    @Autowired
+    private ConsumptionForecastService consumptionForecastService;
+
     /**
      * 전체 재고 현황을 페이징하여 조회합니다. (대시보드 또는 목록 화면용)
      */
@@ -41,6 +75,123 @@ public class InventoryController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * 여러 건의 재고 조정 요청을 하나의 트랜잭션으로 일괄 처리합니다.
+     * (다품목 주문의 재고 차감, 창고 대량 입고 등)
+     */
+    @PostMapping("/adjust/batch")
+    public ResponseEntity<Void> adjustStockBatch(@RequestBody List<StockAdjustmentRequest> requests) {
+        inventoryService.adjustStockBatch(requests);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * 초기 재고 적재·재고 실사 결과를 CSV(text/csv) 또는 NDJSON(application/x-ndjson) 본문으로 받아 일괄 반영합니다.
+     * mode=delta(기본)는 quantity를 증감으로, mode=set은 실사로 확인한 현재 수량으로 해석합니다.
+     * 응답은 NDJSON 스트림으로, 거부된 행(error)과 진행 상황(progress)이 처리 중에 전달되고 마지막 줄이 결과(summary/failed)입니다.
+     * 예: curl -X POST -H 'Content-Type: text/csv' --data-binary @stock.csv '/inventory/import?mode=set'
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public void importStock(@RequestParam(defaultValue = "delta") String mode,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!"delta".equals(mode) && !"set".equals(mode)) {
+            throw new RuntimeException("지원하지 않는 가져오기 모드입니다: " + mode);
+        }
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        stockImportService.importStock(request.getInputStream(), request.getContentType().contains("csv"),
+                "set".equals(mode), response.getOutputStream());
+    }
+
+    /**
+     * 상품별 재고 갱신 경합(갱신 횟수, 낙관적 잠금 충돌/재시도, 소요 시간)을 경합이 심한 순으로 조회합니다.
+     */
+    @GetMapping("/contention")
+    public List<StockContentionDto> getContention(@RequestParam(defaultValue = "20") int limit) {
+        return inventoryService.getContention(limit);
+    }
+
+    /**
+     * stripe 모드(Hot SKU)인 상품과 하위 행 개수를 조회합니다.
+     */
+    @GetMapping("/stripes")
+    public Map<Long, Integer> getHotProducts() {
+        return stockStripeService.getHotProducts();
+    }
+
+    /**
+     * 관리자용: 상품을 Hot SKU로 지정하여 재고 증감을 N개 하위 행으로 분산합니다. (프로모션 등 쓰기 집중 대비)
+     * 요청 본문 예: {"stripes": 8}
+     */
+    @PutMapping("/{productId}/stripes")
+    public ResponseEntity<Void> markHot(@PathVariable Long productId, @RequestBody Map<String, Integer> payload) {
+        Integer stripes = payload.get("stripes");
+        stockStripeService.markHot(productId, stripes != null ? stripes : 8);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * 관리자용: Hot SKU 지정을 해제하고 하위 행을 기본 재고 행으로 즉시 합칩니다.
+     */
+    @DeleteMapping("/{productId}/stripes")
+    public ResponseEntity<Void> unmarkHot(@PathVariable Long productId) {
+        stockStripeService.unmarkHot(productId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * 최소 유지 재고 이하인 상품을 조회합니다. (대시보드 재고 부족 알림용)
+     * 응답에 전체 재고 부족(LOW_STOCK)·품절(OUT_OF_STOCK) 건수가 포함되며, status로 한 상태만 필터링할 수 있습니다.
+     */
+    @GetMapping("/low-stock")
+    public LowStockPageDto getLowStock(
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return inventoryService.getLowStock(status, page, size);
+    }
+
+    /**
+     * 상품의 최소 유지 재고를 변경합니다.
+     * 요청 본문 예: {"minStock": 20}
+     */
+    @PutMapping("/{productId}/min-stock")
+    public ResponseEntity<Void> updateMinStock(@PathVariable Long productId, @RequestBody Map<String, Integer> payload) {
+        Integer minStock = payload.get("minStock");
+        if (minStock == null) {
+            throw new RuntimeException("minStock 값이 필요합니다.");
+        }
+        inventoryService.updateMinStock(productId, minStock);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * 출고 수요 예측으로 계산한 재주문점 제안을 재고 소진이 임박한 순으로 조회합니다. (주기 작업의 마지막 계산 결과)
+     */
+    @GetMapping("/reorder-suggestions")
+    public List<ReorderSuggestionDto> getReorderSuggestions(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return consumptionForecastService.getSuggestions(page, size);
+    }
+
+    /**
+     * 특정 상품의 일 평균 출고 수요, 재주문점, 재고 소진 일수를 현재 시각 기준으로 계산하여 조회합니다.
+     */
+    @GetMapping("/{productId}/forecast")
+    public ReorderSuggestionDto getForecast(@PathVariable Long productId) {
+        return consumptionForecastService.getForecast(productId);
+    }
+
+    /**
+     * 전체 재고 평가 금액(현재 재고 × 단가)을 카테고리별로 집계하여 조회합니다. (재무 보고용)
+     * 단가는 로컬 상품 정보 복제본 기준이며, 단가를 알 수 없는 상품은 금액에서 빠지고 unpricedSkuCount로 집계됩니다.
+     */
+    @GetMapping("/valuation")
+    public ValuationReportDto getValuation() {
+        return inventoryValuationService.getValuation();
+    }
+
     /**
      * 특정 상품에 대한 단건 재고 정보를 조회합니다. (조정 폼 초기 값 로드용)
      */
@@ -52,6 +203,7 @@ public class InventoryController {
     /**
      * 재고 증감 로그(History)를 최신순으로 페이징하여 조회합니다.
      * productId가 파라미터로 제공될 경우 특정 상품의 이력만 필터링합니다.
+     * DB에 남아 있는 보관 기간 내 이력만 조회하며, 보관 파일까지 이어서 보려면 /history/scroll을 사용합니다.
      */
     @GetMapping("/history")
     public Page<InventoryHistory> getInventoryHistory(
@@ -59,4 +211,36 @@ public class InventoryController {
             @PageableDefault(size = 10, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
         return inventoryService.getInventoryHistories(productId, pageable);
     }
+
+    /**
+     * 재고 증감 로그를 커서 기반으로 최신순 조회합니다. (count 쿼리 없음)
+     * 응답의 nextCursor를 다음 요청의 cursor로 전달합니다. 최근 이력은 DB 파티션에서, 보관된 기간은 보관 파일에서 읽습니다.
+     */
+    @GetMapping("/history/scroll")
+    public CursorPage<InventoryHistory> scrollInventoryHistory(
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return inventoryService.scrollInventoryHistories(productId, cursor, size);
+    }
+
+    /**
+     * 특정 시점(at 직전까지의 증감 반영)의 상품 재고를 조회합니다. (재무 기말 재고 확인용)
+     * 예: GET /inventory/as-of/1?at=2024-12-31T23:59:59
+     */
+    @GetMapping("/as-of/{productId}")
+    public AsOfQuantityDto getQuantityAsOf(
+            @PathVariable Long productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return inventorySnapshotService.getQuantityAsOf(productId, at);
+    }
+
+    /**
+     * 특정 시점의 전체 상품 재고를 상품 ID 순으로 조회합니다.
+     */
+    @GetMapping("/as-of")
+    public List<AsOfQuantityDto> getAllQuantitiesAsOf(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return inventorySnapshotService.getAllQuantitiesAsOf(at);
+    }
 }
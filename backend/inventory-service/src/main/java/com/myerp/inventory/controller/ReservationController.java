@@ -0,0 +1,60 @@
+package com.myerp.inventory.controller;
+
+import com.myerp.inventory.dto.ReservationRequest;
+import com.myerp.inventory.dto.ReservationResponseDto;
+import com.myerp.inventory.service.ReservationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ReservationController
+ * 재고 예약(선점/확정/해제) 관련 HTTP 요청을 핸들링합니다.
+ * 주문 서비스는 주문 저장 전 재고를 예약하고, 주문이 저장되면 예약을 확정합니다.
+ */
+@RestController
+@RequestMapping("/inventory/reservations")
+public class ReservationController {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    /**
+     * 여러 품목의 재고를 TTL 동안 선점합니다. 가용 재고가 부족한 품목이 있으면 전체가 실패합니다.
+     */
+    @PostMapping
+    public ResponseEntity<ReservationResponseDto> reserve(@RequestBody ReservationRequest request) {
+        return new ResponseEntity<>(reservationService.reserve(request), HttpStatus.CREATED);
+    }
+
+    /**
+     * 예약을 확정하여 실제 재고를 차감합니다. body의 referenceId(주문 ID 등)는 재고 이력에 기록됩니다.
+     */
+    @PostMapping("/{reservationId}/commit")
+    public ResponseEntity<ReservationResponseDto> commit(@PathVariable String reservationId,
+            @RequestBody(required = false) Map<String, String> payload) {
+        String referenceId = payload != null ? payload.get("referenceId") : null;
+        return ResponseEntity.ok(reservationService.commit(reservationId, referenceId));
+    }
+
+    /**
+     * 여러 예약을 한 트랜잭션으로 확정합니다. body: [{"reservationId": "...", "referenceId": "..."}]
+     * 이미 확정된 예약은 다시 차감하지 않으므로 재전송에 안전합니다.
+     */
+    @PostMapping("/commit/batch")
+    public ResponseEntity<List<ReservationResponseDto>> commitBatch(@RequestBody List<Map<String, String>> requests) {
+        return ResponseEntity.ok(reservationService.commitBatch(requests));
+    }
+
+    /**
+     * 예약을 해제하여 선점 수량을 가용 재고로 되돌립니다.
+     */
+    @PostMapping("/{reservationId}/release")
+    public ResponseEntity<ReservationResponseDto> release(@PathVariable String reservationId) {
+        return ResponseEntity.ok(reservationService.release(reservationId));
+    }
+}
@@ -0,0 +1,47 @@
+package com.myerp.inventory.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * AsOfQuantityDto
+ * 특정 시점(asOf)의 상품 재고 수량을 전달하는 DTO입니다.
+ * snapshotAt은 계산의 기준이 된 스냅샷 시각이며, 수량은 스냅샷 수량에 두 시각 사이의 이력 증감을 더한 값입니다.
+ */
+public class AsOfQuantityDto {
+    private Long productId;
+    private LocalDateTime asOf;
+    private long quantity;
+    private LocalDateTime snapshotAt;
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public LocalDateTime getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(LocalDateTime asOf) {
+        this.asOf = asOf;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public LocalDateTime getSnapshotAt() {
+        return snapshotAt;
+    }
+
+    public void setSnapshotAt(LocalDateTime snapshotAt) {
+        this.snapshotAt = snapshotAt;
+    }
+}
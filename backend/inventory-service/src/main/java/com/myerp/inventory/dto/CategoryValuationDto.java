@@ -0,0 +1,55 @@
+package com.myerp.inventory.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * CategoryValuationDto
+ * 카테고리별 재고 평가 금액(현재 재고 × 단가)을 전달하는 DTO입니다.
+ */
+public class CategoryValuationDto {
+    private String category; // 상품 정보가 복제되지 않은 재고는 N/A
+    private long skuCount;
+    private long totalQuantity;
+    private BigDecimal totalValue;
+    private long unpricedSkuCount; // 단가를 알 수 없어 금액에서 제외된 상품 수
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public long getSkuCount() {
+        return skuCount;
+    }
+
+    public void setSkuCount(long skuCount) {
+        this.skuCount = skuCount;
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public void setTotalQuantity(long totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+
+    public void setTotalValue(BigDecimal totalValue) {
+        this.totalValue = totalValue;
+    }
+
+    public long getUnpricedSkuCount() {
+        return unpricedSkuCount;
+    }
+
+    public void setUnpricedSkuCount(long unpricedSkuCount) {
+        this.unpricedSkuCount = unpricedSkuCount;
+    }
+}
@@ -9,6 +9,7 @@ public class InventoryResponseDto {
     private String productCategory; // Fetched via Feign
     private Integer quantity;
     private Integer minStock;
+    private Integer availableQuantity; // quantity - active reservation holds
     private String status; // NORMAL, LOW_STOCK, OUT_OF_STOCK
 
     public Long getId() {
@@ -61,6 +62,14 @@ public class InventoryResponseDto {
         updateStatus();
     }
 
+    public Integer getAvailableQuantity() {
+        return availableQuantity;
+    }
+
+    public void setAvailableQuantity(Integer availableQuantity) {
+        this.availableQuantity = availableQuantity;
+    }
+
     public String getStatus() {
         return status;
     }
@@ -0,0 +1,44 @@
+package com.myerp.inventory.dto;
+
+/**
+ * LowStockDto
+ * 최소 유지 재고 이하인 상품 한 건의 재고 상태를 전달하는 DTO입니다.
+ */
+public class LowStockDto {
+    private Long productId;
+    private int quantity;
+    private int minStock;
+    private String status; // LOW_STOCK, OUT_OF_STOCK
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public int getMinStock() {
+        return minStock;
+    }
+
+    public void setMinStock(int minStock) {
+        this.minStock = minStock;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,74 @@
+package com.myerp.inventory.dto;
+
+import java.util.List;
+
+/**
+ * LowStockPageDto
+ * 재고 부족 알림 화면의 응답 DTO입니다.
+ * 전체 재고 부족(LOW_STOCK)·품절(OUT_OF_STOCK) 건수와, 요청한 페이지의 저재고 상품 목록을 함께 담습니다.
+ */
+public class LowStockPageDto {
+    private int lowStockCount;
+    private int outOfStockCount;
+    private List<LowStockDto> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+
+    public int getLowStockCount() {
+        return lowStockCount;
+    }
+
+    public void setLowStockCount(int lowStockCount) {
+        this.lowStockCount = lowStockCount;
+    }
+
+    public int getOutOfStockCount() {
+        return outOfStockCount;
+    }
+
+    public void setOutOfStockCount(int outOfStockCount) {
+        this.outOfStockCount = outOfStockCount;
+    }
+
+    public List<LowStockDto> getContent() {
+        return content;
+    }
+
+    public void setContent(List<LowStockDto> content) {
+        this.content = content;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+}
@@ -1,11 +1,16 @@
 package com.myerp.inventory.dto;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
 public class ProductDto {
     private Long id;
     private String name;
     private String category;
-    private Double price;
+    private BigDecimal price;
     private String status;
+    private LocalDateTime updatedAt;
+    private boolean deleted; // 변경 피드(/products/changes)에서 삭제된 상품이면 true
 
     // Getters and Setters
 
@@ -33,11 +38,11 @@ public class ProductDto {
         this.category = category;
     }
 
-    public Double getPrice() {
+    public BigDecimal getPrice() {
         return price;
     }
 
-    public void setPrice(Double price) {
+    public void setPrice(BigDecimal price) {
         this.price = price;
     }
 
@@ -48,4 +53,20 @@ public class ProductDto {
     public void setStatus(String status) {
         this.status = status;
     }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
 }
@@ -0,0 +1,82 @@
+package com.myerp.inventory.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * ReorderSuggestionDto
+ * 상품 한 건의 출고 수요 예측(일 평균·표준편차)과 그로부터 계산한 재주문점, 재고 소진 일수를 전달하는 DTO입니다.
+ */
+public class ReorderSuggestionDto {
+    private Long productId;
+    private double dailyConsumption; // 일 평균 출고 수량 (EWMA)
+    private double dailyStdDev; // 일 출고 수량의 표준편차
+    private Integer onHand; // 현재 재고 (재고 행이 없으면 null)
+    private Integer minStock; // 현재 설정된 최소 유지 재고
+    private Integer reorderPoint; // 제안 재주문점
+    private Double daysOfCover; // 현재 재고로 버틸 수 있는 일수 (수요가 없으면 null)
+    private LocalDateTime suggestedAt; // 제안 값 계산 시각
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public double getDailyConsumption() {
+        return dailyConsumption;
+    }
+
+    public void setDailyConsumption(double dailyConsumption) {
+        this.dailyConsumption = dailyConsumption;
+    }
+
+    public double getDailyStdDev() {
+        return dailyStdDev;
+    }
+
+    public void setDailyStdDev(double dailyStdDev) {
+        this.dailyStdDev = dailyStdDev;
+    }
+
+    public Integer getOnHand() {
+        return onHand;
+    }
+
+    public void setOnHand(Integer onHand) {
+        this.onHand = onHand;
+    }
+
+    public Integer getMinStock() {
+        return minStock;
+    }
+
+    public void setMinStock(Integer minStock) {
+        this.minStock = minStock;
+    }
+
+    public Integer getReorderPoint() {
+        return reorderPoint;
+    }
+
+    public void setReorderPoint(Integer reorderPoint) {
+        this.reorderPoint = reorderPoint;
+    }
+
+    public Double getDaysOfCover() {
+        return daysOfCover;
+    }
+
+    public void setDaysOfCover(Double daysOfCover) {
+        this.daysOfCover = daysOfCover;
+    }
+
+    public LocalDateTime getSuggestedAt() {
+        return suggestedAt;
+    }
+
+    public void setSuggestedAt(LocalDateTime suggestedAt) {
+        this.suggestedAt = suggestedAt;
+    }
+}
@@ -0,0 +1,54 @@
+package com.myerp.inventory.dto;
+
+import java.util.List;
+
+public class ReservationRequest {
+    private String referenceId;
+    private Long ttlSeconds; // null이면 기본 TTL 적용
+    private List<ReservationItem> items;
+
+    public String getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(String referenceId) {
+        this.referenceId = referenceId;
+    }
+
+    public Long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(Long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public List<ReservationItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ReservationItem> items) {
+        this.items = items;
+    }
+
+    public static class ReservationItem {
+        private Long productId;
+        private Integer quantity;
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.myerp.inventory.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ReservationResponseDto {
+    private String reservationId;
+    private String status; // ACTIVE, COMMITTED, RELEASED, EXPIRED
+    private String referenceId;
+    private LocalDateTime expiresAt;
+    private List<ReservationRequest.ReservationItem> items;
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(String referenceId) {
+        this.referenceId = referenceId;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public List<ReservationRequest.ReservationItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ReservationRequest.ReservationItem> items) {
+        this.items = items;
+    }
+}
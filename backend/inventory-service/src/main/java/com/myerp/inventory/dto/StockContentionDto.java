@@ -0,0 +1,72 @@
+package com.myerp.inventory.dto;
+
+/**
+ * StockContentionDto
+ * 상품(SKU)별 재고 갱신 경합 통계를 전달하는 DTO입니다.
+ * 갱신 횟수, 낙관적 잠금 충돌·재시도 횟수와 재고 증감 문장의 평균/최대 소요 시간(행 잠금 대기 포함)을 담습니다.
+ */
+public class StockContentionDto {
+    private Long productId;
+    private long updates;
+    private long conflicts;
+    private long retries;
+    private long exhausted;
+    private double avgLatencyMs;
+    private double maxLatencyMs;
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public long getUpdates() {
+        return updates;
+    }
+
+    public void setUpdates(long updates) {
+        this.updates = updates;
+    }
+
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(long conflicts) {
+        this.conflicts = conflicts;
+    }
+
+    public long getRetries() {
+        return retries;
+    }
+
+    public void setRetries(long retries) {
+        this.retries = retries;
+    }
+
+    public long getExhausted() {
+        return exhausted;
+    }
+
+    public void setExhausted(long exhausted) {
+        this.exhausted = exhausted;
+    }
+
+    public double getAvgLatencyMs() {
+        return avgLatencyMs;
+    }
+
+    public void setAvgLatencyMs(double avgLatencyMs) {
+        this.avgLatencyMs = avgLatencyMs;
+    }
+
+    public double getMaxLatencyMs() {
+        return maxLatencyMs;
+    }
+
+    public void setMaxLatencyMs(double maxLatencyMs) {
+        this.maxLatencyMs = maxLatencyMs;
+    }
+}
@@ -0,0 +1,88 @@
+package com.myerp.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * StockImportEventDto
+ * 대량 재고 가져오기 응답(NDJSON)의 한 줄을 나타내는 DTO입니다.
+ * type에 따라 채워지는 필드가 다릅니다.
+ * - error: 거부된 행의 줄 번호(line)와 사유(message)
+ * - progress: 지금까지 읽은 줄 번호와 반영 대상(accepted)·거부(rejected) 행 수
+ * - summary: 최종 건수(반영 상품 수 products, 기록된 이력 수 histories)와 소요 시간
+ * - failed: 전체 롤백 사유 (이 경우 아무것도 반영되지 않음)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockImportEventDto {
+    private String type;
+    private Long line;
+    private Long accepted;
+    private Long rejected;
+    private Integer products;
+    private Integer histories;
+    private Long elapsedMs;
+    private String message;
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getLine() {
+        return line;
+    }
+
+    public void setLine(Long line) {
+        this.line = line;
+    }
+
+    public Long getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(Long accepted) {
+        this.accepted = accepted;
+    }
+
+    public Long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(Long rejected) {
+        this.rejected = rejected;
+    }
+
+    public Integer getProducts() {
+        return products;
+    }
+
+    public void setProducts(Integer products) {
+        this.products = products;
+    }
+
+    public Integer getHistories() {
+        return histories;
+    }
+
+    public void setHistories(Integer histories) {
+        this.histories = histories;
+    }
+
+    public Long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(Long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
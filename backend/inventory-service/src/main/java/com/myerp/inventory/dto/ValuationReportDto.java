@@ -0,0 +1,76 @@
+package com.myerp.inventory.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ValuationReportDto
+ * 전체 재고 평가 보고서 DTO입니다. 전체 합계와 카테고리별 합계(금액 내림차순)를 함께 담습니다.
+ * 금액은 DB에 반영된 재고 수량과 로컬 상품 복제본의 단가로 계산한 정확한 소수 값입니다.
+ */
+public class ValuationReportDto {
+    private LocalDateTime generatedAt;
+    private long skuCount;
+    private long totalQuantity;
+    private BigDecimal totalValue;
+    private long unpricedSkuCount;
+    private long elapsedMs;
+    private List<CategoryValuationDto> categories;
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+
+    public long getSkuCount() {
+        return skuCount;
+    }
+
+    public void setSkuCount(long skuCount) {
+        this.skuCount = skuCount;
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public void setTotalQuantity(long totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+
+    public void setTotalValue(BigDecimal totalValue) {
+        this.totalValue = totalValue;
+    }
+
+    public long getUnpricedSkuCount() {
+        return unpricedSkuCount;
+    }
+
+    public void setUnpricedSkuCount(long unpricedSkuCount) {
+        this.unpricedSkuCount = unpricedSkuCount;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public List<CategoryValuationDto> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<CategoryValuationDto> categories) {
+        this.categories = categories;
+    }
+}
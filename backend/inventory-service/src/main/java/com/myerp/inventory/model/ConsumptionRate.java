@@ -0,0 +1,100 @@
+package com.myerp.inventory.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * ConsumptionRate
+ * 상품별 출고(OUTBOUND) 수요의 지수 가중 이동 평균(EWMA)과 그로부터 계산한 재주문점을 기록하는 JPA Entity 클래스입니다.
+ * DB의 'consumption_rates' 테이블과 매핑되며, dailyRate·dailyVariance는 lastEventAt 시각 기준 값으로
+ * 출고가 있을 때마다 (이전 값 × 경과 시간만큼의 감쇠 + 이번 출고량)으로 누적 갱신됩니다. (이력 전체를 다시 읽지 않음)
+ * reorderPoint·daysOfCover는 주기 작업이 모든 상품에 대해 계산해 둔 제안 값입니다.
+ * 조회·갱신은 ConsumptionRateJdbcRepository의 SQL로 수행하고, 이 엔티티는 스키마 정의 용도로 사용됩니다.
+ */
+@Entity
+@Table(name = "consumption_rates", indexes = {
+        @Index(name = "idx_consumption_rates_days_of_cover", columnList = "days_of_cover, product_id") // 재고 소진 임박순 조회용
+})
+public class ConsumptionRate {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "daily_rate", nullable = false)
+    private double dailyRate; // 일 평균 출고 수량
+
+    @Column(name = "daily_variance", nullable = false)
+    private double dailyVariance; // 일 출고 수량의 분산 (출고 건별 수량의 제곱 누적)
+
+    @Column(name = "last_event_at", nullable = false)
+    private LocalDateTime lastEventAt; // dailyRate, dailyVariance의 기준 시각 (마지막 출고 시각)
+
+    @Column(name = "reorder_point")
+    private Integer reorderPoint; // 제안 재주문점 (리드타임 수요 + 안전 재고)
+
+    @Column(name = "days_of_cover")
+    private Double daysOfCover; // 현재 재고로 버틸 수 있는 일수
+
+    @Column(name = "suggested_at")
+    private LocalDateTime suggestedAt; // 제안 값 계산 시각
+
+    // Getters and Setters
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public double getDailyRate() {
+        return dailyRate;
+    }
+
+    public void setDailyRate(double dailyRate) {
+        this.dailyRate = dailyRate;
+    }
+
+    public double getDailyVariance() {
+        return dailyVariance;
+    }
+
+    public void setDailyVariance(double dailyVariance) {
+        this.dailyVariance = dailyVariance;
+    }
+
+    public LocalDateTime getLastEventAt() {
+        return lastEventAt;
+    }
+
+    public void setLastEventAt(LocalDateTime lastEventAt) {
+        this.lastEventAt = lastEventAt;
+    }
+
+    public Integer getReorderPoint() {
+        return reorderPoint;
+    }
+
+    public void setReorderPoint(Integer reorderPoint) {
+        this.reorderPoint = reorderPoint;
+    }
+
+    public Double getDaysOfCover() {
+        return daysOfCover;
+    }
+
+    public void setDaysOfCover(Double daysOfCover) {
+        this.daysOfCover = daysOfCover;
+    }
+
+    public LocalDateTime getSuggestedAt() {
+        return suggestedAt;
+    }
+
+    public void setSuggestedAt(LocalDateTime suggestedAt) {
+        this.suggestedAt = suggestedAt;
+    }
+}
@@ -0,0 +1,76 @@
+package com.myerp.inventory.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * HistoryArchive
+ * 보관 기간이 지나 DB에서 분리된 재고 이력 월 파티션의 압축 파일 정보를 기록하는 JPA Entity 클래스입니다.
+ * DB의 'inventory_history_archives' 테이블과 매핑되며, 이력 조회 시 DB에 없는 기간을 어떤 파일에서 읽을지 결정하는 데 사용됩니다.
+ */
+@Entity
+@Table(name = "inventory_history_archives")
+public class HistoryArchive {
+
+    // 보관된 월의 첫날 (파티션 범위 [periodStart, periodStart + 1개월))
+    @Id
+    @Column(name = "period_start")
+    private LocalDate periodStart;
+
+    @Column(name = "file_path", nullable = false, length = 500)
+    private String filePath;
+
+    @Column(name = "row_count", nullable = false)
+    private Long rowCount;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // 블록(독립 gzip 멤버)별 첫 행의 (created_at, id)와 파일 내 바이트 위치. 한 줄에 "offset\tid\tcreatedAt" (이전에 보관된 파일은 null)
+    @Column(name = "block_index", columnDefinition = "TEXT")
+    private String blockIndex;
+
+    // Getters and Setters
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public Long getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(Long rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+
+    public String getBlockIndex() {
+        return blockIndex;
+    }
+
+    public void setBlockIndex(String blockIndex) {
+        this.blockIndex = blockIndex;
+    }
+}
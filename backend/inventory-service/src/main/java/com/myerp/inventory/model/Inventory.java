@@ -18,7 +18,8 @@ import jakarta.persistence.*;
 public class Inventory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventories_seq")
+    @SequenceGenerator(name = "inventories_seq", sequenceName = "inventories_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -30,6 +31,15 @@ public class Inventory {
     @Column(name = "min_stock", nullable = false)
     private Integer minStock = 10;
 
+    // 0이면 일반 모드, N(>=2)이면 재고 증감을 inventory_stripes의 N개 하위 행으로 분산 (Hot SKU)
+    @Column(name = "stripe_count", nullable = false, columnDefinition = "integer default 0")
+    private Integer stripeCount = 0;
+
+    // 낙관적 잠금 모드용 버전 (원자적 증감 경로에서도 함께 증가시켜 충돌을 감지할 수 있게 함)
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     // Getters and Setters
 
     public Long getId() {
@@ -63,4 +73,20 @@ public class Inventory {
     public void setMinStock(Integer minStock) {
         this.minStock = minStock;
     }
+
+    public Integer getStripeCount() {
+        return stripeCount;
+    }
+
+    public void setStripeCount(Integer stripeCount) {
+        this.stripeCount = stripeCount;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,140 @@
+package com.myerp.inventory.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * InventoryDeadLetter
+ * 비동기 경로(메모리 재고 원장, 비동기 이력 writer)에서 DB에 반영할 수 없어 격리된 기록을 보관하는 JPA Entity 클래스입니다.
+ * DB의 'inventory_dead_letters' 테이블과 매핑되며, 불량 기록 하나가 뒤따르는 정상 기록의 반영을 막지 않도록
+ * 그 기록만 이곳으로 옮기고 실패 사유(error)를 남깁니다. 원래 컬럼 길이를 넘는 값도 그대로 보관하도록 문자열은 TEXT입니다.
+ * - source = LEDGER: 재고 증감과 이력 모두 반영되지 않은 조정
+ * - source = HISTORY: 재고 증감은 반영되었고 이력만 기록되지 않은 조정
+ */
+@Entity
+@Table(name = "inventory_dead_letters")
+public class InventoryDeadLetter {
+
+    public static final String LEDGER = "LEDGER";
+    public static final String HISTORY = "HISTORY";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_dead_letters_seq")
+    @SequenceGenerator(name = "inventory_dead_letters_seq", sequenceName = "inventory_dead_letters_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 20)
+    private String source;
+
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "quantity_changed")
+    private Integer quantityChanged;
+
+    @Column(length = 20)
+    private String type;
+
+    @Column(columnDefinition = "TEXT")
+    private String reason;
+
+    @Column(name = "reference_id", columnDefinition = "TEXT")
+    private String referenceId;
+
+    @Column(name = "occurred_at")
+    private LocalDateTime occurredAt; // 조정이 일어난 시각
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantityChanged() {
+        return quantityChanged;
+    }
+
+    public void setQuantityChanged(Integer quantityChanged) {
+        this.quantityChanged = quantityChanged;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public String getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(String referenceId) {
+        this.referenceId = referenceId;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
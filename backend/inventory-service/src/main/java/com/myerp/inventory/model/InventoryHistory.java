@@ -12,11 +12,16 @@ import java.time.LocalDateTime;
  * 한 번 기록된 데이터는 수정(Update)되지 않고 지속해서 쌓이는 형태(Append-Only)로 설계되었습니다.
  */
 @Entity
-@Table(name = "inventory_histories")
+@Table(name = "inventory_histories", indexes = {
+        @Index(name = "idx_inventory_histories_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_inventory_histories_product_created_at_id", columnList = "productId, created_at, id"),
+        @Index(name = "idx_inventory_histories_recorded_at", columnList = "recorded_at")
+})
 public class InventoryHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_histories_seq")
+    @SequenceGenerator(name = "inventory_histories_seq", sequenceName = "inventory_histories_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -38,6 +43,12 @@ public class InventoryHistory {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    // 실제 INSERT 시각 (DB 기본값). created_at은 발생 시각이라 비동기 기록·원장 반영·재처리 행이 늦게 들어올 수 있으므로
+    // 스냅샷은 이 컬럼을 기준으로 어디까지 반영했는지 구분합니다.
+    @Column(name = "recorded_at", insertable = false, updatable = false,
+            columnDefinition = "timestamp(6) default clock_timestamp()")
+    private LocalDateTime recordedAt;
+
     // Getters and Setters
 
     public Long getId() {
@@ -95,4 +106,8 @@ public class InventoryHistory {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
 }
@@ -0,0 +1,79 @@
+package com.myerp.inventory.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * InventorySnapshot
+ * 특정 시점(snapshotAt)의 상품별 재고 수량을 기록하는 JPA Entity 클래스입니다.
+ * DB의 'inventory_snapshots' 테이블과 매핑되며, quantity는 snapshotAt 이전(created_at < snapshotAt)의 모든 재고 증감이 반영된 수량입니다.
+ * recordedBefore는 스냅샷이 반영한 이력의 INSERT 시각(recorded_at) 상한으로, 다음 스냅샷은 그 이후에 늦게 기록된 이전 시각의 이력까지 더합니다.
+ * 시점 재고(as-of) 조회는 가장 가까운 스냅샷에 그 이후의 이력 증감만 더해 계산합니다.
+ * 조회·생성은 InventorySnapshotJdbcRepository의 SQL로 수행하고, 이 엔티티는 스키마 정의 용도로 사용됩니다.
+ */
+@Entity
+@Table(name = "inventory_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_inventory_snapshots_at_product", columnNames = {"snapshot_at", "product_id"})
+})
+public class InventorySnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_snapshots_seq")
+    @SequenceGenerator(name = "inventory_snapshots_seq", sequenceName = "inventory_snapshots_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "snapshot_at", nullable = false)
+    private LocalDateTime snapshotAt;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "recorded_before")
+    private LocalDateTime recordedBefore;
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getSnapshotAt() {
+        return snapshotAt;
+    }
+
+    public void setSnapshotAt(LocalDateTime snapshotAt) {
+        this.snapshotAt = snapshotAt;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public LocalDateTime getRecordedBefore() {
+        return recordedBefore;
+    }
+
+    public void setRecordedBefore(LocalDateTime recordedBefore) {
+        this.recordedBefore = recordedBefore;
+    }
+}
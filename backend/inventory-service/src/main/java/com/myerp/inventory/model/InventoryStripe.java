@@ -0,0 +1,89 @@
+package com.myerp.inventory.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * InventoryStripe
+ * 쓰기가 집중되는 상품(Hot SKU)의 재고 증감을 여러 행으로 분산하기 위한 하위 카운터 행입니다.
+ * DB의 'inventory_stripes' 테이블과 매핑되며, 상품의 실제 재고는 inventories.quantity와 모든 stripe 행 quantity의 합입니다.
+ * 조회·쓰기는 InventoryJdbcRepository의 SQL로 수행하고, 이 엔티티는 스키마 정의 용도로 사용됩니다.
+ */
+@Entity
+@Table(name = "inventory_stripes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_inventory_stripes_product_stripe", columnNames = {"product_id", "stripe_no"})
+})
+public class InventoryStripe {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_stripes_seq")
+    @SequenceGenerator(name = "inventory_stripes_seq", sequenceName = "inventory_stripes_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "stripe_no", nullable = false)
+    private Integer stripeNo;
+
+    @Column(nullable = false)
+    private Integer quantity = 0;
+
+    // 누적 쓰기 횟수 (컴팩터가 인스턴스와 무관하게 상품의 쓰기 빈도를 계산하는 데 사용)
+    @Column(name = "write_count", nullable = false)
+    private Long writeCount = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getStripeNo() {
+        return stripeNo;
+    }
+
+    public void setStripeNo(Integer stripeNo) {
+        this.stripeNo = stripeNo;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Long getWriteCount() {
+        return writeCount;
+    }
+
+    public void setWriteCount(Long writeCount) {
+        this.writeCount = writeCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
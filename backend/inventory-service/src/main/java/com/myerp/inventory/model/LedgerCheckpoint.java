@@ -0,0 +1,52 @@
+package com.myerp.inventory.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * LedgerCheckpoint
+ * 메모리 재고 원장(StockLedger)의 저널별 DB 반영 위치를 기록하는 JPA Entity 클래스입니다.
+ * DB의 'inventory_ledger_checkpoints' 테이블과 매핑되며, 재고 반영과 같은 트랜잭션에서 갱신되므로
+ * 장애 후 저널을 재생할 때 이미 반영된 기록(flushedSeq 이하)을 중복 적용하지 않습니다.
+ */
+@Entity
+@Table(name = "inventory_ledger_checkpoints")
+public class LedgerCheckpoint {
+
+    @Id
+    @Column(name = "journal_id", length = 36)
+    private String journalId;
+
+    @Column(name = "flushed_seq", nullable = false)
+    private Long flushedSeq;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Getters and Setters
+
+    public String getJournalId() {
+        return journalId;
+    }
+
+    public void setJournalId(String journalId) {
+        this.journalId = journalId;
+    }
+
+    public Long getFlushedSeq() {
+        return flushedSeq;
+    }
+
+    public void setFlushedSeq(Long flushedSeq) {
+        this.flushedSeq = flushedSeq;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,96 @@
+package com.myerp.inventory.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ProductReplica
+ * Product 서비스의 상품 정보(이름, 카테고리, 단가, 상태) 중 재고 화면에 필요한 부분을 복제해 두는 JPA Entity 클래스입니다.
+ * DB의 'product_replicas' 테이블과 매핑되며, Product 서비스의 변경 피드(/products/changes)를 주기적으로 읽어 갱신합니다.
+ * 삭제된 상품도 deleted = true로 남겨 두어, 늦게 도착한 이전 변경이 삭제를 되돌리지 않도록 합니다.
+ */
+@Entity
+@Table(name = "product_replicas", indexes = {
+        @Index(name = "idx_product_replicas_updated_at", columnList = "updated_at") // 재기동 시 복제 위치 계산용
+})
+public class ProductReplica {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    private String name;
+
+    private String category;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal price;
+
+    private String status;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt; // Product 서비스 기준 마지막 변경 시각
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    // Getters and Setters
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+}
@@ -0,0 +1,118 @@
+package com.myerp.inventory.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * StockReservation
+ * 주문 확정 전 재고를 일정 시간(TTL) 동안 선점하는 "소프트 홀드"를 기록하는 JPA Entity 클래스입니다.
+ * DB의 'stock_reservations' 테이블과 매핑되며, 하나의 예약(reservationId)은 상품별 행 여러 개로 구성됩니다.
+ * 실제 가용 재고 계산은 메모리 인덱스(ReservationIndex)에서 수행하며, 이 테이블은 재시작 복구와 인스턴스 간 대조의 원본입니다.
+ */
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        @Index(name = "idx_stock_reservations_reservation_id", columnList = "reservation_id"),
+        @Index(name = "idx_stock_reservations_status_expires_at", columnList = "status, expires_at")
+})
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservations_seq")
+    @SequenceGenerator(name = "stock_reservations_seq", sequenceName = "stock_reservations_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "reservation_id", nullable = false, length = 36)
+    private String reservationId;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false, length = 20)
+    private String status; // ACTIVE, COMMITTED, RELEASED, EXPIRED
+
+    @Column(name = "reference_id", length = 50)
+    private String referenceId; // order ID, etc.
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(String referenceId) {
+        this.referenceId = referenceId;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,187 @@
+package com.myerp.inventory.repository;
+
+import com.myerp.inventory.dto.ReorderSuggestionDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * ConsumptionRateJdbcRepository
+ * 상품별 출고 수요 EWMA(consumption_rates)를 누적 갱신하고, 재주문점 제안 값을 계산·조회하는 저장소입니다.
+ * 수요 값은 기준 시각과 함께 저장되며, 두 값을 합칠 때는 더 이른 쪽을 늦은 기준 시각까지 감쇠시킨 뒤 더합니다.
+ * 이 합산은 순서와 무관하므로 여러 인스턴스가 같은 상품의 출고를 각자 모아 반영해도 결과가 같습니다.
+ * 감쇠 계수 exp(-경과 초 / tau)의 지수는 700에서 잘라 오래된 값에서도 float8 underflow 오류가 나지 않게 합니다.
+ */
+@Repository
+public class ConsumptionRateJdbcRepository {
+
+    private static final String LATER = "GREATEST(c.last_event_at, EXCLUDED.last_event_at)";
+
+    private static final String ADD_SQL = "INSERT INTO consumption_rates AS c "
+            + "(product_id, daily_rate, daily_variance, last_event_at) VALUES (?, ?, ?, ?) "
+            + "ON CONFLICT (product_id) DO UPDATE SET "
+            + "daily_rate = c.daily_rate * " + decay(LATER, "c.last_event_at")
+            + "           + EXCLUDED.daily_rate * " + decay(LATER, "EXCLUDED.last_event_at") + ", "
+            + "daily_variance = c.daily_variance * " + decay(LATER, "c.last_event_at")
+            + "               + EXCLUDED.daily_variance * " + decay(LATER, "EXCLUDED.last_event_at") + ", "
+            + "last_event_at = " + LATER;
+
+    // 최근 출고 이력에서 첫 값을 만듭니다. (가중치는 now 기준 감쇠, 기준 시각은 now)
+    private static final String SEED_SQL = "INSERT INTO consumption_rates (product_id, daily_rate, daily_variance, last_event_at) "
+            + "SELECT h.product_id, SUM(-h.quantity_changed * h.w) / ?, SUM(h.quantity_changed::float8 ^ 2 * h.w) / ?, ? "
+            + "FROM (SELECT product_id, quantity_changed, " + decay("?::timestamp", "created_at") + " AS w "
+            + "      FROM inventory_histories "
+            + "      WHERE type = 'OUTBOUND' AND quantity_changed < 0 AND created_at >= ? AND created_at < ?) h "
+            + "GROUP BY h.product_id "
+            + "ON CONFLICT (product_id) DO NOTHING";
+
+    // [fromProductId, toProductId) 범위의 수요를 now까지 감쇠시켜 재주문점과 재고 소진 일수를 계산합니다.
+    private static final String SUGGEST_SQL = "UPDATE consumption_rates c "
+            + "SET reorder_point = ceil(d.rate * ? + ? * sqrt(d.variance * ?))::int, "
+            + "    days_of_cover = CASE WHEN d.rate > 0.000001 THEN GREATEST(d.on_hand, 0) / d.rate END, "
+            + "    suggested_at = ? "
+            + "FROM (SELECT r.product_id, r.daily_rate * x.w AS rate, r.daily_variance * x.w AS variance, "
+            + "             COALESCE(i.quantity, 0) + COALESCE(s.total, 0) AS on_hand "
+            + "      FROM consumption_rates r "
+            + "      CROSS JOIN LATERAL (SELECT " + decay("?::timestamp", "r.last_event_at") + " AS w) x "
+            + "      LEFT JOIN inventories i ON i.product_id = r.product_id "
+            + "      LEFT JOIN (SELECT product_id, SUM(quantity) AS total FROM inventory_stripes "
+            + "                 WHERE product_id >= ? AND product_id < ? GROUP BY product_id) s "
+            + "             ON s.product_id = r.product_id "
+            + "      WHERE r.product_id >= ? AND r.product_id < ?) d "
+            + "WHERE c.product_id = d.product_id";
+
+    private static final String APPLY_MIN_STOCK_SQL = "UPDATE inventories i "
+            + "SET min_stock = c.reorder_point, version = i.version + 1 "
+            + "FROM consumption_rates c "
+            + "WHERE c.product_id = i.product_id AND c.product_id >= ? AND c.product_id < ? "
+            + "  AND c.reorder_point IS NOT NULL AND i.min_stock <> c.reorder_point";
+
+    // 재고 소진이 임박한 순 (계산된 적 없는 상품은 제외)
+    private static final String SUGGESTIONS_SQL = "SELECT c.product_id, c.daily_rate * x.w, c.daily_variance * x.w, "
+            + "       i.quantity + COALESCE((SELECT SUM(s.quantity) FROM inventory_stripes s WHERE s.product_id = c.product_id), 0), "
+            + "       i.min_stock, c.reorder_point, c.days_of_cover, c.suggested_at "
+            + "FROM consumption_rates c "
+            + "CROSS JOIN LATERAL (SELECT " + decay("?::timestamp", "c.last_event_at") + " AS w) x "
+            + "LEFT JOIN inventories i ON i.product_id = c.product_id "
+            + "WHERE c.suggested_at IS NOT NULL "
+            + "ORDER BY c.days_of_cover ASC NULLS LAST, c.product_id "
+            + "LIMIT ? OFFSET ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ConsumptionRateJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // from 시각의 값을 to 시각까지 감쇠시키는 계수 (tau 초는 바인딩 파라미터, to가 더 이르면 1)
+    private static String decay(String to, String from) {
+        return "exp(-LEAST(GREATEST(EXTRACT(EPOCH FROM (" + to + " - " + from + "))::float8, 0) / ?, 700))";
+    }
+
+    /**
+     * 상품별로 모은 수요를 기존 값에 합칩니다. 여러 인스턴스의 동시 반영 간 데드락이 없도록 productId 순서로 전달해야 합니다.
+     *
+     * @param tauSeconds 감쇠 시간 상수(초)
+     */
+    public void addAll(Map<Long, Rate> rates, double tauSeconds) {
+        if (rates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_SQL, new ArrayList<>(rates.entrySet()), rates.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getKey());
+            ps.setDouble(2, entry.getValue().dailyRate());
+            ps.setDouble(3, entry.getValue().dailyVariance());
+            ps.setTimestamp(4, Timestamp.valueOf(entry.getValue().at()));
+            for (int i = 5; i <= 8; i++) {
+                ps.setDouble(i, tauSeconds);
+            }
+        });
+    }
+
+    /**
+     * 첫 값 적재 트랜잭션끼리 직렬화합니다. (여러 인스턴스가 동시에 기동해도 이력을 한 번만 읽도록)
+     */
+    public void lockSeed() {
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(hashtext('consumption_rates'))");
+    }
+
+    public boolean isEmpty() {
+        return !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM consumption_rates)", Boolean.class));
+    }
+
+    /**
+     * [from, now) 구간의 출고 이력으로 상품별 첫 값을 만들고, 만든 상품 수를 반환합니다.
+     */
+    public int seed(LocalDateTime from, LocalDateTime now, double tauSeconds, double tauDays) {
+        Timestamp nowTs = Timestamp.valueOf(now);
+        return jdbcTemplate.update(SEED_SQL, tauDays, tauDays, nowTs, nowTs, tauSeconds,
+                Timestamp.valueOf(from), nowTs);
+    }
+
+    /**
+     * 수요 값이 있는 모든 상품 ID를 오름차순으로 조회합니다. (제안 계산 범위 분할용)
+     */
+    public List<Long> findProductIds() {
+        return jdbcTemplate.queryForList("SELECT product_id FROM consumption_rates ORDER BY product_id", Long.class);
+    }
+
+    /**
+     * [fromProductId, toProductId) 범위 상품의 재주문점과 재고 소진 일수를 계산해 저장하고, 갱신한 상품 수를 반환합니다.
+     * 재주문점 = 리드타임 수요(일 수요 × L) + z × √(일 분산 × L)
+     */
+    public int suggest(long fromProductId, long toProductId, LocalDateTime now, double tauSeconds,
+                       double leadTimeDays, double serviceLevelZ) {
+        Timestamp nowTs = Timestamp.valueOf(now);
+        return jdbcTemplate.update(SUGGEST_SQL, leadTimeDays, serviceLevelZ, leadTimeDays, nowTs, nowTs, tauSeconds,
+                fromProductId, toProductId, fromProductId, toProductId);
+    }
+
+    /**
+     * [fromProductId, toProductId) 범위 상품의 최소 유지 재고를 제안 재주문점으로 바꾸고, 바뀐 상품 수를 반환합니다.
+     */
+    public int applyMinStock(long fromProductId, long toProductId) {
+        return jdbcTemplate.update(APPLY_MIN_STOCK_SQL, fromProductId, toProductId);
+    }
+
+    /**
+     * 마지막 계산의 제안 값을 재고 소진이 임박한 순으로 조회합니다. 일 수요·표준편차는 now 기준으로 감쇠된 값입니다.
+     */
+    public List<ReorderSuggestionDto> findSuggestions(LocalDateTime now, double tauSeconds, int offset, int limit) {
+        return jdbcTemplate.query(SUGGESTIONS_SQL, (rs, rowNum) -> {
+            ReorderSuggestionDto dto = new ReorderSuggestionDto();
+            dto.setProductId(rs.getLong(1));
+            dto.setDailyConsumption(rs.getDouble(2));
+            dto.setDailyStdDev(Math.sqrt(rs.getDouble(3)));
+            dto.setOnHand(rs.getObject(4, Integer.class));
+            dto.setMinStock(rs.getObject(5, Integer.class));
+            dto.setReorderPoint(rs.getObject(6, Integer.class));
+            dto.setDaysOfCover(rs.getObject(7, Double.class));
+            Timestamp suggestedAt = rs.getTimestamp(8);
+            dto.setSuggestedAt(suggestedAt != null ? suggestedAt.toLocalDateTime() : null);
+            return dto;
+        }, Timestamp.valueOf(now), tauSeconds, limit, offset);
+    }
+
+    /**
+     * 한 상품의 저장된 수요 값(기준 시각 포함)을 조회합니다.
+     */
+    public Optional<Rate> find(long productId) {
+        return jdbcTemplate.query("SELECT daily_rate, daily_variance, last_event_at FROM consumption_rates WHERE product_id = ?",
+                (rs, rowNum) -> new Rate(rs.getDouble(1), rs.getDouble(2), rs.getTimestamp(3).toLocalDateTime()),
+                productId).stream().findFirst();
+    }
+
+    /**
+     * at 시각 기준의 일 평균 출고 수량과 일 출고 분산.
+     */
+    public record Rate(double dailyRate, double dailyVariance, LocalDateTime at) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.myerp.inventory.repository;
+
+import com.myerp.inventory.model.HistoryArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface HistoryArchiveRepository extends JpaRepository<HistoryArchive, LocalDate> {
+    // 커서 위치보다 앞선(오래된) 보관 월을 최신순으로 조회
+    List<HistoryArchive> findByPeriodStartLessThanEqualOrderByPeriodStartDesc(LocalDate periodStart);
+}
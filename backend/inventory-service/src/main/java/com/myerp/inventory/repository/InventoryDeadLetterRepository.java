@@ -0,0 +1,9 @@
+package com.myerp.inventory.repository;
+
+import com.myerp.inventory.model.InventoryDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InventoryDeadLetterRepository extends JpaRepository<InventoryDeadLetter, Long> {
+}
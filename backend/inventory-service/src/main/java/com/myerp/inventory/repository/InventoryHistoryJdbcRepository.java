@@ -0,0 +1,72 @@
+package com.myerp.inventory.repository;
+
+import com.myerp.inventory.model.InventoryHistory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * InventoryHistoryJdbcRepository
+ * 대량의 재고 이력(InventoryHistory)을 JDBC 배치 INSERT로 기록하는 저장소입니다.
+ * 일괄 재고 조정처럼 한 트랜잭션에서 여러 이력을 남기는 경로는 엔티티 관리 비용 없이 이 클래스를 사용합니다.
+ * ID는 엔티티와 같은 inventory_histories_seq에서 pooled 방식(nextval 1회 = ID 50개)으로 할당하므로
+ * JPA로 저장된 이력과 충돌하지 않습니다.
+ */
+@Repository
+public class InventoryHistoryJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO inventory_histories "
+            + "(id, product_id, quantity_changed, type, reason, reference_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // InventoryHistory의 @SequenceGenerator allocationSize와 같아야 합니다.
+    private static final int ALLOCATION_SIZE = 50;
+    private static final String NEXT_BLOCKS_SQL =
+            "SELECT nextval('inventory_histories_seq') FROM generate_series(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventoryHistoryJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 이력 목록을 현재 트랜잭션의 커넥션에서 배치로 INSERT 합니다.
+     * createdAt이 비어 있는 이력은 현재 시각으로 기록됩니다.
+     */
+    public void batchInsert(List<InventoryHistory> histories) {
+        if (histories.isEmpty()) {
+            return;
+        }
+        long[] ids = allocateIds(histories.size());
+        for (int i = 0; i < histories.size(); i++) {
+            histories.get(i).setId(ids[i]);
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, histories, histories.size(), (ps, history) -> {
+            ps.setLong(1, history.getId());
+            ps.setLong(2, history.getProductId());
+            ps.setInt(3, history.getQuantityChanged());
+            ps.setString(4, history.getType());
+            ps.setString(5, history.getReason());
+            ps.setString(6, history.getReferenceId());
+            ps.setTimestamp(7, history.getCreatedAt() != null ? Timestamp.valueOf(history.getCreatedAt()) : now);
+        });
+    }
+
+    // nextval 값 v 하나가 [v - 49, v] 범위의 ID 블록을 뜻합니다. (Hibernate pooled 옵티마이저와 동일한 해석)
+    private long[] allocateIds(int count) {
+        int blocks = (count + ALLOCATION_SIZE - 1) / ALLOCATION_SIZE;
+        List<Long> highs = jdbcTemplate.queryForList(NEXT_BLOCKS_SQL, Long.class, blocks);
+        long[] ids = new long[count];
+        int index = 0;
+        for (long high : highs) {
+            for (long id = high - ALLOCATION_SIZE + 1; id <= high && index < count; id++) {
+                ids[index++] = id;
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,158 @@
+package com.myerp.inventory.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * InventoryHistoryPartitionRepository
+ * inventory_histories 테이블의 월 단위 범위 파티션(created_at 기준)을 관리하는 저장소입니다.
+ * 파티션 이름은 inventory_histories_pYYYYMM 형식이며, 어느 월 파티션에도 속하지 않는 행은 DEFAULT 파티션에 저장됩니다.
+ * Hibernate(ddl-auto)가 만든 일반 테이블은 convertToPartitioned로 한 번만 파티션 테이블로 전환합니다.
+ */
+@Repository
+public class InventoryHistoryPartitionRepository {
+
+    public static final String TABLE = "inventory_histories";
+    public static final String DEFAULT_PARTITION = TABLE + "_default";
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String COLUMNS = "id, product_id, quantity_changed, type, reason, reference_id, created_at, recorded_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventoryHistoryPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static String partitionName(YearMonth month) {
+        return TABLE + "_p" + month.format(SUFFIX);
+    }
+
+    /**
+     * 파티션 DDL을 수행하는 트랜잭션끼리 직렬화합니다. (여러 인스턴스의 유지보수 작업이 겹치지 않도록 트랜잭션 종료 시까지 유지)
+     */
+    public void lockMaintenance() {
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(hashtext('" + TABLE + "_maintenance'))");
+    }
+
+    /**
+     * inventory_histories가 이미 파티션 테이블(relkind = 'p')인지 확인합니다.
+     */
+    public boolean isPartitioned() {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)", String.class, TABLE);
+        return !kinds.isEmpty() && "p".equals(kinds.get(0));
+    }
+
+    /**
+     * 일반 테이블을 created_at 범위 파티션 테이블로 전환합니다. 호출자의 트랜잭션 안에서 실행해야 합니다.
+     * 1. 기존 테이블을 잠그고 이름을 바꾼 뒤 같은 컬럼 구성의 파티션 테이블(PK: id, created_at)과 DEFAULT 파티션 생성
+     * 2. 기존 데이터의 가장 오래된 월부터 lastMonth까지 월 파티션 생성
+     * 3. 데이터 복사 후 인덱스를 만들고 기존 테이블 삭제
+     */
+    public void convertToPartitioned(YearMonth lastMonth) {
+        String legacy = TABLE + "_unpartitioned";
+        jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + legacy);
+        jdbcTemplate.execute("ALTER TABLE " + legacy + " RENAME CONSTRAINT " + TABLE + "_pkey TO " + legacy + "_pkey");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_inventory_histories_created_at_id");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_inventory_histories_product_created_at_id");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_inventory_histories_recorded_at");
+
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " (LIKE " + legacy + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS) "
+                + "PARTITION BY RANGE (created_at)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN created_at SET NOT NULL");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT " + TABLE + "_pkey PRIMARY KEY (id, created_at)");
+        jdbcTemplate.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF " + TABLE + " DEFAULT");
+
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM " + legacy, Timestamp.class);
+        YearMonth month = oldest != null ? YearMonth.from(oldest.toLocalDateTime()) : lastMonth;
+        for (; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            jdbcTemplate.execute("CREATE TABLE " + partitionName(month) + " PARTITION OF " + TABLE
+                    + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        }
+
+        jdbcTemplate.update("INSERT INTO " + TABLE + " (" + COLUMNS + ") "
+                + "SELECT id, product_id, quantity_changed, type, reason, reference_id, COALESCE(created_at, now()), recorded_at "
+                + "FROM " + legacy);
+        createIndexes();
+        jdbcTemplate.execute("DROP TABLE " + legacy);
+    }
+
+    // InventoryHistory 엔티티의 @Index와 같은 이름이므로 Hibernate 스키마 갱신이 중복 생성하지 않습니다.
+    private void createIndexes() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_inventory_histories_created_at_id "
+                + "ON " + TABLE + " (created_at, id)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_inventory_histories_product_created_at_id "
+                + "ON " + TABLE + " (product_id, created_at, id)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_inventory_histories_recorded_at "
+                + "ON " + TABLE + " (recorded_at)");
+    }
+
+    /**
+     * 현재 연결된 월 파티션 목록을 오래된 순으로 조회합니다. (DEFAULT 파티션 제외)
+     */
+    public TreeSet<YearMonth> findPartitionMonths() {
+        TreeSet<YearMonth> months = new TreeSet<>();
+        jdbcTemplate.query("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = to_regclass(?)", rs -> {
+            String name = rs.getString(1);
+            if (name.startsWith(TABLE + "_p")) {
+                months.add(YearMonth.parse(name.substring(name.length() - 6), SUFFIX));
+            }
+        }, TABLE);
+        return months;
+    }
+
+    /**
+     * 월 파티션을 만들어 연결합니다. DEFAULT 파티션에 해당 월의 행이 있으면 새 파티션으로 옮긴 뒤 연결합니다.
+     * 호출자의 트랜잭션 안에서 실행해야 합니다.
+     */
+    public void createMonthlyPartition(YearMonth month) {
+        String partition = partitionName(month);
+        String from = "'" + month.atDay(1) + "'";
+        String to = "'" + month.plusMonths(1).atDay(1) + "'";
+        jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE " + TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                + " WHERE created_at >= " + from + " AND created_at < " + to + " RETURNING " + COLUMNS + ") "
+                + "INSERT INTO " + partition + " (" + COLUMNS + ") SELECT " + COLUMNS + " FROM moved");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + partition
+                + " FOR VALUES FROM (" + from + ") TO (" + to + ")");
+    }
+
+    /**
+     * 월 파티션의 모든 행을 (created_at, id) 내림차순으로 스트리밍합니다. 커서로 읽도록 트랜잭션 안에서 호출해야 합니다.
+     */
+    public void streamPartition(YearMonth month, int fetchSize, RowCallbackHandler handler) {
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(fetchSize);
+        streaming.query("SELECT " + COLUMNS + " FROM " + partitionName(month) + " ORDER BY created_at DESC, id DESC",
+                handler);
+    }
+
+    /**
+     * DETACH에 필요한 부모 테이블 잠금을 먼저 잡아 새 행 유입을 막고 파티션의 현재 행 수를 반환합니다.
+     * (파티션만 먼저 잠그면 INSERT와 잠금 순서가 엇갈려 데드락이 날 수 있습니다)
+     * 호출자의 트랜잭션이 끝날 때까지 이력 INSERT가 대기하므로, 오래된 파티션에만 사용합니다.
+     */
+    public long lockAndCount(YearMonth month) {
+        jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN ACCESS EXCLUSIVE MODE");
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + partitionName(month), Long.class);
+    }
+
+    /**
+     * 월 파티션을 분리하고 삭제합니다. 이후 해당 월에 들어오는 행은 DEFAULT 파티션에 저장됩니다.
+     */
+    public void dropPartition(YearMonth month) {
+        String partition = partitionName(month);
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+        jdbcTemplate.execute("DROP TABLE " + partition);
+    }
+}
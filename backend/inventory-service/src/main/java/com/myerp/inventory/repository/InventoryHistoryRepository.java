@@ -3,12 +3,31 @@ package com.myerp.inventory.repository;
 import com.myerp.inventory.model.InventoryHistory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+
 @Repository
 public interface InventoryHistoryRepository extends JpaRepository<InventoryHistory, Long> {
     Page<InventoryHistory> findByProductId(Long productId, Pageable pageable);
 
     Page<InventoryHistory> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    // 커서(createdAt, id) 이후의 이력을 최신순으로 조회 (count 쿼리 없음)
+    @Query("SELECT h FROM InventoryHistory h WHERE h.createdAt <= :createdAt " +
+            "AND (h.createdAt < :createdAt OR h.id < :id) " +
+            "ORDER BY h.createdAt DESC, h.id DESC")
+    Slice<InventoryHistory> scroll(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Pageable pageable);
+
+    // 특정 상품의 이력을 커서 기반으로 조회 (idx_inventory_histories_product_created_at_id 사용)
+    @Query("SELECT h FROM InventoryHistory h WHERE h.productId = :productId AND h.createdAt <= :createdAt " +
+            "AND (h.createdAt < :createdAt OR h.id < :id) " +
+            "ORDER BY h.createdAt DESC, h.id DESC")
+    Slice<InventoryHistory> scrollByProductId(@Param("productId") Long productId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
 }
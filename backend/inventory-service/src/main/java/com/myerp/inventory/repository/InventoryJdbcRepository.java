@@ -0,0 +1,284 @@
+package com.myerp.inventory.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * InventoryJdbcRepository
+ * 재고 수량을 "읽고-수정하고-쓰기" 없이 DB에서 원자적으로 증감하는 저장소입니다.
+ * quantity = quantity + delta 형태의 단일 UPDATE 문으로 반영하므로 동시 주문에서도 갱신 손실이 없고,
+ * 행 잠금은 문장 하나가 실행되는 동안만 유지됩니다. 재고 행이 없는 신규 상품은 UPSERT로 생성합니다.
+ * version 컬럼도 함께 증가시켜 낙관적 잠금 모드로 읽은 엔티티가 충돌을 감지할 수 있게 합니다.
+ * Hot SKU(stripe 모드)의 증감은 inventory_stripes의 하위 행에 반영되며, 재고 조회는 항상 기본 행과 하위 행의 합을 반환합니다.
+ */
+@Repository
+public class InventoryJdbcRepository {
+
+    private static final String ADD_SQL = "UPDATE inventories SET quantity = quantity + ?, version = version + 1 "
+            + "WHERE product_id = ? RETURNING quantity, min_stock";
+
+    // nextval 하나가 pooled 블록 [v - 49, v]를 뜻하므로 블록의 마지막 값 v를 그대로 ID로 사용합니다.
+    private static final String UPSERT_SQL = "INSERT INTO inventories (id, product_id, quantity, min_stock, version) "
+            + "VALUES (nextval('inventories_seq'), ?, ?, 10, 0) "
+            + "ON CONFLICT (product_id) DO UPDATE "
+            + "SET quantity = inventories.quantity + EXCLUDED.quantity, version = inventories.version + 1 "
+            + "RETURNING quantity, min_stock";
+
+    // CTE에서 productId 순서로 행 잠금을 먼저 획득하여, 동시에 실행되는 일괄 조정 간 데드락을 방지합니다.
+    private static final String ADD_ALL_SQL = "WITH deltas AS ("
+            + "    SELECT * FROM unnest(?::bigint[], ?::int[]) AS d(product_id, delta)"
+            + "), locked AS ("
+            + "    SELECT i.id FROM inventories i JOIN deltas d ON d.product_id = i.product_id"
+            + "    ORDER BY i.product_id FOR UPDATE OF i"
+            + ") "
+            + "UPDATE inventories i SET quantity = i.quantity + d.delta, version = i.version + 1 "
+            + "FROM deltas d, locked l WHERE i.id = l.id AND d.product_id = i.product_id "
+            + "RETURNING i.product_id, i.quantity, i.min_stock";
+
+    private static final String ADD_TO_STRIPE_SQL = "UPDATE inventory_stripes "
+            + "SET quantity = quantity + ?, write_count = write_count + 1, updated_at = now() "
+            + "WHERE product_id = ? AND stripe_no = ?";
+
+    private static final String UPSERT_STRIPE_SQL = "INSERT INTO inventory_stripes "
+            + "(id, product_id, stripe_no, quantity, write_count, updated_at) "
+            + "VALUES (nextval('inventory_stripes_seq'), ?, ?, ?, 1, now()) "
+            + "ON CONFLICT (product_id, stripe_no) DO UPDATE "
+            + "SET quantity = inventory_stripes.quantity + EXCLUDED.quantity, "
+            + "write_count = inventory_stripes.write_count + 1, updated_at = now()";
+
+    private static final String CREATE_STRIPES_SQL = "INSERT INTO inventory_stripes "
+            + "(id, product_id, stripe_no, quantity, write_count, updated_at) "
+            + "SELECT nextval('inventory_stripes_seq'), ?, g, 0, 0, now() FROM generate_series(0, ? - 1) g "
+            + "ON CONFLICT (product_id, stripe_no) DO NOTHING";
+
+    // 현재 stripe_count 범위 밖의 하위 행(해제되었거나 축소된 stripe)을 삭제하면서 그 합계를 기본 행에 더합니다.
+    private static final String FOLD_SQL = "WITH moved AS ("
+            + "    DELETE FROM inventory_stripes s USING inventories i "
+            + "    WHERE s.product_id = ? AND i.product_id = s.product_id AND s.stripe_no >= i.stripe_count "
+            + "    RETURNING s.quantity"
+            + ") "
+            + "UPDATE inventories SET quantity = quantity + (SELECT COALESCE(SUM(quantity), 0) FROM moved), "
+            + "version = version + 1 WHERE product_id = ?";
+
+    private static final String ON_HAND_SQL = "SELECT i.product_id, i.quantity + COALESCE(s.total, 0) "
+            + "FROM inventories i LEFT JOIN ("
+            + "    SELECT product_id, SUM(quantity) AS total FROM inventory_stripes "
+            + "    WHERE product_id = ANY(?) GROUP BY product_id"
+            + ") s ON s.product_id = i.product_id "
+            + "WHERE i.product_id = ANY(?)";
+
+    private static final String LEVELS_SQL = "SELECT i.product_id, i.quantity + COALESCE(s.total, 0), i.min_stock "
+            + "FROM inventories i LEFT JOIN ("
+            + "    SELECT product_id, SUM(quantity) AS total FROM inventory_stripes "
+            + "    WHERE product_id = ANY(?) GROUP BY product_id"
+            + ") s ON s.product_id = i.product_id "
+            + "WHERE i.product_id = ANY(?)";
+
+    // 일반 상품은 행 하나로 판단하고, Hot SKU는 stripe 하위 행까지 합산해서 판단합니다. (stripe 상품은 idx_inventories_striped 사용)
+    private static final String LOW_STOCK_SQL = "SELECT product_id, quantity, min_stock FROM inventories "
+            + "WHERE stripe_count = 0 AND quantity <= min_stock "
+            + "UNION ALL "
+            + "SELECT i.product_id, i.quantity + COALESCE(SUM(s.quantity), 0), i.min_stock "
+            + "FROM inventories i LEFT JOIN inventory_stripes s ON s.product_id = i.product_id "
+            + "WHERE i.stripe_count > 0 "
+            + "GROUP BY i.product_id, i.quantity, i.min_stock "
+            + "HAVING i.quantity + COALESCE(SUM(s.quantity), 0) <= i.min_stock";
+
+    // 재고 평가용: 상품별 현재 재고와 복제된 상품 정보. 단가는 product_replicas.price(scale 2)를 정수(1/100 단위)로 읽습니다.
+    private static final String VALUATION_SQL = "SELECT i.quantity + COALESCE(s.total, 0), p.category, (p.price * 100)::bigint "
+            + "FROM inventories i "
+            + "LEFT JOIN (SELECT product_id, SUM(quantity) AS total FROM inventory_stripes GROUP BY product_id) s "
+            + "       ON s.product_id = i.product_id "
+            + "LEFT JOIN product_replicas p ON p.product_id = i.product_id";
+
+    private static final RowMapper<StockLevel> LEVEL_MAPPER = (rs, rowNum) -> new StockLevel(rs.getInt(1), rs.getInt(2));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventoryJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 상품 재고에 delta를 더하고 변경 후 수량과 최소 재고를 반환합니다. 재고 행이 없으면 생성합니다.
+     */
+    public StockLevel addQuantity(long productId, int delta) {
+        List<StockLevel> updated = jdbcTemplate.query(ADD_SQL, LEVEL_MAPPER, delta, productId);
+        if (!updated.isEmpty()) {
+            return updated.get(0);
+        }
+        // First stock movement for this product (or a concurrent insert won the race: ON CONFLICT adds to it)
+        return jdbcTemplate.queryForObject(UPSERT_SQL, LEVEL_MAPPER, productId, delta);
+    }
+
+    /**
+     * 상품의 최소 유지 재고를 변경합니다. 재고 행이 없으면 수량 0으로 생성합니다.
+     */
+    public void setMinStock(long productId, int minStock) {
+        jdbcTemplate.query(UPSERT_SQL, LEVEL_MAPPER, productId, 0); // make sure the row exists
+        jdbcTemplate.update("UPDATE inventories SET min_stock = ?, version = version + 1 WHERE product_id = ?",
+                minStock, productId);
+    }
+
+    /**
+     * Hot SKU의 stripe 하위 행 하나에 delta를 더합니다. 기본 inventories 행은 잠그지 않습니다.
+     */
+    public void addToStripe(long productId, int stripeNo, int delta) {
+        if (jdbcTemplate.update(ADD_TO_STRIPE_SQL, delta, productId, stripeNo) == 0) {
+            // Stripe row was folded away concurrently: recreate it (the compactor folds it again later)
+            jdbcTemplate.update(UPSERT_STRIPE_SQL, productId, stripeNo, delta);
+        }
+    }
+
+    /**
+     * 상품의 stripe 개수를 변경하고 필요한 하위 행을 미리 생성합니다. 0이면 stripe 모드를 해제합니다.
+     * 범위를 벗어난 기존 하위 행은 foldStripes로 기본 행에 합쳐집니다.
+     */
+    public void setStripeCount(long productId, int stripeCount) {
+        jdbcTemplate.query(UPSERT_SQL, LEVEL_MAPPER, productId, 0); // make sure the base row exists
+        jdbcTemplate.update("UPDATE inventories SET stripe_count = ? WHERE product_id = ?", stripeCount, productId);
+        if (stripeCount > 0) {
+            jdbcTemplate.update(CREATE_STRIPES_SQL, productId, stripeCount);
+        }
+    }
+
+    /**
+     * 현재 stripe_count 범위 밖의 하위 행을 기본 행에 합칩니다.
+     */
+    public void foldStripes(long productId) {
+        jdbcTemplate.update(FOLD_SQL, productId, productId);
+    }
+
+    /**
+     * stripe 모드인 상품과 stripe 개수를 조회합니다.
+     */
+    public Map<Long, Integer> findStripeCounts() {
+        Map<Long, Integer> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT product_id, stripe_count FROM inventories WHERE stripe_count > 0",
+                rs -> {
+                    counts.put(rs.getLong(1), rs.getInt(2));
+                });
+        return counts;
+    }
+
+    /**
+     * stripe 모드 상품별 누적 쓰기 횟수를 조회합니다. (컴팩터의 쓰기 빈도 계산용)
+     */
+    public Map<Long, Long> findStripeWriteCounts() {
+        Map<Long, Long> writes = new HashMap<>();
+        jdbcTemplate.query("SELECT s.product_id, SUM(s.write_count) FROM inventory_stripes s "
+                + "JOIN inventories i ON i.product_id = s.product_id WHERE i.stripe_count > 0 GROUP BY s.product_id",
+                rs -> {
+                    writes.put(rs.getLong(1), rs.getLong(2));
+                });
+        return writes;
+    }
+
+    /**
+     * 기본 행에 합쳐야 할 하위 행(stripe_no >= stripe_count)이 남아 있는 상품 ID를 조회합니다.
+     */
+    public List<Long> findProductsWithOrphanStripes() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT s.product_id FROM inventory_stripes s "
+                + "JOIN inventories i ON i.product_id = s.product_id WHERE s.stripe_no >= i.stripe_count", Long.class);
+    }
+
+    /**
+     * 모든 재고 행의 (현재 재고, 카테고리, 단가×100)을 fetchSize 행씩 스트리밍합니다. 상품 정보가 복제되지 않은 행은 카테고리와 단가가 null입니다.
+     * 커서로 읽도록 트랜잭션 안에서 호출해야 합니다.
+     */
+    public void streamValuationRows(int fetchSize, RowCallbackHandler handler) {
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(fetchSize);
+        streaming.query(VALUATION_SQL, handler);
+    }
+
+    /**
+     * 상품별 현재 재고(기본 행 + 모든 stripe 하위 행의 합)를 조회합니다. 재고 행이 없는 상품은 결과에 포함되지 않습니다.
+     */
+    public Map<Long, Integer> findOnHandQuantities(Collection<Long> productIds) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return quantities;
+        }
+        jdbcTemplate.query(ON_HAND_SQL, ps -> {
+            Array ids = ps.getConnection().createArrayOf("bigint", productIds.toArray());
+            ps.setArray(1, ids);
+            ps.setArray(2, ids);
+        }, rs -> {
+            quantities.put(rs.getLong(1), rs.getInt(2));
+        });
+        return quantities;
+    }
+
+    /**
+     * 상품별 현재 재고(기본 행 + stripe 하위 행의 합)와 최소 재고를 조회합니다.
+     */
+    public Map<Long, StockLevel> findStockLevels(Collection<Long> productIds) {
+        Map<Long, StockLevel> levels = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return levels;
+        }
+        jdbcTemplate.query(LEVELS_SQL, ps -> {
+            Array ids = ps.getConnection().createArrayOf("bigint", productIds.toArray());
+            ps.setArray(1, ids);
+            ps.setArray(2, ids);
+        }, rs -> {
+            levels.put(rs.getLong(1), new StockLevel(rs.getInt(2), rs.getInt(3)));
+        });
+        return levels;
+    }
+
+    /**
+     * 현재 재고가 최소 재고 이하인 모든 상품을 조회합니다. (저재고 인덱스 재구성용)
+     */
+    public Map<Long, StockLevel> findLowStockLevels() {
+        Map<Long, StockLevel> levels = new HashMap<>();
+        jdbcTemplate.query(LOW_STOCK_SQL, rs -> {
+            levels.put(rs.getLong(1), new StockLevel(rs.getInt(2), rs.getInt(3)));
+        });
+        return levels;
+    }
+
+    /**
+     * 여러 상품의 재고 증감을 하나의 UPDATE 문으로 반영하고, 상품 ID별 변경 후 수량과 최소 재고를 반환합니다.
+     * 재고 행이 없던 상품은 productId 순서대로 UPSERT 합니다.
+     *
+     * @param deltas productId 순으로 정렬된 상품별 증감 수량
+     */
+    public Map<Long, StockLevel> addQuantities(SortedMap<Long, Integer> deltas) {
+        Map<Long, StockLevel> levels = new HashMap<>();
+        if (deltas.isEmpty()) {
+            return levels;
+        }
+        jdbcTemplate.query(ADD_ALL_SQL, ps -> {
+            Array productIds = ps.getConnection().createArrayOf("bigint", deltas.keySet().toArray());
+            Array values = ps.getConnection().createArrayOf("integer", deltas.values().toArray());
+            ps.setArray(1, productIds);
+            ps.setArray(2, values);
+        }, rs -> {
+            levels.put(rs.getLong(1), new StockLevel(rs.getInt(2), rs.getInt(3)));
+        });
+        for (Map.Entry<Long, Integer> entry : deltas.entrySet()) {
+            if (!levels.containsKey(entry.getKey())) {
+                levels.put(entry.getKey(),
+                        jdbcTemplate.queryForObject(UPSERT_SQL, LEVEL_MAPPER, entry.getKey(), entry.getValue()));
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * 상품의 현재 재고 수량과 최소 유지 재고입니다.
+     */
+    public record StockLevel(int quantity, int minStock) {
+    }
+}
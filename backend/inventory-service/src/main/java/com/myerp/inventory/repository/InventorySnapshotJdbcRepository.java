@@ -0,0 +1,178 @@
+package com.myerp.inventory.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * InventorySnapshotJdbcRepository
+ * 상품별 재고 스냅샷(inventory_snapshots)을 생성하고 시점 재고 계산에 필요한 합계를 조회하는 저장소입니다.
+ * 스냅샷은 항상 직전 스냅샷 + 그 사이의 이력 증감으로 만들므로, 이력 테이블은 두 시점 사이의 파티션만 읽습니다.
+ * 첫 스냅샷만 현재 재고에서 그 시점 이후의 증감을 빼서 역산합니다.
+ * 각 스냅샷은 반영한 이력의 INSERT 시각(recorded_at) 상한을 함께 저장하고, 다음 스냅샷은 그 상한 이후에 늦게 기록된
+ * 이전 시각의 이력(비동기 기록, 원장 반영, 격리 이력 재처리)을 더해 누락을 바로잡습니다.
+ */
+@Repository
+public class InventorySnapshotJdbcRepository {
+
+    // 직전 스냅샷 + 아직 반영하지 않은 이력의 합. recorded_at(INSERT 시각) 상한으로 구간을 자르므로 늦게 기록된 이력도 한 번씩만 더해집니다.
+    // 1) [previousAt, snapshotAt) 발생분 중 recordedBefore 이전 기록 (recorded_at이 NULL인 전환 이전 행 포함)
+    // 2) previousAt 이전 발생분 중 직전 스냅샷 이후 [previousRecordedBefore, recordedBefore)에 늦게 기록된 행
+    // 새로 생긴 상품은 증감만으로 행이 만들어집니다.
+    private static final String INCREMENTAL_SQL = "INSERT INTO inventory_snapshots (id, snapshot_at, product_id, quantity, recorded_before) "
+            + "SELECT nextval('inventory_snapshots_seq'), ?, COALESCE(p.product_id, d.product_id), "
+            + "       (COALESCE(p.quantity, 0) + COALESCE(d.delta, 0))::int, ? "
+            + "FROM (SELECT product_id, quantity FROM inventory_snapshots WHERE snapshot_at = ?) p "
+            + "FULL OUTER JOIN ("
+            + "    SELECT product_id, SUM(quantity_changed) AS delta FROM ("
+            + "        SELECT product_id, quantity_changed FROM inventory_histories "
+            + "        WHERE created_at >= ? AND created_at < ? AND (recorded_at IS NULL OR recorded_at < ?) "
+            + "        UNION ALL "
+            + "        SELECT product_id, quantity_changed FROM inventory_histories "
+            + "        WHERE created_at < ? AND recorded_at >= ? AND recorded_at < ?"
+            + "    ) h GROUP BY product_id"
+            + ") d ON d.product_id = p.product_id "
+            + "ON CONFLICT (snapshot_at, product_id) DO NOTHING";
+
+    // 현재 재고(기본 행 + stripe 하위 행)에서 snapshotAt 이후의 증감을 뺀 값. 한 문장이므로 같은 MVCC 시점에서 계산됩니다.
+    private static final String ANCHOR_SQL = "INSERT INTO inventory_snapshots (id, snapshot_at, product_id, quantity, recorded_before) "
+            + "SELECT nextval('inventory_snapshots_seq'), ?, i.product_id, "
+            + "       (i.quantity + COALESCE(s.total, 0) - COALESCE(d.delta, 0))::int, ? "
+            + "FROM inventories i "
+            + "LEFT JOIN (SELECT product_id, SUM(quantity) AS total FROM inventory_stripes GROUP BY product_id) s "
+            + "       ON s.product_id = i.product_id "
+            + "LEFT JOIN (SELECT product_id, SUM(quantity_changed) AS delta FROM inventory_histories "
+            + "           WHERE created_at >= ? GROUP BY product_id) d ON d.product_id = i.product_id "
+            + "ON CONFLICT (snapshot_at, product_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventorySnapshotJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 스냅샷 생성 트랜잭션끼리 직렬화합니다. (여러 인스턴스가 같은 시점의 스냅샷을 동시에 만들지 않도록)
+     */
+    public void lockSnapshots() {
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(hashtext('inventory_snapshots'))");
+    }
+
+    public Optional<LocalDateTime> findLatestSnapshotAt() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(
+                "SELECT MAX(snapshot_at) FROM inventory_snapshots", Timestamp.class)).map(Timestamp::toLocalDateTime);
+    }
+
+    /**
+     * at 이전(같은 시각 포함)의 가장 가까운 스냅샷 시각을 조회합니다.
+     */
+    public Optional<LocalDateTime> findSnapshotAtOrBefore(LocalDateTime at) {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(
+                "SELECT MAX(snapshot_at) FROM inventory_snapshots WHERE snapshot_at <= ?", Timestamp.class,
+                Timestamp.valueOf(at))).map(Timestamp::toLocalDateTime);
+    }
+
+    /**
+     * at 이후의 가장 가까운 스냅샷 시각을 조회합니다. (첫 스냅샷보다 이전 시점을 조회할 때 사용)
+     */
+    public Optional<LocalDateTime> findSnapshotAfter(LocalDateTime at) {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(
+                "SELECT MIN(snapshot_at) FROM inventory_snapshots WHERE snapshot_at > ?", Timestamp.class,
+                Timestamp.valueOf(at))).map(Timestamp::toLocalDateTime);
+    }
+
+    /**
+     * 스냅샷 구간을 자를 INSERT 시각 상한을 DB 시계로 구합니다.
+     * settleMillis만큼 앞당겨, 그보다 먼저 INSERT되었지만 아직 커밋되지 않은 이력이 상한 안쪽에 남지 않도록 합니다.
+     */
+    public LocalDateTime findRecordCutoff(long settleMillis) {
+        return jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP - make_interval(secs => ? / 1000.0)",
+                Timestamp.class, settleMillis).toLocalDateTime();
+    }
+
+    /**
+     * 스냅샷이 반영한 이력의 INSERT 시각 상한을 조회합니다. (상한 도입 이전 스냅샷은 비어 있음)
+     */
+    public Optional<LocalDateTime> findRecordedBefore(LocalDateTime snapshotAt) {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(
+                "SELECT MAX(recorded_before) FROM inventory_snapshots WHERE snapshot_at = ?", Timestamp.class,
+                Timestamp.valueOf(snapshotAt))).map(Timestamp::toLocalDateTime);
+    }
+
+    /**
+     * 직전 스냅샷에 이후 기록된 이력을 더해 snapshotAt 스냅샷을 만듭니다.
+     * previousRecordedBefore가 없으면(상한 도입 이전 스냅샷) 늦게 기록된 이력은 찾지 않습니다.
+     */
+    public int createIncremental(LocalDateTime previousAt, LocalDateTime previousRecordedBefore,
+            LocalDateTime snapshotAt, LocalDateTime recordedBefore) {
+        Timestamp cutoff = Timestamp.valueOf(recordedBefore);
+        Timestamp lateFrom = previousRecordedBefore != null ? Timestamp.valueOf(previousRecordedBefore) : cutoff;
+        return jdbcTemplate.update(INCREMENTAL_SQL, Timestamp.valueOf(snapshotAt), cutoff, Timestamp.valueOf(previousAt),
+                Timestamp.valueOf(previousAt), Timestamp.valueOf(snapshotAt), cutoff,
+                Timestamp.valueOf(previousAt), lateFrom, cutoff);
+    }
+
+    public int createAnchor(LocalDateTime snapshotAt, LocalDateTime recordedBefore) {
+        return jdbcTemplate.update(ANCHOR_SQL, Timestamp.valueOf(snapshotAt), Timestamp.valueOf(recordedBefore),
+                Timestamp.valueOf(snapshotAt));
+    }
+
+    public Optional<Integer> findQuantity(LocalDateTime snapshotAt, long productId) {
+        List<Integer> quantities = jdbcTemplate.queryForList(
+                "SELECT quantity FROM inventory_snapshots WHERE snapshot_at = ? AND product_id = ?", Integer.class,
+                Timestamp.valueOf(snapshotAt), productId);
+        return quantities.stream().findFirst();
+    }
+
+    /**
+     * 스냅샷에 포함된 상품 ID를 오름차순으로 조회합니다. (일괄 계산의 범위 분할용)
+     */
+    public List<Long> findProductIds(LocalDateTime snapshotAt) {
+        return jdbcTemplate.queryForList(
+                "SELECT product_id FROM inventory_snapshots WHERE snapshot_at = ? ORDER BY product_id", Long.class,
+                Timestamp.valueOf(snapshotAt));
+    }
+
+    /**
+     * 스냅샷에서 [fromProductId, toProductId) 범위 상품의 수량을 조회합니다.
+     */
+    public Map<Long, Long> findQuantities(LocalDateTime snapshotAt, long fromProductId, long toProductId) {
+        Map<Long, Long> quantities = new HashMap<>();
+        jdbcTemplate.query("SELECT product_id, quantity FROM inventory_snapshots "
+                        + "WHERE snapshot_at = ? AND product_id >= ? AND product_id < ?",
+                rs -> {
+                    quantities.put(rs.getLong(1), rs.getLong(2));
+                }, Timestamp.valueOf(snapshotAt), fromProductId, toProductId);
+        return quantities;
+    }
+
+    /**
+     * 한 상품의 [from, to) 구간 이력 증감 합계를 조회합니다. (product_id, created_at 인덱스 사용)
+     */
+    public long sumDelta(long productId, LocalDateTime from, LocalDateTime to) {
+        Long delta = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity_changed), 0) FROM inventory_histories "
+                        + "WHERE product_id = ? AND created_at >= ? AND created_at < ?", Long.class,
+                productId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        return delta != null ? delta : 0;
+    }
+
+    /**
+     * [fromProductId, toProductId) 범위 상품별 [from, to) 구간 이력 증감 합계를 조회합니다.
+     */
+    public Map<Long, Long> sumDeltas(LocalDateTime from, LocalDateTime to, long fromProductId, long toProductId) {
+        Map<Long, Long> deltas = new HashMap<>();
+        jdbcTemplate.query("SELECT product_id, SUM(quantity_changed) FROM inventory_histories "
+                        + "WHERE created_at >= ? AND created_at < ? AND product_id >= ? AND product_id < ? "
+                        + "GROUP BY product_id",
+                rs -> {
+                    deltas.put(rs.getLong(1), rs.getLong(2));
+                }, Timestamp.valueOf(from), Timestamp.valueOf(to), fromProductId, toProductId);
+        return deltas;
+    }
+}
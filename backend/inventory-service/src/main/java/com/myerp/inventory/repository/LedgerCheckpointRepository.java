@@ -0,0 +1,20 @@
+package com.myerp.inventory.repository;
+
+import com.myerp.inventory.model.LedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LedgerCheckpointRepository extends JpaRepository<LedgerCheckpoint, String> {
+
+    // 저널의 DB 반영 위치를 기록 (재고 반영과 같은 트랜잭션에서 호출)
+    @Modifying
+    @Query(value = "INSERT INTO inventory_ledger_checkpoints (journal_id, flushed_seq, updated_at) " +
+            "VALUES (:journalId, :flushedSeq, now()) " +
+            "ON CONFLICT (journal_id) DO UPDATE SET flushed_seq = EXCLUDED.flushed_seq, updated_at = now()",
+            nativeQuery = true)
+    int saveCheckpoint(@Param("journalId") String journalId, @Param("flushedSeq") long flushedSeq);
+}
@@ -0,0 +1,86 @@
+package com.myerp.inventory.repository;
+
+import com.myerp.inventory.dto.ProductDto;
+import com.myerp.inventory.model.ProductReplica;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * ProductReplicaJdbcRepository
+ * 상품 정보 복제본(product_replicas)을 JDBC 배치 UPSERT로 갱신하고 상품 ID 목록으로 일괄 조회하는 저장소입니다.
+ * 같은 상품의 변경이 순서가 뒤바뀌어 도착하거나 여러 인스턴스가 같은 변경을 반영해도,
+ * updated_at이 더 최신인 변경만 반영되므로 결과가 같습니다.
+ */
+@Repository
+public class ProductReplicaJdbcRepository {
+
+    private static final String UPSERT_SQL = "INSERT INTO product_replicas "
+            + "(product_id, name, category, price, status, updated_at, deleted) VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (product_id) DO UPDATE SET name = EXCLUDED.name, category = EXCLUDED.category, "
+            + "price = EXCLUDED.price, status = EXCLUDED.status, updated_at = EXCLUDED.updated_at, deleted = EXCLUDED.deleted "
+            + "WHERE product_replicas.updated_at <= EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductReplicaJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void upsertAll(List<ProductDto> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, products, products.size(), (ps, product) -> {
+            ps.setLong(1, product.getId());
+            ps.setString(2, product.getName());
+            ps.setString(3, product.getCategory());
+            ps.setBigDecimal(4, product.getPrice());
+            ps.setString(5, product.getStatus());
+            ps.setTimestamp(6, Timestamp.valueOf(product.getUpdatedAt()));
+            ps.setBoolean(7, product.isDeleted());
+        });
+    }
+
+    /**
+     * 상품 ID 목록의 복제본을 한 번에 조회합니다. 복제본이 없는 상품은 결과에 포함되지 않습니다.
+     */
+    public Map<Long, ProductReplica> findByIds(Collection<Long> productIds) {
+        Map<Long, ProductReplica> replicas = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return replicas;
+        }
+        jdbcTemplate.query("SELECT product_id, name, category, price, status, updated_at, deleted "
+                + "FROM product_replicas WHERE product_id = ANY(?)", ps -> {
+            Array ids = ps.getConnection().createArrayOf("bigint", productIds.toArray());
+            ps.setArray(1, ids);
+        }, rs -> {
+            ProductReplica replica = new ProductReplica();
+            replica.setProductId(rs.getLong(1));
+            replica.setName(rs.getString(2));
+            replica.setCategory(rs.getString(3));
+            replica.setPrice(rs.getBigDecimal(4));
+            replica.setStatus(rs.getString(5));
+            replica.setUpdatedAt(rs.getTimestamp(6).toLocalDateTime());
+            replica.setDeleted(rs.getBoolean(7));
+            replicas.put(replica.getProductId(), replica);
+        });
+        return replicas;
+    }
+
+    /**
+     * 복제본에 반영된 가장 최근 변경 시각을 조회합니다. (복제본이 비어 있으면 empty)
+     */
+    public Optional<LocalDateTime> findLatestUpdatedAt() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(
+                "SELECT MAX(updated_at) FROM product_replicas", Timestamp.class)).map(Timestamp::toLocalDateTime);
+    }
+}
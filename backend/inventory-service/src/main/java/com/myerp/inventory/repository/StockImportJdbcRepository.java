@@ -0,0 +1,250 @@
+package com.myerp.inventory.repository;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * StockImportJdbcRepository
+ * 대량 재고 가져오기(CSV/NDJSON)를 임시 스테이징 테이블과 집합 SQL로 처리하는 저장소입니다.
+ * 1. 트랜잭션 전용 임시 테이블(inventory_import_rows)에 COPY로 행을 스트리밍
+ * 2. 상품별 증감(inventory_import_totals)을 한 문장으로 계산
+ * 3. 재고 행 잠금(productId 순) → 기존 행 UPDATE → 없는 행 INSERT → 이력 INSERT를 각각 한 문장으로 실행
+ * 모든 메서드는 같은 트랜잭션(같은 커넥션) 안에서 호출해야 하며, 임시 테이블은 커밋/롤백 시 삭제됩니다.
+ * 새 재고 행과 이력의 ID는 pooled 시퀀스 블록(nextval 1회 = ID 50개)으로 할당하므로 JPA 저장분과 충돌하지 않습니다.
+ */
+@Repository
+public class StockImportJdbcRepository {
+
+    // Inventory, InventoryHistory의 @SequenceGenerator allocationSize와 같아야 합니다.
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String CREATE_ROWS_SQL = "CREATE TEMP TABLE inventory_import_rows ("
+            + "line_no bigint, product_id bigint, quantity int, reason text, reference_id text) ON COMMIT DROP";
+
+    private static final String COPY_SQL = "COPY inventory_import_rows (line_no, product_id, quantity, reason, reference_id) "
+            + "FROM STDIN";
+
+    // delta 모드: 같은 상품의 행은 합산
+    private static final String DELTA_TOTALS_SQL = "CREATE TEMP TABLE inventory_import_totals ON COMMIT DROP AS "
+            + "SELECT r.product_id, SUM(r.quantity)::int AS delta, "
+            + "       NOT EXISTS (SELECT 1 FROM inventories i WHERE i.product_id = r.product_id) AS created, "
+            + "       NULL::text AS reason, NULL::text AS reference_id "
+            + "FROM inventory_import_rows r GROUP BY r.product_id";
+
+    // set 모드(재고 실사): 같은 상품은 마지막 행이 기준이며, 증감 = 실사 수량 - 현재 재고(기본 행 + stripe 하위 행)
+    private static final String COUNT_TOTALS_SQL = "CREATE TEMP TABLE inventory_import_totals ON COMMIT DROP AS "
+            + "SELECT t.product_id, (t.quantity - COALESCE(i.quantity, 0) - COALESCE(s.total, 0))::int AS delta, "
+            + "       i.product_id IS NULL AS created, t.reason, t.reference_id "
+            + "FROM (SELECT DISTINCT ON (product_id) product_id, quantity, reason, reference_id "
+            + "      FROM inventory_import_rows ORDER BY product_id, line_no DESC) t "
+            + "LEFT JOIN inventories i ON i.product_id = t.product_id "
+            + "LEFT JOIN (SELECT product_id, SUM(quantity) AS total FROM inventory_stripes "
+            + "           WHERE product_id IN (SELECT product_id FROM inventory_import_rows) GROUP BY product_id) s "
+            + "       ON s.product_id = t.product_id";
+
+    // 동시에 실행되는 일괄 조정(ADD_ALL_SQL)과 같은 productId 순서로 잠가 데드락을 방지합니다.
+    private static final String LOCK_SQL = "SELECT count(*) FROM ("
+            + "    SELECT 1 FROM inventories WHERE product_id IN (SELECT product_id FROM inventory_import_rows) "
+            + "    ORDER BY product_id FOR UPDATE"
+            + ") locked";
+
+    private static final String UPDATE_SQL = "UPDATE inventories i SET quantity = i.quantity + t.delta, version = i.version + 1 "
+            + "FROM inventory_import_totals t WHERE i.product_id = t.product_id AND NOT t.created AND t.delta <> 0";
+
+    // 잠금 이후 다른 트랜잭션이 같은 상품의 행을 먼저 만들었으면 증감을 더합니다.
+    private static final String INSERT_SQL = "WITH blocks AS MATERIALIZED ("
+            + "    SELECT g - 1 AS block_no, nextval('inventories_seq') AS high FROM generate_series(1, ?) g"
+            + ") "
+            + "INSERT INTO inventories (id, product_id, quantity, min_stock, version) "
+            + "SELECT b.high - " + (ALLOCATION_SIZE - 1) + " + t.rn % " + ALLOCATION_SIZE + ", t.product_id, t.delta, 10, 0 "
+            + "FROM (SELECT product_id, delta, row_number() OVER (ORDER BY product_id) - 1 AS rn "
+            + "      FROM inventory_import_totals WHERE created) t "
+            + "JOIN blocks b ON b.block_no = t.rn / " + ALLOCATION_SIZE + " "
+            + "ON CONFLICT (product_id) DO UPDATE "
+            + "SET quantity = inventories.quantity + EXCLUDED.quantity, version = inventories.version + 1";
+
+    // delta 모드: 가져온 행마다 이력 한 건 (유형은 buildHistory와 같은 규칙)
+    private static final String DELTA_HISTORY_SQL = "WITH blocks AS MATERIALIZED ("
+            + "    SELECT g - 1 AS block_no, nextval('inventory_histories_seq') AS high FROM generate_series(1, ?) g"
+            + ") "
+            + "INSERT INTO inventory_histories (id, product_id, quantity_changed, type, reason, reference_id, created_at) "
+            + "SELECT b.high - " + (ALLOCATION_SIZE - 1) + " + r.rn % " + ALLOCATION_SIZE + ", r.product_id, r.quantity, "
+            + "       CASE WHEN r.quantity > 0 THEN 'INBOUND' WHEN r.quantity < 0 THEN 'OUTBOUND' ELSE 'ADJUSTMENT' END, "
+            + "       r.reason, r.reference_id, ? "
+            + "FROM (SELECT *, row_number() OVER (ORDER BY line_no) - 1 AS rn FROM inventory_import_rows) r "
+            + "JOIN blocks b ON b.block_no = r.rn / " + ALLOCATION_SIZE;
+
+    // set 모드: 수량이 바뀐 상품마다 이력 한 건 (새 재고 행은 INIT, 기존 행은 ADJUSTMENT)
+    private static final String COUNT_HISTORY_SQL = "WITH blocks AS MATERIALIZED ("
+            + "    SELECT g - 1 AS block_no, nextval('inventory_histories_seq') AS high FROM generate_series(1, ?) g"
+            + ") "
+            + "INSERT INTO inventory_histories (id, product_id, quantity_changed, type, reason, reference_id, created_at) "
+            + "SELECT b.high - " + (ALLOCATION_SIZE - 1) + " + t.rn % " + ALLOCATION_SIZE + ", t.product_id, t.delta, "
+            + "       CASE WHEN t.created THEN 'INIT' ELSE 'ADJUSTMENT' END, COALESCE(t.reason, ?), t.reference_id, ? "
+            + "FROM (SELECT *, row_number() OVER (ORDER BY product_id) - 1 AS rn "
+            + "      FROM inventory_import_totals WHERE delta <> 0) t "
+            + "JOIN blocks b ON b.block_no = t.rn / " + ALLOCATION_SIZE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockImportJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 스테이징 테이블을 만들고 COPY를 시작합니다. 반환된 StagingCopy로 행을 쓴 뒤 finish를 호출해야 하며,
+     * 도중에 실패하면 반드시 cancel을 호출해야 합니다. (COPY가 열린 채로는 롤백도 커넥션 잠금을 기다리며 멈춤)
+     */
+    public StagingCopy beginCopy() {
+        jdbcTemplate.execute(CREATE_ROWS_SQL);
+        Connection connection = DataSourceUtils.getConnection(jdbcTemplate.getDataSource());
+        try {
+            return new StagingCopy(connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL));
+        } catch (SQLException e) {
+            throw new RuntimeException("재고 가져오기 스테이징 COPY를 시작하지 못했습니다.", e);
+        }
+    }
+
+    /**
+     * 스테이징된 행으로 상품별 증감을 계산하고 재고 행을 잠급니다.
+     *
+     * @param counting true면 set 모드(실사 수량으로 맞춤), false면 delta 모드(증감 합산)
+     * @return 대상 상품 수
+     */
+    public int prepareTotals(boolean counting) {
+        jdbcTemplate.execute("ANALYZE inventory_import_rows");
+        jdbcTemplate.queryForObject(LOCK_SQL, Long.class);
+        jdbcTemplate.execute(counting ? COUNT_TOTALS_SQL : DELTA_TOTALS_SQL);
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM inventory_import_totals", Integer.class);
+    }
+
+    /**
+     * 계산된 증감을 재고 행에 반영합니다. (기존 행 UPDATE 후 없는 상품의 행 INSERT)
+     */
+    public void applyTotals() {
+        jdbcTemplate.update(UPDATE_SQL);
+        int created = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM inventory_import_totals WHERE created", Integer.class);
+        if (created > 0) {
+            jdbcTemplate.update(INSERT_SQL, blocks(created));
+        }
+    }
+
+    /**
+     * 재고 이력을 기록하고 기록된 건수를 반환합니다.
+     *
+     * @param defaultReason set 모드에서 사유가 비어 있는 행에 기록할 사유
+     */
+    public int insertHistories(boolean counting, String defaultReason) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (counting) {
+            int changed = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM inventory_import_totals WHERE delta <> 0", Integer.class);
+            return changed == 0 ? 0 : jdbcTemplate.update(COUNT_HISTORY_SQL, blocks(changed), defaultReason, now);
+        }
+        int rows = jdbcTemplate.queryForObject("SELECT count(*) FROM inventory_import_rows", Integer.class);
+        return rows == 0 ? 0 : jdbcTemplate.update(DELTA_HISTORY_SQL, blocks(rows), now);
+    }
+
+    private static int blocks(int count) {
+        return (count + ALLOCATION_SIZE - 1) / ALLOCATION_SIZE;
+    }
+
+    /**
+     * 스테이징 테이블로 진행 중인 COPY입니다. 행을 COPY 텍스트 형식으로 인코딩해 일정 크기마다 전송하므로
+     * 가져오는 파일 크기와 관계없이 메모리 사용량이 일정합니다.
+     */
+    public static class StagingCopy {
+
+        private static final int CHUNK_BYTES = 64 * 1024;
+
+        private final CopyIn copyIn;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(CHUNK_BYTES + 1024);
+        private final StringBuilder line = new StringBuilder(128);
+
+        private StagingCopy(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        public void write(long lineNo, long productId, int quantity, String reason, String referenceId) {
+            line.setLength(0);
+            line.append(lineNo).append('\t').append(productId).append('\t').append(quantity).append('\t');
+            appendText(reason);
+            line.append('\t');
+            appendText(referenceId);
+            line.append('\n');
+            buffer.writeBytes(line.toString().getBytes(StandardCharsets.UTF_8));
+            if (buffer.size() >= CHUNK_BYTES) {
+                send();
+            }
+        }
+
+        /**
+         * 남은 행을 전송하고 COPY를 끝냅니다.
+         *
+         * @return 스테이징된 행 수
+         */
+        public long finish() {
+            send();
+            try {
+                return copyIn.endCopy();
+            } catch (SQLException e) {
+                throw new RuntimeException("재고 가져오기 스테이징 COPY를 완료하지 못했습니다.", e);
+            }
+        }
+
+        /**
+         * 진행 중인 COPY를 취소합니다. 이미 끝났거나 취소되었으면 아무것도 하지 않으므로 finally에서 호출해도 됩니다.
+         */
+        public void cancel() {
+            if (!copyIn.isActive()) {
+                return;
+            }
+            try {
+                copyIn.cancelCopy();
+            } catch (SQLException e) {
+                // the failure that led here is reported instead; the transaction rolls back either way
+            }
+        }
+
+        private void send() {
+            if (buffer.size() == 0) {
+                return;
+            }
+            try {
+                copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+            } catch (SQLException e) {
+                throw new RuntimeException("재고 가져오기 행을 전송하지 못했습니다.", e);
+            }
+            buffer.reset();
+        }
+
+        // COPY 텍스트 형식: NULL은 \N, 역슬래시·탭·줄바꿈은 이스케이프
+        private void appendText(String value) {
+            if (value == null) {
+                line.append("\\N");
+                return;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\' -> line.append("\\\\");
+                    case '\t' -> line.append("\\t");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    default -> line.append(c);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.myerp.inventory.repository;
+
+import com.myerp.inventory.model.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    List<StockReservation> findByReservationId(String reservationId);
+
+    List<StockReservation> findByStatus(String status);
+
+    // 인스턴스 간 홀드 대조용: 아직 만료되지 않은 예약만 조회 (status, expires_at 인덱스 사용)
+    List<StockReservation> findByStatusAndExpiresAtAfter(String status, LocalDateTime now);
+
+    // 예약 상태 전이: 기대 상태(from)일 때만 변경되므로 중복 커밋/해제 요청에 대해 멱등적으로 동작
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :to, r.referenceId = COALESCE(:referenceId, r.referenceId), "
+            + "r.updatedAt = CURRENT_TIMESTAMP WHERE r.reservationId = :reservationId AND r.status IN :from")
+    int transition(@Param("reservationId") String reservationId, @Param("from") Collection<String> from,
+            @Param("to") String to, @Param("referenceId") String referenceId);
+
+    // 예약 확정: 아직 만료되지 않은 ACTIVE 예약만 COMMITTED로 전이 (만료된 예약은 홀드가 이미 풀렸으므로 차감하지 않음)
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = 'COMMITTED', r.referenceId = COALESCE(:referenceId, r.referenceId), "
+            + "r.updatedAt = CURRENT_TIMESTAMP WHERE r.reservationId = :reservationId AND r.status = 'ACTIVE' "
+            + "AND r.expiresAt > :now")
+    int commitActive(@Param("reservationId") String reservationId, @Param("referenceId") String referenceId,
+            @Param("now") LocalDateTime now);
+
+    // 만료된 ACTIVE 예약을 한 번의 UPDATE로 일괄 만료 처리
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = 'EXPIRED', r.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE r.status = 'ACTIVE' AND r.expiresAt < :now")
+    int expireAll(@Param("now") LocalDateTime now);
+}
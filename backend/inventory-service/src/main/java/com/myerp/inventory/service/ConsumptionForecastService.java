@@ -0,0 +1,263 @@
+package com.myerp.inventory.service;
+
+import com.myerp.inventory.dto.ReorderSuggestionDto;
+import com.myerp.inventory.model.InventoryHistory;
+import com.myerp.inventory.repository.ConsumptionRateJdbcRepository;
+import com.myerp.inventory.repository.ConsumptionRateJdbcRepository.Rate;
+import com.myerp.inventory.repository.InventoryJdbcRepository;
+import com.myerp.inventory.repository.InventoryJdbcRepository.StockLevel;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * ConsumptionForecastService
+ * 상품별 출고 수요를 지수 가중 이동 평균(EWMA)으로 추적하고, 재주문점(reorder point)과 재고 소진 일수를 제안하는 서비스 클래스입니다.
+ * 출고(OUTBOUND) 이력이 커밋될 때마다 그 수량만 메모리에 상품별로 모았다가 flush-interval-ms마다 consumption_rates에 누적하므로,
+ * 이력 테이블을 다시 읽지 않고 요청 경로에는 DB 쓰기가 늘지 않습니다. (처음 기동 시에만 최근 이력으로 첫 값을 만듦)
+ * 수요는 시간 상수 tau(= 반감기 / ln 2)로 연속 감쇠하며, 출고 q건은 일 수요에 q / tau, 일 분산에 q² / tau를 더합니다.
+ * (출고 간격이 불규칙해도 일정한 수요 r에 대해 기대값이 r이 되는 추정식, 분산은 복합 포아송 수요 가정)
+ * 재주문점 = 일 수요 × 리드타임 + z × √(일 분산 × 리드타임) 이며, 주기 작업이 상품 ID 범위를 나누어 모든 상품을 병렬로 계산합니다.
+ * 대량 가져오기(초기 적재·실사 보정)의 증감은 판매 수요가 아니므로 반영하지 않습니다.
+ * 메모리에 모인 수요는 프로세스가 비정상 종료되면 마지막 flush 이후 분량만큼 유실됩니다.
+ */
+@Service
+public class ConsumptionForecastService {
+
+    private static final double SEED_WINDOW_TAUS = 10; // exp(-10) 미만의 가중치를 갖는 오래된 이력은 읽지 않음
+    private static final double SECONDS_PER_DAY = 86_400;
+
+    @Autowired
+    private ConsumptionRateJdbcRepository rateRepository;
+
+    @Autowired
+    private InventoryJdbcRepository inventoryJdbcRepository;
+
+    @Autowired
+    @Lazy // InventoryService -> ConsumptionForecastService -> InventoryService
+    private InventoryService inventoryService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.forecast.lead-time-days:7}")
+    private double leadTimeDays;
+
+    @Value("${inventory.forecast.service-level-z:1.65}")
+    private double serviceLevelZ;
+
+    @Value("${inventory.forecast.parallelism:4}")
+    private int parallelism;
+
+    @Value("${inventory.forecast.apply-to-min-stock:false}")
+    private boolean applyToMinStock;
+
+    private final double tauDays;
+    private final double tauSeconds;
+
+    // 아직 DB에 누적하지 않은 상품별 수요 (Rate.at 기준 값)
+    private final Map<Long, Rate> pending = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ConsumptionForecastService(@Value("${inventory.forecast.half-life-days:14}") double halfLifeDays) {
+        if (halfLifeDays <= 0) {
+            throw new RuntimeException("inventory.forecast.half-life-days는 0보다 커야 합니다.");
+        }
+        this.tauDays = halfLifeDays / Math.log(2);
+        this.tauSeconds = tauDays * SECONDS_PER_DAY;
+    }
+
+    /**
+     * 기록된 재고 이력 중 출고 이력의 수량을 수요로 모읍니다. 트랜잭션 안이면 커밋된 뒤에만 반영합니다.
+     */
+    public void record(List<InventoryHistory> histories) {
+        List<InventoryHistory> outbound = new ArrayList<>();
+        for (InventoryHistory history : histories) {
+            if ("OUTBOUND".equals(history.getType()) && history.getQuantityChanged() < 0) {
+                outbound.add(history);
+            }
+        }
+        if (outbound.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outbound.forEach(this::accumulate);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outbound.forEach(ConsumptionForecastService.this::accumulate);
+            }
+        });
+    }
+
+    private void accumulate(InventoryHistory history) {
+        double quantity = -history.getQuantityChanged();
+        LocalDateTime at = history.getCreatedAt() != null ? history.getCreatedAt() : LocalDateTime.now();
+        pending.merge(history.getProductId(), new Rate(quantity / tauDays, quantity * quantity / tauDays, at), this::combine);
+    }
+
+    /**
+     * 모아 둔 수요를 productId 순으로 consumption_rates에 누적합니다. 실패하면 다음 flush에서 다시 시도합니다.
+     */
+    @Scheduled(fixedDelayString = "${inventory.forecast.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        TreeMap<Long, Rate> batch = new TreeMap<>();
+        for (Long productId : pending.keySet()) {
+            Rate rate = pending.remove(productId);
+            if (rate != null) {
+                batch.put(productId, rate);
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> rateRepository.addAll(batch, tauSeconds));
+        } catch (RuntimeException e) {
+            batch.forEach((productId, rate) -> pending.merge(productId, rate, this::combine));
+            throw e;
+        }
+    }
+
+    /**
+     * 수요 테이블이 비어 있으면 최근 출고 이력(tau의 10배, 반감기의 약 14배 구간)으로 첫 값을 만듭니다. (처음 한 번만 이력을 읽음)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            rateRepository.lockSeed();
+            if (rateRepository.isEmpty()) {
+                LocalDateTime now = LocalDateTime.now();
+                rateRepository.seed(now.minusSeconds((long) (tauSeconds * SEED_WINDOW_TAUS)), now, tauSeconds, tauDays);
+            }
+        });
+    }
+
+    /**
+     * 수요 값이 있는 모든 상품의 재주문점과 재고 소진 일수를 다시 계산합니다.
+     * 상품 ID 범위를 parallelism개로 나누어 범위마다 한 번의 UPDATE를 동시에 실행하며,
+     * apply-to-min-stock이 켜져 있으면 같은 트랜잭션에서 최소 유지 재고도 제안 값으로 바꾼 뒤 저재고 인덱스를 다시 구성합니다.
+     */
+    @Scheduled(cron = "${inventory.forecast.cron:0 15 * * * *}")
+    public synchronized void computeSuggestions() {
+        flush();
+        LocalDateTime now = LocalDateTime.now();
+
+        // Split the product id space at quantiles so each range carries a similar number of rows
+        List<Long> productIds = rateRepository.findProductIds();
+        if (productIds.isEmpty()) {
+            return;
+        }
+        int parts = Math.max(1, Math.min(parallelism, productIds.size()));
+        long[] bounds = new long[parts + 1];
+        bounds[0] = Long.MIN_VALUE;
+        bounds[parts] = Long.MAX_VALUE;
+        for (int i = 1; i < parts; i++) {
+            bounds[i] = productIds.get(i * productIds.size() / parts);
+        }
+
+        List<Future<?>> futures = new ArrayList<>(parts);
+        for (int i = 0; i < parts; i++) {
+            long fromProductId = bounds[i];
+            long toProductId = bounds[i + 1];
+            futures.add(executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                rateRepository.suggest(fromProductId, toProductId, now, tauSeconds, leadTimeDays, serviceLevelZ);
+                if (applyToMinStock) {
+                    rateRepository.applyMinStock(fromProductId, toProductId);
+                }
+            })));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("재주문점 일괄 계산에 실패했습니다.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("재주문점 일괄 계산 중 인터럽트되었습니다.", e);
+        }
+        if (applyToMinStock) {
+            inventoryService.rebuildLowStockIndex();
+        }
+    }
+
+    /**
+     * 마지막 일괄 계산의 제안 값을 재고 소진이 임박한 순으로 조회합니다.
+     */
+    public List<ReorderSuggestionDto> getSuggestions(int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new RuntimeException("잘못된 페이지 요청입니다.");
+        }
+        int limit = Math.min(size, 500);
+        return rateRepository.findSuggestions(LocalDateTime.now(), tauSeconds, page * limit, limit);
+    }
+
+    /**
+     * 한 상품의 수요 예측과 재주문점을 현재 시각 기준으로 바로 계산합니다. (아직 DB에 누적되지 않은 수요와 원장의 미반영 증감 포함)
+     */
+    public ReorderSuggestionDto getForecast(Long productId) {
+        LocalDateTime now = LocalDateTime.now();
+        Rate rate = rateRepository.find(productId).orElse(new Rate(0, 0, now));
+        Rate unflushed = pending.get(productId);
+        if (unflushed != null) {
+            rate = combine(rate, unflushed);
+        }
+        double weight = decay(rate.at(), now);
+        double daily = rate.dailyRate() * weight;
+        double variance = rate.dailyVariance() * weight;
+
+        Integer onHand = inventoryService.getOnHandQuantities(List.of(productId)).get(productId);
+        StockLevel level = inventoryJdbcRepository.findStockLevels(List.of(productId)).get(productId);
+
+        ReorderSuggestionDto dto = new ReorderSuggestionDto();
+        dto.setProductId(productId);
+        dto.setDailyConsumption(daily);
+        dto.setDailyStdDev(Math.sqrt(variance));
+        dto.setOnHand(onHand);
+        dto.setMinStock(level != null ? level.minStock() : null);
+        dto.setReorderPoint((int) Math.ceil(daily * leadTimeDays + serviceLevelZ * Math.sqrt(variance * leadTimeDays)));
+        dto.setDaysOfCover(daily > 0.000001 ? Math.max(onHand != null ? onHand : 0, 0) / daily : null);
+        dto.setSuggestedAt(now);
+        return dto;
+    }
+
+    // 두 수요 값을 늦은 쪽 기준 시각으로 맞춰 더합니다. (순서와 무관)
+    private Rate combine(Rate a, Rate b) {
+        LocalDateTime later = a.at().isAfter(b.at()) ? a.at() : b.at();
+        double wa = decay(a.at(), later);
+        double wb = decay(b.at(), later);
+        return new Rate(a.dailyRate() * wa + b.dailyRate() * wb, a.dailyVariance() * wa + b.dailyVariance() * wb, later);
+    }
+
+    private double decay(LocalDateTime from, LocalDateTime to) {
+        double seconds = Math.max(0, Duration.between(from, to).toMillis() / 1000.0);
+        return Math.exp(-Math.min(seconds / tauSeconds, 700));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        flush();
+    }
+}
@@ -0,0 +1,371 @@
+package com.myerp.inventory.service;
+
+import com.myerp.inventory.dto.CursorPage;
+import com.myerp.inventory.model.HistoryArchive;
+import com.myerp.inventory.model.InventoryHistory;
+import com.myerp.inventory.repository.HistoryArchiveRepository;
+import com.myerp.inventory.repository.InventoryHistoryPartitionRepository;
+import com.myerp.inventory.repository.InventorySnapshotJdbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HistoryArchiveService
+ * 재고 이력(inventory_histories)의 월 파티션 유지와 오래된 파티션의 보관(archival)을 담당하는 서비스 클래스입니다.
+ * 1. 기동 시 일반 테이블이면 created_at 범위 파티션 테이블로 전환하고, 주기적으로 앞으로 사용할 월 파티션을 미리 생성합니다.
+ * 2. 보관 기간(archive.after-months)이 지난 월 파티션은 gzip 압축 TSV 파일로 내보낸 뒤 DB에서 분리·삭제합니다.
+ * 3. 이력 조회가 DB(최근 파티션)의 끝에 도달하면 보관 파일을 최신 월부터 이어서 읽어 같은 커서 흐름으로 돌려줍니다.
+ * 보관 파일은 (created_at, id) 내림차순으로 기록되므로, 커서 이후 필요한 건수만 읽고 멈출 수 있습니다.
+ * 파일은 block-rows 행마다 독립된 gzip 멤버(블록)로 나누어 쓰고 블록별 첫 행 키와 바이트 위치(희소 색인)를 함께 기록하므로,
+ * 깊은 페이지도 커서가 속한 블록으로 바로 이동해 그 블록부터만 압축을 풉니다. (이어 붙인 gzip 멤버는 일반 gzip 파일로도 읽힘)
+ */
+@Service
+public class HistoryArchiveService {
+
+    private static final String NULL = "\\N";
+
+    @Autowired
+    private InventoryHistoryPartitionRepository partitionRepository;
+
+    @Autowired
+    private HistoryArchiveRepository historyArchiveRepository;
+
+    @Autowired
+    private InventorySnapshotJdbcRepository inventorySnapshotJdbcRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.history.partitions.premake-months:3}")
+    private int premakeMonths;
+
+    @Value("${inventory.history.archive.enabled:true}")
+    private boolean archiveEnabled;
+
+    @Value("${inventory.history.archive.after-months:12}")
+    private int archiveAfterMonths;
+
+    @Value("${inventory.history.archive.path:./data/history-archive}")
+    private String archivePath;
+
+    @Value("${inventory.history.archive.block-rows:10000}")
+    private int blockRows;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepare() {
+        maintain();
+    }
+
+    /**
+     * 1. 파티션 테이블 전환(최초 1회)
+     * 2. 이번 달부터 premake-months개월 뒤까지 빠진 월 파티션 생성
+     * 3. 보관 기간이 지난 월 파티션을 파일로 보관 (최신 재고 스냅샷이 속한 월과 그 이후는 보관하지 않음)
+     * 여러 인스턴스가 동시에 실행해도 advisory lock으로 한 번에 하나만 DDL을 수행합니다.
+     */
+    @Scheduled(cron = "${inventory.history.maintenance-cron:0 30 3 * * *}")
+    public synchronized void maintain() {
+        YearMonth current = YearMonth.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            partitionRepository.lockMaintenance();
+            if (!partitionRepository.isPartitioned()) {
+                partitionRepository.convertToPartitioned(current.plusMonths(premakeMonths));
+            }
+            TreeSet<YearMonth> existing = partitionRepository.findPartitionMonths();
+            for (YearMonth month = current; !month.isAfter(current.plusMonths(premakeMonths)); month = month.plusMonths(1)) {
+                if (!existing.contains(month)) {
+                    partitionRepository.createMonthlyPartition(month);
+                }
+            }
+        });
+
+        // Never archive history the next incremental snapshot still has to read (nothing before the first snapshot)
+        Optional<LocalDateTime> latestSnapshot = inventorySnapshotJdbcRepository.findLatestSnapshotAt();
+        if (archiveEnabled && latestSnapshot.isPresent()) {
+            YearMonth cutoff = current.minusMonths(archiveAfterMonths);
+            if (YearMonth.from(latestSnapshot.get()).isBefore(cutoff)) {
+                cutoff = YearMonth.from(latestSnapshot.get());
+            }
+            for (YearMonth month : partitionRepository.findPartitionMonths().headSet(cutoff)) {
+                archive(month);
+            }
+        }
+    }
+
+    /**
+     * 월 파티션을 압축 파일로 내보내고, 내보낸 행 수와 파티션의 행 수가 같을 때만 파티션을 분리·삭제합니다.
+     * 파일은 임시 파일에 쓰고 디스크 동기화 후 이름을 바꾸므로, 중간에 실패하면 다음 실행에서 처음부터 다시 보관합니다.
+     */
+    public void archive(YearMonth month) {
+        Path directory = Paths.get(archivePath);
+        Path target = directory.resolve(InventoryHistoryPartitionRepository.partitionName(month) + ".tsv.gz");
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+
+        Export exported;
+        try {
+            Files.createDirectories(directory);
+            exported = export(month, temp);
+        } catch (IOException e) {
+            throw new RuntimeException("재고 이력 보관 파일을 쓸 수 없습니다: " + temp, e);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            partitionRepository.lockMaintenance();
+            if (partitionRepository.lockAndCount(month) != exported.rows()) {
+                // Rows arrived after the export: leave the partition in place and retry on the next run
+                status.setRollbackOnly();
+                return;
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new RuntimeException("재고 이력 보관 파일을 저장할 수 없습니다: " + target, e);
+            }
+            HistoryArchive archive = new HistoryArchive();
+            archive.setPeriodStart(month.atDay(1));
+            archive.setFilePath(target.toAbsolutePath().toString());
+            archive.setRowCount(exported.rows());
+            archive.setBlockIndex(exported.blockIndex());
+            archive.setArchivedAt(LocalDateTime.now());
+            historyArchiveRepository.save(archive);
+            partitionRepository.dropPartition(month);
+        });
+    }
+
+    // 파티션을 block-rows 행마다 새 gzip 멤버로 나누어 쓰고, 각 블록의 시작 위치를 희소 색인으로 함께 반환합니다.
+    private Export export(YearMonth month, Path file) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file.toFile())) {
+            BlockWriter blocks = new BlockWriter(out);
+            transactionTemplate.executeWithoutResult(status -> partitionRepository.streamPartition(month, 1000, rs -> {
+                try {
+                    long id = rs.getLong(1);
+                    LocalDateTime createdAt = rs.getTimestamp(7).toLocalDateTime();
+                    blocks.startRow(id, createdAt);
+                    blocks.writer.write(id + "\t" + rs.getLong(2) + "\t" + rs.getInt(3) + "\t"
+                            + escape(rs.getString(4)) + "\t" + escape(rs.getString(5)) + "\t"
+                            + escape(rs.getString(6)) + "\t" + createdAt + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            blocks.finishBlock();
+            out.getFD().sync();
+            return new Export(blocks.rows, blocks.index.toString());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private record Export(long rows, String blockIndex) {
+    }
+
+    /**
+     * 보관 파일을 블록 단위 gzip 멤버로 쓰는 도우미. 이전 블록을 끝낸(finish) 직후의 파일 위치가 다음 블록의 시작 위치입니다.
+     */
+    private final class BlockWriter {
+        private final FileOutputStream out;
+        private final StringBuilder index = new StringBuilder();
+        private GZIPOutputStream gzip;
+        private Writer writer;
+        private long rows;
+
+        BlockWriter(FileOutputStream out) {
+            this.out = out;
+        }
+
+        void startRow(long id, LocalDateTime createdAt) throws IOException {
+            if (rows % blockRows == 0) {
+                finishBlock();
+                index.append(out.getChannel().position()).append('\t').append(id).append('\t').append(createdAt).append('\n');
+                gzip = new GZIPOutputStream(out, 1 << 16);
+                writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8));
+            }
+            rows++;
+        }
+
+        void finishBlock() throws IOException {
+            if (writer != null) {
+                writer.flush();
+                gzip.finish();
+            }
+        }
+    }
+
+    /**
+     * 커서 위치 이후(더 오래된)의 보관된 이력을 최신순으로 최대 limit건 읽습니다.
+     *
+     * @param productId 특정 상품으로 필터링할 경우 상품 ID (null이면 전체)
+     */
+    public List<InventoryHistory> readArchived(Long productId, CursorPage.Cursor after, int limit) {
+        List<InventoryHistory> rows = new ArrayList<>(limit);
+        LocalDate latest = after.createdAt().toLocalDate().withDayOfMonth(1);
+        for (HistoryArchive archive : historyArchiveRepository.findByPeriodStartLessThanEqualOrderByPeriodStartDesc(latest)) {
+            if (rows.size() >= limit) {
+                break;
+            }
+            readFile(archive, productId, after, limit, rows);
+        }
+        return rows;
+    }
+
+    /**
+     * 보관 파일에 있는 [from, to) 구간의 상품별 이력 증감 합계를 계산합니다. 구간이 보관된 월과 겹치지 않으면 빈 결과입니다.
+     *
+     * @param productId 특정 상품만 합산할 경우 상품 ID (null이면 전체)
+     */
+    public Map<Long, Long> sumArchived(Long productId, LocalDateTime from, LocalDateTime to) {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (HistoryArchive archive : historyArchiveRepository.findByPeriodStartLessThanEqualOrderByPeriodStartDesc(
+                to.toLocalDate().withDayOfMonth(1))) {
+            if (!archive.getPeriodStart().plusMonths(1).atStartOfDay().isAfter(from)) {
+                break; // archives are newest first: every remaining month ends before the range
+            }
+            try (BufferedReader reader = open(archive, to, Long.MIN_VALUE)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] fields = line.split("\t", 3);
+                    LocalDateTime createdAt = LocalDateTime.parse(line.substring(line.lastIndexOf('\t') + 1));
+                    if (createdAt.isBefore(from)) {
+                        break; // rows are in descending created_at order
+                    }
+                    long rowProductId = Long.parseLong(fields[1]);
+                    if (!createdAt.isBefore(to) || (productId != null && productId != rowProductId)) {
+                        continue;
+                    }
+                    deltas.merge(rowProductId, (long) Integer.parseInt(fields[2].substring(0, fields[2].indexOf('\t'))),
+                            Long::sum);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("재고 이력 보관 파일을 읽을 수 없습니다: " + archive.getFilePath(), e);
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * 보관 파일을 (createdAt, id) 위치 근처부터 읽는 reader를 엽니다.
+     * 희소 색인에서 첫 행 키가 이 위치 이상인 마지막 블록으로 이동하므로, 그 앞 블록(모두 이 위치보다 최신)은 압축을 풀지 않습니다.
+     * 호출 측은 여전히 위치보다 최신인 행을 건너뛰어야 합니다. (색인이 없는 이전 보관 파일은 처음부터 읽음)
+     */
+    private BufferedReader open(HistoryArchive archive, LocalDateTime createdAt, long id) throws IOException {
+        FileInputStream in = new FileInputStream(archive.getFilePath());
+        try {
+            in.getChannel().position(blockOffset(archive.getBlockIndex(), createdAt, id));
+            return new BufferedReader(new InputStreamReader(new GZIPInputStream(in, 1 << 16), StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    static long blockOffset(String blockIndex, LocalDateTime createdAt, long id) {
+        if (blockIndex == null || blockIndex.isEmpty()) {
+            return 0L;
+        }
+        long offset = 0L;
+        for (String entry : blockIndex.split("\n")) {
+            String[] fields = entry.split("\t");
+            int order = LocalDateTime.parse(fields[2]).compareTo(createdAt);
+            if (order < 0 || (order == 0 && Long.parseLong(fields[1]) < id)) {
+                break; // this block starts past the position, so the position lies in an earlier block
+            }
+            offset = Long.parseLong(fields[0]);
+        }
+        return offset;
+    }
+
+    private void readFile(HistoryArchive archive, Long productId, CursorPage.Cursor after, int limit,
+                          List<InventoryHistory> rows) {
+        try (BufferedReader reader = open(archive, after.createdAt(), after.id())) {
+            String line;
+            while (rows.size() < limit && (line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                long id = Long.parseLong(fields[0]);
+                LocalDateTime createdAt = LocalDateTime.parse(fields[6]);
+                int order = createdAt.compareTo(after.createdAt());
+                if (order > 0 || (order == 0 && id >= after.id())) {
+                    continue; // not past the cursor yet
+                }
+                long rowProductId = Long.parseLong(fields[1]);
+                if (productId != null && productId != rowProductId) {
+                    continue;
+                }
+                InventoryHistory history = new InventoryHistory();
+                history.setId(id);
+                history.setProductId(rowProductId);
+                history.setQuantityChanged(Integer.parseInt(fields[2]));
+                history.setType(unescape(fields[3]));
+                history.setReason(unescape(fields[4]));
+                history.setReferenceId(unescape(fields[5]));
+                history.setCreatedAt(createdAt);
+                rows.add(history);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("재고 이력 보관 파일을 읽을 수 없습니다: " + archive.getFilePath(), e);
+        }
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '\t' -> sb.append("\\t");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String unescape(String value) {
+        if (NULL.equals(value)) {
+            return null;
+        }
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(switch (next) {
+                    case 't' -> '\t';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    default -> next;
+                });
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,377 @@
+package com.myerp.inventory.service;
+
+import com.myerp.inventory.model.InventoryDeadLetter;
+import com.myerp.inventory.model.InventoryHistory;
+import com.myerp.inventory.repository.InventoryDeadLetterRepository;
+import com.myerp.inventory.repository.InventoryHistoryJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * HistoryWriter
+ * 단건 재고 조정의 이력(InventoryHistory)을 요청 트랜잭션 밖에서 모아 기록하는 비동기 writer입니다.
+ * (inventory.history.async-writer.enabled=true 일 때만 동작)
+ * 재고 수량 증감은 기존처럼 요청 트랜잭션에서 동기로 반영되고, 이력만 커밋 후 고정 크기 링 버퍼에 넣어집니다.
+ * writer 스레드 하나가 버퍼를 비우면서 최대 batch-size 건씩 다중 VALUES 배치 INSERT 한 번으로 기록합니다.
+ * 버퍼가 가득 차면 호출 스레드가 최대 offer-timeout-ms 동안 기다리고(backpressure), 그래도 자리가 없으면 직접 동기로 기록합니다.
+ * 종료 시에는 남은 이력을 모두 기록한 뒤 멈추며, 프로세스가 비정상 종료되면 버퍼에 남은 이력(최대 수 ms 분량)은 유실됩니다.
+ * 컬럼 길이는 커밋 전에 check로 확인하고, 그래도 배치가 실패하면 한 건씩 다시 기록하여 기록할 수 없는 이력만
+ * inventory_dead_letters로 옮깁니다. (DB 연결 장애 등 일시적 오류는 묶음 그대로 다음 flush에서 재시도)
+ */
+@Component
+public class HistoryWriter implements SmartLifecycle {
+
+    // InventoryHistory의 reason, reference_id 컬럼 길이
+    private static final int MAX_REASON_LENGTH = 255;
+    private static final int MAX_REFERENCE_ID_LENGTH = 50;
+
+    @Autowired
+    private InventoryHistoryJdbcRepository inventoryHistoryJdbcRepository;
+
+    @Autowired
+    private InventoryDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventory.history.async-writer.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.history.async-writer.capacity:65536}")
+    private int capacity;
+
+    @Value("${inventory.history.async-writer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${inventory.history.async-writer.max-delay-ms:2}")
+    private long maxDelayMillis;
+
+    @Value("${inventory.history.async-writer.offer-timeout-ms:100}")
+    private long offerTimeoutMillis;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private Ring ring;
+    private List<InventoryHistory> retryBatch = List.of(); // guarded by flushLock
+    // 커밋 후 콜백에서도 원래 트랜잭션에 참여하지 않도록 항상 새 트랜잭션으로 기록합니다.
+    private TransactionTemplate writeTemplate;
+    private volatile boolean running;
+    private Thread writer;
+
+    private Timer flushTimer;
+    private Counter flushFailures;
+    private Counter backpressureWaits;
+    private Counter syncWrites;
+    private Counter deadLetters;
+
+    /**
+     * 이력이 컬럼 길이를 넘지 않는지 확인합니다. 재고 증감이 커밋되기 전(요청 트랜잭션 안)에 호출해야
+     * 기록할 수 없는 이력 때문에 증감만 반영되는 일이 없습니다.
+     */
+    public void check(InventoryHistory history) {
+        if (history.getReason() != null && history.getReason().length() > MAX_REASON_LENGTH) {
+            throw new RuntimeException("reason는 " + MAX_REASON_LENGTH + "자를 넘을 수 없습니다.");
+        }
+        if (history.getReferenceId() != null && history.getReferenceId().length() > MAX_REFERENCE_ID_LENGTH) {
+            throw new RuntimeException("referenceId는 " + MAX_REFERENCE_ID_LENGTH + "자를 넘을 수 없습니다.");
+        }
+    }
+
+    /**
+     * 이력을 버퍼에 넣습니다. 트랜잭션 커밋 이후에 호출해야 하며, createdAt은 호출 측에서 미리 채워야 합니다.
+     * writer가 멈춰 있거나 버퍼가 offer-timeout-ms 동안 가득 차 있으면 호출 스레드에서 바로 기록합니다.
+     */
+    public void enqueue(InventoryHistory history) {
+        if (!running) {
+            writeNow(history);
+            return;
+        }
+        if (!ring.offer(history)) {
+            backpressureWaits.increment();
+            LockSupport.unpark(writer);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+            while (!ring.offer(history)) {
+                if (System.nanoTime() - deadline >= 0) {
+                    writeNow(history);
+                    return;
+                }
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+            }
+        }
+        if (!running) {
+            flush(); // stopped while offering: do not leave the record behind
+        }
+    }
+
+    /**
+     * 버퍼에 쌓인 이력을 batch-size 건씩 새 트랜잭션으로 기록합니다.
+     * 묶음이 실패하면 한 건씩 기록해 실패한 이력만 격리하고, 일시적 오류로 멈춘 지점부터는 다음 flush에서 다시 시도합니다.
+     */
+    public void flush() {
+        if (ring == null) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            while (true) {
+                List<InventoryHistory> batch = nextBatch();
+                if (batch.isEmpty() || !writeBatch(batch) || batch.size() < batchSize) {
+                    return;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long queueDepth() {
+        return ring != null ? ring.size() : 0;
+    }
+
+    private List<InventoryHistory> nextBatch() {
+        if (!retryBatch.isEmpty()) {
+            List<InventoryHistory> batch = retryBatch;
+            retryBatch = List.of();
+            return batch;
+        }
+        List<InventoryHistory> batch = new ArrayList<>(Math.min(batchSize, (int) ring.size()));
+        ring.drain(batch, batchSize);
+        return batch;
+    }
+
+    private boolean writeBatch(List<InventoryHistory> batch) {
+        long start = System.nanoTime();
+        try {
+            writeTemplate.executeWithoutResult(status -> inventoryHistoryJdbcRepository.batchInsert(batch));
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return true;
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+            if (isTransient(e)) {
+                retryBatch = batch;
+                return false;
+            }
+        }
+        // Some row in the batch cannot be written: write one at a time and set aside only the bad ones
+        for (int i = 0; i < batch.size(); i++) {
+            InventoryHistory history = batch.get(i);
+            try {
+                writeTemplate.executeWithoutResult(status -> inventoryHistoryJdbcRepository.batchInsert(List.of(history)));
+            } catch (RuntimeException e) {
+                if (isTransient(e) || !deadLetter(history, e)) {
+                    retryBatch = new ArrayList<>(batch.subList(i, batch.size()));
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void writeNow(InventoryHistory history) {
+        syncWrites.increment();
+        try {
+            writeTemplate.executeWithoutResult(status -> inventoryHistoryJdbcRepository.batchInsert(List.of(history)));
+        } catch (RuntimeException e) {
+            // The adjustment itself is already committed: keep the record instead of failing the request
+            if (isTransient(e) || !deadLetter(history, e)) {
+                throw e;
+            }
+        }
+    }
+
+    // 기록할 수 없는 이력을 격리 테이블로 옮깁니다. 격리도 실패하면 false를 반환합니다.
+    private boolean deadLetter(InventoryHistory history, RuntimeException failure) {
+        InventoryDeadLetter deadLetter = new InventoryDeadLetter();
+        deadLetter.setSource(InventoryDeadLetter.HISTORY);
+        deadLetter.setProductId(history.getProductId());
+        deadLetter.setQuantityChanged(history.getQuantityChanged());
+        deadLetter.setType(history.getType());
+        deadLetter.setReason(history.getReason());
+        deadLetter.setReferenceId(history.getReferenceId());
+        deadLetter.setOccurredAt(history.getCreatedAt());
+        deadLetter.setError(NestedExceptionUtils.getMostSpecificCause(failure).toString());
+        try {
+            writeTemplate.executeWithoutResult(status -> deadLetterRepository.save(deadLetter));
+        } catch (RuntimeException e) {
+            return false;
+        }
+        deadLetters.increment();
+        return true;
+    }
+
+    // DB 연결·잠금 대기 등 기록 자체와 무관하게 다시 시도하면 성공할 수 있는 오류
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException;
+    }
+
+    private void runWriter() {
+        while (running) {
+            long depth = ring.size();
+            flush();
+            // Sleep only when the buffer was not holding a full batch (otherwise keep draining)
+            if (depth < batchSize || !retryBatch.isEmpty()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(Math.max(1, maxDelayMillis)));
+            }
+        }
+    }
+
+    /**
+     * 링 버퍼를 만들고 writer 스레드를 시작합니다.
+     */
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        writeTemplate = new TransactionTemplate(transactionManager);
+        writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        syncWrites = Counter.builder("inventory.history.writer.sync-writes")
+                .description("writer를 거치지 않고 호출 스레드에서 직접 기록한 이력 건수 (버퍼 포화 또는 writer 정지)")
+                .register(meterRegistry);
+        deadLetters = Counter.builder("inventory.history.writer.dead-letters")
+                .description("기록할 수 없어 inventory_dead_letters로 격리된 이력 건수")
+                .register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+        ring = new Ring(capacity);
+        flushTimer = Timer.builder("inventory.history.writer.flush")
+                .description("이력 배치 INSERT 소요 시간")
+                .register(meterRegistry);
+        flushFailures = Counter.builder("inventory.history.writer.flush.failures")
+                .description("이력 배치 INSERT 실패 횟수 (한 건씩 재시도하거나 다음 flush에서 재시도)")
+                .register(meterRegistry);
+        backpressureWaits = Counter.builder("inventory.history.writer.backpressure")
+                .description("버퍼가 가득 차 호출 스레드가 대기한 횟수")
+                .register(meterRegistry);
+        Gauge.builder("inventory.history.writer.queue.depth", this, HistoryWriter::queueDepth)
+                .description("기록 대기 중인 이력 건수")
+                .register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::runWriter, "inventory-history-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * writer를 멈추고 버퍼에 남은 이력을 모두 기록합니다.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        while (ring.size() > 0 || !retryBatch.isEmpty()) {
+            flushLock.lock();
+            try {
+                List<InventoryHistory> batch = nextBatch();
+                if (!batch.isEmpty() && !writeBatch(batch)) {
+                    throw new RuntimeException("종료 중 재고 이력을 기록하지 못했습니다. 남은 건수: " + (ring.size() + batch.size()));
+                }
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    /**
+     * 여러 생산자 / 단일 소비자용 고정 크기 링 버퍼입니다. (잠금 없음)
+     * 생산자는 tail을 CAS로 한 칸씩 확보한 뒤 슬롯에 값을 쓰고, 소비자는 head부터 값이 채워진 슬롯까지 순서대로 비웁니다.
+     * 슬롯은 비운 다음에 head를 전진시키므로, 생산자는 head + capacity 미만의 위치만 확보하여 덮어쓰기가 없습니다.
+     */
+    static final class Ring {
+        private final AtomicReferenceArray<InventoryHistory> slots;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicLong head = new AtomicLong();
+
+        Ring(int capacity) {
+            int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1; // next power of two
+            this.slots = new AtomicReferenceArray<>(size);
+            this.mask = size - 1;
+        }
+
+        boolean offer(InventoryHistory history) {
+            while (true) {
+                long t = tail.get();
+                if (t - head.get() > mask) {
+                    return false;
+                }
+                if (tail.compareAndSet(t, t + 1)) {
+                    slots.set((int) (t & mask), history);
+                    return true;
+                }
+            }
+        }
+
+        // 단일 소비자 전용. 자리를 확보했지만 아직 값을 쓰지 않은 생산자의 슬롯에서 멈춥니다.
+        int drain(List<InventoryHistory> out, int max) {
+            long h = head.get();
+            int count = 0;
+            while (count < max) {
+                int index = (int) (h & mask);
+                InventoryHistory history = slots.get(index);
+                if (history == null) {
+                    break;
+                }
+                slots.set(index, null);
+                out.add(history);
+                h++;
+                count++;
+            }
+            head.set(h);
+            return count;
+        }
+
+        long size() {
+            return Math.max(0, tail.get() - head.get());
+        }
+    }
+}
@@ -1,28 +1,50 @@
 package com.myerp.inventory.service;
 
-import com.myerp.inventory.client.ProductClient;
+import com.myerp.inventory.dto.CursorPage;
 import com.myerp.inventory.dto.InventoryResponseDto;
-import com.myerp.inventory.dto.ProductDto;
+import com.myerp.inventory.dto.LowStockPageDto;
 import com.myerp.inventory.dto.StockAdjustmentRequest;
+import com.myerp.inventory.dto.StockContentionDto;
 import com.myerp.inventory.model.Inventory;
 import com.myerp.inventory.model.InventoryHistory;
+import com.myerp.inventory.model.ProductReplica;
+import com.myerp.inventory.repository.InventoryHistoryJdbcRepository;
 import com.myerp.inventory.repository.InventoryHistoryRepository;
+import com.myerp.inventory.repository.InventoryJdbcRepository;
 import com.myerp.inventory.repository.InventoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 /**
  * InventoryService
  * 재고 관리 비즈니스 로직을 담당하는 서비스 클래스입니다.
  * 재고의 증감(입/출고), 현재 재고 현황 조회, 재고 이력 저장 기능을 제공합니다.
- * ProductClient를 통해 Product 서비스에서 상품의 이름 등 메타데이터를 가져옵니다.
+ * 상품의 이름 등 메타데이터는 Product 서비스를 호출하지 않고 로컬 복제본(ProductReplicaService)에서 가져옵니다.
+ * 재고 수량 증감은 기본적으로 DB의 원자적 UPDATE(quantity = quantity + delta)로 반영하며,
+ * inventory.stock.concurrency-mode=optimistic 설정 시 단건 조정은 @Version 기반 낙관적 잠금과 제한된 재시도로 처리합니다.
+ * inventory.ledger.enabled=true 설정 시 단건 조정은 메모리 원장(StockLedger)의 저널에 기록되고 DB에는 일괄 반영됩니다.
+ * 증감 후의 수량은 커밋 후 저재고 인덱스(LowStockIndex)에 반영되어, 재고 부족 목록을 테이블 조회 없이 제공합니다.
+ * inventory.history.async-writer.enabled=true 설정 시 이력은 커밋 후 HistoryWriter가 모아서 기록합니다. (수량 증감은 동기)
+ * 출고 이력은 커밋 후 수요 예측(ConsumptionForecastService)에 전달되어 상품별 소비 속도와 재주문점 계산에 쓰입니다.
  */
 @Service
 public class InventoryService {
@@ -34,32 +56,64 @@ public class InventoryService {
     private InventoryHistoryRepository inventoryHistoryRepository;
 
     @Autowired
-    private ProductClient productClient;
+    private InventoryHistoryJdbcRepository inventoryHistoryJdbcRepository;
+
+    @Autowired
+    private InventoryJdbcRepository inventoryJdbcRepository;
+
+    @Autowired
+    private StockContentionTracker contentionTracker;
+
+    @Autowired
+    private StockStripeService stockStripeService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private HistoryArchiveService historyArchiveService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.stock.concurrency-mode:atomic}")
+    private String concurrencyMode;
+
+    @Value("${inventory.stock.optimistic-max-retries:5}")
+    private int optimisticMaxRetries;
+
+    @Autowired
+    private ProductReplicaService productReplicaService;
+
+    @Autowired
+    private ReservationIndex reservationIndex;
+
+    @Autowired
+    private LowStockIndex lowStockIndex;
+
+    @Autowired
+    private HistoryWriter historyWriter;
+
+    @Autowired
+    private ConsumptionForecastService consumptionForecastService;
 
     public Page<InventoryResponseDto> getAllInventories(Pageable pageable) {
         Page<Inventory> inventories = inventoryRepository.findAll(pageable);
 
+        // Quantities include stripe sub-rows of hot SKUs (one query for the whole page)
+        List<Long> productIds = inventories.getContent().stream().map(Inventory::getProductId).collect(Collectors.toList());
+        Map<Long, Integer> onHand = getOnHandQuantities(productIds);
+        Map<Long, ProductReplica> products = productReplicaService.findAll(productIds);
+
         List<InventoryResponseDto> dtoList = inventories.getContent().stream().map(inv -> {
+            int quantity = onHand.getOrDefault(inv.getProductId(), inv.getQuantity());
             InventoryResponseDto dto = new InventoryResponseDto();
             dto.setId(inv.getId());
             dto.setProductId(inv.getProductId());
-            dto.setQuantity(inv.getQuantity());
+            dto.setQuantity(quantity);
             dto.setMinStock(inv.getMinStock());
-
-            // Fetch Product Info using Feign Client
-            try {
-                ProductDto product = productClient.getProductById(inv.getProductId());
-                if (product != null) {
-                    dto.setProductName(product.getName());
-                    dto.setProductCategory(product.getCategory());
-                } else {
-                    dto.setProductName("Unknown Product");
-                }
-            } catch (Exception e) {
-                // Feign client might throw exception if product not found (404) or service down
-                dto.setProductName("Product Not Found");
-                dto.setProductCategory("N/A");
-            }
+            dto.setAvailableQuantity(quantity - (int) reservationIndex.held(inv.getProductId()));
+            setProductInfo(dto, products.get(inv.getProductId()));
             return dto;
         }).collect(Collectors.toList());
 
@@ -68,30 +122,274 @@ public class InventoryService {
 
     /**
      * 외부 요청(주문 생성 등) 또는 수동 조정에 의해 재고를 변경하고 이력을 기록합니다.
+     * 기본(atomic) 모드에서는 읽기 없이 단일 UPDATE ... RETURNING으로 증감하므로 동시 요청에도 갱신 손실이 없고,
+     * optimistic 모드에서는 엔티티를 읽어 수정한 뒤 버전 충돌 시 지터가 있는 백오프 후 재시도합니다.
+     * Hot SKU(stripe 모드) 상품은 모드와 관계없이 무작위 하위 행 하나에만 원자적으로 반영합니다.
+     * 메모리 원장이 켜져 있으면 저널 기록 후 바로 반환하며, 재고와 이력은 원장의 flush에서 반영됩니다.
      *
      * @param request 재고 조정 요청 정보 (상품 ID, 변경 수량, 사유 등)
      */
-    @Transactional
     public void adjustStock(StockAdjustmentRequest request) {
-        Long productId = request.getProductId();
-        int changed = request.getQuantityChanged();
+        if (stockLedger.isEnabled()) {
+            stockLedger.append(request);
+            return;
+        }
+        if ("optimistic".equalsIgnoreCase(concurrencyMode)
+                && stockStripeService.pickStripe(request.getProductId()) == StockStripeService.NOT_STRIPED) {
+            adjustStockOptimistic(request);
+            return;
+        }
+        long productId = request.getProductId();
+        transactionTemplate.executeWithoutResult(status -> {
+            // 1. Atomic delta on a random stripe for hot SKUs, otherwise on the inventory row (upsert if missing)
+            long start = System.nanoTime();
+            int stripe = stockStripeService.pickStripe(productId);
+            if (stripe != StockStripeService.NOT_STRIPED) {
+                inventoryJdbcRepository.addToStripe(productId, stripe, request.getQuantityChanged());
+            } else {
+                inventoryJdbcRepository.addQuantity(productId, request.getQuantityChanged());
+            }
+            contentionTracker.recordUpdate(productId, System.nanoTime() - start);
+            refreshLowStock(List.of(productId));
 
-        // 1. Update or Create Inventory Record
-        Inventory inventory = inventoryRepository.findByProductId(productId)
-                .orElseGet(() -> {
-                    Inventory newInv = new Inventory();
-                    newInv.setProductId(productId);
-                    newInv.setQuantity(0);
-                    newInv.setMinStock(10); // default min stock
-                    return newInv;
+            // 2. Log History
+            InventoryHistory history = buildHistory(request);
+            if (!deferHistories(List.of(history))) {
+                inventoryHistoryRepository.save(history);
+            }
+            consumptionForecastService.record(List.of(history));
+        });
+    }
+
+    // 낙관적 잠금 모드: 시도마다 새 트랜잭션에서 읽기-수정-쓰기를 수행하고, 충돌 시 최대 optimisticMaxRetries회 재시도합니다.
+    private void adjustStockOptimistic(StockAdjustmentRequest request) {
+        long productId = request.getProductId();
+        for (int attempt = 0; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Inventory inventory = inventoryRepository.findByProductId(productId)
+                            .orElseGet(() -> newInventory(productId));
+                    inventory.setQuantity(inventory.getQuantity() + request.getQuantityChanged());
+                    inventoryRepository.saveAndFlush(inventory);
+                    InventoryHistory history = buildHistory(request);
+                    if (!deferHistories(List.of(history))) {
+                        inventoryHistoryRepository.save(history);
+                    }
+                    consumptionForecastService.record(List.of(history));
+                    refreshLowStock(List.of(productId));
                 });
+                contentionTracker.recordUpdate(productId, System.nanoTime() - start);
+                return;
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                // Version mismatch, or another request created the first inventory row concurrently
+                contentionTracker.recordConflict(productId);
+                if (attempt >= optimisticMaxRetries) {
+                    contentionTracker.recordExhausted(productId);
+                    throw new RuntimeException("재고 갱신 충돌이 반복되어 처리하지 못했습니다. 상품 ID: " + productId, e);
+                }
+                contentionTracker.recordRetry(productId);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 2L << Math.min(attempt, 6)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("재고 조정 재시도 중 인터럽트되었습니다.", e);
+        }
+    }
+
+    /**
+     * 상품별 재고 갱신 경합 통계를 경합이 심한 순으로 조회합니다.
+     */
+    public List<StockContentionDto> getContention(int limit) {
+        return contentionTracker.top(limit);
+    }
+
+    /**
+     * 여러 건의 재고 조정 요청을 하나의 트랜잭션에서 일괄 처리합니다.
+     * 1. 같은 상품에 대한 요청은 변동 수량을 합산
+     * 2. 합산된 증감을 단일 UPDATE 문으로 원자적으로 반영 (productId 순서로 행 잠금하여 데드락 방지)
+     * 3. 이력은 요청 건별로 JDBC 배치 INSERT
+     * 다른 트랜잭션(예약 확정 등)에 참여할 수 있도록 낙관적 잠금 모드와 관계없이 항상 원자적 증감을 사용합니다.
+     *
+     * @param requests 재고 조정 요청 목록
+     */
+    @Transactional
+    public void adjustStockBatch(List<StockAdjustmentRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return;
+        }
+
+        // 1. Aggregate deltas per product (TreeMap keeps productId order)
+        TreeMap<Long, Integer> deltas = new TreeMap<>();
+        for (StockAdjustmentRequest request : requests) {
+            deltas.merge(request.getProductId(), request.getQuantityChanged(), Integer::sum);
+        }
+
+        // 2. Apply deltas atomically
+        applyDeltas(deltas);
 
-        inventory.setQuantity(inventory.getQuantity() + changed);
-        inventoryRepository.save(inventory);
+        // 3. Log histories with JDBC batch inserts
+        List<InventoryHistory> histories = new ArrayList<>(requests.size());
+        for (StockAdjustmentRequest request : requests) {
+            histories.add(buildHistory(request));
+        }
+        if (!deferHistories(histories)) {
+            inventoryHistoryJdbcRepository.batchInsert(histories);
+        }
+        consumptionForecastService.record(histories);
+    }
+
+    // 비동기 writer가 켜져 있으면 커밋된 뒤에만 버퍼에 넣습니다. (롤백된 조정의 이력이 남지 않도록)
+    // false를 반환하면 호출 측이 현재 트랜잭션에서 직접 기록해야 합니다.
+    private boolean deferHistories(List<InventoryHistory> histories) {
+        if (!historyWriter.isEnabled() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (InventoryHistory history : histories) {
+            historyWriter.check(history); // fail before the stock change commits, not in the writer
+            history.setCreatedAt(now); // time of the adjustment, not of the deferred insert
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                histories.forEach(historyWriter::enqueue);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 상품별로 합산된 증감을 현재 트랜잭션에서 원자적으로 반영합니다. (이력은 기록하지 않음)
+     * 일반 상품은 단일 UPDATE 문으로, Hot SKU는 상품마다 stripe 하위 행 하나에 반영하며,
+     * 항상 기본 행 다음 stripe 순서로, 각각 productId 순서로 잠그므로 동시에 실행되는 일괄 반영 간 데드락이 없습니다.
+     *
+     * @param deltas productId 순으로 정렬된 상품별 증감 수량
+     */
+    public void applyDeltas(TreeMap<Long, Integer> deltas) {
+        TreeMap<Long, Integer> rowDeltas = new TreeMap<>();
+        Map<Long, Integer> stripeDeltas = new TreeMap<>();
+        for (Map.Entry<Long, Integer> entry : deltas.entrySet()) {
+            (stockStripeService.pickStripe(entry.getKey()) == StockStripeService.NOT_STRIPED ? rowDeltas : stripeDeltas)
+                    .put(entry.getKey(), entry.getValue());
+        }
+        long start = System.nanoTime();
+        inventoryJdbcRepository.addQuantities(rowDeltas);
+        for (Map.Entry<Long, Integer> entry : stripeDeltas.entrySet()) {
+            int stripe = stockStripeService.pickStripe(entry.getKey());
+            if (stripe == StockStripeService.NOT_STRIPED) {
+                // unmarked meanwhile
+                inventoryJdbcRepository.addQuantity(entry.getKey(), entry.getValue());
+            } else {
+                inventoryJdbcRepository.addToStripe(entry.getKey(), stripe, entry.getValue());
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        for (Long productId : deltas.keySet()) {
+            contentionTracker.recordUpdate(productId, elapsed);
+        }
+        refreshLowStock(new ArrayList<>(deltas.keySet()));
+    }
+
+    /**
+     * 상품의 최소 유지 재고를 변경하고 저재고 인덱스에 반영합니다. (재고 행이 없으면 수량 0으로 생성)
+     */
+    public void updateMinStock(Long productId, int minStock) {
+        if (minStock < 0) {
+            throw new RuntimeException("최소 유지 재고는 0 이상이어야 합니다.");
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            inventoryJdbcRepository.setMinStock(productId, minStock);
+            refreshLowStock(List.of(productId));
+        });
+    }
+
+    /**
+     * 최소 유지 재고 이하인 상품을 productId 순으로 페이징하여 조회합니다.
+     * 응답에는 전체 재고 부족·품절 건수가 함께 담기며, 모두 메모리 인덱스에서 계산합니다.
+     *
+     * @param status LOW_STOCK 또는 OUT_OF_STOCK (없으면 둘 다)
+     */
+    public LowStockPageDto getLowStock(String status, int page, int size) {
+        if (status != null && !LowStockIndex.LOW_STOCK.equals(status) && !LowStockIndex.OUT_OF_STOCK.equals(status)) {
+            throw new RuntimeException("지원하지 않는 재고 상태입니다: " + status);
+        }
+        if (page < 0 || size < 1) {
+            throw new RuntimeException("잘못된 페이지 요청입니다.");
+        }
+        return lowStockIndex.page(status, page, Math.min(size, 500));
+    }
+
+    /**
+     * 저재고 인덱스를 DB 기준으로 다시 구성합니다.
+     * 기동 시 한 번, 이후 주기적으로 실행되어 다른 인스턴스에서 반영된 증감과 인덱스 갱신 누락을 바로잡습니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${inventory.low-stock.reconcile-interval-ms:60000}",
+            initialDelayString = "${inventory.low-stock.reconcile-interval-ms:60000}")
+    public void rebuildLowStockIndex() {
+        long since = lowStockIndex.stamp();
+        lowStockIndex.rebuild(inventoryJdbcRepository.findLowStockLevels(), since);
+    }
+
+    // 트랜잭션 안이면 커밋된 뒤에 현재 재고를 다시 읽어 반영합니다.
+    // (롤백된 증감이 인덱스에 남지 않고, 트랜잭션 안에서 읽은 값이 커밋 순서와 다르게 늦게 반영되지 않도록)
+    private void refreshLowStock(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lowStockIndex.refresh(productIds, inventoryJdbcRepository::findStockLevels);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    lowStockIndex.refresh(productIds, inventoryJdbcRepository::findStockLevels);
+                } catch (RuntimeException e) {
+                    // The adjustment is already committed; the periodic rebuild corrects the index
+                }
+            }
+        });
+    }
+
+    /**
+     * 여러 상품의 현재 재고 수량을 잠금 없이 조회합니다. 재고 행이 없는 상품은 결과에 포함되지 않습니다.
+     * Hot SKU는 기본 행과 stripe 하위 행의 합계를 반환하며, 메모리 원장이 켜져 있으면 아직 DB에 반영되지 않은 증감을 더합니다.
+     */
+    public Map<Long, Integer> getOnHandQuantities(Collection<Long> productIds) {
+        Map<Long, Integer> quantities = inventoryJdbcRepository.findOnHandQuantities(productIds);
+        if (stockLedger.isRunning()) {
+            for (Long productId : productIds) {
+                long pending = stockLedger.pendingDelta(productId);
+                if (pending != 0) {
+                    quantities.merge(productId, (int) pending, Integer::sum);
+                }
+            }
+        }
+        return quantities;
+    }
+
+    private Inventory newInventory(Long productId) {
+        Inventory newInv = new Inventory();
+        newInv.setProductId(productId);
+        newInv.setQuantity(0);
+        newInv.setMinStock(10); // default min stock
+        return newInv;
+    }
+
+    static InventoryHistory buildHistory(StockAdjustmentRequest request) {
+        int changed = request.getQuantityChanged();
 
-        // 2. Log History
         InventoryHistory history = new InventoryHistory();
-        history.setProductId(productId);
+        history.setProductId(request.getProductId());
         history.setQuantityChanged(changed);
         history.setReason(request.getReason());
         history.setReferenceId(request.getReferenceId());
@@ -103,43 +401,40 @@ public class InventoryService {
         } else {
             history.setType("ADJUSTMENT");
         }
-
-        inventoryHistoryRepository.save(history);
+        return history;
     }
 
     public InventoryResponseDto getInventoryByProductId(Long productId) {
         Inventory inventory = inventoryRepository.findByProductId(productId)
-                .orElseGet(() -> {
-                    Inventory newInv = new Inventory();
-                    newInv.setProductId(productId);
-                    newInv.setQuantity(0);
-                    newInv.setMinStock(10);
-                    return newInv;
-                });
+                .orElseGet(() -> newInventory(productId));
+
+        int quantity = stockLedger.isRunning()
+                ? stockLedger.read(productId)
+                : getOnHandQuantities(List.of(productId)).getOrDefault(productId, inventory.getQuantity());
 
         InventoryResponseDto dto = new InventoryResponseDto();
         dto.setId(inventory.getId());
         dto.setProductId(inventory.getProductId());
-        dto.setQuantity(inventory.getQuantity());
+        dto.setQuantity(quantity);
         dto.setMinStock(inventory.getMinStock());
+        dto.setAvailableQuantity(quantity - (int) reservationIndex.held(productId));
+        setProductInfo(dto, productReplicaService.find(productId).orElse(null));
+        return dto;
+    }
 
-        try {
-            ProductDto product = productClient.getProductById(productId);
-            if (product != null) {
-                dto.setProductName(product.getName());
-                dto.setProductCategory(product.getCategory());
-            } else {
-                dto.setProductName("Unknown Product");
-            }
-        } catch (Exception e) {
+    // 복제본에 없는 상품(삭제되었거나 아직 동기화되지 않은 상품)은 기존 조회 실패와 같은 값으로 표시합니다.
+    private void setProductInfo(InventoryResponseDto dto, ProductReplica product) {
+        if (product != null) {
+            dto.setProductName(product.getName());
+            dto.setProductCategory(product.getCategory());
+        } else {
             dto.setProductName("Product Not Found");
             dto.setProductCategory("N/A");
         }
-        return dto;
     }
 
     /**
-     * 상품별 재고 증감 이력(History)을 페이징하여 조회합니다.
+     * 상품별 재고 증감 이력(History)을 페이징하여 조회합니다. (DB에 남아 있는 보관 기간 내 이력만 대상)
      *
      * @param productId 특정 상품의 이력만 볼 경우의 상품 ID (null이면 전체 조회)
      * @param pageable  페이징 정보
@@ -151,4 +446,32 @@ public class InventoryService {
         }
         return inventoryHistoryRepository.findAllByOrderByCreatedAtDesc(pageable);
     }
+
+    /**
+     * 재고 이력을 커서 기반으로 최신순 조회합니다. (무한 스크롤용)
+     * OFFSET과 count 쿼리 없이 (createdAt, id) 인덱스를 따라 읽으므로 이력이 수백만 건이어도 비용이 일정합니다.
+     * DB(보관 기간 내 월 파티션)의 이력을 모두 읽은 뒤에는 보관 파일의 이력을 같은 커서 흐름으로 이어서 반환합니다.
+     *
+     * @param productId 특정 상품으로 필터링할 경우 상품 ID (null이면 전체)
+     * @param cursor    이전 응답의 nextCursor (없으면 처음부터)
+     * @param size      페이지 크기 (최대 CursorPage.MAX_SIZE)
+     */
+    public CursorPage<InventoryHistory> scrollInventoryHistories(Long productId, String cursor, int size) {
+        CursorPage.Cursor position = CursorPage.decode(cursor);
+        Pageable limit = CursorPage.limit(size);
+        Slice<InventoryHistory> slice = productId != null
+                ? inventoryHistoryRepository.scrollByProductId(productId, position.createdAt(), position.id(), limit)
+                : inventoryHistoryRepository.scroll(position.createdAt(), position.id(), limit);
+        if (slice.hasNext()) {
+            return CursorPage.of(slice, history -> history, InventoryHistory::getCreatedAt, InventoryHistory::getId);
+        }
+
+        // Reached the oldest hot partition: continue with archived months (one extra row tells whether more remain)
+        List<InventoryHistory> rows = new ArrayList<>(slice.getContent());
+        CursorPage.Cursor from = rows.isEmpty() ? position
+                : new CursorPage.Cursor(rows.get(rows.size() - 1).getCreatedAt(), rows.get(rows.size() - 1).getId());
+        rows.addAll(historyArchiveService.readArchived(productId, from, limit.getPageSize() - rows.size() + 1));
+        return CursorPage.of(rows, limit.getPageSize(), history -> history, InventoryHistory::getCreatedAt,
+                InventoryHistory::getId);
+    }
 }
@@ -0,0 +1,199 @@
+package com.myerp.inventory.service;
+
+import com.myerp.inventory.dto.AsOfQuantityDto;
+import com.myerp.inventory.repository.InventorySnapshotJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * InventorySnapshotService
+ * 매일 0시 기준 상품별 재고 스냅샷을 만들고, 임의 시점의 재고(as-of)를 계산하는 서비스 클래스입니다.
+ * 스냅샷은 직전 스냅샷에 그 사이의 이력 증감을 더해 만들므로 이력 전체를 다시 읽지 않으며,
+ * 시점 재고는 가장 가까운 이전 스냅샷(없으면 이후 스냅샷)과 두 시각 사이의 증감만으로 계산합니다.
+ * 증감 구간이 보관된 월에 걸치면 보관 파일의 이력도 함께 합산합니다.
+ */
+@Service
+public class InventorySnapshotService {
+
+    @Autowired
+    private InventorySnapshotJdbcRepository snapshotRepository;
+
+    @Autowired
+    private HistoryArchiveService historyArchiveService;
+
+    @Autowired
+    private HistoryWriter historyWriter;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.snapshot.settle-ms:60000}")
+    private long settleMillis;
+
+    @Value("${inventory.snapshot.bulk-parallelism:4}")
+    private int bulkParallelism;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepare() {
+        takeSnapshots();
+    }
+
+    /**
+     * 마지막 스냅샷 다음 날부터 오늘 0시까지 빠진 일별 스냅샷을 하루씩 만듭니다.
+     * 스냅샷이 하나도 없으면 현재 재고에서 오늘 0시 이후의 증감을 빼서 첫 스냅샷을 만듭니다.
+     * 이 인스턴스의 비동기 이력 버퍼와 재고 원장을 먼저 DB에 반영하고, 그래도 늦게 기록되는 이력은 다음 스냅샷이 더합니다.
+     */
+    @Scheduled(cron = "${inventory.snapshot.cron:0 5 0 * * *}")
+    public synchronized void takeSnapshots() {
+        stockLedger.flush();
+        historyWriter.flush();
+        LocalDateTime target = LocalDate.now().atStartOfDay();
+        Optional<LocalDateTime> latest = snapshotRepository.findLatestSnapshotAt();
+        if (latest.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                snapshotRepository.lockSnapshots();
+                if (snapshotRepository.findLatestSnapshotAt().isEmpty()) {
+                    snapshotRepository.createAnchor(target, snapshotRepository.findRecordCutoff(0));
+                }
+            });
+            return;
+        }
+        for (LocalDateTime at = latest.get().toLocalDate().plusDays(1).atStartOfDay(); !at.isAfter(target);
+             at = at.plusDays(1)) {
+            LocalDateTime snapshotAt = at;
+            // One short transaction per day; another instance may have caught up meanwhile
+            transactionTemplate.executeWithoutResult(status -> {
+                snapshotRepository.lockSnapshots();
+                LocalDateTime previous = snapshotRepository.findLatestSnapshotAt().orElseThrow();
+                if (previous.isBefore(snapshotAt)) {
+                    snapshotRepository.createIncremental(previous, snapshotRepository.findRecordedBefore(previous).orElse(null),
+                            snapshotAt, snapshotRepository.findRecordCutoff(settleMillis));
+                }
+            });
+        }
+    }
+
+    /**
+     * 한 상품의 특정 시점 재고를 계산합니다. (at 시각 직전까지의 증감 반영)
+     */
+    public AsOfQuantityDto getQuantityAsOf(Long productId, LocalDateTime at) {
+        Base base = baseFor(at);
+        long quantity = snapshotRepository.findQuantity(base.snapshotAt(), productId).orElse(0);
+        if (!base.snapshotAt().equals(at)) {
+            long delta = snapshotRepository.sumDelta(productId, base.from(at), base.to(at))
+                    + historyArchiveService.sumArchived(productId, base.from(at), base.to(at)).getOrDefault(productId, 0L);
+            quantity += base.sign() * delta;
+        }
+        return toDto(productId, at, quantity, base.snapshotAt());
+    }
+
+    /**
+     * 모든 상품의 특정 시점 재고를 계산합니다.
+     * 상품 ID 범위를 bulk-parallelism개로 나누어 각 범위의 스냅샷 수량과 증감 합계를 동시에 조회합니다.
+     */
+    public List<AsOfQuantityDto> getAllQuantitiesAsOf(LocalDateTime at) {
+        Base base = baseFor(at);
+        boolean needsDelta = !base.snapshotAt().equals(at);
+
+        // Split the product id space at quantiles of the snapshot so each range carries a similar number of rows
+        List<Long> productIds = snapshotRepository.findProductIds(base.snapshotAt());
+        int parts = Math.max(1, Math.min(bulkParallelism, productIds.size()));
+        long[] bounds = new long[parts + 1];
+        bounds[0] = Long.MIN_VALUE;
+        bounds[parts] = Long.MAX_VALUE;
+        for (int i = 1; i < parts; i++) {
+            bounds[i] = productIds.get(i * productIds.size() / parts);
+        }
+
+        List<Future<Map<Long, Long>>> futures = new ArrayList<>(parts);
+        for (int i = 0; i < parts; i++) {
+            long fromProductId = bounds[i];
+            long toProductId = bounds[i + 1];
+            futures.add(executor.submit(() -> {
+                Map<Long, Long> quantities = snapshotRepository.findQuantities(base.snapshotAt(), fromProductId, toProductId);
+                if (needsDelta) {
+                    snapshotRepository.sumDeltas(base.from(at), base.to(at), fromProductId, toProductId)
+                            .forEach((productId, delta) -> quantities.merge(productId, base.sign() * delta, Long::sum));
+                }
+                return quantities;
+            }));
+        }
+
+        TreeMap<Long, Long> quantities = new TreeMap<>();
+        try {
+            for (Future<Map<Long, Long>> future : futures) {
+                quantities.putAll(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("시점 재고 일괄 계산에 실패했습니다.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("시점 재고 일괄 계산 중 인터럽트되었습니다.", e);
+        }
+        if (needsDelta) {
+            historyArchiveService.sumArchived(null, base.from(at), base.to(at))
+                    .forEach((productId, delta) -> quantities.merge(productId, base.sign() * delta, Long::sum));
+        }
+
+        List<AsOfQuantityDto> result = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> result.add(toDto(productId, at, quantity, base.snapshotAt())));
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // at 이전의 가장 가까운 스냅샷에 증감을 더하고, 첫 스냅샷보다 이전 시점이면 첫 스냅샷에서 증감을 뺍니다.
+    private Base baseFor(LocalDateTime at) {
+        Optional<LocalDateTime> before = snapshotRepository.findSnapshotAtOrBefore(at);
+        if (before.isPresent()) {
+            return new Base(before.get(), 1);
+        }
+        // Snapshot creation is left to the startup listener and the cron; a read request never builds one
+        return snapshotRepository.findSnapshotAfter(at).map(snapshotAt -> new Base(snapshotAt, -1))
+                .orElseThrow(() -> new RuntimeException("재고 스냅샷이 아직 생성되지 않았습니다."));
+    }
+
+    private AsOfQuantityDto toDto(Long productId, LocalDateTime at, long quantity, LocalDateTime snapshotAt) {
+        AsOfQuantityDto dto = new AsOfQuantityDto();
+        dto.setProductId(productId);
+        dto.setAsOf(at);
+        dto.setQuantity(quantity);
+        dto.setSnapshotAt(snapshotAt);
+        return dto;
+    }
+
+    /**
+     * 계산 기준 스냅샷. sign이 1이면 [snapshotAt, at) 증감을 더하고, -1이면 [at, snapshotAt) 증감을 뺍니다.
+     */
+    private record Base(LocalDateTime snapshotAt, int sign) {
+        LocalDateTime from(LocalDateTime at) {
+            return sign > 0 ? snapshotAt : at;
+        }
+
+        LocalDateTime to(LocalDateTime at) {
+            return sign > 0 ? at : snapshotAt;
+        }
+    }
+}
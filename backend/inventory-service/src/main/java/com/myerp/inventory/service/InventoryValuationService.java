@@ -0,0 +1,260 @@
+package com.myerp.inventory.service;
+
+import com.myerp.inventory.dto.CategoryValuationDto;
+import com.myerp.inventory.dto.ValuationReportDto;
+import com.myerp.inventory.repository.InventoryJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.Semaphore;
+
+/**
+ * InventoryValuationService
+ * 전체 재고의 평가 금액(현재 재고 × 단가)을 카테고리별·전체로 집계하는 서비스 클래스입니다.
+ * 재고 행은 상품 정보 복제본(product_replicas)과 조인된 한 번의 쿼리로 fetch-size 단위 스트리밍되며,
+ * 읽은 행은 고정 크기 묶음(chunk)으로 fork-join 풀에 넘겨 병렬로 합산합니다.
+ * 동시에 처리 중인 묶음 수를 제한하므로 상품 수와 관계없이 메모리 사용량이 일정하고, 한 쿼리이므로 같은 시점의 재고를 평가합니다.
+ * 금액은 1/100 단위 정수(long)로 합산하고, long 범위를 넘는 경우에만 BigDecimal로 이어서 합산하므로 오차가 없습니다.
+ */
+@Service
+public class InventoryValuationService {
+
+    private static final String UNKNOWN_CATEGORY = "N/A";
+    private static final int PRICE_SCALE = 2; // product_replicas.price 컬럼의 scale
+    private static final int SPLIT_THRESHOLD = 2048;
+
+    @Autowired
+    private InventoryJdbcRepository inventoryJdbcRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.valuation.fetch-size:5000}")
+    private int fetchSize;
+
+    @Value("${inventory.valuation.chunk-size:16384}")
+    private int chunkSize;
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+
+    public InventoryValuationService(@Value("${inventory.valuation.parallelism:0}") int parallelism) {
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(this.parallelism);
+    }
+
+    /**
+     * 전체 재고 평가 보고서를 만듭니다. (DB에 반영된 재고 기준, 메모리 원장의 미반영 증감은 제외)
+     */
+    public ValuationReportDto getValuation() {
+        long start = System.nanoTime();
+        LocalDateTime generatedAt = LocalDateTime.now();
+        // At most 2 chunks per worker in flight: the reader blocks instead of buffering the whole table
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        List<ForkJoinTask<Map<String, Totals>>> tasks = new ArrayList<>();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Chunk[] current = {new Chunk(chunkSize)};
+            inventoryJdbcRepository.streamValuationRows(fetchSize, rs -> {
+                Chunk chunk = current[0];
+                long priceCents = rs.getLong(3);
+                boolean priced = !rs.wasNull();
+                chunk.add(rs.getInt(1), rs.getString(2), priced ? priceCents : 0, priced);
+                if (chunk.size == chunkSize) {
+                    tasks.add(submit(chunk, inFlight));
+                    current[0] = new Chunk(chunkSize);
+                }
+            });
+            if (current[0].size > 0) {
+                tasks.add(submit(current[0], inFlight));
+            }
+        });
+
+        Map<String, Totals> byCategory = new HashMap<>();
+        try {
+            for (ForkJoinTask<Map<String, Totals>> task : tasks) {
+                task.get().forEach((category, totals) -> byCategory.merge(category, totals, Totals::merge));
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("재고 평가 집계에 실패했습니다.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("재고 평가 집계 중 인터럽트되었습니다.", e);
+        }
+
+        Totals grand = new Totals();
+        List<CategoryValuationDto> categories = new ArrayList<>(byCategory.size());
+        byCategory.forEach((category, totals) -> {
+            grand.merge(totals);
+            CategoryValuationDto dto = new CategoryValuationDto();
+            dto.setCategory(category);
+            dto.setSkuCount(totals.skuCount);
+            dto.setTotalQuantity(totals.quantity);
+            dto.setTotalValue(totals.value());
+            dto.setUnpricedSkuCount(totals.unpriced);
+            categories.add(dto);
+        });
+        categories.sort(Comparator.comparing(CategoryValuationDto::getTotalValue).reversed()
+                .thenComparing(CategoryValuationDto::getCategory));
+
+        ValuationReportDto report = new ValuationReportDto();
+        report.setGeneratedAt(generatedAt);
+        report.setSkuCount(grand.skuCount);
+        report.setTotalQuantity(grand.quantity);
+        report.setTotalValue(grand.value());
+        report.setUnpricedSkuCount(grand.unpriced);
+        report.setCategories(categories);
+        report.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    private ForkJoinTask<Map<String, Totals>> submit(Chunk chunk, Semaphore inFlight) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("재고 평가 집계 중 인터럽트되었습니다.", e);
+        }
+        try {
+            return pool.submit(new ChunkTask(chunk, 0, chunk.size, inFlight));
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 스트리밍으로 읽은 행 묶음입니다. 행마다 객체를 만들지 않도록 열별 배열로 보관합니다.
+     */
+    private static final class Chunk {
+        final int[] quantities;
+        final String[] categories;
+        final long[] priceCents;
+        final boolean[] priced;
+        int size;
+
+        Chunk(int capacity) {
+            quantities = new int[capacity];
+            categories = new String[capacity];
+            priceCents = new long[capacity];
+            priced = new boolean[capacity];
+        }
+
+        void add(int quantity, String category, long cents, boolean hasPrice) {
+            quantities[size] = quantity;
+            categories[size] = category != null ? category : UNKNOWN_CATEGORY;
+            priceCents[size] = cents;
+            priced[size] = hasPrice;
+            size++;
+        }
+    }
+
+    /**
+     * 묶음의 [from, to) 구간을 SPLIT_THRESHOLD 이하가 될 때까지 반으로 나누어 카테고리별로 합산합니다.
+     * 최상위 작업이 끝나면 동시 처리 한도(inFlight)를 반환합니다.
+     */
+    private static final class ChunkTask extends RecursiveTask<Map<String, Totals>> {
+        private final Chunk chunk;
+        private final int from;
+        private final int to;
+        private final Semaphore inFlight; // null for subtasks
+
+        ChunkTask(Chunk chunk, int from, int to, Semaphore inFlight) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+            this.inFlight = inFlight;
+        }
+
+        @Override
+        protected Map<String, Totals> compute() {
+            try {
+                if (to - from <= SPLIT_THRESHOLD) {
+                    return sum();
+                }
+                int middle = (from + to) >>> 1;
+                ChunkTask left = new ChunkTask(chunk, from, middle, null);
+                left.fork();
+                Map<String, Totals> result = new ChunkTask(chunk, middle, to, null).compute();
+                left.join().forEach((category, totals) -> result.merge(category, totals, Totals::merge));
+                return result;
+            } finally {
+                if (inFlight != null) {
+                    inFlight.release();
+                }
+            }
+        }
+
+        private Map<String, Totals> sum() {
+            Map<String, Totals> result = new HashMap<>();
+            String lastCategory = null;
+            Totals totals = null;
+            for (int i = from; i < to; i++) {
+                // Rows of the same category tend to be adjacent: skip the map lookup for runs
+                if (!chunk.categories[i].equals(lastCategory)) {
+                    lastCategory = chunk.categories[i];
+                    totals = result.computeIfAbsent(lastCategory, category -> new Totals());
+                }
+                totals.add(chunk.quantities[i], chunk.priceCents[i], chunk.priced[i]);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 카테고리 하나의 합계. 금액은 1/100 단위 long으로 합산하고, 넘치면 overflow(BigDecimal)로 옮겨 계속 합산합니다.
+     */
+    private static final class Totals {
+        long skuCount;
+        long quantity;
+        long unpriced;
+        long cents;
+        BigDecimal overflow = BigDecimal.ZERO;
+
+        void add(int itemQuantity, long priceCents, boolean priced) {
+            skuCount++;
+            quantity += itemQuantity;
+            if (!priced) {
+                unpriced++;
+                return;
+            }
+            try {
+                cents = Math.addExact(cents, Math.multiplyExact(priceCents, (long) itemQuantity));
+            } catch (ArithmeticException e) {
+                overflow = overflow.add(BigDecimal.valueOf(priceCents, PRICE_SCALE).multiply(BigDecimal.valueOf(itemQuantity)));
+            }
+        }
+
+        Totals merge(Totals other) {
+            skuCount += other.skuCount;
+            quantity += other.quantity;
+            unpriced += other.unpriced;
+            try {
+                cents = Math.addExact(cents, other.cents);
+            } catch (ArithmeticException e) {
+                overflow = overflow.add(BigDecimal.valueOf(other.cents, PRICE_SCALE));
+            }
+            overflow = overflow.add(other.overflow);
+            return this;
+        }
+
+        BigDecimal value() {
+            return BigDecimal.valueOf(cents, PRICE_SCALE).add(overflow);
+        }
+    }
+}
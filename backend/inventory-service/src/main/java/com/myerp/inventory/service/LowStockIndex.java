@@ -0,0 +1,182 @@
+package com.myerp.inventory.service;
+
+import com.myerp.inventory.dto.LowStockDto;
+import com.myerp.inventory.dto.LowStockPageDto;
+import com.myerp.inventory.repository.InventoryJdbcRepository.StockLevel;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * LowStockIndex
+ * 현재 재고가 최소 유지 재고 이하(quantity <= minStock)인 상품을 메모리에서 관리하는 인덱스입니다.
+ * 재고 증감·최소 재고 변경 시 변경 후 수량으로 갱신되고, 재고 부족(LOW_STOCK)·품절(OUT_OF_STOCK) 건수를
+ * 카운터로 유지하므로 대시보드의 알림 건수를 테이블 조회 없이 바로 반환합니다.
+ * 갱신은 상품별 잠금 안에서 DB의 현재 값을 다시 읽어 반영하므로, 동시에 커밋된 증감이 순서가 뒤바뀌어 반영되지 않습니다.
+ * 인덱스는 인스턴스 로컬이며, 기동 시와 주기적으로 DB에서 다시 구성되어 다른 인스턴스의 변경도 반영됩니다.
+ * 재구성은 조회 시작(stamp) 이후 갱신된 상품은 덮어쓰지 않습니다.
+ */
+@Component
+public class LowStockIndex {
+
+    public static final String LOW_STOCK = "LOW_STOCK";
+    public static final String OUT_OF_STOCK = "OUT_OF_STOCK";
+
+    private static final int LOCKS = 64;
+
+    // productId 순으로 정렬되어 페이지 조회 순서가 항상 같습니다.
+    private final ConcurrentSkipListMap<Long, StockLevel> lowStock = new ConcurrentSkipListMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCKS];
+    private final AtomicInteger lowCount = new AtomicInteger();
+    private final AtomicInteger outCount = new AtomicInteger();
+    // 상품별 마지막 갱신 순번. 재구성이 자신의 조회 이후 갱신된 상품을 옛 값으로 덮어쓰지 않도록 사용하며, 재구성마다 정리됩니다.
+    private final AtomicLong stamps = new AtomicLong();
+    private final ConcurrentHashMap<Long, Long> updatedAt = new ConcurrentHashMap<>();
+
+    public LowStockIndex() {
+        for (int i = 0; i < LOCKS; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * 상품들의 현재 재고 수량과 최소 재고를 잠금 안에서 다시 읽어 인덱스를 갱신합니다.
+     * 같은 상품의 갱신은 읽기부터 반영까지 직렬화되므로, 나중에 읽은 값이 항상 나중에 반영됩니다.
+     *
+     * @param loader 상품 ID 목록으로 현재 재고를 조회하는 함수 (재고 행이 없는 상품은 결과에서 빠짐)
+     */
+    public void refresh(Collection<Long> productIds, Function<Collection<Long>, Map<Long, StockLevel>> loader) {
+        int[] held = productIds.stream().mapToInt(LowStockIndex::lockIndex).distinct().sorted().toArray();
+        for (int i : held) {
+            locks[i].lock();
+        }
+        try {
+            Map<Long, StockLevel> levels = loader.apply(productIds);
+            for (Long productId : productIds) {
+                apply(productId, levels.get(productId));
+                updatedAt.put(productId, stamps.incrementAndGet());
+            }
+        } finally {
+            for (int i = held.length - 1; i >= 0; i--) {
+                locks[held[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * 재구성용 DB 조회를 시작하기 전에 호출하여 현재 갱신 순번을 얻습니다.
+     */
+    public long stamp() {
+        return stamps.get();
+    }
+
+    /**
+     * DB에서 조회한 저재고 상품 목록으로 인덱스 전체를 교체합니다.
+     * 조회를 시작한 뒤(since 이후) 갱신된 상품은 그 갱신이 더 최신이므로 현재 값을 유지합니다.
+     */
+    public void rebuild(Map<Long, StockLevel> levels, long since) {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        try {
+            lowStock.keySet().removeIf(productId -> !levels.containsKey(productId) && !updatedSince(productId, since));
+            levels.forEach((productId, level) -> {
+                if (!updatedSince(productId, since)) {
+                    lowStock.put(productId, level);
+                }
+            });
+            int low = 0;
+            int out = 0;
+            for (StockLevel level : lowStock.values()) {
+                if (level.quantity() <= 0) {
+                    out++;
+                } else {
+                    low++;
+                }
+            }
+            lowCount.set(low);
+            outCount.set(out);
+            updatedAt.values().removeIf(stamp -> stamp <= since);
+        } finally {
+            for (ReentrantLock lock : locks) {
+                lock.unlock();
+            }
+        }
+    }
+
+    // 호출자가 상품의 잠금을 잡은 상태에서 호출합니다. level이 null이면(재고 행 없음) 인덱스에서 제거합니다.
+    private void apply(long productId, StockLevel level) {
+        boolean low = level != null && level.quantity() <= level.minStock();
+        StockLevel previous = low ? lowStock.put(productId, level) : lowStock.remove(productId);
+        count(previous, -1);
+        count(low ? level : null, 1);
+    }
+
+    private boolean updatedSince(long productId, long since) {
+        return updatedAt.getOrDefault(productId, 0L) > since;
+    }
+
+    private static int lockIndex(long productId) {
+        return (int) Math.floorMod(productId, (long) LOCKS);
+    }
+
+    /**
+     * 저재고 상품을 productId 순으로 페이징하여 조회합니다.
+     *
+     * @param status LOW_STOCK 또는 OUT_OF_STOCK만 조회할 경우의 상태 (null이면 둘 다)
+     */
+    public LowStockPageDto page(String status, int page, int size) {
+        long total = status == null ? lowCount.get() + outCount.get()
+                : OUT_OF_STOCK.equals(status) ? outCount.get() : lowCount.get();
+        List<LowStockDto> content = new ArrayList<>(size);
+        long skip = (long) page * size;
+        for (Map.Entry<Long, StockLevel> entry : lowStock.entrySet()) {
+            String entryStatus = statusOf(entry.getValue());
+            if (status != null && !status.equals(entryStatus)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            if (content.size() == size) {
+                break;
+            }
+            LowStockDto dto = new LowStockDto();
+            dto.setProductId(entry.getKey());
+            dto.setQuantity(entry.getValue().quantity());
+            dto.setMinStock(entry.getValue().minStock());
+            dto.setStatus(entryStatus);
+            content.add(dto);
+        }
+
+        LowStockPageDto dto = new LowStockPageDto();
+        dto.setLowStockCount(lowCount.get());
+        dto.setOutOfStockCount(outCount.get());
+        dto.setContent(content);
+        dto.setPage(page);
+        dto.setSize(size);
+        dto.setTotalElements(total);
+        dto.setTotalPages((int) ((total + size - 1) / size));
+        return dto;
+    }
+
+    private void count(StockLevel level, int delta) {
+        if (level != null) {
+            (level.quantity() <= 0 ? outCount : lowCount).addAndGet(delta);
+        }
+    }
+
+    private static String statusOf(StockLevel level) {
+        return level.quantity() <= 0 ? OUT_OF_STOCK : LOW_STOCK;
+    }
+}
@@ -0,0 +1,138 @@
+package com.myerp.inventory.service;
+
+import com.myerp.inventory.client.ProductClient;
+import com.myerp.inventory.dto.ProductDto;
+import com.myerp.inventory.model.ProductReplica;
+import com.myerp.inventory.repository.ProductReplicaJdbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * ProductReplicaService
+ * 재고 화면에 필요한 상품 정보(이름, 카테고리, 단가)를 로컬 복제본에서 제공하는 서비스 클래스입니다.
+ * Product 서비스의 변경 피드(/products/changes)를 주기적으로 읽어 product_replicas 테이블에 반영하고(처음에는 전체 적재),
+ * 자주 조회되는 상품은 크기 제한이 있는 LRU 캐시에 둡니다. 목록 조회는 원격 호출 없이 캐시와 한 번의 DB 조회로 끝나며,
+ * Product 서비스가 내려가 있어도 마지막으로 복제된 정보가 표시됩니다.
+ */
+@Service
+public class ProductReplicaService {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private ProductClient productClient;
+
+    @Autowired
+    private ProductReplicaJdbcRepository replicaRepository;
+
+    @Value("${inventory.product-replica.page-size:1000}")
+    private int pageSize;
+
+    @Value("${inventory.product-replica.overlap-ms:10000}")
+    private long overlapMs;
+
+    private final Map<Long, ProductReplica> cache;
+
+    // 복제본에 반영된 가장 최근 변경 시각 (null이면 아직 DB에서 읽지 않음)
+    private LocalDateTime watermark;
+
+    public ProductReplicaService(@Value("${inventory.product-replica.cache-max-entries:50000}") int maxEntries) {
+        this.cache = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ProductReplica> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 상품 ID 목록의 상품 정보를 조회합니다. 캐시에 없는 상품만 복제본 테이블에서 한 번에 읽습니다.
+     * 아직 복제되지 않았거나 삭제된 상품은 결과에 포함되지 않습니다.
+     */
+    public Map<Long, ProductReplica> findAll(Collection<Long> productIds) {
+        Map<Long, ProductReplica> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        synchronized (cache) {
+            for (Long productId : productIds) {
+                ProductReplica replica = cache.get(productId);
+                if (replica != null) {
+                    found.put(productId, replica);
+                } else {
+                    misses.add(productId);
+                }
+            }
+        }
+        if (!misses.isEmpty()) {
+            Map<Long, ProductReplica> loaded = replicaRepository.findByIds(misses);
+            synchronized (cache) {
+                loaded.values().forEach(this::cacheIfNewer);
+            }
+            found.putAll(loaded);
+        }
+        found.values().removeIf(ProductReplica::isDeleted);
+        return found;
+    }
+
+    public Optional<ProductReplica> find(Long productId) {
+        return Optional.ofNullable(findAll(List.of(productId)).get(productId));
+    }
+
+    /**
+     * 마지막 변경 시각 이후의 상품 변경을 페이지 단위로 끝까지 읽어 복제본과 캐시에 반영합니다.
+     * 기동 직후 첫 실행에서 복제본이 비어 있으면 전체 상품을 적재합니다.
+     * 변경 시각은 커밋 순서와 다를 수 있으므로 매번 overlap-ms만큼 이전부터 다시 읽고, 반영은 멱등으로 처리합니다.
+     */
+    @Scheduled(fixedDelayString = "${inventory.product-replica.poll-interval-ms:5000}")
+    public synchronized void sync() {
+        if (watermark == null) {
+            watermark = replicaRepository.findLatestUpdatedAt().orElse(EPOCH);
+        }
+        LocalDateTime since = watermark.minus(Duration.ofMillis(overlapMs));
+        long afterId = 0;
+        while (true) {
+            List<ProductDto> changes = productClient.getChanges(since.toString(), afterId, pageSize);
+            if (changes.isEmpty()) {
+                return;
+            }
+            replicaRepository.upsertAll(changes);
+            synchronized (cache) {
+                for (ProductDto change : changes) {
+                    cacheIfNewer(toReplica(change));
+                }
+            }
+            ProductDto last = changes.get(changes.size() - 1);
+            since = last.getUpdatedAt();
+            afterId = last.getId();
+            if (since.isAfter(watermark)) {
+                watermark = since;
+            }
+            if (changes.size() < pageSize) {
+                return;
+            }
+        }
+    }
+
+    // 같은 상품의 더 오래된 정보가 캐시의 최신 정보를 덮어쓰지 않도록 합니다. (cache 잠금 안에서 호출)
+    private void cacheIfNewer(ProductReplica replica) {
+        cache.merge(replica.getProductId(), replica,
+                (old, candidate) -> candidate.getUpdatedAt().isBefore(old.getUpdatedAt()) ? old : candidate);
+    }
+
+    private ProductReplica toReplica(ProductDto product) {
+        ProductReplica replica = new ProductReplica();
+        replica.setProductId(product.getId());
+        replica.setName(product.getName());
+        replica.setCategory(product.getCategory());
+        replica.setPrice(product.getPrice());
+        replica.setStatus(product.getStatus());
+        replica.setUpdatedAt(product.getUpdatedAt());
+        replica.setDeleted(product.isDeleted());
+        return replica;
+    }
+}
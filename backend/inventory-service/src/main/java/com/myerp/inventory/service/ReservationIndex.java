@@ -0,0 +1,175 @@
+package com.myerp.inventory.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ReservationIndex
+ * 활성 재고 예약(소프트 홀드)을 메모리에서 관리하는 동시성 인덱스입니다.
+ * 상품별 홀드 합계를 AtomicLong으로 유지하고 CAS 루프로 가용 재고를 검사·선점하므로,
+ * 인기 상품에 예약이 몰려도 inventories 행 잠금 없이 처리할 수 있습니다.
+ * 인덱스는 인스턴스 로컬이며, 기동 시와 주기적으로 stock_reservations 테이블의 ACTIVE 예약과 대조(reconcile)되어
+ * 다른 인스턴스에서 생성·확정·해제된 예약도 반영됩니다. 따라서 인스턴스 간 홀드 차이는 대조 주기 동안만 남습니다.
+ */
+@Component
+public class ReservationIndex {
+
+    private final ConcurrentHashMap<Long, AtomicLong> heldByProduct = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Registered> holds = new ConcurrentHashMap<>();
+
+    // 등록·제거 순서를 나타내는 단조 증가 번호입니다. 대조가 시작되기 전/후에 일어난 변경을 구분합니다.
+    private final AtomicLong stamps = new AtomicLong();
+
+    // 제거된 예약 ID와 제거 시점의 번호. 제거 전에 읽은 DB 스냅샷이 같은 예약을 다시 등록하지 않도록 합니다.
+    private final ConcurrentHashMap<String, Long> tombstones = new ConcurrentHashMap<>();
+
+    /**
+     * 가용 재고(onHand - 현재 홀드)가 충분할 때만 수량을 선점합니다.
+     *
+     * @return 선점에 성공하면 true
+     */
+    public boolean tryHold(long productId, int quantity, long onHand) {
+        AtomicLong held = heldByProduct.computeIfAbsent(productId, id -> new AtomicLong());
+        while (true) {
+            long current = held.get();
+            if (onHand - current < quantity) {
+                return false;
+            }
+            if (held.compareAndSet(current, current + quantity)) {
+                return true;
+            }
+        }
+    }
+
+    public void unhold(long productId, int quantity) {
+        AtomicLong held = heldByProduct.get(productId);
+        if (held != null) {
+            held.addAndGet(-quantity);
+        }
+    }
+
+    /**
+     * 수량 선점이 끝난 예약을 등록합니다. DB에서 복구·대조할 때는 선점 검사 없이 수량을 더합니다.
+     * 같은 예약이 이미 등록되어 있으면(대조가 먼저 등록한 경우) 미리 선점한 수량을 되돌려 두 번 더해지지 않게 합니다.
+     */
+    public void register(Hold hold, boolean alreadyHeld) {
+        Registered previous = holds.putIfAbsent(hold.reservationId(), new Registered(hold, stamps.incrementAndGet()));
+        if (previous != null) {
+            if (alreadyHeld) {
+                unholdAll(hold);
+            }
+            return;
+        }
+        if (!alreadyHeld) {
+            for (int i = 0; i < hold.productIds().length; i++) {
+                heldByProduct.computeIfAbsent(hold.productIds()[i], id -> new AtomicLong())
+                        .addAndGet(hold.quantities()[i]);
+            }
+        }
+    }
+
+    /**
+     * 예약을 인덱스에서 제거하고 선점 수량을 반환합니다. 같은 예약에 대해 한 번만 효과가 있습니다.
+     */
+    public Hold remove(String reservationId) {
+        Registered[] removed = new Registered[1];
+        holds.compute(reservationId, (id, current) -> {
+            tombstones.put(id, stamps.incrementAndGet());
+            removed[0] = current;
+            return null;
+        });
+        if (removed[0] == null) {
+            return null;
+        }
+        unholdAll(removed[0].hold());
+        return removed[0].hold();
+    }
+
+    /**
+     * 만료 시각이 지난 예약을 모두 제거합니다.
+     *
+     * @return 제거된 예약 ID 목록
+     */
+    public List<String> removeExpired(long nowMillis) {
+        List<String> expired = new ArrayList<>();
+        for (Registered registered : holds.values()) {
+            Hold hold = registered.hold();
+            if (hold.expiresAtMillis() < nowMillis && remove(hold.reservationId()) != null) {
+                expired.add(hold.reservationId());
+            }
+        }
+        return expired;
+    }
+
+    public long held(long productId) {
+        AtomicLong held = heldByProduct.get(productId);
+        return held != null ? held.get() : 0L;
+    }
+
+    /**
+     * 대조에 쓸 DB 스냅샷을 읽기 직전에 호출하여 현재 번호를 받습니다.
+     */
+    public long stamp() {
+        return stamps.get();
+    }
+
+    /**
+     * DB의 ACTIVE 예약 스냅샷과 인덱스를 맞춥니다.
+     * 스냅샷에만 있는 예약은 등록하고(다른 인스턴스에서 생성됨), 인덱스에만 있는 예약은 제거합니다(다른 인스턴스에서 확정·해제됨).
+     * 스냅샷을 읽기 시작한 뒤(since 이후) 등록된 예약은 스냅샷에 없을 수 있으므로 제거하지 않고,
+     * 그 뒤 제거된 예약은 스냅샷에 남아 있어도 다시 등록하지 않습니다.
+     *
+     * @param active 예약 ID별 ACTIVE 홀드 (만료되지 않은 것만)
+     * @param since  스냅샷을 읽기 전에 stamp()로 받은 번호
+     * @return 등록·제거된 예약 수
+     */
+    public synchronized int reconcile(Map<String, Hold> active, long since) {
+        int changed = 0;
+        for (Hold hold : active.values()) {
+            boolean[] added = new boolean[1];
+            holds.compute(hold.reservationId(), (id, current) -> {
+                if (current != null || tombstones.containsKey(id)) {
+                    return current;
+                }
+                added[0] = true;
+                return new Registered(hold, stamps.incrementAndGet());
+            });
+            if (added[0]) {
+                for (int i = 0; i < hold.productIds().length; i++) {
+                    heldByProduct.computeIfAbsent(hold.productIds()[i], id -> new AtomicLong())
+                            .addAndGet(hold.quantities()[i]);
+                }
+                changed++;
+            }
+        }
+        for (Registered registered : holds.values()) {
+            String reservationId = registered.hold().reservationId();
+            if (registered.stamp() <= since && !active.containsKey(reservationId) && remove(reservationId) != null) {
+                changed++;
+            }
+        }
+        // since 이전의 제거는 이미 커밋된 뒤이므로 이후 스냅샷에는 나타나지 않습니다.
+        tombstones.values().removeIf(stamp -> stamp <= since);
+        return changed;
+    }
+
+    private void unholdAll(Hold hold) {
+        for (int i = 0; i < hold.productIds().length; i++) {
+            unhold(hold.productIds()[i], hold.quantities()[i]);
+        }
+    }
+
+    /**
+     * 하나의 예약에 포함된 상품별 선점 수량입니다.
+     */
+    public record Hold(String reservationId, long[] productIds, int[] quantities, long expiresAtMillis) {
+    }
+
+    private record Registered(Hold hold, long stamp) {
+    }
+}
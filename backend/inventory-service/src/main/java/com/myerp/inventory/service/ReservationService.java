@@ -0,0 +1,288 @@
+package com.myerp.inventory.service;
+
+import com.myerp.inventory.dto.ReservationRequest;
+import com.myerp.inventory.dto.ReservationResponseDto;
+import com.myerp.inventory.dto.StockAdjustmentRequest;
+import com.myerp.inventory.model.StockReservation;
+import com.myerp.inventory.repository.StockReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * ReservationService
+ * 주문 확정 전 재고를 TTL 기반으로 선점(reserve)하고, 확정(commit) 또는 해제(release)하는 비즈니스 로직 클래스입니다.
+ * 가용 재고 = 현재 재고 - 활성 홀드 합계이며, 홀드 검사는 메모리 인덱스(ReservationIndex)에서 수행되어
+ * inventories 테이블에 행 잠금을 추가하지 않습니다. 인덱스는 주기적으로 DB와 대조되어 다른 인스턴스의 홀드를 반영합니다. 실제 재고 차감은 commit 시점에 일괄 재고 조정으로 반영됩니다.
+ */
+@Service
+public class ReservationService {
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private ReservationIndex reservationIndex;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Value("${inventory.reservation.default-ttl-seconds:900}")
+    private long defaultTtlSeconds;
+
+    /**
+     * 요청된 모든 품목의 재고를 선점합니다. 한 품목이라도 가용 재고가 부족하면 전체 예약이 실패합니다.
+     *
+     * @param request 예약 요청 (참조 ID, TTL, 품목 목록)
+     * @return 생성된 예약 정보
+     */
+    public ReservationResponseDto reserve(ReservationRequest request) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new RuntimeException("예약할 품목이 없습니다.");
+        }
+
+        // 1. Aggregate quantities per product
+        Map<Long, Integer> lines = new TreeMap<>();
+        for (ReservationRequest.ReservationItem item : request.getItems()) {
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new RuntimeException("예약 수량은 1 이상이어야 합니다. 상품 ID: " + item.getProductId());
+            }
+            lines.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        // 2. Hold quantities in the in-memory index (no row locks)
+        Map<Long, Integer> onHand = inventoryService.getOnHandQuantities(lines.keySet());
+        long[] productIds = new long[lines.size()];
+        int[] quantities = new int[lines.size()];
+        int index = 0;
+        for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+            long productId = line.getKey();
+            int quantity = line.getValue();
+            long available = onHand.getOrDefault(productId, 0);
+            if (!reservationIndex.tryHold(productId, quantity, available)) {
+                unholdAll(productIds, quantities, index);
+                throw new RuntimeException("가용 재고가 부족합니다. 상품 ID: " + productId
+                        + " (가용: " + (available - reservationIndex.held(productId)) + ", 요청: " + quantity + ")");
+            }
+            productIds[index] = productId;
+            quantities[index] = quantity;
+            index++;
+        }
+
+        // 2-1. Re-read on-hand after holding: a commit that deducted stock and then dropped its hold
+        //      between the first read and tryHold would otherwise leave holds above the real stock
+        Map<Long, Integer> recheck = inventoryService.getOnHandQuantities(lines.keySet());
+        for (long productId : productIds) {
+            long current = recheck.getOrDefault(productId, 0);
+            if (reservationIndex.held(productId) > current) {
+                unholdAll(productIds, quantities, productIds.length);
+                throw new RuntimeException("가용 재고가 부족합니다. 상품 ID: " + productId
+                        + " (현재 재고: " + current + ", 선점 합계: " + reservationIndex.held(productId) + ")");
+            }
+        }
+
+        // 3. Persist holds (source of truth for restart recovery)
+        String reservationId = UUID.randomUUID().toString();
+        long ttlSeconds = request.getTtlSeconds() != null ? request.getTtlSeconds() : defaultTtlSeconds;
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(ttlSeconds);
+
+        List<StockReservation> rows = new ArrayList<>(lines.size());
+        for (int i = 0; i < productIds.length; i++) {
+            StockReservation row = new StockReservation();
+            row.setReservationId(reservationId);
+            row.setProductId(productIds[i]);
+            row.setQuantity(quantities[i]);
+            row.setStatus("ACTIVE");
+            row.setReferenceId(request.getReferenceId());
+            row.setExpiresAt(expiresAt);
+            rows.add(row);
+        }
+        try {
+            stockReservationRepository.saveAll(rows);
+        } catch (RuntimeException e) {
+            unholdAll(productIds, quantities, productIds.length);
+            throw e;
+        }
+        reservationIndex.register(new ReservationIndex.Hold(reservationId, productIds, quantities,
+                toEpochMillis(expiresAt)), true);
+
+        return toDto(reservationId, "ACTIVE", request.getReferenceId(), expiresAt, rows);
+    }
+
+    /**
+     * 예약을 확정하고 예약 수량만큼 재고를 차감(OUTBOUND)합니다.
+     * 이미 확정된 예약에 대한 재요청은 재고를 다시 차감하지 않습니다. (멱등)
+     * 만료된 예약은 홀드가 이미 해제되었으므로 차감하지 않고 EXPIRED 상태로 응답합니다. (호출 측에서 주문을 실패 처리)
+     *
+     * @param reservationId 예약 ID
+     * @param referenceId   재고 이력에 남길 참조 ID (주문 ID 등, null이면 예약 시 참조 ID 사용)
+     */
+    @Transactional
+    public ReservationResponseDto commit(String reservationId, String referenceId) {
+        List<StockAdjustmentRequest> adjustments = new ArrayList<>();
+        ReservationResponseDto result = commitInto(findRows(reservationId), referenceId, adjustments);
+        inventoryService.adjustStockBatch(adjustments);
+        return result;
+    }
+
+    /**
+     * 여러 예약을 하나의 트랜잭션에서 확정합니다. (주문 서비스 Outbox 릴레이의 일괄 전달용)
+     * 모든 예약의 재고 차감은 한 번의 일괄 재고 조정으로 반영되며, 존재하지 않는 예약은
+     * 전체를 실패시키지 않고 NOT_FOUND 상태로 응답합니다.
+     *
+     * @param requests 예약 ID와 참조 ID(주문 ID) 목록
+     * @return 예약별 처리 결과
+     */
+    @Transactional
+    public List<ReservationResponseDto> commitBatch(List<Map<String, String>> requests) {
+        List<ReservationResponseDto> results = new ArrayList<>(requests.size());
+        List<StockAdjustmentRequest> adjustments = new ArrayList<>();
+        for (Map<String, String> request : requests) {
+            String reservationId = request.get("reservationId");
+            List<StockReservation> rows = stockReservationRepository.findByReservationId(reservationId);
+            if (rows.isEmpty()) {
+                ReservationResponseDto notFound = new ReservationResponseDto();
+                notFound.setReservationId(reservationId);
+                notFound.setStatus("NOT_FOUND");
+                results.add(notFound);
+                continue;
+            }
+            results.add(commitInto(rows, request.get("referenceId"), adjustments));
+        }
+        inventoryService.adjustStockBatch(adjustments);
+        return results;
+    }
+
+    // 만료되지 않은 ACTIVE 예약만 COMMITTED로 전이시키고, 차감할 재고 조정 요청을 adjustments에 추가합니다.
+    private ReservationResponseDto commitInto(List<StockReservation> rows, String referenceId,
+            List<StockAdjustmentRequest> adjustments) {
+        StockReservation first = rows.get(0);
+        String reservationId = first.getReservationId();
+        String resolvedReference = referenceId != null ? referenceId : first.getReferenceId();
+
+        LocalDateTime now = LocalDateTime.now();
+        if (stockReservationRepository.commitActive(reservationId, referenceId, now) == 0) {
+            // Already committed/released, or expired (possibly not yet swept): nothing to deduct
+            String status = "ACTIVE".equals(first.getStatus()) && !first.getExpiresAt().isAfter(now)
+                    ? "EXPIRED" : first.getStatus();
+            return toDto(reservationId, status, first.getReferenceId(), first.getExpiresAt(), rows);
+        }
+        for (StockReservation row : rows) {
+            StockAdjustmentRequest adjustment = new StockAdjustmentRequest();
+            adjustment.setProductId(row.getProductId());
+            adjustment.setQuantityChanged(-row.getQuantity());
+            adjustment.setReason("Reservation Committed: " + reservationId);
+            adjustment.setReferenceId(resolvedReference);
+            adjustments.add(adjustment);
+        }
+        removeAfterCommit(reservationId);
+        return toDto(reservationId, "COMMITTED", resolvedReference, first.getExpiresAt(), rows);
+    }
+
+    /**
+     * 활성 예약을 해제하여 선점 수량을 가용 재고로 되돌립니다. 이미 확정/해제된 예약은 변경하지 않습니다.
+     */
+    @Transactional
+    public ReservationResponseDto release(String reservationId) {
+        List<StockReservation> rows = findRows(reservationId);
+        String status = rows.get(0).getStatus();
+        if (stockReservationRepository.transition(reservationId, List.of("ACTIVE"), "RELEASED", null) > 0) {
+            removeAfterCommit(reservationId);
+            status = "RELEASED";
+        }
+        return toDto(reservationId, status, rows.get(0).getReferenceId(), rows.get(0).getExpiresAt(), rows);
+    }
+
+    /**
+     * 만료된 예약을 메모리 인덱스에서 제거하고, DB에서는 단일 UPDATE로 일괄 만료 처리합니다.
+     */
+    @Scheduled(fixedDelayString = "${inventory.reservation.sweep-interval-ms:5000}")
+    @Transactional
+    public void sweepExpired() {
+        reservationIndex.removeExpired(System.currentTimeMillis());
+        stockReservationRepository.expireAll(LocalDateTime.now());
+    }
+
+    /**
+     * 메모리 인덱스를 DB의 ACTIVE 예약과 대조합니다.
+     * 기동 시 한 번(재시작 복구), 이후 주기적으로 실행되어 다른 인스턴스에서 생성된 홀드를 더하고
+     * 다른 인스턴스에서 확정·해제된 홀드를 제거하므로, 인스턴스 간 초과 판매·유령 홀드는 대조 주기 동안만 생길 수 있습니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${inventory.reservation.reconcile-interval-ms:1000}",
+            initialDelayString = "${inventory.reservation.reconcile-interval-ms:1000}")
+    public void reconcileActiveReservations() {
+        long since = reservationIndex.stamp();
+        Map<String, List<StockReservation>> active = stockReservationRepository
+                .findByStatusAndExpiresAtAfter("ACTIVE", LocalDateTime.now()).stream()
+                .collect(Collectors.groupingBy(StockReservation::getReservationId));
+        Map<String, ReservationIndex.Hold> holds = new HashMap<>(active.size() * 2);
+        for (Map.Entry<String, List<StockReservation>> entry : active.entrySet()) {
+            List<StockReservation> rows = entry.getValue();
+            long[] productIds = new long[rows.size()];
+            int[] quantities = new int[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                productIds[i] = rows.get(i).getProductId();
+                quantities[i] = rows.get(i).getQuantity();
+            }
+            holds.put(entry.getKey(), new ReservationIndex.Hold(entry.getKey(), productIds, quantities,
+                    toEpochMillis(rows.get(0).getExpiresAt())));
+        }
+        reservationIndex.reconcile(holds, since);
+    }
+
+    private List<StockReservation> findRows(String reservationId) {
+        List<StockReservation> rows = stockReservationRepository.findByReservationId(reservationId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("예약을 찾을 수 없습니다. ID: " + reservationId);
+        }
+        return rows;
+    }
+
+    // 트랜잭션이 커밋된 뒤에만 메모리 홀드를 해제하여, 롤백 시 선점 상태가 유지되도록 합니다.
+    private void removeAfterCommit(String reservationId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reservationIndex.remove(reservationId);
+            }
+        });
+    }
+
+    private void unholdAll(long[] productIds, int[] quantities, int count) {
+        for (int i = 0; i < count; i++) {
+            reservationIndex.unhold(productIds[i], quantities[i]);
+        }
+    }
+
+    private long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private ReservationResponseDto toDto(String reservationId, String status, String referenceId,
+            LocalDateTime expiresAt, List<StockReservation> rows) {
+        ReservationResponseDto dto = new ReservationResponseDto();
+        dto.setReservationId(reservationId);
+        dto.setStatus(status);
+        dto.setReferenceId(referenceId);
+        dto.setExpiresAt(expiresAt);
+        dto.setItems(rows.stream().map(row -> {
+            ReservationRequest.ReservationItem item = new ReservationRequest.ReservationItem();
+            item.setProductId(row.getProductId());
+            item.setQuantity(row.getQuantity());
+            return item;
+        }).collect(Collectors.toList()));
+        return dto;
+    }
+}
@@ -0,0 +1,127 @@
+package com.myerp.inventory.service;
+
+import com.myerp.inventory.dto.StockContentionDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StockContentionTracker
+ * 재고 갱신 경합을 관측하기 위한 통계 컴포넌트입니다.
+ * 전체 합계는 Micrometer 지표(inventory.stock.*)로 노출하고, 상품별 통계는 태그 폭증을 피하기 위해
+ * 메모리에 LongAdder로 누적하여 GET /inventory/contention에서 경합이 심한 순으로 조회합니다.
+ */
+@Component
+public class StockContentionTracker {
+
+    private final ConcurrentHashMap<Long, SkuStats> stats = new ConcurrentHashMap<>();
+    private final Timer updateTimer;
+    private final Counter conflictCounter;
+    private final Counter retryCounter;
+    private final Counter exhaustedCounter;
+
+    @Value("${inventory.stock.contention.max-tracked:10000}")
+    private int maxTracked;
+
+    public StockContentionTracker(MeterRegistry meterRegistry) {
+        this.updateTimer = Timer.builder("inventory.stock.update")
+                .description("재고 증감 문장 소요 시간 (행 잠금 대기 포함)")
+                .register(meterRegistry);
+        this.conflictCounter = Counter.builder("inventory.stock.optimistic.conflicts")
+                .description("낙관적 잠금 모드의 버전 충돌 횟수")
+                .register(meterRegistry);
+        this.retryCounter = Counter.builder("inventory.stock.optimistic.retries")
+                .description("낙관적 잠금 충돌 후 재시도 횟수")
+                .register(meterRegistry);
+        this.exhaustedCounter = Counter.builder("inventory.stock.optimistic.exhausted")
+                .description("재시도 한도를 넘겨 실패한 재고 조정 수")
+                .register(meterRegistry);
+    }
+
+    public void recordUpdate(long productId, long elapsedNanos) {
+        updateTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        SkuStats sku = statsFor(productId);
+        if (sku != null) {
+            sku.updates.increment();
+            sku.totalNanos.add(elapsedNanos);
+            sku.maxNanos.accumulate(elapsedNanos);
+        }
+    }
+
+    public void recordConflict(long productId) {
+        conflictCounter.increment();
+        SkuStats sku = statsFor(productId);
+        if (sku != null) {
+            sku.conflicts.increment();
+        }
+    }
+
+    public void recordRetry(long productId) {
+        retryCounter.increment();
+        SkuStats sku = statsFor(productId);
+        if (sku != null) {
+            sku.retries.increment();
+        }
+    }
+
+    public void recordExhausted(long productId) {
+        exhaustedCounter.increment();
+        SkuStats sku = statsFor(productId);
+        if (sku != null) {
+            sku.exhausted.increment();
+        }
+    }
+
+    /**
+     * 충돌 횟수, 평균 소요 시간 순으로 경합이 심한 상품을 반환합니다.
+     */
+    public List<StockContentionDto> top(int limit) {
+        return stats.entrySet().stream()
+                .map(e -> toDto(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingLong(StockContentionDto::getConflicts)
+                        .thenComparingDouble(StockContentionDto::getAvgLatencyMs)
+                        .reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    // 추적 상품 수가 상한에 도달하면 새로운 상품은 합계 지표에만 반영합니다.
+    private SkuStats statsFor(long productId) {
+        SkuStats sku = stats.get(productId);
+        if (sku != null || stats.size() >= maxTracked) {
+            return sku;
+        }
+        return stats.computeIfAbsent(productId, id -> new SkuStats());
+    }
+
+    private StockContentionDto toDto(Long productId, SkuStats sku) {
+        long updates = sku.updates.sum();
+        StockContentionDto dto = new StockContentionDto();
+        dto.setProductId(productId);
+        dto.setUpdates(updates);
+        dto.setConflicts(sku.conflicts.sum());
+        dto.setRetries(sku.retries.sum());
+        dto.setExhausted(sku.exhausted.sum());
+        dto.setAvgLatencyMs(updates > 0 ? sku.totalNanos.sum() / (double) updates / 1_000_000 : 0);
+        dto.setMaxLatencyMs(sku.maxNanos.get() / 1_000_000.0);
+        return dto;
+    }
+
+    private static final class SkuStats {
+        private final LongAdder updates = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    }
+}
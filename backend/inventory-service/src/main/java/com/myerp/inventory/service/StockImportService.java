@@ -0,0 +1,325 @@
+package com.myerp.inventory.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myerp.inventory.dto.StockImportEventDto;
+import com.myerp.inventory.repository.StockImportJdbcRepository;
+import com.myerp.inventory.repository.StockImportJdbcRepository.StagingCopy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StockImportService
+ * 초기 재고 적재와 재고 실사 보정을 위한 대량 가져오기(CSV 또는 NDJSON) 서비스 클래스입니다.
+ * 요청 본문을 한 줄씩 읽어 검증한 뒤 바로 스테이징 테이블로 COPY하므로 파일 전체를 메모리에 올리지 않으며,
+ * 재고와 이력 반영은 상품 수와 관계없이 몇 개의 집합 SQL로 끝납니다. (행마다 /inventory/adjust를 호출하지 않음)
+ * 잘못된 행은 건너뛰고 응답 스트림(NDJSON)으로 바로 알리며, 진행 상황도 일정 행마다 내보냅니다.
+ * 전체가 하나의 트랜잭션이므로 DB 오류나 거부 행 한도 초과 시에는 아무것도 반영되지 않습니다.
+ *
+ * 지원 형식 (열/필드 이름은 대소문자와 '_'를 구분하지 않음)
+ * - CSV: 첫 줄은 헤더. productId, quantity 열은 필수이고 reason, referenceId 열은 선택
+ * - NDJSON: 한 줄에 {"productId": 1, "quantity": 10, "reason": "...", "referenceId": "..."} 객체 하나
+ * quantity는 delta 모드에서 증감 수량, set 모드에서 실사로 확인한 현재 수량(0 이상)입니다.
+ */
+@Service
+public class StockImportService {
+
+    // InventoryHistory의 reason, reference_id 컬럼 길이
+    private static final int MAX_REASON_LENGTH = 255;
+    private static final int MAX_REFERENCE_ID_LENGTH = 50;
+
+    @Autowired
+    private StockImportJdbcRepository stockImportRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${inventory.import.progress-every:10000}")
+    private int progressEvery;
+
+    @Value("${inventory.import.max-errors:1000}")
+    private int maxErrors;
+
+    /**
+     * 입력 스트림의 재고 행을 가져와 반영하고, 처리 결과를 NDJSON으로 출력 스트림에 씁니다.
+     *
+     * @param csv      true면 CSV, false면 NDJSON
+     * @param counting true면 set 모드(실사 수량으로 맞춤), false면 delta 모드(증감)
+     */
+    public void importStock(InputStream input, boolean csv, boolean counting, OutputStream output) throws IOException {
+        long start = System.nanoTime();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        Progress progress = new Progress(writer);
+
+        // Pending ledger deltas must reach the inventory rows first (set mode compares against them)
+        if (stockLedger.isEnabled()) {
+            stockLedger.flush();
+        }
+        StockImportEventDto summary;
+        try {
+            // 헤더 오류는 COPY를 시작하기 전에 알립니다.
+            int[] columns = csv ? csvColumns(readHeader(reader, progress)) : null;
+            summary = transactionTemplate.execute(status -> {
+                StagingCopy copy = stockImportRepository.beginCopy();
+                try {
+                    stage(reader, columns, counting, copy, progress);
+                    copy.finish();
+                } finally {
+                    copy.cancel(); // 실패했을 때만 열려 있음 (열린 COPY는 롤백을 막음)
+                }
+
+                StockImportEventDto result = progress.event("summary");
+                result.setProducts(stockImportRepository.prepareTotals(counting));
+                stockImportRepository.applyTotals();
+                result.setHistories(stockImportRepository.insertHistories(counting, "재고 실사 반영"));
+                return result;
+            });
+        } catch (RuntimeException e) {
+            StockImportEventDto failed = progress.event("failed");
+            failed.setMessage(e instanceof UncheckedIOException ? "요청 본문을 읽지 못했습니다." : e.getMessage());
+            progress.write(failed);
+            writer.flush();
+            return;
+        }
+        inventoryService.rebuildLowStockIndex();
+        summary.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        progress.write(summary);
+        writer.flush();
+    }
+
+    // CSV의 첫 줄(빈 줄 제외)을 헤더로 읽습니다.
+    private static String readHeader(BufferedReader reader, Progress progress) {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                progress.line++;
+                if (!line.isBlank()) {
+                    return line;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        throw new RuntimeException("CSV 헤더가 없습니다.");
+    }
+
+    // 한 줄씩 읽어 검증하고 통과한 행만 스테이징 COPY로 보냅니다. (columns가 null이면 NDJSON)
+    private void stage(BufferedReader reader, int[] columns, boolean counting, StagingCopy copy, Progress progress) {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                progress.line++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    String[] fields = columns != null ? csvFields(line, columns) : jsonFields(line);
+                    long productId = parseProductId(fields[0]);
+                    int quantity = parseQuantity(fields[1], counting);
+                    copy.write(progress.line, productId, quantity, text(fields[2], "reason", MAX_REASON_LENGTH),
+                            text(fields[3], "referenceId", MAX_REFERENCE_ID_LENGTH));
+                    progress.accepted++;
+                } catch (IllegalArgumentException e) {
+                    progress.reject(e.getMessage());
+                    if (progress.rejected > maxErrors) {
+                        throw new RuntimeException("거부된 행이 " + maxErrors + "건을 넘어 가져오기를 중단했습니다.");
+                    }
+                }
+                if (progress.line % progressEvery == 0) {
+                    progress.report();
+                }
+            }
+            progress.report();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 헤더에서 productId, quantity, reason, referenceId 열의 위치를 찾습니다. (없는 선택 열은 -1)
+    private int[] csvColumns(String header) {
+        List<String> names = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        int[] columns = {-1, -1, -1, -1};
+        String[] expected = {"productid", "quantity", "reason", "referenceid"};
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().replace("_", "").toLowerCase();
+            for (int j = 0; j < expected.length; j++) {
+                if (expected[j].equals(name)) {
+                    columns[j] = i;
+                }
+            }
+        }
+        if (columns[0] < 0 || columns[1] < 0) {
+            throw new RuntimeException("CSV 헤더에 productId, quantity 열이 필요합니다.");
+        }
+        return columns;
+    }
+
+    private String[] csvFields(String line, int[] columns) {
+        List<String> values = splitCsv(line);
+        String[] fields = new String[columns.length];
+        for (int j = 0; j < columns.length; j++) {
+            if (columns[j] >= 0 && columns[j] < values.size()) {
+                fields[j] = values.get(columns[j]);
+            }
+        }
+        return fields;
+    }
+
+    // RFC 4180 형식의 한 줄을 나눕니다. (따옴표 안의 쉼표와 "" 이스케이프 지원, 여러 줄에 걸친 필드는 지원하지 않음)
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("닫히지 않은 따옴표가 있습니다.");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private String[] jsonFields(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("JSON 형식이 올바르지 않습니다.");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("한 줄에 JSON 객체 하나가 있어야 합니다.");
+        }
+        String[] fields = new String[4];
+        String[] expected = {"productid", "quantity", "reason", "referenceid"};
+        node.fields().forEachRemaining(field -> {
+            String name = field.getKey().replace("_", "").toLowerCase();
+            for (int j = 0; j < expected.length; j++) {
+                if (expected[j].equals(name) && !field.getValue().isNull()) {
+                    fields[j] = field.getValue().asText();
+                }
+            }
+        });
+        return fields;
+    }
+
+    private static long parseProductId(String value) {
+        try {
+            long productId = Long.parseLong(value == null ? "" : value.trim());
+            if (productId > 0) {
+                return productId;
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new IllegalArgumentException("productId가 올바르지 않습니다: " + value);
+    }
+
+    private static int parseQuantity(String value, boolean counting) {
+        int quantity;
+        try {
+            quantity = Integer.parseInt(value == null ? "" : value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("quantity가 올바르지 않습니다: " + value);
+        }
+        if (counting && quantity < 0) {
+            throw new IllegalArgumentException("실사 수량은 0 이상이어야 합니다: " + quantity);
+        }
+        return quantity;
+    }
+
+    private static String text(String value, String name, int maxLength) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(name + "는 " + maxLength + "자를 넘을 수 없습니다.");
+        }
+        return value;
+    }
+
+    /**
+     * 읽은 줄 수와 반영/거부 건수를 세고 응답 스트림에 이벤트를 씁니다.
+     */
+    private class Progress {
+        private final Writer writer;
+        private long line;
+        private long accepted;
+        private long rejected;
+
+        Progress(Writer writer) {
+            this.writer = writer;
+        }
+
+        StockImportEventDto event(String type) {
+            StockImportEventDto event = new StockImportEventDto();
+            event.setType(type);
+            event.setLine(line);
+            event.setAccepted(accepted);
+            event.setRejected(rejected);
+            return event;
+        }
+
+        void reject(String message) {
+            rejected++;
+            StockImportEventDto event = new StockImportEventDto();
+            event.setType("error");
+            event.setLine(line);
+            event.setMessage(message);
+            write(event);
+        }
+
+        // 진행 상황을 쓰고 지금까지 쌓인 오류 줄과 함께 클라이언트로 내보냅니다.
+        void report() {
+            write(event("progress"));
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void write(StockImportEventDto event) {
+            try {
+                writer.write(objectMapper.writeValueAsString(event));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,760 @@
+package com.myerp.inventory.service;
+
+import com.myerp.inventory.dto.StockAdjustmentRequest;
+import com.myerp.inventory.model.InventoryDeadLetter;
+import com.myerp.inventory.model.InventoryHistory;
+import com.myerp.inventory.model.LedgerCheckpoint;
+import com.myerp.inventory.repository.InventoryDeadLetterRepository;
+import com.myerp.inventory.repository.InventoryHistoryJdbcRepository;
+import com.myerp.inventory.repository.InventoryJdbcRepository;
+import com.myerp.inventory.repository.LedgerCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * StockLedger
+ * 스캐너처럼 조정 빈도가 매우 높은 환경을 위한 메모리 재고 원장입니다. (inventory.ledger.enabled=true 일 때만 동작)
+ * 재고 조정은 DB 대신 로컬 write-ahead 저널(메모리 매핑 파일)에 기록된 뒤 즉시 반환되고,
+ * 백그라운드 flusher가 수 ms마다 모인 조정을 한 트랜잭션(재고 증감 + 이력 배치 INSERT + 체크포인트)으로 Postgres에 반영합니다.
+ * 체크포인트가 재고 반영과 같은 트랜잭션에서 갱신되므로, 재시작 시 저널에서 체크포인트 이후 기록만 재생하면 각 조정이 정확히 한 번 반영됩니다.
+ * 조회용 수량은 상품 ID를 키로 하는 primitive long 맵(잠금 stripe별 분할)에 "DB 반영 수량 + 미반영 증감"으로 유지합니다.
+ * 미반영 증감은 이 인스턴스의 것만 포함되므로, 여러 인스턴스 환경에서 다른 인스턴스의 조정은 flush 이후에 보입니다.
+ * 묶음 반영이 실패하면 한 건씩 다시 반영하고, 그래도 반영할 수 없는 조정만 inventory_dead_letters로 격리하여
+ * 불량 기록 하나가 뒤따르는 조정의 반영을 막지 않게 합니다. (DB 연결 장애 등 일시적 오류는 격리하지 않고 다음 flush에서 재시도)
+ */
+@Component
+public class StockLedger implements SmartLifecycle {
+
+    private static final int MAGIC = 0x494E564C; // "INVL"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_HEADER_SIZE = 8; // int length + int CRC32C
+    private static final int MAX_TEXT_BYTES = 1024;
+    // InventoryHistory의 reason, reference_id 컬럼 길이 (저널에 기록하기 전에 확인해야 flush에서 실패하지 않음)
+    private static final int MAX_REASON_LENGTH = 255;
+    private static final int MAX_REFERENCE_ID_LENGTH = 50;
+    private static final int SEGMENTS = 64;
+    private static final long NOT_LOADED = Long.MIN_VALUE;
+
+    @Autowired
+    @Lazy // InventoryService -> StockLedger -> InventoryService
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryJdbcRepository inventoryJdbcRepository;
+
+    @Autowired
+    private InventoryHistoryJdbcRepository inventoryHistoryJdbcRepository;
+
+    @Autowired
+    private LedgerCheckpointRepository ledgerCheckpointRepository;
+
+    @Autowired
+    private InventoryDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private ConsumptionForecastService consumptionForecastService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventory.ledger.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.ledger.journal-path:./data/inventory-ledger.journal}")
+    private String journalPath;
+
+    @Value("${inventory.ledger.journal-size-mb:64}")
+    private int journalSizeMb;
+
+    @Value("${inventory.ledger.flush-interval-ms:5}")
+    private long flushIntervalMillis;
+
+    @Value("${inventory.ledger.force-interval-ms:10}")
+    private long forceIntervalMillis;
+
+    @Value("${inventory.ledger.flush-batch-size:1000}")
+    private int flushBatchSize;
+
+    @Value("${inventory.ledger.read-refresh-ms:1000}")
+    private long readRefreshMillis;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final ConcurrentLinkedQueue<Entry> unflushed = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock journalLock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private FileChannel channel;
+    private MappedByteBuffer journal;
+    private String journalId;
+    private long lastSeq;           // guarded by journalLock
+    private boolean dirty;          // guarded by journalLock
+    private long lastForceNanos;    // guarded by journalLock
+    private volatile long flushedSeq;
+    // 짝수: flush 진행 중 아님 / 홀수: DB 반영 중 (조회 캐시 갱신이 반영 전후 값을 섞지 않도록 하는 seqlock)
+    private volatile long flushEpoch;
+    private List<Entry> retryBatch = List.of(); // guarded by flushLock
+    private volatile boolean running;
+    private Thread flusher;
+
+    private Timer flushTimer;
+    private Counter flushFailures;
+    private Counter quarantined;
+
+    public StockLedger() {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 재고 조정을 저널에 기록하고 메모리 수량에 반영합니다. DB 반영은 다음 flush에서 일괄로 이루어집니다.
+     * force-interval-ms=0이면 기록마다 디스크 동기화(fsync)하고, 그 외에는 최대 force-interval-ms 동안의 조정이
+     * OS 장애 시 유실될 수 있습니다. (프로세스 장애는 페이지 캐시에 남은 저널로 복구됩니다)
+     */
+    public void append(StockAdjustmentRequest request) {
+        if (!running) {
+            throw new RuntimeException("재고 원장이 실행 중이 아닙니다.");
+        }
+        checkLength(request.getReason(), "reason", MAX_REASON_LENGTH);
+        checkLength(request.getReferenceId(), "referenceId", MAX_REFERENCE_ID_LENGTH);
+        byte[] reason = encode(request.getReason());
+        byte[] referenceId = encode(request.getReferenceId());
+        int payloadSize = 8 + 8 + 8 + 4 + 2 + reason.length + 2 + referenceId.length;
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            journalLock.lock();
+            try {
+                int position = journal.position();
+                // Keep room for the zero terminator that marks the end of the journal
+                if (position + RECORD_HEADER_SIZE + payloadSize + 4 <= journal.capacity()) {
+                    long seq = ++lastSeq;
+                    long occurredAt = System.currentTimeMillis();
+                    writeRecord(position, payloadSize, seq, request.getProductId(), occurredAt,
+                            request.getQuantityChanged(), reason, referenceId);
+                    addPending(request.getProductId(), request.getQuantityChanged());
+                    unflushed.add(new Entry(seq, request.getProductId(), occurredAt, request.getQuantityChanged(),
+                            request.getReason(), request.getReferenceId()));
+                    if (forceIntervalMillis <= 0) {
+                        journal.force(position, RECORD_HEADER_SIZE + payloadSize);
+                    } else {
+                        dirty = true;
+                    }
+                    return;
+                }
+            } finally {
+                journalLock.unlock();
+            }
+            // Journal full: push everything to the database and start over from the header
+            flush();
+            rewindIfDrained(HEADER_SIZE);
+        }
+        throw new RuntimeException("재고 원장 저널 공간이 부족합니다. DB 반영이 지연되고 있습니다.");
+    }
+
+    /**
+     * 메모리 원장 기준 현재 재고(DB 반영 수량 + 미반영 증감)를 반환합니다.
+     * DB 반영 수량은 read-refresh-ms 주기로 다시 읽어, 일괄 조정·예약 확정 등 원장을 거치지 않은 변경도 반영합니다.
+     */
+    public int read(long productId) {
+        Segment segment = segmentFor(productId);
+        long now = System.nanoTime();
+        segment.lock.lock();
+        try {
+            int slot = segment.find(productId);
+            if (slot >= 0 && segment.base[slot] != NOT_LOADED
+                    && now - segment.loadedAt[slot] < TimeUnit.MILLISECONDS.toNanos(readRefreshMillis)) {
+                return (int) (segment.base[slot] + segment.pending[slot]);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+
+        long epoch = flushEpoch;
+        if ((epoch & 1) == 0) {
+            Integer quantity = inventoryJdbcRepository.findOnHandQuantities(List.of(productId)).get(productId);
+            segment.lock.lock();
+            try {
+                // Only cache the value if no flush committed (or started committing) while it was read
+                if (flushEpoch == epoch) {
+                    int slot = segment.slotFor(productId);
+                    segment.base[slot] = quantity != null ? quantity : 0;
+                    segment.loadedAt[slot] = now;
+                    return (int) (segment.base[slot] + segment.pending[slot]);
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+
+        // A flush is in progress: wait for it so the database value and the pending delta do not overlap
+        flushLock.lock();
+        try {
+            Integer quantity = inventoryJdbcRepository.findOnHandQuantities(List.of(productId)).get(productId);
+            segment.lock.lock();
+            try {
+                int slot = segment.slotFor(productId);
+                segment.base[slot] = quantity != null ? quantity : 0;
+                segment.loadedAt[slot] = now;
+                return (int) (segment.base[slot] + segment.pending[slot]);
+            } finally {
+                segment.lock.unlock();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 아직 DB에 반영되지 않은 상품별 증감을 반환합니다.
+     */
+    public long pendingDelta(long productId) {
+        Segment segment = segmentFor(productId);
+        segment.lock.lock();
+        try {
+            int slot = segment.find(productId);
+            return slot >= 0 ? segment.pending[slot] : 0;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * 저널에 쌓인 조정을 최대 flush-batch-size 건씩 하나의 트랜잭션으로 DB에 반영합니다. (group commit)
+     * 1. 상품별 증감을 합산하여 재고를 원자적으로 증감 (productId 순서)
+     * 2. 조정 건별 이력을 발생 시각 그대로 JDBC 배치 INSERT
+     * 3. 같은 트랜잭션에서 저널 체크포인트(flushedSeq) 갱신
+     * 묶음이 실패하면 한 건씩 반영하며 반영할 수 없는 조정만 격리하고, 일시적 오류로 멈춘 지점부터는 다음 flush에서 같은 순서로 다시 시도합니다.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            while (true) {
+                List<Entry> batch = nextBatch();
+                if (batch.isEmpty() || !flushBatch(batch)) {
+                    return;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private List<Entry> nextBatch() {
+        if (!retryBatch.isEmpty()) {
+            List<Entry> batch = retryBatch;
+            retryBatch = List.of();
+            return batch;
+        }
+        List<Entry> batch = new ArrayList<>();
+        Entry entry;
+        while (batch.size() < flushBatchSize && (entry = unflushed.poll()) != null) {
+            batch.add(entry);
+        }
+        return batch;
+    }
+
+    private boolean flushBatch(List<Entry> batch) {
+        try {
+            commit(batch);
+            return true;
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+            if (isTransient(e)) {
+                retryBatch = batch;
+                return false;
+            }
+        }
+        // Some entry in the batch cannot be applied: apply one at a time and set aside only the bad ones
+        for (int i = 0; i < batch.size(); i++) {
+            Entry entry = batch.get(i);
+            try {
+                commit(List.of(entry));
+            } catch (RuntimeException e) {
+                if (isTransient(e) || !quarantine(entry, e)) {
+                    // The database is unavailable rather than the entry being bad: resume here next time
+                    retryBatch = new ArrayList<>(batch.subList(i, batch.size()));
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // 조정들을 한 트랜잭션으로 반영하고, 커밋되면 미반영 증감을 DB 반영 수량으로 옮깁니다.
+    private void commit(List<Entry> batch) {
+        TreeMap<Long, Integer> deltas = new TreeMap<>();
+        List<InventoryHistory> histories = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            deltas.merge(entry.productId(), entry.delta(), Integer::sum);
+            histories.add(toHistory(entry));
+        }
+        long batchSeq = batch.get(batch.size() - 1).seq();
+
+        long start = System.nanoTime();
+        flushEpoch++;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                inventoryService.applyDeltas(deltas);
+                inventoryHistoryJdbcRepository.batchInsert(histories);
+                consumptionForecastService.record(histories);
+                ledgerCheckpointRepository.saveCheckpoint(journalId, batchSeq);
+            });
+        } catch (RuntimeException e) {
+            flushEpoch++;
+            throw e;
+        }
+        flushedSeq = batchSeq;
+
+        // Committed: move the deltas from "pending" into the cached database quantity
+        Map<Long, Integer> onHand;
+        try {
+            onHand = inventoryJdbcRepository.findOnHandQuantities(deltas.keySet());
+        } catch (RuntimeException e) {
+            onHand = Map.of(); // caches are reloaded on the next read
+        }
+        long now = System.nanoTime();
+        for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+            Segment segment = segmentFor(delta.getKey());
+            segment.lock.lock();
+            try {
+                int slot = segment.slotFor(delta.getKey());
+                segment.pending[slot] -= delta.getValue();
+                Integer quantity = onHand.get(delta.getKey());
+                segment.base[slot] = quantity != null ? quantity : NOT_LOADED;
+                segment.loadedAt[slot] = now;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        flushEpoch++;
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    // 반영할 수 없는 조정을 격리 테이블로 옮기고 체크포인트를 그 뒤로 넘깁니다. 격리도 실패하면 false를 반환합니다.
+    private boolean quarantine(Entry entry, RuntimeException failure) {
+        InventoryHistory history = toHistory(entry);
+        InventoryDeadLetter deadLetter = new InventoryDeadLetter();
+        deadLetter.setSource(InventoryDeadLetter.LEDGER);
+        deadLetter.setProductId(entry.productId());
+        deadLetter.setQuantityChanged(entry.delta());
+        deadLetter.setType(history.getType());
+        deadLetter.setReason(entry.reason());
+        deadLetter.setReferenceId(entry.referenceId());
+        deadLetter.setOccurredAt(history.getCreatedAt());
+        deadLetter.setError(NestedExceptionUtils.getMostSpecificCause(failure).toString());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                deadLetterRepository.save(deadLetter);
+                ledgerCheckpointRepository.saveCheckpoint(journalId, entry.seq());
+            });
+        } catch (RuntimeException e) {
+            return false;
+        }
+        flushedSeq = entry.seq();
+        addPending(entry.productId(), -entry.delta()); // it will never reach the database
+        quarantined.increment();
+        return true;
+    }
+
+    // DB 연결·잠금 대기 등 기록 자체와 무관하게 다시 시도하면 성공할 수 있는 오류
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException;
+    }
+
+    private static InventoryHistory toHistory(Entry entry) {
+        StockAdjustmentRequest request = new StockAdjustmentRequest();
+        request.setProductId(entry.productId());
+        request.setQuantityChanged(entry.delta());
+        request.setReason(entry.reason());
+        request.setReferenceId(entry.referenceId());
+        InventoryHistory history = InventoryService.buildHistory(request);
+        history.setCreatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.occurredAt()), ZoneId.systemDefault()));
+        return history;
+    }
+
+    // 모든 기록이 DB에 반영되었으면 저널을 헤더 직후로 되감아 공간을 재사용합니다.
+    // seq는 계속 증가하므로, 되감은 뒤 남아 있는 이전 기록은 복구 시 seq 역전으로 걸러집니다.
+    private void rewindIfDrained(int minPosition) {
+        journalLock.lock();
+        try {
+            if (lastSeq == flushedSeq && journal.position() > minPosition) {
+                journal.putInt(HEADER_SIZE, 0);
+                journal.position(HEADER_SIZE);
+                journal.force(0, HEADER_SIZE + 4);
+                dirty = false;
+                lastForceNanos = System.nanoTime();
+            }
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private void forceIfDue() {
+        journalLock.lock();
+        try {
+            long now = System.nanoTime();
+            if (dirty && now - lastForceNanos >= TimeUnit.MILLISECONDS.toNanos(forceIntervalMillis)) {
+                journal.force();
+                dirty = false;
+                lastForceNanos = now;
+            }
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private void runFlusher() {
+        long tick = Math.max(1, forceIntervalMillis > 0 ? Math.min(flushIntervalMillis, forceIntervalMillis)
+                : flushIntervalMillis);
+        long lastFlush = 0;
+        while (running) {
+            try {
+                forceIfDue();
+                long now = System.nanoTime();
+                if (now - lastFlush >= TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis)) {
+                    lastFlush = now;
+                    flush();
+                    rewindIfDrained(journal.capacity() / 2);
+                }
+                Thread.sleep(tick);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                flushFailures.increment(); // keep the flusher alive; the batch is retried on the next tick
+            }
+        }
+    }
+
+    /**
+     * 저널 파일을 열고, DB 체크포인트 이후의 기록을 메모리에 재생한 뒤 flusher 스레드를 시작합니다.
+     */
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        flushTimer = Timer.builder("inventory.ledger.flush")
+                .description("메모리 원장 group commit 소요 시간")
+                .register(meterRegistry);
+        flushFailures = Counter.builder("inventory.ledger.flush.failures")
+                .description("메모리 원장 DB 반영 실패 횟수 (한 건씩 재시도하거나 다음 flush에서 재시도)")
+                .register(meterRegistry);
+        quarantined = Counter.builder("inventory.ledger.quarantined")
+                .description("반영할 수 없어 inventory_dead_letters로 격리된 조정 건수")
+                .register(meterRegistry);
+        Gauge.builder("inventory.ledger.unflushed", unflushed, Collection::size)
+                .description("DB에 반영되지 않은 조정 건수")
+                .register(meterRegistry);
+
+        try {
+            openJournal();
+        } catch (IOException e) {
+            throw new RuntimeException("재고 원장 저널을 열 수 없습니다: " + journalPath, e);
+        }
+        recover();
+
+        running = true;
+        flusher = new Thread(this::runFlusher, "inventory-ledger-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * flusher를 멈추고 남은 조정을 모두 DB에 반영한 뒤 저널을 닫습니다.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } finally {
+            journalLock.lock();
+            try {
+                journal.force();
+                channel.close();
+            } catch (IOException e) {
+                // The journal is already forced; unflushed entries are replayed on the next start
+            } finally {
+                journalLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // 웹 서버보다 먼저 시작하고 나중에 멈춰, 요청이 들어오는 동안에는 항상 저널이 열려 있도록 합니다.
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void openJournal() throws IOException {
+        Path path = Paths.get(journalPath);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        boolean created = !Files.exists(path) || Files.size(path) < HEADER_SIZE;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max((long) journalSizeMb << 20, channel.size());
+        journal = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+        if (created) {
+            UUID id = UUID.randomUUID();
+            journal.putInt(0, MAGIC);
+            journal.putInt(4, FORMAT_VERSION);
+            journal.putLong(8, id.getMostSignificantBits());
+            journal.putLong(16, id.getLeastSignificantBits());
+            journal.putInt(HEADER_SIZE, 0);
+            journal.force();
+        } else if (journal.getInt(0) != MAGIC || journal.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("재고 원장 저널 형식이 올바르지 않습니다.");
+        }
+        journalId = new UUID(journal.getLong(8), journal.getLong(16)).toString();
+        journal.position(HEADER_SIZE);
+    }
+
+    // 체크포인트 이후 기록을 미반영 상태로 되살립니다. 길이 0, CRC 불일치, seq 역전 중 하나를 만나면 저널의 끝으로 봅니다.
+    private void recover() {
+        long checkpoint = ledgerCheckpointRepository.findById(journalId)
+                .map(LedgerCheckpoint::getFlushedSeq)
+                .orElse(0L);
+        flushedSeq = checkpoint;
+        lastSeq = checkpoint;
+
+        int position = HEADER_SIZE;
+        long previousSeq = 0;
+        CRC32C crc = new CRC32C();
+        while (position + RECORD_HEADER_SIZE <= journal.capacity() - 4) {
+            int length = journal.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_SIZE + length > journal.capacity() - 4) {
+                break;
+            }
+            crc.reset();
+            crc.update(journal.slice(position + RECORD_HEADER_SIZE, length));
+            if ((int) crc.getValue() != journal.getInt(position + 4)) {
+                break;
+            }
+            int offset = position + RECORD_HEADER_SIZE;
+            long seq = journal.getLong(offset);
+            if (seq <= previousSeq) {
+                break; // stale record left behind by a rewind
+            }
+            previousSeq = seq;
+            if (seq > checkpoint) {
+                long productId = journal.getLong(offset + 8);
+                long occurredAt = journal.getLong(offset + 16);
+                int delta = journal.getInt(offset + 24);
+                int reasonLength = Short.toUnsignedInt(journal.getShort(offset + 28));
+                String reason = decode(offset + 30, reasonLength);
+                int refOffset = offset + 30 + reasonLength;
+                String referenceId = decode(refOffset + 2, Short.toUnsignedInt(journal.getShort(refOffset)));
+
+                addPending(productId, delta);
+                unflushed.add(new Entry(seq, productId, occurredAt, delta, reason, referenceId));
+                lastSeq = seq;
+            }
+            position += RECORD_HEADER_SIZE + length;
+        }
+        journal.position(position);
+        journal.putInt(position, 0);
+        journal.force();
+        lastForceNanos = System.nanoTime();
+    }
+
+    // 본문과 CRC를 먼저 쓰고 길이를 마지막에 기록하여, 쓰다 만 기록은 복구 시 저널의 끝으로 취급되게 합니다.
+    private void writeRecord(int position, int payloadSize, long seq, long productId, long occurredAt, int delta,
+                             byte[] reason, byte[] referenceId) {
+        int offset = position + RECORD_HEADER_SIZE;
+        journal.putLong(offset, seq);
+        journal.putLong(offset + 8, productId);
+        journal.putLong(offset + 16, occurredAt);
+        journal.putInt(offset + 24, delta);
+        journal.putShort(offset + 28, (short) reason.length);
+        journal.put(offset + 30, reason);
+        int refOffset = offset + 30 + reason.length;
+        journal.putShort(refOffset, (short) referenceId.length);
+        journal.put(refOffset + 2, referenceId);
+
+        CRC32C crc = new CRC32C();
+        crc.update(journal.slice(offset, payloadSize));
+        journal.putInt(position + 4, (int) crc.getValue());
+        journal.putInt(offset + payloadSize, 0);
+        journal.putInt(position, payloadSize);
+        journal.position(offset + payloadSize);
+    }
+
+    private byte[] encode(String text) {
+        if (text == null) {
+            return new byte[0];
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_TEXT_BYTES) {
+            throw new RuntimeException("재고 조정 사유/참조 ID가 너무 깁니다. (최대 " + MAX_TEXT_BYTES + " bytes)");
+        }
+        return bytes;
+    }
+
+    private static void checkLength(String value, String name, int maxLength) {
+        if (value != null && value.length() > maxLength) {
+            throw new RuntimeException(name + "는 " + maxLength + "자를 넘을 수 없습니다.");
+        }
+    }
+
+    private String decode(int offset, int length) {
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        journal.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void addPending(long productId, int delta) {
+        Segment segment = segmentFor(productId);
+        segment.lock.lock();
+        try {
+            segment.pending[segment.slotFor(productId)] += delta;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    private Segment segmentFor(long productId) {
+        return segments[(int) (mix(productId) >>> 58)]; // top 6 bits -> 64 segments
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    private record Entry(long seq, long productId, long occurredAt, int delta, String reason, String referenceId) {
+    }
+
+    /**
+     * 잠금 하나로 보호되는 open addressing 맵입니다. 상품 ID(long)를 박싱 없이 키로 사용하며,
+     * 상품별로 DB 반영 수량(base), 미반영 증감(pending), base를 읽은 시각(loadedAt)을 병렬 배열에 보관합니다.
+     */
+    private static final class Segment {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] keys = newKeys(16);
+        private long[] base = new long[16];
+        private long[] pending = new long[16];
+        private long[] loadedAt = new long[16];
+        private int size;
+
+        private static long[] newKeys(int capacity) {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+
+        private int find(long key) {
+            int mask = keys.length - 1;
+            for (int slot = (int) mix(key) & mask; ; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                if (keys[slot] == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+
+        private int slotFor(long key) {
+            int slot = find(key);
+            if (slot >= 0) {
+                return slot;
+            }
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            slot = (int) mix(key) & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            base[slot] = NOT_LOADED;
+            size++;
+            return slot;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            long[] oldBase = base;
+            long[] oldPending = pending;
+            long[] oldLoadedAt = loadedAt;
+            keys = newKeys(capacity);
+            base = new long[capacity];
+            pending = new long[capacity];
+            loadedAt = new long[capacity];
+            int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = (int) mix(oldKeys[i]) & mask;
+                    while (keys[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    base[slot] = oldBase[i];
+                    pending[slot] = oldPending[i];
+                    loadedAt[slot] = oldLoadedAt[i];
+                }
+            }
+        }
+    }
+}
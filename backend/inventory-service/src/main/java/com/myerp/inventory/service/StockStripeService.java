@@ -0,0 +1,130 @@
+package com.myerp.inventory.service;
+
+import com.myerp.inventory.repository.InventoryJdbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * StockStripeService
+ * 쓰기가 집중되는 상품(Hot SKU)의 재고를 여러 하위 행(inventory_stripes)으로 분산하는 stripe 모드를 관리합니다.
+ * stripe 모드 상품의 증감은 무작위로 고른 하위 행 하나에만 반영되므로, 동시 쓰기가 하나의 inventories 행 잠금에
+ * 줄 서지 않고 N개 행으로 나뉘어 처리됩니다. 재고 조회는 항상 기본 행과 하위 행의 합을 사용합니다.
+ * 백그라운드 컴팩터는 쓰기 빈도가 임계값 아래로 떨어진 상품의 stripe 모드를 해제하고 하위 행을 기본 행으로 합칩니다.
+ */
+@Service
+public class StockStripeService {
+
+    public static final int NOT_STRIPED = -1;
+    public static final int MAX_STRIPES = 64;
+
+    @Autowired
+    private InventoryJdbcRepository inventoryJdbcRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.stock.stripes.compact-interval-ms:60000}")
+    private long compactIntervalMillis;
+
+    @Value("${inventory.stock.stripes.cool-writes-per-minute:60}")
+    private long coolWritesPerMinute;
+
+    // productId -> stripe 개수 (쓰기 경로에서 DB 조회 없이 stripe 모드 여부를 판단)
+    private final ConcurrentHashMap<Long, Integer> stripeCounts = new ConcurrentHashMap<>();
+
+    // 직전 컴팩션 시점의 상품별 누적 쓰기 횟수
+    private final Map<Long, Long> lastWriteCounts = new HashMap<>();
+
+    /**
+     * 재고 증감을 반영할 하위 행 번호를 고릅니다.
+     *
+     * @return stripe 모드가 아니면 NOT_STRIPED
+     */
+    public int pickStripe(long productId) {
+        Integer count = stripeCounts.get(productId);
+        return count != null ? ThreadLocalRandom.current().nextInt(count) : NOT_STRIPED;
+    }
+
+    /**
+     * 상품을 Hot SKU로 지정하여 stripe 모드로 전환하거나 stripe 개수를 변경합니다.
+     *
+     * @param stripes 하위 행 개수 (2 ~ MAX_STRIPES)
+     */
+    public void markHot(long productId, int stripes) {
+        if (stripes < 2 || stripes > MAX_STRIPES) {
+            throw new RuntimeException("stripe 개수는 2~" + MAX_STRIPES + " 범위여야 합니다: " + stripes);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            inventoryJdbcRepository.setStripeCount(productId, stripes);
+            inventoryJdbcRepository.foldStripes(productId); // fold stripes beyond a reduced count
+        });
+        stripeCounts.put(productId, stripes);
+    }
+
+    /**
+     * stripe 모드를 해제하고 모든 하위 행을 기본 행으로 합칩니다.
+     */
+    public void unmarkHot(long productId) {
+        // Stop routing writes to stripes first; late writes to a folded stripe are folded by the next compaction
+        stripeCounts.remove(productId);
+        transactionTemplate.executeWithoutResult(status -> {
+            inventoryJdbcRepository.setStripeCount(productId, 0);
+            inventoryJdbcRepository.foldStripes(productId);
+        });
+    }
+
+    /**
+     * stripe 모드인 상품과 stripe 개수를 조회합니다.
+     */
+    public Map<Long, Integer> getHotProducts() {
+        return Map.copyOf(stripeCounts);
+    }
+
+    /**
+     * 1. 다른 인스턴스에서 변경된 stripe 모드 목록을 DB에서 다시 읽어오고
+     * 2. 직전 실행 이후 쓰기 빈도가 임계값 미만인 상품은 stripe 모드를 해제하며
+     * 3. 해제·축소로 남은 하위 행을 상품별 짧은 트랜잭션에서 기본 행으로 합칩니다.
+     * 쓰기 횟수는 하위 행의 write_count 합계로 계산하므로 인스턴스 수와 관계없이 전체 쓰기 빈도가 반영됩니다.
+     */
+    @Scheduled(fixedDelayString = "${inventory.stock.stripes.compact-interval-ms:60000}")
+    public synchronized void compact() {
+        Map<Long, Integer> current = inventoryJdbcRepository.findStripeCounts();
+        Map<Long, Long> writeCounts = inventoryJdbcRepository.findStripeWriteCounts();
+        long coolThreshold = Math.max(1, coolWritesPerMinute * compactIntervalMillis / 60_000);
+
+        for (Map.Entry<Long, Long> entry : writeCounts.entrySet()) {
+            Long previous = lastWriteCounts.put(entry.getKey(), entry.getValue());
+            // A smaller total means the stripes were recreated since the last run: treat it as a new baseline
+            if (previous != null && entry.getValue() >= previous && entry.getValue() - previous < coolThreshold) {
+                unmarkHot(entry.getKey());
+                current.remove(entry.getKey());
+                lastWriteCounts.remove(entry.getKey());
+            }
+        }
+        lastWriteCounts.keySet().retainAll(current.keySet());
+
+        stripeCounts.keySet().retainAll(current.keySet());
+        stripeCounts.putAll(current);
+
+        List<Long> orphans = inventoryJdbcRepository.findProductsWithOrphanStripes();
+        for (Long productId : orphans) {
+            transactionTemplate.executeWithoutResult(status -> inventoryJdbcRepository.foldStripes(productId));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadHotProducts() {
+        stripeCounts.putAll(inventoryJdbcRepository.findStripeCounts());
+    }
+}
@@ -0,0 +1,7 @@
+-- JPA @Index로 표현할 수 없는 부분(partial) 인덱스
+-- Hibernate 스키마 갱신(ddl-auto) 이후 매 기동 시 실행되며, 여러 번 실행해도 결과가 같습니다.
+-- quantity/min_stock은 조건에 넣지 않습니다. (인덱스가 참조하는 컬럼을 바꾸는 UPDATE는 HOT 갱신이 불가능해져
+-- 모든 재고 증감마다 인덱스 쓰기가 추가되므로, 저재고 조회는 메모리 인덱스(LowStockIndex)로 처리합니다)
+
+-- stripe 모드(Hot SKU) 상품 조회용 (stripe_count는 모드 전환 시에만 바뀜)
+CREATE INDEX IF NOT EXISTS idx_inventories_striped ON inventories (product_id) WHERE stripe_count > 0;
@@ -0,0 +1,161 @@
+package com.myerp.inventory.service;
+
+import com.myerp.inventory.dto.CursorPage;
+import com.myerp.inventory.model.HistoryArchive;
+import com.myerp.inventory.model.InventoryHistory;
+import com.myerp.inventory.repository.HistoryArchiveRepository;
+import com.myerp.inventory.repository.InventoryHistoryPartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * HistoryArchiveService가 보관 파일을 블록 단위 gzip과 희소 색인으로 쓰고,
+ * 깊은 커서에서 해당 블록으로 이동해 처음부터 읽은 것과 같은 결과를 돌려주는지 DB 없이 확인합니다.
+ */
+class HistoryArchiveServiceTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2024, 1);
+    private static final int ROWS = 25_000;
+
+    @TempDir
+    Path dir;
+
+    private InventoryHistoryPartitionRepository partitionRepository;
+    private HistoryArchiveRepository archiveRepository;
+    private HistoryArchiveService service;
+
+    // (created_at, id) 내림차순: 같은 시각의 행이 여러 개 있어 id로 순서가 정해지는 경우도 포함
+    private final List<InventoryHistory> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        LocalDateTime end = MONTH.plusMonths(1).atDay(1).atStartOfDay();
+        for (int i = 0; i < ROWS; i++) {
+            InventoryHistory history = new InventoryHistory();
+            history.setId((long) (ROWS - i));
+            history.setProductId((long) (i % 7));
+            history.setQuantityChanged(i % 2 == 0 ? 3 : -1);
+            history.setType(i % 2 == 0 ? "INBOUND" : "OUTBOUND");
+            history.setReason(i % 5 == 0 ? null : "사유\t" + i);
+            history.setReferenceId("REF-" + i);
+            history.setCreatedAt(end.minusSeconds(1 + i / 3));
+            rows.add(history);
+        }
+
+        partitionRepository = mock(InventoryHistoryPartitionRepository.class);
+        archiveRepository = mock(HistoryArchiveRepository.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            InventoryHistory[] current = new InventoryHistory[1];
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong(anyInt())).thenAnswer(call -> (int) call.getArgument(0) == 1
+                    ? current[0].getId() : current[0].getProductId());
+            when(rs.getInt(3)).thenAnswer(call -> current[0].getQuantityChanged());
+            when(rs.getString(anyInt())).thenAnswer(call -> switch ((int) call.getArgument(0)) {
+                case 4 -> current[0].getType();
+                case 5 -> current[0].getReason();
+                default -> current[0].getReferenceId();
+            });
+            when(rs.getTimestamp(7)).thenAnswer(call -> Timestamp.valueOf(current[0].getCreatedAt()));
+            for (InventoryHistory history : rows) {
+                current[0] = history;
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(partitionRepository).streamPartition(eq(MONTH), anyInt(), any());
+        when(partitionRepository.lockAndCount(MONTH)).thenReturn((long) ROWS);
+
+        service = new HistoryArchiveService();
+        ReflectionTestUtils.setField(service, "partitionRepository", partitionRepository);
+        ReflectionTestUtils.setField(service, "historyArchiveRepository", archiveRepository);
+        ReflectionTestUtils.setField(service, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(service, "archivePath", dir.toString());
+        ReflectionTestUtils.setField(service, "blockRows", 1000);
+    }
+
+    @Test
+    void seeksToBlockOfDeepCursorAndReadsSameRowsAsFullScan() throws Exception {
+        HistoryArchive archive = archive();
+        assertThat(archive.getBlockIndex().split("\n")).hasSize(ROWS / 1000);
+        assertThat(readAll(archive)).hasSize(ROWS); // concatenated blocks are still one valid gzip file
+
+        for (int position : new int[]{0, 999, 1000, 1001, 12_345, 24_998}) {
+            InventoryHistory at = rows.get(position);
+            CursorPage.Cursor cursor = new CursorPage.Cursor(at.getCreatedAt(), at.getId());
+
+            List<InventoryHistory> page = service.readArchived(null, cursor, 50);
+
+            List<Long> expected = rows.subList(position + 1, Math.min(position + 51, ROWS)).stream()
+                    .map(InventoryHistory::getId).toList();
+            assertThat(page).extracting(InventoryHistory::getId).as("after row " + position)
+                    .containsExactlyElementsOf(expected);
+        }
+
+        InventoryHistory first = service.readArchived(3L, CursorPage.Cursor.START, 1).get(0);
+        InventoryHistory expected = rows.stream().filter(history -> history.getProductId() == 3L).findFirst().orElseThrow();
+        assertThat(first.getReason()).isEqualTo(expected.getReason());
+        assertThat(first.getReferenceId()).isEqualTo(expected.getReferenceId());
+        assertThat(first.getCreatedAt()).isEqualTo(expected.getCreatedAt());
+
+        long deep = HistoryArchiveService.blockOffset(archive.getBlockIndex(),
+                rows.get(20_500).getCreatedAt(), rows.get(20_500).getId());
+        assertThat(deep).isEqualTo(Long.parseLong(archive.getBlockIndex().split("\n")[20].split("\t")[0]));
+    }
+
+    @Test
+    void sumsOnlyRowsInRangeFromTheBlockContainingRangeEnd() {
+        archive();
+        LocalDateTime from = rows.get(18_000).getCreatedAt();
+        LocalDateTime to = rows.get(6_000).getCreatedAt();
+
+        Map<Long, Long> sums = service.sumArchived(null, from, to);
+
+        Map<Long, Long> expected = new java.util.HashMap<>();
+        for (InventoryHistory history : rows) {
+            if (!history.getCreatedAt().isBefore(from) && history.getCreatedAt().isBefore(to)) {
+                expected.merge(history.getProductId(), (long) history.getQuantityChanged(), Long::sum);
+            }
+        }
+        assertThat(sums).isEqualTo(expected);
+    }
+
+    private HistoryArchive archive() {
+        service.archive(MONTH);
+        ArgumentCaptor<HistoryArchive> captor = ArgumentCaptor.forClass(HistoryArchive.class);
+        verify(archiveRepository).save(captor.capture());
+        HistoryArchive archive = captor.getValue();
+        assertThat(archive.getRowCount()).isEqualTo(ROWS);
+        when(archiveRepository.findByPeriodStartLessThanEqualOrderByPeriodStartDesc(any())).thenReturn(List.of(archive));
+        return archive;
+    }
+
+    private static List<String> readAll(HistoryArchive archive) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(archive.getFilePath())), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+}
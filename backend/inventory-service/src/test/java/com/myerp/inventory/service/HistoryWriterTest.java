@@ -0,0 +1,97 @@
+package com.myerp.inventory.service;
+
+import com.myerp.inventory.model.InventoryDeadLetter;
+import com.myerp.inventory.model.InventoryHistory;
+import com.myerp.inventory.repository.InventoryDeadLetterRepository;
+import com.myerp.inventory.repository.InventoryHistoryJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * HistoryWriter가 기록할 수 없는 이력만 격리하고 같은 묶음의 나머지 이력은 기록하는지 DB 없이 확인합니다.
+ */
+class HistoryWriterTest {
+
+    private InventoryHistoryJdbcRepository historyRepository;
+    private InventoryDeadLetterRepository deadLetterRepository;
+    private final List<Long> written = new CopyOnWriteArrayList<>();
+    private HistoryWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        historyRepository = mock(InventoryHistoryJdbcRepository.class);
+        deadLetterRepository = mock(InventoryDeadLetterRepository.class);
+        // Product 99 stands for a row the database rejects; any batch containing it fails as a whole
+        doAnswer(invocation -> {
+            List<InventoryHistory> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(history -> history.getProductId() == 99L)) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            batch.forEach(history -> written.add(history.getProductId()));
+            return null;
+        }).when(historyRepository).batchInsert(any());
+
+        writer = new HistoryWriter();
+        ReflectionTestUtils.setField(writer, "inventoryHistoryJdbcRepository", historyRepository);
+        ReflectionTestUtils.setField(writer, "deadLetterRepository", deadLetterRepository);
+        ReflectionTestUtils.setField(writer, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(writer, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(writer, "enabled", true);
+        ReflectionTestUtils.setField(writer, "capacity", 1024);
+        ReflectionTestUtils.setField(writer, "batchSize", 500);
+        ReflectionTestUtils.setField(writer, "maxDelayMillis", 1L);
+        ReflectionTestUtils.setField(writer, "offerTimeoutMillis", 100L);
+        writer.start();
+    }
+
+    @Test
+    void deadLettersOnlyTheRowThatCannotBeWritten() {
+        writer.enqueue(history(1L, "입고"));
+        writer.enqueue(history(99L, "불량"));
+        writer.enqueue(history(2L, null));
+        writer.stop();
+
+        assertThat(written).containsExactlyInAnyOrder(1L, 2L);
+        ArgumentCaptor<InventoryDeadLetter> deadLetter = ArgumentCaptor.forClass(InventoryDeadLetter.class);
+        verify(deadLetterRepository).save(deadLetter.capture());
+        assertThat(deadLetter.getValue().getSource()).isEqualTo(InventoryDeadLetter.HISTORY);
+        assertThat(deadLetter.getValue().getProductId()).isEqualTo(99L);
+        assertThat(deadLetter.getValue().getReason()).isEqualTo("불량");
+        assertThat(deadLetter.getValue().getError()).contains("value too long");
+        assertThat(writer.queueDepth()).isZero();
+    }
+
+    @Test
+    void rejectsTextLongerThanColumnsBeforeCommit() {
+        InventoryHistory longReason = history(1L, "x".repeat(256));
+        InventoryHistory longReference = history(1L, null);
+        longReference.setReferenceId("x".repeat(51));
+
+        assertThatThrownBy(() -> writer.check(longReason)).hasMessageContaining("reason");
+        assertThatThrownBy(() -> writer.check(longReference)).hasMessageContaining("referenceId");
+        writer.check(history(1L, "x".repeat(255)));
+        writer.stop();
+    }
+
+    private static InventoryHistory history(long productId, String reason) {
+        InventoryHistory history = new InventoryHistory();
+        history.setProductId(productId);
+        history.setQuantityChanged(1);
+        history.setType("INBOUND");
+        history.setReason(reason);
+        return history;
+    }
+}
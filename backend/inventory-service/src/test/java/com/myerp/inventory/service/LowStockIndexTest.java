@@ -0,0 +1,60 @@
+package com.myerp.inventory.service;
+
+import com.myerp.inventory.dto.LowStockDto;
+import com.myerp.inventory.repository.InventoryJdbcRepository.StockLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LowStockIndex의 갱신이 다시 읽은 현재 값을 반영하고, 재구성이 조회 이후의 갱신을 덮어쓰지 않는지 확인합니다.
+ */
+class LowStockIndexTest {
+
+    @Test
+    void refreshAppliesTheLevelReadUnderTheLock() {
+        LowStockIndex index = new LowStockIndex();
+
+        index.refresh(List.of(1L, 2L), ids -> Map.of(1L, new StockLevel(0, 10), 2L, new StockLevel(50, 10)));
+
+        assertThat(index.page(null, 0, 10).getContent()).extracting(LowStockDto::getProductId).containsExactly(1L);
+        assertThat(index.page(null, 0, 10).getOutOfStockCount()).isEqualTo(1);
+    }
+
+    @Test
+    void refreshRemovesProductWithoutInventoryRow() {
+        LowStockIndex index = new LowStockIndex();
+        index.refresh(List.of(1L), ids -> Map.of(1L, new StockLevel(3, 10)));
+
+        index.refresh(List.of(1L), ids -> Map.of());
+
+        assertThat(index.page(null, 0, 10).getTotalElements()).isZero();
+    }
+
+    @Test
+    void rebuildKeepsProductsRefreshedAfterItsReadStarted() {
+        LowStockIndex index = new LowStockIndex();
+        long since = index.stamp();
+        Map<Long, StockLevel> staleRead = Map.of(1L, new StockLevel(2, 10), 2L, new StockLevel(0, 10));
+        // Product 1 is restocked and refreshed while the rebuild query is running
+        index.refresh(List.of(1L), ids -> Map.of(1L, new StockLevel(100, 10)));
+
+        index.rebuild(staleRead, since);
+
+        assertThat(index.page(null, 0, 10).getContent()).extracting(LowStockDto::getProductId).containsExactly(2L);
+        assertThat(index.page(null, 0, 10).getLowStockCount()).isZero();
+    }
+
+    @Test
+    void rebuildDropsEntriesNoLongerLowWhenNotRefreshedSince() {
+        LowStockIndex index = new LowStockIndex();
+        index.refresh(List.of(1L), ids -> Map.of(1L, new StockLevel(2, 10)));
+
+        index.rebuild(Map.of(), index.stamp());
+
+        assertThat(index.page(null, 0, 10).getTotalElements()).isZero();
+    }
+}
@@ -0,0 +1,73 @@
+package com.myerp.inventory.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ReservationIndex가 DB의 ACTIVE 예약 스냅샷과 대조되어 다른 인스턴스의 홀드를 반영하는지 확인합니다.
+ */
+class ReservationIndexTest {
+
+    private final ReservationIndex index = new ReservationIndex();
+
+    @Test
+    void addsHoldsCreatedByOtherInstances() {
+        index.reconcile(Map.of("r1", hold("r1", 1L, 7)), index.stamp());
+
+        assertThat(index.held(1L)).isEqualTo(7);
+        assertThat(index.tryHold(1L, 4, 10)).isFalse();
+        assertThat(index.tryHold(1L, 3, 10)).isTrue();
+    }
+
+    @Test
+    void removesHoldsCommittedOrReleasedByOtherInstances() {
+        index.reconcile(Map.of("r1", hold("r1", 1L, 7)), index.stamp());
+
+        index.reconcile(Map.of(), index.stamp());
+
+        assertThat(index.held(1L)).isZero();
+    }
+
+    @Test
+    void keepsLocalHoldRegisteredAfterSnapshotWasRead() {
+        long since = index.stamp();
+        assertThat(index.tryHold(1L, 5, 10)).isTrue();
+        index.register(hold("r1", 1L, 5), true);
+
+        index.reconcile(Map.of(), since);
+
+        assertThat(index.held(1L)).isEqualTo(5);
+    }
+
+    @Test
+    void doesNotCountLocalHoldTwiceWhenReconcileRegistersItFirst() {
+        assertThat(index.tryHold(1L, 5, 10)).isTrue();
+        // The row is committed and seen by a reconcile before this instance registers the hold
+        index.reconcile(Map.of("r1", hold("r1", 1L, 5)), index.stamp());
+        index.register(hold("r1", 1L, 5), true);
+
+        assertThat(index.held(1L)).isEqualTo(5);
+        index.remove("r1");
+        assertThat(index.held(1L)).isZero();
+    }
+
+    @Test
+    void doesNotRestoreHoldRemovedAfterSnapshotWasRead() {
+        index.register(hold("r1", 1L, 5), false);
+        long since = index.stamp();
+        // Committed here after the snapshot (still showing r1 as ACTIVE) was read
+        index.remove("r1");
+
+        index.reconcile(Map.of("r1", hold("r1", 1L, 5)), since);
+
+        assertThat(index.held(1L)).isZero();
+    }
+
+    private static ReservationIndex.Hold hold(String reservationId, long productId, int quantity) {
+        return new ReservationIndex.Hold(reservationId, new long[]{productId}, new int[]{quantity},
+                System.currentTimeMillis() + 900_000);
+    }
+}
@@ -0,0 +1,238 @@
+package com.myerp.inventory.service;
+
+import com.myerp.inventory.dto.StockAdjustmentRequest;
+import com.myerp.inventory.model.InventoryDeadLetter;
+import com.myerp.inventory.model.InventoryHistory;
+import com.myerp.inventory.model.LedgerCheckpoint;
+import com.myerp.inventory.repository.InventoryDeadLetterRepository;
+import com.myerp.inventory.repository.InventoryHistoryJdbcRepository;
+import com.myerp.inventory.repository.InventoryJdbcRepository;
+import com.myerp.inventory.repository.LedgerCheckpointRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * StockLedger의 저널 재생(장애 복구)과 불량 기록 격리를 DB 없이 확인합니다.
+ * 장애는 stop() 없이 원장을 버리고 같은 저널 파일로 새 원장을 시작하는 것으로 흉내 내며,
+ * DB 체크포인트는 LedgerCheckpointRepository mock이 돌려주는 값으로 정합니다.
+ */
+class StockLedgerTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<StockLedger> ledgers = new ArrayList<>();
+
+    private InventoryService inventoryService;
+    private InventoryHistoryJdbcRepository historyRepository;
+    private LedgerCheckpointRepository checkpointRepository;
+    private InventoryDeadLetterRepository deadLetterRepository;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService = mock(InventoryService.class);
+        historyRepository = mock(InventoryHistoryJdbcRepository.class);
+        checkpointRepository = mock(LedgerCheckpointRepository.class);
+        deadLetterRepository = mock(InventoryDeadLetterRepository.class);
+        when(checkpointRepository.findById(anyString())).thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (StockLedger ledger : ledgers) {
+            ReflectionTestUtils.setField(ledger, "running", false);
+        }
+    }
+
+    @Test
+    void replaysJournalRecordsAfterCheckpointOnRestart() {
+        StockLedger before = start();
+        before.append(adjustment(1L, 5, "입고", "PO-1"));
+        before.append(adjustment(2L, -3, null, "ORD-7"));
+        before.append(adjustment(1L, 2, "재고 보정", null));
+        String journalId = journalId(before);
+
+        // Crash: the first record was committed by a flush, the other two were not
+        when(checkpointRepository.findById(journalId)).thenReturn(Optional.of(checkpoint(journalId, 1L)));
+        StockLedger after = start();
+
+        assertThat(journalId(after)).isEqualTo(journalId);
+        assertThat(after.pendingDelta(1L)).isEqualTo(2);
+        assertThat(after.pendingDelta(2L)).isEqualTo(-3);
+
+        after.flush();
+
+        verify(inventoryService).applyDeltas(new TreeMap<>(Map.of(1L, 2, 2L, -3)));
+        List<InventoryHistory> histories = capturedHistories();
+        assertThat(histories).extracting(InventoryHistory::getProductId).containsExactly(2L, 1L);
+        assertThat(histories).extracting(InventoryHistory::getReferenceId).containsExactly("ORD-7", null);
+        assertThat(histories).extracting(InventoryHistory::getReason).containsExactly(null, "재고 보정");
+        verify(checkpointRepository).saveCheckpoint(journalId, 3L);
+        assertThat(after.pendingDelta(1L)).isZero();
+        assertThat(after.pendingDelta(2L)).isZero();
+
+        // Sequence numbers continue after the replayed records
+        after.append(adjustment(3L, 1, null, null));
+        after.flush();
+        verify(checkpointRepository).saveCheckpoint(journalId, 4L);
+    }
+
+    @Test
+    void stopsReplayAtTornRecord() throws Exception {
+        StockLedger before = start();
+        before.append(adjustment(1L, 5, null, null));
+        before.append(adjustment(2L, 7, null, null));
+
+        // Corrupt the payload of the second record as if the process died while writing it
+        Path journal = dir.resolve("ledger.journal");
+        try (RandomAccessFile file = new RandomAccessFile(journal.toFile(), "rw")) {
+            file.seek(64);
+            int firstLength = file.readInt();
+            long second = 64 + 8 + firstLength;
+            file.seek(second + 8 + 8); // record header, seq -> productId (no longer matches the CRC)
+            file.writeLong(99L);
+        }
+
+        StockLedger after = start();
+        assertThat(after.pendingDelta(1L)).isEqualTo(5);
+        assertThat(after.pendingDelta(2L)).isZero();
+        assertThat(after.pendingDelta(99L)).isZero();
+    }
+
+    @Test
+    void quarantinesEntryThatCannotBeAppliedAndFlushesTheRest() {
+        doThrow(new DataIntegrityViolationException("bad product"))
+                .when(inventoryService).applyDeltas(argThat(deltas -> deltas.containsKey(99L)));
+        StockLedger ledger = start();
+        ledger.append(adjustment(1L, 5, null, null));
+        ledger.append(adjustment(99L, 4, "불량", null));
+        ledger.append(adjustment(2L, 1, null, null));
+        String journalId = journalId(ledger);
+
+        ledger.flush();
+
+        ArgumentCaptor<InventoryDeadLetter> deadLetter = ArgumentCaptor.forClass(InventoryDeadLetter.class);
+        verify(deadLetterRepository).save(deadLetter.capture());
+        assertThat(deadLetter.getValue().getSource()).isEqualTo(InventoryDeadLetter.LEDGER);
+        assertThat(deadLetter.getValue().getProductId()).isEqualTo(99L);
+        assertThat(deadLetter.getValue().getQuantityChanged()).isEqualTo(4);
+        assertThat(deadLetter.getValue().getError()).contains("bad product");
+        verify(inventoryService).applyDeltas(new TreeMap<>(Map.of(1L, 5)));
+        verify(inventoryService).applyDeltas(new TreeMap<>(Map.of(2L, 1)));
+        verify(checkpointRepository).saveCheckpoint(journalId, 3L);
+        assertThat(ledger.pendingDelta(99L)).isZero();
+
+        // Later adjustments are not held back by the quarantined one
+        ledger.append(adjustment(3L, 2, null, null));
+        ledger.flush();
+        verify(inventoryService).applyDeltas(new TreeMap<>(Map.of(3L, 2)));
+        verify(checkpointRepository).saveCheckpoint(journalId, 4L);
+    }
+
+    @Test
+    void keepsEntriesForRetryWhenDatabaseIsUnavailable() {
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .when(inventoryService).applyDeltas(any());
+        StockLedger ledger = start();
+        ledger.append(adjustment(1L, 5, null, null));
+
+        ledger.flush();
+
+        verifyNoInteractions(deadLetterRepository);
+        verify(checkpointRepository, never()).saveCheckpoint(anyString(), anyLong());
+        assertThat(ledger.pendingDelta(1L)).isEqualTo(5);
+
+        doNothing().when(inventoryService).applyDeltas(any());
+        ledger.flush();
+        verify(checkpointRepository).saveCheckpoint(journalId(ledger), 1L);
+        assertThat(ledger.pendingDelta(1L)).isZero();
+    }
+
+    @Test
+    void rejectsTextLongerThanHistoryColumnsBeforeJournaling() {
+        StockLedger ledger = start();
+
+        assertThatThrownBy(() -> ledger.append(adjustment(1L, 5, "x".repeat(256), null)))
+                .hasMessageContaining("reason");
+        assertThatThrownBy(() -> ledger.append(adjustment(1L, 5, null, "x".repeat(51))))
+                .hasMessageContaining("referenceId");
+        assertThat(ledger.pendingDelta(1L)).isZero();
+    }
+
+    // 같은 저널 파일을 쓰는 원장을 시작합니다. flusher 스레드는 flush하지 않게 한 뒤 멈추고, 테스트가 flush()를 직접 호출합니다.
+    private StockLedger start() {
+        StockLedger ledger = new StockLedger();
+        ReflectionTestUtils.setField(ledger, "inventoryService", inventoryService);
+        ReflectionTestUtils.setField(ledger, "inventoryJdbcRepository", mock(InventoryJdbcRepository.class));
+        ReflectionTestUtils.setField(ledger, "inventoryHistoryJdbcRepository", historyRepository);
+        ReflectionTestUtils.setField(ledger, "ledgerCheckpointRepository", checkpointRepository);
+        ReflectionTestUtils.setField(ledger, "deadLetterRepository", deadLetterRepository);
+        ReflectionTestUtils.setField(ledger, "consumptionForecastService", mock(ConsumptionForecastService.class));
+        ReflectionTestUtils.setField(ledger, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(ledger, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(ledger, "enabled", true);
+        ReflectionTestUtils.setField(ledger, "journalPath", dir.resolve("ledger.journal").toString());
+        ReflectionTestUtils.setField(ledger, "journalSizeMb", 1);
+        ReflectionTestUtils.setField(ledger, "flushIntervalMillis", Long.MAX_VALUE); // no background flush
+        ReflectionTestUtils.setField(ledger, "forceIntervalMillis", 10L);
+        ReflectionTestUtils.setField(ledger, "flushBatchSize", 1000);
+        ReflectionTestUtils.setField(ledger, "readRefreshMillis", 1000L);
+        ledger.start();
+
+        Thread flusher = (Thread) ReflectionTestUtils.getField(ledger, "flusher");
+        flusher.interrupt();
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+        ledgers.add(ledger);
+        return ledger;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<InventoryHistory> capturedHistories() {
+        ArgumentCaptor<List<InventoryHistory>> captor = ArgumentCaptor.forClass(List.class);
+        verify(historyRepository).batchInsert(captor.capture());
+        return captor.getValue();
+    }
+
+    private static String journalId(StockLedger ledger) {
+        return (String) ReflectionTestUtils.getField(ledger, "journalId");
+    }
+
+    private static LedgerCheckpoint checkpoint(String journalId, long flushedSeq) {
+        LedgerCheckpoint checkpoint = new LedgerCheckpoint();
+        checkpoint.setJournalId(journalId);
+        checkpoint.setFlushedSeq(flushedSeq);
+        return checkpoint;
+    }
+
+    private static StockAdjustmentRequest adjustment(long productId, int quantity, String reason, String referenceId) {
+        StockAdjustmentRequest request = new StockAdjustmentRequest();
+        request.setProductId(productId);
+        request.setQuantityChanged(quantity);
+        request.setReason(reason);
+        request.setReferenceId(referenceId);
+        return request;
+    }
+}
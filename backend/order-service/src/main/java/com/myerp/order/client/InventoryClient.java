@@ -1,12 +1,35 @@
 package com.myerp.order.client;
 
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import java.util.List;
 import java.util.Map;
 
 @FeignClient(name = "inventory-service")
 public interface InventoryClient {
     @PostMapping("/inventory/adjust")
     void adjustStock(@RequestBody Map<String, Object> request);
+
+    // 여러 품목의 재고 조정을 하나의 트랜잭션으로 일괄 처리
+    @PostMapping("/inventory/adjust/batch")
+    void adjustStockBatch(@RequestBody List<Map<String, Object>> requests);
+
+    // 주문 품목의 재고를 TTL 동안 선점 (가용 재고 부족 시 실패)
+    @PostMapping("/inventory/reservations")
+    Map<String, Object> reserve(@RequestBody Map<String, Object> request);
+
+    // 예약 확정 (실제 재고 차감, 멱등)
+    @PostMapping("/inventory/reservations/{reservationId}/commit")
+    Map<String, Object> commitReservation(@PathVariable("reservationId") String reservationId,
+            @RequestBody Map<String, Object> request);
+
+    // 여러 예약을 한 트랜잭션으로 확정 (Outbox 릴레이용, 예약 ID 기준 멱등)
+    @PostMapping("/inventory/reservations/commit/batch")
+    List<Map<String, Object>> commitReservations(@RequestBody List<Map<String, Object>> requests);
+
+    // 예약 해제 (선점 수량 반환)
+    @PostMapping("/inventory/reservations/{reservationId}/release")
+    Map<String, Object> releaseReservation(@PathVariable("reservationId") String reservationId);
 }
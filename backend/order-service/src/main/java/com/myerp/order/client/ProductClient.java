@@ -3,10 +3,18 @@ package com.myerp.order.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 @FeignClient(name = "product-service")
 public interface ProductClient {
     @GetMapping("/products/{id}")
     Map<String, Object> getProductById(@PathVariable("id") Long id);
+
+    // 여러 상품을 한 번의 요청으로 조회 (존재하지 않는 ID는 응답에서 제외됨, ordered=true면 상품 인기도에 주문 1건으로 반영)
+    @GetMapping("/products/batch")
+    List<Map<String, Object>> getProductsByIds(@RequestParam("ids") Collection<Long> ids,
+                                               @RequestParam("ordered") boolean ordered);
 }
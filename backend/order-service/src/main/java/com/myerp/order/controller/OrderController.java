@@ -1,7 +1,9 @@
 package com.myerp.order.controller;
 
+import com.myerp.order.dto.CursorPage;
 import com.myerp.order.dto.OrderDto;
 import com.myerp.order.dto.OrderRequest;
+import com.myerp.order.service.IdempotencyService;
 import com.myerp.order.service.OrderService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -10,6 +12,7 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Map;
 
@@ -23,9 +26,11 @@ import java.util.Map;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, IdempotencyService idempotencyService) {
         this.orderService = orderService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping("/health")
@@ -33,9 +38,21 @@ public class OrderController {
         return "Order Service is up and running!";
     }
 
+    /**
+     * 주문을 생성합니다. Idempotency-Key 헤더가 있으면 같은 키로 재시도된 요청에 대해
+     * 주문을 다시 만들지 않고 최초 요청의 응답을 그대로 반환합니다.
+     */
     @PostMapping
-    public ResponseEntity<OrderDto> createOrder(@RequestBody OrderRequest request) {
-        return new ResponseEntity<>(orderService.createOrder(request), HttpStatus.CREATED);
+    public ResponseEntity<OrderDto> createOrder(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody OrderRequest request) {
+        if (idempotencyKey != null && idempotencyKey.length() > IdempotencyService.MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key는 " + IdempotencyService.MAX_KEY_LENGTH + "자를 넘을 수 없습니다.");
+        }
+        OrderDto created = idempotencyService.execute(idempotencyKey, request,
+                () -> orderService.createOrder(request, idempotencyKey));
+        return new ResponseEntity<>(created, HttpStatus.CREATED);
     }
 
     @GetMapping
@@ -45,6 +62,17 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrders(keyword, pageable));
     }
 
+    /**
+     * 주문 목록을 커서 기반으로 조회합니다. 응답의 nextCursor를 다음 요청의 cursor로 전달합니다.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<OrderDto>> scrollOrders(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.scrollOrders(keyword, cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<OrderDto> getOrderById(@PathVariable Long id) {
         return ResponseEntity.ok(orderService.getOrderById(id));
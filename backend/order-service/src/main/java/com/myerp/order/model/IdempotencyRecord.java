@@ -0,0 +1,93 @@
+package com.myerp.order.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * IdempotencyRecord 엔티티
+ * POST /orders 요청의 Idempotency-Key와 그 처리 결과(OrderDto JSON)를 저장합니다.
+ * 주문과 같은 트랜잭션에서 기록되므로, 같은 키로 재시도된 요청은 주문을 다시 만들지 않고 저장된 응답을 돌려받습니다.
+ * 키가 기본키이므로 여러 인스턴스가 같은 키를 동시에 처리하더라도 하나의 주문만 커밋됩니다.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash; // SHA-256 of the request body
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String response; // OrderDto JSON
+
+    private LocalDateTime createdAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // Getters and Setters
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getResponse() {
+        return response;
+    }
+
+    public void setResponse(String response) {
+        this.response = response;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -11,11 +11,14 @@ import java.time.LocalDateTime;
  * 세부 주문 품목은 OrderItem 엔티티를 통해 1:N 관계로 관리해야 하나, 현재는 간소화된 구조입니다.
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_at_id", columnList = "createdAt, id") // 커서 기반 목록 조회용
+})
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -0,0 +1,129 @@
+package com.myerp.order.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * OutboxDeadLetter 엔티티
+ * 재시도 기간 안에 전달하지 못해 FAILED 처리된 Outbox 이벤트의 사본을 보관하는 테이블입니다.
+ * 재고 예약이 확정되지 않은 주문(재고 미차감)을 운영자가 확인하고 수동으로 처리할 수 있도록,
+ * 이벤트 내용과 실패 사유를 이벤트가 FAILED로 바뀌는 트랜잭션에서 함께 기록합니다.
+ */
+@Entity
+@Table(name = "outbox_dead_letters", indexes = {
+        @Index(name = "idx_outbox_dead_letters_aggregate_id", columnList = "aggregate_id")
+})
+public class OutboxDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_dead_letters_seq")
+    @SequenceGenerator(name = "outbox_dead_letters_seq", sequenceName = "outbox_dead_letters_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long eventId; // outbox_events.id
+
+    @Column(nullable = false, length = 50)
+    private String eventType;
+
+    @Column(name = "aggregate_id", nullable = false, length = 50)
+    private String aggregateId; // Order ID
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload; // JSON
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(length = 500)
+    private String error;
+
+    private LocalDateTime eventCreatedAt;
+    private LocalDateTime failedAt;
+
+    public static OutboxDeadLetter of(OutboxEvent event) {
+        OutboxDeadLetter deadLetter = new OutboxDeadLetter();
+        deadLetter.setEventId(event.getId());
+        deadLetter.setEventType(event.getEventType());
+        deadLetter.setAggregateId(event.getAggregateId());
+        deadLetter.setPayload(event.getPayload());
+        deadLetter.setAttempts(event.getAttempts());
+        deadLetter.setError(event.getLastError());
+        deadLetter.setEventCreatedAt(event.getCreatedAt());
+        return deadLetter;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        failedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getAggregateId() {
+        return aggregateId;
+    }
+
+    public void setAggregateId(String aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public LocalDateTime getEventCreatedAt() {
+        return eventCreatedAt;
+    }
+
+    public void setEventCreatedAt(LocalDateTime eventCreatedAt) {
+        this.eventCreatedAt = eventCreatedAt;
+    }
+
+    public LocalDateTime getFailedAt() {
+        return failedAt;
+    }
+}
@@ -0,0 +1,131 @@
+package com.myerp.order.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * OutboxEvent 엔티티
+ * 주문 트랜잭션과 같은 트랜잭션에서 기록되는 "보낼 메시지" 테이블(Transactional Outbox)입니다.
+ * 주문 저장과 메시지 기록이 원자적으로 커밋되므로, 원격 서비스(Inventory) 호출은 주문 응답 경로에서 빠지고
+ * 백그라운드 릴레이(OutboxRelay)가 일괄로 전달하며 실패 시 백오프 후 재시도합니다.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_status_next_attempt", columnList = "status, next_attempt_at")
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String eventType; // STOCK_RESERVATION_COMMIT
+
+    @Column(nullable = false, length = 50)
+    private String aggregateId; // Order ID
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload; // JSON
+
+    @Column(nullable = false, length = 20)
+    private String status; // PENDING, SENT, FAILED
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getAggregateId() {
+        return aggregateId;
+    }
+
+    public void setAggregateId(String aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+}
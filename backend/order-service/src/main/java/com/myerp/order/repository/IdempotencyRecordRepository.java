@@ -0,0 +1,19 @@
+package com.myerp.order.repository;
+
+import com.myerp.order.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // 보관 기간이 지난 키를 단일 DELETE로 정리
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :threshold")
+    int deleteCreatedBefore(@Param("threshold") LocalDateTime threshold);
+}
@@ -3,10 +3,23 @@ package com.myerp.order.repository;
 import com.myerp.order.model.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     Page<Order> findByOrderNumberContainingIgnoreCase(String orderNumber, Pageable pageable);
+
+    // 커서(createdAt, id) 이후의 주문을 최신순으로 조회 (count 쿼리 없음, idx_orders_created_at_id 사용)
+    @Query("SELECT o FROM Order o WHERE o.createdAt <= :createdAt " +
+            "AND (o.createdAt < :createdAt OR o.id < :id) " +
+            "AND (:keyword IS NULL OR LOWER(o.orderNumber) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    Slice<Order> scroll(@Param("keyword") String keyword, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Pageable pageable);
 }
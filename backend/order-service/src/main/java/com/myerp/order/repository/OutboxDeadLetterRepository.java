@@ -0,0 +1,9 @@
+package com.myerp.order.repository;
+
+import com.myerp.order.model.OutboxDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxDeadLetterRepository extends JpaRepository<OutboxDeadLetter, Long> {
+}
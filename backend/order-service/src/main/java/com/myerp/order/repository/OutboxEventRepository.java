@@ -0,0 +1,19 @@
+package com.myerp.order.repository;
+
+import com.myerp.order.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // 전달 시각이 도래한 PENDING 이벤트를 잠그며 조회 (다른 릴레이 인스턴스가 잠근 행은 건너뜀)
+    @Query(value = "SELECT * FROM outbox_events WHERE status = 'PENDING' AND next_attempt_at <= :now "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockDueEvents(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -0,0 +1,235 @@
+package com.myerp.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myerp.order.dto.OrderDto;
+import com.myerp.order.dto.OrderRequest;
+import com.myerp.order.model.IdempotencyRecord;
+import com.myerp.order.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * IdempotencyService
+ * POST /orders의 Idempotency-Key 처리를 담당합니다.
+ * 1. 크기 상한과 TTL을 가진 메모리 캐시에서 키를 찾아, 처리 중이면 첫 요청의 결과를 기다리고 완료되었으면 그 결과를 반환
+ * 2. 메모리에 없으면 idempotency_keys 테이블에 저장된 응답을 조회
+ * 3. 둘 다 없을 때만 실제 주문 생성을 실행 (주문과 같은 트랜잭션에서 키와 응답이 기록됨)
+ * 재시도된 요청은 Partner/Product/Inventory 호출 없이 저장된 OrderDto를 돌려받습니다.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 100; // idempotency_keys.idempotency_key 컬럼 길이
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    @Value("${order.idempotency.cache-size:10000}")
+    private int maxCacheSize;
+
+    @Value("${order.idempotency.cache-ttl-ms:600000}")
+    private long cacheTtlMillis;
+
+    @Value("${order.idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMillis;
+
+    @Value("${order.idempotency.retention-hours:24}")
+    private long retentionHours;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, ObjectMapper objectMapper) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 키 단위로 주문 생성을 한 번만 실행합니다. 키가 없으면 그대로 실행합니다.
+     *
+     * @param idempotencyKey 클라이언트가 보낸 Idempotency-Key 헤더 값
+     * @param request        주문 요청 (같은 키에 다른 요청 본문이 오면 거부)
+     * @param action         실제 주문 생성 로직
+     */
+    public OrderDto execute(String idempotencyKey, OrderRequest request, Supplier<OrderDto> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        String requestHash = hash(request);
+
+        while (true) {
+            long now = System.currentTimeMillis();
+            Entry existing = cache.get(idempotencyKey);
+            if (existing != null && existing.expiresAtMillis > now) {
+                checkSameRequest(idempotencyKey, existing.requestHash, requestHash);
+                return await(idempotencyKey, existing.result);
+            }
+
+            Entry mine = new Entry(requestHash, now + cacheTtlMillis);
+            boolean claimed = existing == null
+                    ? cache.putIfAbsent(idempotencyKey, mine) == null
+                    : cache.replace(idempotencyKey, existing, mine);
+            if (!claimed) {
+                continue; // another request claimed the key first: wait on it
+            }
+            insertionOrder.add(idempotencyKey);
+            evictIfNeeded();
+
+            boolean completed = false;
+            try {
+                OrderDto result;
+                try {
+                    result = findStored(idempotencyKey, requestHash).orElseGet(action);
+                } catch (DataIntegrityViolationException e) {
+                    // Another instance committed the same key concurrently: return its stored response
+                    result = findStored(idempotencyKey, requestHash).orElseThrow(() -> e);
+                }
+                mine.result.complete(result);
+                completed = true;
+                return result;
+            } catch (RuntimeException e) {
+                mine.result.completeExceptionally(e);
+                throw e;
+            } finally {
+                // 어떤 경로로 실패하든 기다리는 요청을 깨우고 키를 풀어 다음 재시도가 새로 처리하게 합니다.
+                if (!completed) {
+                    cache.remove(idempotencyKey, mine);
+                    mine.result.completeExceptionally(
+                            new RuntimeException("같은 Idempotency-Key의 요청 처리가 실패했습니다: " + idempotencyKey));
+                }
+            }
+        }
+    }
+
+    /**
+     * 주문 생성 트랜잭션 안에서 키와 응답을 기록합니다.
+     * 즉시 flush 하므로, 같은 키가 이미 커밋되어 있으면 기본키 충돌 예외가 발생하여 주문 전체가 롤백됩니다.
+     */
+    public void record(String idempotencyKey, OrderRequest request, OrderDto response) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return;
+        }
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey(idempotencyKey);
+        record.setRequestHash(hash(request));
+        record.setOrderId(response.getId());
+        try {
+            record.setResponse(objectMapper.writeValueAsString(response));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("주문 응답을 저장할 수 없습니다. 주문 ID: " + response.getId(), e);
+        }
+        idempotencyRecordRepository.saveAndFlush(record);
+    }
+
+    /**
+     * 만료된 캐시 항목과 보관 기간이 지난 키를 주기적으로 정리합니다.
+     */
+    @Scheduled(fixedDelayString = "${order.idempotency.sweep-interval-ms:60000}")
+    @Transactional
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        cache.entrySet().removeIf(e -> e.getValue().expiresAtMillis <= now && e.getValue().result.isDone());
+        insertionOrder.removeIf(key -> !cache.containsKey(key));
+        idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+    }
+
+    private Optional<OrderDto> findStored(String idempotencyKey, String requestHash) {
+        return idempotencyRecordRepository.findById(idempotencyKey).map(record -> {
+            checkSameRequest(idempotencyKey, record.getRequestHash(), requestHash);
+            try {
+                return objectMapper.readValue(record.getResponse(), OrderDto.class);
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("저장된 주문 응답을 읽을 수 없습니다. Idempotency-Key: " + idempotencyKey, e);
+            }
+        });
+    }
+
+    // 크기 상한을 넘으면 가장 오래된 항목부터 제거합니다. 전체를 훑지 않으며, 만료된 항목 정리는 sweep()에 맡깁니다.
+    // 아직 처리 중인 항목은 건너뛰고 순서 큐 끝에 다시 넣어, 완료된 뒤 제거 대상이 되게 합니다.
+    private void evictIfNeeded() {
+        if (cache.size() <= maxCacheSize) {
+            return;
+        }
+        List<String> inFlight = new ArrayList<>();
+        while (cache.size() > maxCacheSize) {
+            String oldest = insertionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            Entry entry = cache.get(oldest);
+            if (entry == null) {
+                continue;
+            }
+            if (entry.result.isDone()) {
+                cache.remove(oldest, entry);
+            } else {
+                inFlight.add(oldest);
+            }
+        }
+        insertionOrder.addAll(inFlight);
+    }
+
+    private void checkSameRequest(String idempotencyKey, String expectedHash, String actualHash) {
+        if (!expectedHash.equals(actualHash)) {
+            throw new RuntimeException("이미 다른 주문 요청에 사용된 Idempotency-Key 입니다: " + idempotencyKey);
+        }
+    }
+
+    // 첫 요청의 결과를 wait-timeout-ms까지만 기다립니다. (첫 요청이 멈춰도 재시도 요청이 무한정 묶이지 않도록)
+    private OrderDto await(String idempotencyKey, CompletableFuture<OrderDto> result) {
+        try {
+            return result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("같은 Idempotency-Key의 요청이 아직 처리 중입니다. 잠시 후 다시 시도하세요: " + idempotencyKey);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Idempotency-Key 처리 대기 중 인터럽트되었습니다: " + idempotencyKey, e);
+        }
+    }
+
+    private String hash(OrderRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsString(request)
+                    .getBytes(StandardCharsets.UTF_8)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("주문 요청을 해시할 수 없습니다.", e);
+        }
+    }
+
+    private static final class Entry {
+        private final String requestHash;
+        private final long expiresAtMillis;
+        private final CompletableFuture<OrderDto> result = new CompletableFuture<>();
+
+        private Entry(String requestHash, long expiresAtMillis) {
+            this.requestHash = requestHash;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.myerp.order.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.netflix.eureka.EurekaInstanceConfigBean;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * OrderNumberGenerator
+ * 주문번호를 충돌 없이 발급하는 Snowflake 방식의 생성기입니다.
+ * 64비트 ID = 타임스탬프(41비트, ms) | 인스턴스 ID(10비트) | 밀리초 내 시퀀스(12비트)
+ * 마지막 타임스탬프와 시퀀스를 하나의 AtomicLong에 담아 CAS 루프로 갱신하므로 잠금 없이 동작하며,
+ * 인스턴스 ID는 Eureka 인스턴스 메타데이터(worker-id)에서 읽어 여러 order-service 인스턴스 간에도 충돌하지 않습니다.
+ * 주문번호 형식: ORD-{yyyyMMdd}-{ID의 13자리 36진수} (고정 길이이므로 문자열 정렬 = 발급 순서)
+ * 시계가 뒤로 가면 마지막 타임스탬프의 남은 시퀀스를 이어 쓰고, 그마저 소진되면 시계가 따라올 때까지 park로 대기하며
+ * max-clock-wait-ms를 넘기면 발급을 실패시킵니다. (CPU를 점유하며 돌지 않음)
+ */
+@Component
+public class OrderNumberGenerator {
+
+    private static final long EPOCH = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int WORKER_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_WORKER_ID = (1L << WORKER_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13; // Long.MAX_VALUE in base 36
+
+    private static final Logger log = LoggerFactory.getLogger(OrderNumberGenerator.class);
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd")
+            .withZone(ZoneId.systemDefault());
+
+    private final long workerId;
+    private final long maxClockWaitNanos;
+    private final LongSupplier clock;
+
+    // (timestamp - EPOCH) << SEQUENCE_BITS | sequence
+    private final AtomicLong state = new AtomicLong();
+
+    @Autowired
+    public OrderNumberGenerator(ObjectProvider<EurekaInstanceConfigBean> eurekaInstance,
+            @Value("${order.number.max-clock-wait-ms:5000}") long maxClockWaitMillis) {
+        this(resolveWorkerId(eurekaInstance.getIfAvailable()), maxClockWaitMillis, System::currentTimeMillis);
+    }
+
+    OrderNumberGenerator(long workerId, long maxClockWaitMillis, LongSupplier clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("worker-id는 0~" + MAX_WORKER_ID + " 범위여야 합니다: " + workerId);
+        }
+        this.workerId = workerId;
+        this.maxClockWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxClockWaitMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * 새로운 주문번호를 발급합니다.
+     */
+    public String nextOrderNumber() {
+        long id = nextId();
+        long timestamp = (id >>> (WORKER_BITS + SEQUENCE_BITS)) + EPOCH;
+        String encoded = Long.toString(id, 36).toUpperCase(Locale.ROOT);
+        return "ORD-" + DATE_FORMAT.format(Instant.ofEpochMilli(timestamp)) + "-"
+                + "0".repeat(ENCODED_LENGTH - encoded.length()) + encoded;
+    }
+
+    /**
+     * 단조 증가하는 64비트 ID를 발급합니다.
+     * 마지막 타임스탬프의 시퀀스를 모두 사용했으면 시계가 그 타임스탬프를 넘어설 때까지 대기하며,
+     * 대기가 max-clock-wait-ms를 넘으면(시계가 크게 뒤로 간 경우) 예외를 던집니다.
+     */
+    public long nextId() {
+        long waitStart = 0L;
+        while (true) {
+            long current = state.get();
+            long lastTimestamp = current >>> SEQUENCE_BITS;
+            long now = clock.getAsLong() - EPOCH;
+
+            long next;
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                long sequence = (current & SEQUENCE_MASK) + 1;
+                if (sequence > SEQUENCE_MASK) {
+                    waitStart = waitStart == 0L ? System.nanoTime() : waitStart;
+                    awaitClock(lastTimestamp - now, waitStart);
+                    continue;
+                }
+                next = (lastTimestamp << SEQUENCE_BITS) | sequence;
+            }
+
+            if (state.compareAndSet(current, next)) {
+                return ((next >>> SEQUENCE_BITS) << (WORKER_BITS + SEQUENCE_BITS))
+                        | (workerId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    // 시계가 마지막 타임스탬프의 다음 밀리초에 이를 때까지 park합니다. (대기 상한을 넘으면 실패)
+    private void awaitClock(long behindMillis, long waitStart) {
+        long waited = System.nanoTime() - waitStart;
+        if (waited > maxClockWaitNanos) {
+            throw new IllegalStateException("시스템 시계가 마지막 발급 시각보다 " + behindMillis
+                    + "ms 뒤에 있어 주문번호를 발급할 수 없습니다. (대기 " + TimeUnit.NANOSECONDS.toMillis(waited) + "ms)");
+        }
+        long remaining = maxClockWaitNanos - waited + 1;
+        LockSupport.parkNanos(Math.min(TimeUnit.MILLISECONDS.toNanos(behindMillis + 1), remaining));
+    }
+
+    // Eureka 메타데이터의 worker-id를 우선 사용하고, 없으면 인스턴스 ID의 해시로 대체합니다.
+    private static long resolveWorkerId(EurekaInstanceConfigBean instance) {
+        if (instance == null) {
+            return 0L;
+        }
+        String configured = instance.getMetadataMap().get("worker-id");
+        if (configured != null && !configured.isBlank()) {
+            return Long.parseLong(configured.trim());
+        }
+        log.warn("eureka.instance.metadata-map.worker-id가 설정되지 않아 인스턴스 ID 해시로 대체합니다. "
+                + "여러 인스턴스 운영 시 고유한 값을 지정하세요. (instanceId={})", instance.getInstanceId());
+        return Math.floorMod(instance.getInstanceId().hashCode(), MAX_WORKER_ID + 1);
+    }
+}
@@ -1,122 +1,206 @@
 package com.myerp.order.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.myerp.order.client.InventoryClient;
 import com.myerp.order.client.PartnerClient;
 import com.myerp.order.client.ProductClient;
+import com.myerp.order.dto.CursorPage;
 import com.myerp.order.dto.OrderDto;
 import com.myerp.order.dto.OrderItemDto;
 import com.myerp.order.dto.OrderRequest;
 import com.myerp.order.model.Order;
 import com.myerp.order.model.OrderItem;
+import com.myerp.order.model.OutboxEvent;
 import com.myerp.order.repository.OrderItemRepository;
 import com.myerp.order.repository.OrderRepository;
+import com.myerp.order.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 /**
  * OrderService
  * 주문 생성, 조회 및 상태 변경을 담당하는 비즈니스 로직 클래스입니다.
  * Product, Partner, Inventory 서비스와 OpenFeign을 통해 통신하여 주문 가능 여부 및 재고 차감을 처리합니다.
+ * 원격 호출은 항상 DB 트랜잭션 밖에서 수행하여, 하위 서비스가 느려져도 order_db 커넥션 풀이 고갈되지 않도록 합니다.
  */
 @Service
 public class OrderService {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final ProductClient productClient;
     private final PartnerClient partnerClient;
     private final InventoryClient inventoryClient;
+    private final RemoteCallExecutor remoteCallExecutor;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyService idempotencyService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final long reservationTtlSeconds;
+    private final Timer remotePhaseTimer;
+    private final Timer writePhaseTimer;
 
     public OrderService(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
-            ProductClient productClient, PartnerClient partnerClient, InventoryClient inventoryClient) {
+            ProductClient productClient, PartnerClient partnerClient, InventoryClient inventoryClient,
+            RemoteCallExecutor remoteCallExecutor, OutboxEventRepository outboxEventRepository,
+            ObjectMapper objectMapper, IdempotencyService idempotencyService,
+            OrderNumberGenerator orderNumberGenerator, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry, @Value("${order.reservation.ttl-seconds:900}") long reservationTtlSeconds) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.productClient = productClient;
         this.partnerClient = partnerClient;
         this.inventoryClient = inventoryClient;
+        this.remoteCallExecutor = remoteCallExecutor;
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.idempotencyService = idempotencyService;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reservationTtlSeconds = reservationTtlSeconds;
+        this.remotePhaseTimer = Timer.builder("order.create.remote")
+                .description("주문 생성 중 원격 검증·가격 조회·재고 예약 단계 소요 시간 (DB 커넥션 미사용)")
+                .register(meterRegistry);
+        this.writePhaseTimer = Timer.builder("order.create.write")
+                .description("주문 생성 중 쓰기 트랜잭션 소요 시간 (DB 커넥션 점유 구간)")
+                .register(meterRegistry);
     }
 
     /**
      * 새로운 주문을 생성합니다.
      * 1. PartnerClient를 통해 고객 유효성 검증
-     * 2. ProductClient를 통해 상품 단가 조회 및 총액 계산
-     * 3. InventoryClient를 통해 재고 차감 (OUTBOUND)
-     * 4. 데이터베이스에 Order 및 OrderItem 저장
+     * 2. ProductClient의 일괄 조회 API로 상품 단가 조회 및 총액 계산
+     * 3. InventoryClient를 통해 전체 품목 재고 예약 (가용 재고 부족 시 주문 실패)
+     *    (1~3번은 RemoteCallExecutor를 통해 가상 스레드에서 동시에 수행되며, 주문 단위 마감 시간이 적용됩니다)
+     * 4. 조회한 단가로 품목별 금액과 총액 계산 (DB 커넥션 없이 수행)
+     * 5. 짧은 쓰기 트랜잭션에서 Order, OrderItem, 재고 예약 확정 Outbox 이벤트, Idempotency 응답을 한 번에 저장
+     *    (실제 재고 차감(OUTBOUND)은 OutboxRelay가 비동기로 일괄 전달하며, 주문 저장 실패 시 예약을 해제합니다.)
+     * 1~4번 동안에는 트랜잭션이 없으므로 DB 커넥션을 점유하지 않습니다.
      *
-     * @param request 주문 요청 데이터 (고객 ID, 배송지, 상품 목록 등)
+     * @param request        주문 요청 데이터 (고객 ID, 배송지, 상품 목록 등)
+     * @param idempotencyKey 클라이언트의 Idempotency-Key (있으면 응답과 함께 같은 트랜잭션에 기록)
      * @return 생성된 주문 정보 DTO
      */
-    @Transactional
-    public OrderDto createOrder(OrderRequest request) {
-        // Validate Partner
-        Map<String, Object> partnerData;
-        try {
-            partnerData = partnerClient.getPartnerById(request.getPartnerId());
-        } catch (Exception e) {
-            throw new RuntimeException("해당 파트너(거래처)를 찾을 수 없거나 서비스에 연결할 수 없습니다. ID: " + request.getPartnerId());
-        }
+    public OrderDto createOrder(OrderRequest request, String idempotencyKey) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        List<Map<String, Object>> reserveItems = new ArrayList<>();
+        for (OrderRequest.OrderItemRequest itemReq : request.getItems()) {
+            productIds.add(itemReq.getProductId());
 
-        Order order = new Order();
-        order.setOrderNumber("ORD-" + System.currentTimeMillis());
-        order.setPartnerId(request.getPartnerId());
-        order.setShippingAddress(request.getShippingAddress());
-        order.setStatus("PENDING");
+            Map<String, Object> reserveItem = new HashMap<>();
+            reserveItem.put("productId", itemReq.getProductId());
+            reserveItem.put("quantity", itemReq.getQuantity());
+            reserveItems.add(reserveItem);
+        }
+        Map<String, Object> reserveReq = new HashMap<>();
+        reserveReq.put("items", reserveItems);
+        reserveReq.put("ttlSeconds", reservationTtlSeconds); // OutboxRelay의 재시도 기간보다 길어야 함
 
-        // Save order earlier to get ID for items
-        Order savedOrder = orderRepository.save(order);
-        BigDecimal totalAmount = BigDecimal.ZERO;
+        // Validate Partner, fetch product prices & reserve stock concurrently on virtual threads
+        Map<String, Object> partnerData;
+        Map<Long, Map<String, Object>> productDataById;
+        String reservationId;
+        long remoteStart = System.nanoTime();
+        try (RemoteCallExecutor.FanOut fanOut = remoteCallExecutor.fanOut()) {
+            Future<Map<String, Object>> partnerFuture = fanOut
+                    .submit(() -> partnerClient.getPartnerById(request.getPartnerId()));
+            Future<Map<Long, Map<String, Object>>> productsFuture = fanOut
+                    .submit(() -> fetchProducts(productIds, true));
+            Future<Map<String, Object>> reservationFuture = fanOut
+                    .submit(() -> inventoryClient.reserve(reserveReq));
 
-        List<OrderItem> items = new ArrayList<>();
-        for (OrderRequest.OrderItemRequest itemReq : request.getItems()) {
-            Map<String, Object> productData;
+            reservationId = (String) awaitLookup(fanOut, reservationFuture,
+                    "재고가 부족하거나 재고 서비스에 연결할 수 없습니다. 상품 ID: " + productIds).get("reservationId");
             try {
-                productData = productClient.getProductById(itemReq.getProductId());
-            } catch (Exception e) {
-                throw new RuntimeException("해당 상품을 찾을 수 없거나 서비스에 연결할 수 없습니다. ID: " + itemReq.getProductId());
+                partnerData = awaitLookup(fanOut, partnerFuture,
+                        "해당 파트너(거래처)를 찾을 수 없거나 서비스에 연결할 수 없습니다. ID: " + request.getPartnerId());
+                productDataById = awaitLookup(fanOut, productsFuture,
+                        "상품 서비스에 연결할 수 없습니다. ID: " + productIds);
+                for (Long productId : productIds) {
+                    if (!productDataById.containsKey(productId)) {
+                        throw new RuntimeException("해당 상품을 찾을 수 없거나 서비스에 연결할 수 없습니다. ID: " + productId);
+                    }
+                }
+            } catch (RuntimeException e) {
+                releaseReservationQuietly(reservationId);
+                throw e;
             }
+        } finally {
+            remotePhaseTimer.record(System.nanoTime() - remoteStart, TimeUnit.NANOSECONDS);
+        }
+
+        try {
+            // Price the order before opening the transaction
+            Order order = new Order();
+            order.setOrderNumber(orderNumberGenerator.nextOrderNumber());
+            order.setPartnerId(request.getPartnerId());
+            order.setShippingAddress(request.getShippingAddress());
+            order.setStatus("PENDING");
 
-            Double priceDouble = (Double) productData.get("price");
-            BigDecimal unitPrice = BigDecimal.valueOf(priceDouble);
-            BigDecimal subTotal = unitPrice.multiply(BigDecimal.valueOf(itemReq.getQuantity()));
+            BigDecimal totalAmount = BigDecimal.ZERO;
+            List<OrderItem> items = new ArrayList<>();
+            for (OrderRequest.OrderItemRequest itemReq : request.getItems()) {
+                Map<String, Object> productData = productDataById.get(itemReq.getProductId());
 
-            OrderItem item = new OrderItem();
-            item.setOrderId(savedOrder.getId());
-            item.setProductId(itemReq.getProductId());
-            item.setQuantity(itemReq.getQuantity());
-            item.setUnitPrice(unitPrice);
-            item.setSubTotal(subTotal);
+                Object price = productData.get("price");
+                if (price == null) {
+                    throw new RuntimeException("상품 단가를 확인할 수 없습니다. ID: " + itemReq.getProductId());
+                }
+                BigDecimal unitPrice = new BigDecimal(price.toString());
+                BigDecimal subTotal = unitPrice.multiply(BigDecimal.valueOf(itemReq.getQuantity()));
 
-            items.add(item);
-            totalAmount = totalAmount.add(subTotal);
+                OrderItem item = new OrderItem();
+                item.setProductId(itemReq.getProductId());
+                item.setQuantity(itemReq.getQuantity());
+                item.setUnitPrice(unitPrice);
+                item.setSubTotal(subTotal);
 
-            // Optionally reduce inventory stock right away via InventoryService
-            try {
-                Map<String, Object> adjustReq = new HashMap<>();
-                adjustReq.put("productId", itemReq.getProductId());
-                adjustReq.put("quantity", -itemReq.getQuantity()); // Deduct stock
-                adjustReq.put("adjustmentType", "OUTBOUND");
-                adjustReq.put("reason", "Order Created: " + savedOrder.getOrderNumber());
-                adjustReq.put("referenceId", savedOrder.getId().toString());
-
-                inventoryClient.adjustStock(adjustReq);
-            } catch (Exception e) {
-                System.err.println("경고: 재고 차감 요청 실패 - " + e.getMessage());
-                // Depending on business logic, we might fail the order or just proceed with
-                // risk
+                items.add(item);
+                totalAmount = totalAmount.add(subTotal);
             }
-        }
+            order.setTotalAmount(totalAmount);
+            String partnerName = (String) partnerData.get("name");
 
-        orderItemRepository.saveAll(items);
-        savedOrder.setTotalAmount(totalAmount);
-        orderRepository.save(savedOrder);
+            // Short write transaction: the only part of order creation that holds a DB connection
+            return writePhaseTimer.record(() -> transactionTemplate.execute(status -> {
+                Order savedOrder = orderRepository.save(order);
+                for (OrderItem item : items) {
+                    item.setOrderId(savedOrder.getId());
+                }
+                orderItemRepository.saveAll(items);
+
+                // Commit the reservation asynchronously: the outbox row is written in this transaction
+                // and OutboxRelay delivers it to inventory-service after the order is committed
+                outboxEventRepository.save(newReservationCommitEvent(reservationId, savedOrder.getId()));
 
-        return convertToDto(savedOrder, items, (String) partnerData.get("name"));
+                OrderDto result = convertToDto(savedOrder, items, partnerName, productDataById);
+                idempotencyService.record(idempotencyKey, request, result);
+                return result;
+            }));
+        } catch (RuntimeException e) {
+            releaseReservationQuietly(reservationId);
+            throw e;
+        }
     }
 
     /**
@@ -138,14 +222,34 @@ public class OrderService {
         return orders.map(this::convertToDtoLight);
     }
 
+    /**
+     * 주문 목록을 커서 기반으로 최신순 조회합니다. (무한 스크롤용)
+     * OFFSET과 count 쿼리 없이 (createdAt, id) 인덱스를 따라 읽으므로 목록이 깊어져도 비용이 일정합니다.
+     *
+     * @param orderNumberKeyword 검색할 주문 번호 키워드
+     * @param cursor             이전 응답의 nextCursor (없으면 처음부터)
+     * @param size               페이지 크기 (최대 CursorPage.MAX_SIZE)
+     * @return 주문 DTO 목록과 다음 커서
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDto> scrollOrders(String orderNumberKeyword, String cursor, int size) {
+        CursorPage.Cursor position = CursorPage.decode(cursor);
+        String keyword = orderNumberKeyword != null && !orderNumberKeyword.trim().isEmpty()
+                ? orderNumberKeyword.trim() : null;
+        return CursorPage.of(
+                orderRepository.scroll(keyword, position.createdAt(), position.id(), CursorPage.limit(size)),
+                this::convertToDtoLight, Order::getCreatedAt, Order::getId);
+    }
+
     /**
      * 특정 주문의 상세 정보를 조회합니다.
      * FeignClient를 사용해 파트너(고객) 이름과 각 품목의 상품명을 함께 조회하여 응답에 포함시킵니다.
+     * 상품명은 품목 수와 관계없이 일괄 조회 API 한 번으로 가져옵니다.
+     * DB 조회가 끝난 뒤 원격 호출을 수행하므로, 원격 호출 동안 DB 커넥션을 점유하지 않습니다.
      *
      * @param id 주문 ID
      * @return 조회된 주문 상세 정보 DTO
      */
-    @Transactional(readOnly = true)
     public OrderDto getOrderById(Long id) {
         Order order = orderRepository.findById(id).orElseThrow(() -> new RuntimeException("주문을 찾을 수 없습니다. ID: " + id));
         List<OrderItem> items = orderItemRepository.findByOrderId(id);
@@ -159,7 +263,7 @@ public class OrderService {
         } catch (Exception e) {
         }
 
-        return convertToDto(order, items, partnerName);
+        return convertToDto(order, items, partnerName, fetchProductsQuietly(items));
     }
 
     /**
@@ -169,14 +273,74 @@ public class OrderService {
      * @param status 변경할 상태 값
      * @return 상태가 변경된 주문 정보 DTO
      */
-    @Transactional
     public OrderDto updateOrderStatus(Long id, String status) {
-        Order order = orderRepository.findById(id).orElseThrow(() -> new RuntimeException("주문을 찾을 수 없습니다. ID: " + id));
-        order.setStatus(status);
-        orderRepository.save(order);
+        transactionTemplate.executeWithoutResult(tx -> {
+            Order order = orderRepository.findById(id).orElseThrow(() -> new RuntimeException("주문을 찾을 수 없습니다. ID: " + id));
+            order.setStatus(status);
+            orderRepository.save(order);
+        });
         return getOrderById(id);
     }
 
+    /**
+     * FanOut에 제출된 원격 조회 결과를 기다립니다.
+     * 조회 실패 또는 마감 시간 초과 시 주문 생성을 중단하도록 RuntimeException으로 변환합니다.
+     */
+    private <T> T awaitLookup(RemoteCallExecutor.FanOut fanOut, Future<T> future, String errorMessage) {
+        try {
+            return fanOut.await(future);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("원격 서비스 응답 시간이 초과되었습니다. " + errorMessage);
+        } catch (Exception e) {
+            throw new RuntimeException(errorMessage);
+        }
+    }
+
+    private OutboxEvent newReservationCommitEvent(String reservationId, Long orderId) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("reservationId", reservationId);
+        payload.put("referenceId", orderId.toString());
+
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(OutboxRelay.STOCK_RESERVATION_COMMIT);
+        event.setAggregateId(orderId.toString());
+        event.setStatus("PENDING");
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("재고 이벤트를 기록할 수 없습니다. 주문 ID: " + orderId, e);
+        }
+        return event;
+    }
+
+    /**
+     * 주문 생성이 실패했을 때 재고 예약을 해제합니다.
+     * 해제 요청마저 실패하더라도 예약은 TTL이 지나면 inventory-service에서 자동 만료됩니다.
+     */
+    private void releaseReservationQuietly(String reservationId) {
+        try {
+            inventoryClient.releaseReservation(reservationId);
+        } catch (Exception e) {
+            log.warn("재고 예약 해제 요청에 실패했습니다. TTL 만료 후 자동 해제됩니다. (reservationId={}): {}",
+                    reservationId, e.getMessage());
+        }
+    }
+
+    /**
+     * ProductClient의 일괄 조회 API를 한 번 호출하여 상품 ID별 데이터 맵을 만듭니다.
+     * ordered는 주문 생성을 위한 조회인지 여부이며, 상품 서비스가 자동완성 순위용 인기도를 세는 데 사용합니다.
+     */
+    private Map<Long, Map<String, Object>> fetchProducts(Collection<Long> productIds, boolean ordered) {
+        Map<Long, Map<String, Object>> productDataById = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return productDataById;
+        }
+        for (Map<String, Object> pData : productClient.getProductsByIds(productIds, ordered)) {
+            productDataById.put(((Number) pData.get("id")).longValue(), pData);
+        }
+        return productDataById;
+    }
+
     private OrderDto convertToDtoLight(Order order) {
         OrderDto dto = new OrderDto();
         dto.setId(order.getId());
@@ -190,11 +354,22 @@ public class OrderService {
         return dto;
     }
 
-    private OrderDto convertToDto(Order order, List<OrderItem> items, String partnerName) {
+    // Enrich product names with a single batch lookup
+    private Map<Long, Map<String, Object>> fetchProductsQuietly(List<OrderItem> items) {
+        try {
+            return fetchProducts(items.stream().map(OrderItem::getProductId).collect(Collectors.toSet()), false);
+        } catch (Exception e) {
+            return Collections.emptyMap();
+        }
+    }
+
+    private OrderDto convertToDto(Order order, List<OrderItem> items, String partnerName,
+            Map<Long, Map<String, Object>> productDataById) {
         OrderDto dto = convertToDtoLight(order);
         dto.setPartnerName(partnerName);
 
-        List<OrderItemDto> itemDtos = items.stream().map(item -> {
+        List<OrderItemDto> itemDtos = new ArrayList<>();
+        for (OrderItem item : items) {
             OrderItemDto iDto = new OrderItemDto();
             iDto.setId(item.getId());
             iDto.setOrderId(item.getOrderId());
@@ -203,17 +378,14 @@ public class OrderService {
             iDto.setUnitPrice(item.getUnitPrice());
             iDto.setSubTotal(item.getSubTotal());
 
-            // Enrich product name
-            try {
-                Map<String, Object> pData = productClient.getProductById(item.getProductId());
-                if (pData != null && pData.get("name") != null) {
-                    iDto.setProductName((String) pData.get("name"));
-                }
-            } catch (Exception e) {
+            Map<String, Object> pData = productDataById.get(item.getProductId());
+            if (pData != null && pData.get("name") != null) {
+                iDto.setProductName((String) pData.get("name"));
+            } else {
                 iDto.setProductName("알 수 없는 상품");
             }
-            return iDto;
-        }).collect(Collectors.toList());
+            itemDtos.add(iDto);
+        }
 
         dto.setItems(itemDtos);
         return dto;
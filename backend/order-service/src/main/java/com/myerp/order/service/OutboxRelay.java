@@ -0,0 +1,220 @@
+package com.myerp.order.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myerp.order.client.InventoryClient;
+import com.myerp.order.model.OutboxDeadLetter;
+import com.myerp.order.model.OutboxEvent;
+import com.myerp.order.repository.OutboxDeadLetterRepository;
+import com.myerp.order.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * OutboxRelay
+ * outbox_events 테이블에 쌓인 재고 이벤트를 Inventory 서비스로 일괄 전달하는 백그라운드 릴레이입니다.
+ * 1. 짧은 트랜잭션에서 전달 대상 이벤트를 FOR UPDATE SKIP LOCKED로 선점하고 임대(lease) 시간을 기록
+ * 2. 트랜잭션 밖에서 선점한 이벤트 묶음을 한 번의 HTTP 요청으로 전달
+ * 3. 확정(COMMITTED)된 이벤트만 SENT 처리하고, 결과가 없으면 지수 백오프로 재시도 시각을 미룸 (최대 횟수 또는 재시도 기간 초과 시 FAILED)
+ *    예약이 없거나(NOT_FOUND) 이미 해제(RELEASED)·만료(EXPIRED)되어 재고가 차감되지 않은 이벤트는 사유별로 FAILED 처리
+ * Inventory 서비스는 예약 ID 기준으로 멱등하게 확정하므로, 재전송되더라도 재고가 중복 차감되지 않습니다.
+ * 재시도 기간(retry-window-ms)은 재고 예약 TTL보다 짧아야 하며, 홀드가 만료되어 다른 주문에 팔린 재고를
+ * 뒤늦게 차감하는 일이 없도록 기동 시 검사합니다. FAILED 이벤트는 오류 로그와 order.outbox.failed 지표를 남기고
+ * outbox_dead_letters 테이블에 사본을 기록하여 운영자가 수동으로 처리할 수 있게 합니다.
+ */
+@Component
+public class OutboxRelay {
+
+    public static final String STOCK_RESERVATION_COMMIT = "STOCK_RESERVATION_COMMIT";
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDeadLetterRepository outboxDeadLetterRepository;
+    private final InventoryClient inventoryClient;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${order.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${order.outbox.lease-ms:30000}")
+    private long leaseMillis;
+
+    @Value("${order.outbox.backoff-base-ms:1000}")
+    private long backoffBaseMillis;
+
+    @Value("${order.outbox.backoff-max-ms:300000}")
+    private long backoffMaxMillis;
+
+    @Value("${order.outbox.max-attempts:20}")
+    private int maxAttempts;
+
+    @Value("${order.outbox.retry-window-ms:600000}")
+    private long retryWindowMillis;
+
+    @Value("${order.reservation.ttl-seconds:900}")
+    private long reservationTtlSeconds;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+            OutboxDeadLetterRepository outboxDeadLetterRepository, InventoryClient inventoryClient,
+            TransactionTemplate transactionTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxDeadLetterRepository = outboxDeadLetterRepository;
+        this.inventoryClient = inventoryClient;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // 재시도 기간이 예약 TTL 이상이면 만료된 홀드를 확정하게 되므로 기동을 막습니다.
+    @PostConstruct
+    void checkRetryWindow() {
+        if (retryWindowMillis >= reservationTtlSeconds * 1000) {
+            throw new IllegalStateException("order.outbox.retry-window-ms(" + retryWindowMillis
+                    + ")는 재고 예약 TTL(order.reservation.ttl-seconds=" + reservationTtlSeconds + "초)보다 짧아야 합니다.");
+        }
+    }
+
+    /**
+     * 전달할 이벤트가 남아 있는 동안 배치 단위로 계속 전달합니다.
+     */
+    @Scheduled(fixedDelayString = "${order.outbox.relay-interval-ms:500}")
+    public void relay() {
+        while (relayBatch() == batchSize) {
+            // keep draining full batches
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> claimDueEvents());
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxEvent> deliverable = new ArrayList<>(events.size());
+        List<Map<String, Object>> payloads = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            try {
+                if (!STOCK_RESERVATION_COMMIT.equals(event.getEventType())) {
+                    throw new IllegalStateException("지원하지 않는 이벤트 유형입니다: " + event.getEventType());
+                }
+                payloads.add(objectMapper.readValue(event.getPayload(), new TypeReference<Map<String, Object>>() {
+                }));
+                deliverable.add(event);
+            } catch (Exception e) {
+                markFailed(event, "invalid", "잘못된 이벤트: " + e.getMessage());
+            }
+        }
+
+        if (!deliverable.isEmpty()) {
+            try {
+                List<Map<String, Object>> results = inventoryClient.commitReservations(payloads);
+                markDelivered(deliverable, results);
+            } catch (Exception e) {
+                for (OutboxEvent event : deliverable) {
+                    reschedule(event, e.getMessage());
+                }
+            }
+        }
+
+        List<OutboxDeadLetter> deadLetters = events.stream()
+                .filter(event -> "FAILED".equals(event.getStatus()))
+                .map(OutboxDeadLetter::of)
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.saveAll(events);
+            outboxDeadLetterRepository.saveAll(deadLetters);
+        });
+        return events.size();
+    }
+
+    // 전달 대상 이벤트를 잠그고, 임대 시간 동안 다른 릴레이가 가져가지 않도록 다음 시도 시각을 미룹니다.
+    private List<OutboxEvent> claimDueEvents() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.lockDueEvents(now, batchSize);
+        for (OutboxEvent event : events) {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setNextAttemptAt(now.plusNanos(leaseMillis * 1_000_000));
+        }
+        return events;
+    }
+
+    private void markDelivered(List<OutboxEvent> events, List<Map<String, Object>> results) {
+        Map<String, String> statusByReservation = new HashMap<>();
+        for (Map<String, Object> result : results) {
+            statusByReservation.put((String) result.get("reservationId"), (String) result.get("status"));
+        }
+        for (OutboxEvent event : events) {
+            String reservationId = reservationIdOf(event);
+            String status = statusByReservation.get(reservationId);
+            if (status == null) {
+                reschedule(event, "재고 서비스 응답에 예약 결과가 없습니다. 예약 ID: " + reservationId);
+                continue;
+            }
+            switch (status) {
+                case "COMMITTED" -> {
+                    event.setStatus("SENT");
+                    event.setSentAt(LocalDateTime.now());
+                    event.setLastError(null);
+                }
+                case "NOT_FOUND" -> markFailed(event, "not_found", "재고 예약을 찾을 수 없습니다. 예약 ID: " + reservationId);
+                case "RELEASED" -> markFailed(event, "released", "재고 예약이 이미 해제되어 확정하지 못했습니다. 예약 ID: " + reservationId);
+                case "EXPIRED" -> markFailed(event, "expired", "재고 예약이 만료되어 확정하지 못했습니다. 예약 ID: " + reservationId);
+                default -> reschedule(event, "예상하지 못한 예약 확정 결과입니다. 예약 ID: " + reservationId + ", 상태: " + status);
+            }
+        }
+    }
+
+    // 다음 시도를 백오프만큼 미루되 재시도 기간의 끝을 넘기지 않으며, 기간이 지났거나 최대 횟수에 이르면 FAILED 처리합니다.
+    private void reschedule(OutboxEvent event, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime deadline = event.getCreatedAt().plusNanos(retryWindowMillis * 1_000_000);
+        if (event.getAttempts() >= maxAttempts || !now.isBefore(deadline)) {
+            markFailed(event, "retries_exhausted", error);
+            return;
+        }
+        long backoff = backoffBaseMillis << Math.min(event.getAttempts() - 1, 30);
+        LocalDateTime next = now.plusNanos(Math.min(backoff, backoffMaxMillis) * 1_000_000);
+        event.setNextAttemptAt(next.isBefore(deadline) ? next : deadline);
+        event.setLastError(truncate(error));
+    }
+
+    private void markFailed(OutboxEvent event, String reason, String error) {
+        event.setStatus("FAILED");
+        event.setLastError(truncate(error));
+        Counter.builder("order.outbox.failed")
+                .description("전달에 실패하여 FAILED 처리된 Outbox 이벤트 수 (outbox_dead_letters에 기록됨)")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        log.error("Outbox 이벤트를 전달하지 못해 FAILED 처리했습니다. (eventId={}, orderId={}, attempts={}, reason={}): {}",
+                event.getId(), event.getAggregateId(), event.getAttempts(), reason, error);
+    }
+
+    private String reservationIdOf(OutboxEvent event) {
+        try {
+            return (String) objectMapper.readValue(event.getPayload(), Map.class).get("reservationId");
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
@@ -0,0 +1,100 @@
+package com.myerp.order.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * RemoteCallExecutor
+ * 타 서비스(Partner, Product, Inventory)에 대한 FeignClient 호출을 JDK 21 가상 스레드에서 동시에 실행하는 컴포넌트입니다.
+ * 하나의 요청에서 발생하는 여러 원격 호출을 FanOut 단위로 묶어 공통 마감 시간(deadline)을 적용하고,
+ * 서비스 전체의 동시 원격 호출 수는 세마포어로 제한하여 하위 서비스가 과부하되지 않도록 합니다.
+ */
+@Component
+public class RemoteCallExecutor {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final long deadlineMillis;
+
+    public RemoteCallExecutor(@Value("${order.remote.max-concurrency:64}") int maxConcurrency,
+            @Value("${order.remote.deadline-ms:3000}") long deadlineMillis) {
+        this.permits = new Semaphore(maxConcurrency);
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    /**
+     * 설정된 마감 시간을 가지는 새로운 FanOut을 시작합니다.
+     * try-with-resources로 사용하면 블록을 벗어날 때 끝나지 않은 호출이 모두 취소됩니다.
+     */
+    public FanOut fanOut() {
+        return new FanOut(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 동일한 마감 시간을 공유하는 원격 호출 묶음입니다.
+     */
+    public final class FanOut implements AutoCloseable {
+
+        private final long deadlineNanos;
+        private final List<Future<?>> futures = new ArrayList<>();
+
+        private FanOut(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public <T> Future<T> submit(Callable<T> call) {
+            Future<T> future = executor.submit(() -> {
+                // 마감 시간 안에 실행 허가를 얻지 못하면 호출 자체를 시작하지 않습니다.
+                if (!permits.tryAcquire(remainingNanos(), TimeUnit.NANOSECONDS)) {
+                    throw new TimeoutException("원격 호출 대기 시간이 초과되었습니다.");
+                }
+                try {
+                    return call.call();
+                } finally {
+                    permits.release();
+                }
+            });
+            futures.add(future);
+            return future;
+        }
+
+        /**
+         * 마감 시간까지 남은 시간 동안 결과를 기다립니다.
+         *
+         * @throws TimeoutException 마감 시간을 넘긴 경우
+         * @throws Exception        원격 호출에서 발생한 원래 예외
+         */
+        public <T> T await(Future<T> future) throws Exception {
+            try {
+                return future.get(remainingNanos(), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw e;
+            }
+        }
+
+        private long remainingNanos() {
+            return Math.max(0, deadlineNanos - System.nanoTime());
+        }
+
+        @Override
+        public void close() {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+-- IDENTITY -> pooled SEQUENCE(allocationSize = 50) 일회성 전환
+-- Hibernate 스키마 갱신(ddl-auto) 이후 매 기동 시 실행되지만, 실제 전환은 테이블마다 한 번만 일어납니다.
+-- 1. id 컬럼에 IDENTITY/serial 기본값이 남아 있는 테이블만 전환 대상 (이미 전환되었거나 처음부터 시퀀스로 만든 테이블은 건너뜀)
+-- 2. 기본값을 제거하고 {table}_seq를 INCREMENT 50으로 맞춘 뒤, 다음 nextval 블록([v-49, v])이 기존 최대 ID보다 크도록 앞으로만 이동
+--    (이미 최대 ID를 넘어 사용 중인 시퀀스는 건드리지 않으며, 어떤 경우에도 시퀀스를 되감지 않음)
+-- 여러 인스턴스가 동시에 기동해도 advisory lock으로 한 번에 하나만 검사·전환합니다.
+-- DO 블록 안의 ';'로 문장이 나뉘지 않도록 spring.sql.init.separator로 파일 전체를 한 문장으로 실행합니다.
+
+DO $$
+DECLARE
+    t text;
+    converted boolean;
+    in_use boolean;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('pooled-sequences'));
+    FOREACH t IN ARRAY ARRAY['orders', 'order_items', 'outbox_events'] LOOP
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I START WITH 1 INCREMENT BY 50', t || '_seq');
+
+        SELECT COALESCE(bool_and(is_identity = 'NO' AND column_default IS NULL), true) INTO converted
+        FROM information_schema.columns
+        WHERE table_schema = current_schema() AND table_name = t AND column_name = 'id';
+        IF converted THEN
+            CONTINUE;
+        END IF;
+
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', t || '_seq');
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', t);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP DEFAULT', t);
+
+        EXECUTE format('SELECT s.is_called AND s.last_value >= (SELECT COALESCE(MAX(id), 0) FROM %I) FROM %I s',
+                t, t || '_seq') INTO in_use;
+        IF NOT in_use THEN
+            EXECUTE format('SELECT setval(%L, GREATEST((SELECT COALESCE(MAX(id), 0) + 50 FROM %I), '
+                    || '(SELECT CASE WHEN is_called THEN last_value + 50 ELSE last_value END FROM %I)), false)',
+                    t || '_seq', t, t || '_seq');
+        END IF;
+    END LOOP;
+END $$;
@@ -0,0 +1,122 @@
+package com.myerp.order.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * OrderNumberGenerator가 여러 스레드에서 동시에 호출되어도 중복 없이 단조 증가하는 ID를 발급하고,
+ * 시계가 뒤로 가면 제한된 시간만 기다리는지 확인합니다.
+ */
+class OrderNumberGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 50_000;
+
+    @Test
+    void issuesUniqueIdsAcrossThreads() throws Exception {
+        OrderNumberGenerator generator = new OrderNumberGenerator(1L, 5000L, System::currentTimeMillis);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    long previous = Long.MIN_VALUE;
+                    boolean increasing = true;
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        long id = generator.nextId();
+                        increasing &= id > previous;
+                        previous = id;
+                        ids.add(id);
+                    }
+                    return increasing;
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(ids).hasSize(THREADS * IDS_PER_THREAD);
+    }
+
+    @Test
+    void orderNumbersSortInIssueOrder() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(3L, 5000L, System::currentTimeMillis);
+        String previous = generator.nextOrderNumber();
+        for (int i = 0; i < 10_000; i++) {
+            String next = generator.nextOrderNumber();
+            assertThat(next).matches("ORD-\\d{8}-[0-9A-Z]{13}").isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void continuesSequenceAfterSmallClockRegression() {
+        AtomicLong clock = new AtomicLong(1_800_000_000_000L);
+        OrderNumberGenerator generator = new OrderNumberGenerator(0L, 5000L, clock::get);
+        long before = generator.nextId();
+
+        clock.addAndGet(-3);
+
+        assertThat(generator.nextId()).isGreaterThan(before);
+    }
+
+    @Test
+    void waitsForClockToCatchUpWhenSequenceIsExhausted() {
+        AtomicLong clock = new AtomicLong(1_800_000_000_000L);
+        OrderNumberGenerator generator = new OrderNumberGenerator(0L, 5000L, clock::get);
+        long last = exhaustSequence(generator);
+        clock.addAndGet(-2);
+        Thread catchUp = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                return;
+            }
+            clock.addAndGet(3);
+        });
+        catchUp.start();
+
+        assertThat(generator.nextId()).isGreaterThan(last);
+    }
+
+    @Test
+    void failsAfterBoundedWaitWhenClockStaysBehind() {
+        AtomicLong clock = new AtomicLong(1_800_000_000_000L);
+        OrderNumberGenerator generator = new OrderNumberGenerator(0L, 50L, clock::get);
+        exhaustSequence(generator);
+        clock.addAndGet(-60_000);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(generator::nextId)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("60000ms");
+        assertThat(System.nanoTime() - start).isLessThan(2_000_000_000L);
+    }
+
+    // 시계를 멈춘 채로 한 밀리초의 시퀀스(4096개)를 모두 사용합니다.
+    private static long exhaustSequence(OrderNumberGenerator generator) {
+        long last = 0L;
+        for (int i = 0; i < 4096; i++) {
+            last = generator.nextId();
+        }
+        return last;
+    }
+}
@@ -0,0 +1,167 @@
+package com.myerp.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myerp.order.client.InventoryClient;
+import com.myerp.order.model.OutboxDeadLetter;
+import com.myerp.order.model.OutboxEvent;
+import com.myerp.order.repository.OutboxDeadLetterRepository;
+import com.myerp.order.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * OutboxRelay가 재시도를 예약 TTL 안에서 끝내고, FAILED 처리한 이벤트를 지표와 Dead Letter로 남기는지 확인합니다.
+ */
+class OutboxRelayTest {
+
+    private OutboxEventRepository outboxEventRepository;
+    private OutboxDeadLetterRepository deadLetterRepository;
+    private InventoryClient inventoryClient;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        deadLetterRepository = mock(OutboxDeadLetterRepository.class);
+        inventoryClient = mock(InventoryClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(inventoryClient.commitReservations(any())).thenThrow(new RuntimeException("inventory-service unavailable"));
+
+        relay = new OutboxRelay(outboxEventRepository, deadLetterRepository, inventoryClient,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(relay, "batchSize", 100);
+        ReflectionTestUtils.setField(relay, "leaseMillis", 30000L);
+        ReflectionTestUtils.setField(relay, "backoffBaseMillis", 1000L);
+        ReflectionTestUtils.setField(relay, "backoffMaxMillis", 60000L);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 20);
+        ReflectionTestUtils.setField(relay, "retryWindowMillis", 600000L);
+        ReflectionTestUtils.setField(relay, "reservationTtlSeconds", 900L);
+    }
+
+    @Test
+    void neverSchedulesRetryPastTheRetryWindow() {
+        OutboxEvent event = event(Duration.ofSeconds(590), 10);
+        when(outboxEventRepository.lockDueEvents(any(), anyInt())).thenReturn(List.of(event));
+
+        relay.relay();
+
+        assertThat(event.getStatus()).isEqualTo("PENDING");
+        assertThat(event.getNextAttemptAt()).isBeforeOrEqualTo(event.getCreatedAt().plusSeconds(600));
+        verify(deadLetterRepository).saveAll(List.of());
+    }
+
+    @Test
+    void deadLettersEventWhenRetryWindowHasPassed() {
+        OutboxEvent event = event(Duration.ofSeconds(601), 12);
+        when(outboxEventRepository.lockDueEvents(any(), anyInt())).thenReturn(List.of(event));
+
+        relay.relay();
+
+        assertThat(event.getStatus()).isEqualTo("FAILED");
+        assertThat(deadLetters()).singleElement().satisfies(deadLetter -> {
+            assertThat(deadLetter.getEventId()).isEqualTo(7L);
+            assertThat(deadLetter.getAggregateId()).isEqualTo("42");
+            assertThat(deadLetter.getAttempts()).isEqualTo(13);
+            assertThat(deadLetter.getError()).contains("inventory-service unavailable");
+        });
+        assertThat(meterRegistry.get("order.outbox.failed").tag("reason", "retries_exhausted").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void deadLettersInvalidEventWithoutCallingInventory() {
+        OutboxEvent event = event(Duration.ZERO, 0);
+        event.setEventType("UNKNOWN");
+        when(outboxEventRepository.lockDueEvents(any(), anyInt())).thenReturn(List.of(event));
+
+        relay.relay();
+
+        verifyNoInteractions(inventoryClient);
+        assertThat(event.getStatus()).isEqualTo("FAILED");
+        assertThat(deadLetters()).hasSize(1);
+        assertThat(meterRegistry.get("order.outbox.failed").tag("reason", "invalid").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void marksOnlyCommittedReservationsAsSent() {
+        OutboxEvent event = event(Duration.ZERO, 0);
+        when(outboxEventRepository.lockDueEvents(any(), anyInt())).thenReturn(List.of(event));
+        doReturn(List.of(Map.of("reservationId", "r-1", "status", "COMMITTED")))
+                .when(inventoryClient).commitReservations(any());
+
+        relay.relay();
+
+        assertThat(event.getStatus()).isEqualTo("SENT");
+        assertThat(event.getSentAt()).isNotNull();
+    }
+
+    @Test
+    void deadLettersExpiredReservationWithItsOwnReason() {
+        OutboxEvent event = event(Duration.ZERO, 0);
+        when(outboxEventRepository.lockDueEvents(any(), anyInt())).thenReturn(List.of(event));
+        doReturn(List.of(Map.of("reservationId", "r-1", "status", "EXPIRED")))
+                .when(inventoryClient).commitReservations(any());
+
+        relay.relay();
+
+        assertThat(event.getStatus()).isEqualTo("FAILED");
+        assertThat(deadLetters()).hasSize(1);
+        assertThat(meterRegistry.get("order.outbox.failed").tag("reason", "expired").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void reschedulesWhenResultIsMissing() {
+        OutboxEvent event = event(Duration.ZERO, 0);
+        when(outboxEventRepository.lockDueEvents(any(), anyInt())).thenReturn(List.of(event));
+        doReturn(List.of()).when(inventoryClient).commitReservations(any());
+
+        relay.relay();
+
+        assertThat(event.getStatus()).isEqualTo("PENDING");
+        assertThat(event.getLastError()).contains("r-1");
+        verify(deadLetterRepository).saveAll(List.of());
+    }
+
+    @Test
+    void rejectsRetryWindowNotShorterThanReservationTtl() {
+        ReflectionTestUtils.setField(relay, "retryWindowMillis", 900000L);
+
+        assertThatThrownBy(relay::checkRetryWindow).isInstanceOf(IllegalStateException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OutboxDeadLetter> deadLetters() {
+        ArgumentCaptor<List<OutboxDeadLetter>> captor = ArgumentCaptor.forClass(List.class);
+        verify(deadLetterRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private static OutboxEvent event(Duration age, int attempts) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(7L);
+        event.setEventType(OutboxRelay.STOCK_RESERVATION_COMMIT);
+        event.setAggregateId("42");
+        event.setPayload("{\"reservationId\":\"r-1\",\"referenceId\":\"42\"}");
+        event.setStatus("PENDING");
+        event.setAttempts(attempts);
+        ReflectionTestUtils.setField(event, "createdAt", LocalDateTime.now().minus(age));
+        return event;
+    }
+}
@@ -1,5 +1,6 @@
 package com.myerp.partner.controller;
 
+import com.myerp.partner.dto.CursorPage;
 import com.myerp.partner.dto.PartnerDto;
 import com.myerp.partner.service.PartnerService;
 import org.springframework.data.domain.Page;
@@ -36,6 +37,18 @@ public class PartnerController {
         return ResponseEntity.ok(partners);
     }
 
+    /**
+     * 거래처 목록을 커서 기반으로 조회합니다. 응답의 nextCursor를 다음 요청의 cursor로 전달합니다.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<PartnerDto>> scrollPartners(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(partnerService.scrollPartners(keyword, type, cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PartnerDto> getPartnerById(@PathVariable Long id) {
         return ResponseEntity.ok(partnerService.getPartnerById(id));
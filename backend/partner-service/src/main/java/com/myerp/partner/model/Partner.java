@@ -1,6 +1,8 @@
 package com.myerp.partner.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
 import java.time.LocalDateTime;
 
 /**
@@ -10,13 +12,17 @@ import java.time.LocalDateTime;
  * Soft Delete 설정을 통해 삭제 시 실제 DB 레코드를 지우지 않고 deleted_at 필드만 업데이트합니다.
  */
 @Entity
-@Table(name = "partners")
+@Table(name = "partners", indexes = {
+        @Index(name = "idx_partners_created_at_id", columnList = "createdAt, id"), // 커서 기반 목록 조회용
+        @Index(name = "idx_partners_type_created_at_id", columnList = "type, createdAt, id")
+})
 @SQLDelete(sql = "UPDATE partners SET deleted_at = CURRENT_TIMESTAMP WHERE id = ?")
 @SQLRestriction("deleted_at IS NULL")
 public class Partner {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "partners_seq")
+    @SequenceGenerator(name = "partners_seq", sequenceName = "partners_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
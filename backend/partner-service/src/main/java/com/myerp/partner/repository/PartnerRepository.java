@@ -3,9 +3,14 @@ package com.myerp.partner.repository;
 import com.myerp.partner.model.Partner;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+
 @Repository
 public interface PartnerRepository extends JpaRepository<Partner, Long> {
 
@@ -17,4 +22,13 @@ public interface PartnerRepository extends JpaRepository<Partner, Long> {
 
     // 유형만 필터링
     Page<Partner> findByType(String type, Pageable pageable);
+
+    // 커서(createdAt, id) 이후의 거래처를 최신순으로 조회 (이름/유형 선택 필터, count 쿼리 없음)
+    @Query("SELECT p FROM Partner p WHERE p.createdAt <= :createdAt " +
+            "AND (p.createdAt < :createdAt OR p.id < :id) " +
+            "AND (:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) " +
+            "AND (:type IS NULL OR p.type = :type) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<Partner> scroll(@Param("name") String name, @Param("type") String type,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
 }
@@ -1,5 +1,6 @@
 package com.myerp.partner.service;
 
+import com.myerp.partner.dto.CursorPage;
 import com.myerp.partner.dto.PartnerDto;
 import com.myerp.partner.model.Partner;
 import com.myerp.partner.repository.PartnerRepository;
@@ -46,6 +47,20 @@ public class PartnerService {
         return partners.map(this::convertToDto);
     }
 
+    /**
+     * 거래처 목록을 커서 기반으로 최신순 조회합니다. (무한 스크롤용, count 쿼리 없음)
+     * 검색어와 타입 필터는 getPartners와 같은 규칙으로 적용됩니다.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PartnerDto> scrollPartners(String keyword, String type, String cursor, int size) {
+        CursorPage.Cursor position = CursorPage.decode(cursor);
+        String name = keyword != null && !keyword.trim().isEmpty() ? keyword : null;
+        String partnerType = type != null && !type.trim().isEmpty() && !type.equals("All") ? type : null;
+        return CursorPage.of(
+                partnerRepository.scroll(name, partnerType, position.createdAt(), position.id(), CursorPage.limit(size)),
+                this::convertToDto, Partner::getCreatedAt, Partner::getId);
+    }
+
     @Transactional(readOnly = true)
     public PartnerDto getPartnerById(Long id) {
         return partnerRepository.findById(id)
@@ -0,0 +1,141 @@
+package com.myerp.product.service;
+
+import com.myerp.product.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.lang.reflect.Field;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * ProductSearchIndexBenchmark
+ * 상품 100만 건에서 상품명 부분 일치 검색 한 페이지(20건 + 전체 건수)의 지연 시간을
+ * 메모리 n-gram 인덱스(ProductSearchIndex)와 SQL LIKE 검색(searchProducts와 같은 페이지 쿼리 + count 쿼리)으로 비교합니다.
+ * SQL 쪽은 임베디드 H2(메모리)에서 실행하므로 네트워크·디스크 I/O가 없는 하한값이며, PostgreSQL의 순차 스캔은 이보다 느립니다.
+ * 실행: ./gradlew jmh (결과: build/results/jmh/results.json)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ProductSearchIndexBenchmark {
+
+    private static final String[] WORDS = {"무선", "마우스", "키보드", "모니터", "케이블", "충전기", "Mouse", "Keyboard",
+            "USB-C", "Hub", "노트북", "거치대", "Pro", "Mini", "블루투스", "스피커", "게이밍", "사무용", "대형", "슬림"};
+    private static final String[] CATEGORIES = {"전자", "사무", "가전", "주변기기"};
+
+    private static final String PAGE_SQL = "SELECT id FROM products WHERE LOWER(name) LIKE LOWER(?) "
+            + "ORDER BY created_at DESC, id DESC LIMIT 20";
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM products WHERE LOWER(name) LIKE LOWER(?)";
+
+    @Param({"1000000"})
+    public int products;
+
+    // 흔한 단어, 드문 조합, 없는 단어
+    @Param({"마우스", "슬림 usb", "없는상품"})
+    public String keyword;
+
+    private ProductSearchIndex index;
+    private Connection connection;
+    private final Pageable pageable = PageRequest.of(0, 20, Sort.by(Sort.Order.desc("createdAt")));
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        List<Product> generated = generate(products);
+        index = new ProductSearchIndex(new ProductChangeFeed(null) {
+            @Override
+            public LocalDateTime read(LocalDateTime since, Consumer<Product> consumer) {
+                generated.forEach(consumer);
+                return LocalDateTime.now();
+            }
+        }, true, 10000, 0.2);
+        index.build();
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:products;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL, "
+                    + "category VARCHAR(255), status VARCHAR(255), created_at TIMESTAMP)");
+            statement.execute("CREATE INDEX idx_products_created_at_id ON products (created_at, id)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO products VALUES (?, ?, ?, ?, ?)")) {
+            for (Product product : generated) {
+                insert.setLong(1, product.getId());
+                insert.setString(2, product.getName());
+                insert.setString(3, product.getCategory());
+                insert.setString(4, product.getStatus());
+                insert.setTimestamp(5, Timestamp.valueOf(product.getCreatedAt()));
+                insert.addBatch();
+                if (product.getId() % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public ProductSearchIndex.Hits index() {
+        return index.search(keyword, null, null, pageable);
+    }
+
+    @Benchmark
+    public long sqlLike() throws SQLException {
+        String pattern = "%" + keyword + "%";
+        long checksum = 0;
+        try (PreparedStatement page = connection.prepareStatement(PAGE_SQL)) {
+            page.setString(1, pattern);
+            try (ResultSet rs = page.executeQuery()) {
+                while (rs.next()) {
+                    checksum += rs.getLong(1);
+                }
+            }
+        }
+        try (PreparedStatement count = connection.prepareStatement(COUNT_SQL)) {
+            count.setString(1, pattern);
+            try (ResultSet rs = count.executeQuery()) {
+                rs.next();
+                return checksum + rs.getLong(1);
+            }
+        }
+    }
+
+    private static List<Product> generate(int count) throws ReflectiveOperationException {
+        Field createdAt = Product.class.getDeclaredField("createdAt");
+        createdAt.setAccessible(true);
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.now().minusYears(3);
+        List<Product> generated = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            StringBuilder name = new StringBuilder();
+            int words = 2 + random.nextInt(3);
+            for (int w = 0; w < words; w++) {
+                name.append(w > 0 ? " " : "").append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            name.append(' ').append(random.nextInt(1000));
+            Product product = new Product();
+            product.setId((long) i);
+            product.setName(name.toString());
+            product.setSku("SKU-" + i);
+            product.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            product.setStatus("ACTIVE");
+            createdAt.set(product, base.plusSeconds(i * 90L));
+            generated.add(product);
+        }
+        return generated;
+    }
+}
@@ -1,6 +1,7 @@
 package com.myerp.product.controller;
 
 import com.myerp.product.dto.ProductDto;
+import com.myerp.product.service.ProductImportService;
 import com.myerp.product.service.ProductService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,9 +17,11 @@ import org.springframework.web.bind.annotation.*;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductImportService productImportService) {
         this.productService = productService;
+        this.productImportService = productImportService;
     }
 
     @GetMapping("/health")
@@ -35,6 +38,51 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProducts(keyword, category, status, pageable));
     }
 
+    /**
+     * 상품 목록을 커서 기반으로 조회합니다. 응답의 nextCursor를 다음 요청의 cursor로 전달합니다.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<com.myerp.product.dto.CursorPage<ProductDto>> scrollProducts(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.scrollProducts(keyword, category, status, cursor, size));
+    }
+
+    /**
+     * 상품명의 단어 또는 SKU가 q로 시작하는 상품을 인기도(주문 건수) 순으로 조회합니다. (주문서 상품 선택 자동완성용, 최대 50건)
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<java.util.List<com.myerp.product.dto.ProductSuggestionDto>> suggestProducts(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.suggestProducts(q, limit));
+    }
+
+    /**
+     * 여러 상품을 ID 목록으로 한 번에 조회합니다. (Order/Inventory 서비스의 N+1 호출 방지용)
+     * 존재하지 않거나 삭제된 상품 ID는 결과에서 제외됩니다. 주문 생성 중인 조회는 ordered=true로 호출해 인기도에 반영합니다.
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<java.util.List<ProductDto>> getProductsByIds(@RequestParam java.util.List<Long> ids,
+            @RequestParam(defaultValue = "false") boolean ordered) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids, ordered));
+    }
+
+    /**
+     * since 시각(같은 시각이면 afterId 초과) 이후 변경된 상품을 (updatedAt, id) 순으로 조회합니다. (삭제 포함, 최대 1000건)
+     * 다음 요청에는 마지막 항목의 updatedAt과 id를 전달합니다. (Inventory 서비스의 상품 정보 복제용)
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<java.util.List<ProductDto>> getChanges(
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME) java.time.LocalDateTime since,
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "500") int size) {
+        return ResponseEntity.ok(productService.getChanges(since, afterId, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
         return ResponseEntity.ok(productService.getProductById(id));
@@ -45,6 +93,20 @@ public class ProductController {
         return new ResponseEntity<>(productService.createProduct(productDto), HttpStatus.CREATED);
     }
 
+    /**
+     * CSV 또는 NDJSON 본문의 상품을 SKU 기준으로 한꺼번에 등록하거나 갱신합니다. (공급사 카탈로그 동기화용)
+     * 응답은 NDJSON 스트림으로, 묶음이 커밋될 때마다 줄별 결과(result/error)와 진행 상황이 이어서 전달됩니다.
+     * 예: curl -X POST -H 'Content-Type: text/csv' --data-binary @catalog.csv '/products/bulk'
+     */
+    @PostMapping(value = "/bulk", consumes = {"text/csv", "application/x-ndjson"})
+    public void importProducts(jakarta.servlet.http.HttpServletRequest request,
+            jakarta.servlet.http.HttpServletResponse response) throws java.io.IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        productImportService.importProducts(request.getInputStream(), request.getContentType().contains("csv"),
+                response.getOutputStream());
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ProductDto> updateProduct(@PathVariable Long id, @RequestBody ProductDto productDto) {
         return ResponseEntity.ok(productService.updateProduct(id, productDto));
@@ -0,0 +1,112 @@
+package com.myerp.product.dto;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * CursorPage
+ * 커서(Keyset) 기반 목록 조회의 응답 데이터 전송 객체입니다.
+ * (createdAt, id) 내림차순 목록에서 마지막 항목의 위치를 불투명한 토큰(nextCursor)으로 돌려주며,
+ * 전체 건수(count) 쿼리를 실행하지 않으므로 페이지가 깊어져도 조회 비용이 일정합니다.
+ * 클라이언트는 다음 요청의 cursor 파라미터에 nextCursor를 그대로 전달합니다. (무한 스크롤용)
+ */
+public class CursorPage<T> {
+
+    public static final int MAX_SIZE = 100;
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    /**
+     * 조회 결과(Slice)를 DTO로 변환하고, 다음 페이지가 있으면 마지막 항목의 위치로 커서를 만듭니다.
+     */
+    public static <E, T> CursorPage<T> of(Slice<E> slice, Function<E, T> mapper,
+            Function<E, LocalDateTime> createdAt, Function<E, Long> id) {
+        CursorPage<T> page = new CursorPage<>();
+        page.setContent(slice.getContent().stream().map(mapper).toList());
+        page.setSize(slice.getNumberOfElements());
+        page.setHasNext(slice.hasNext());
+        if (slice.hasNext()) {
+            E last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            page.setNextCursor(encode(createdAt.apply(last), id.apply(last)));
+        }
+        return page;
+    }
+
+    /**
+     * 요청 크기를 1~MAX_SIZE로 제한한 첫 페이지 요청을 만듭니다. (정렬은 쿼리의 ORDER BY를 사용)
+     */
+    public static Pageable limit(int size) {
+        return PageRequest.of(0, Math.min(Math.max(size, 1), MAX_SIZE));
+    }
+
+    public static String encode(LocalDateTime createdAt, Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 커서 토큰을 해석합니다. 토큰이 없으면 목록의 처음(가장 최신 항목 앞)을 가리킵니다.
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return Cursor.START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("잘못된 커서 값입니다: " + token);
+        }
+    }
+
+    /**
+     * 마지막으로 읽은 항목의 (createdAt, id) 위치입니다.
+     */
+    public record Cursor(LocalDateTime createdAt, Long id) {
+        public static final Cursor START = new Cursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
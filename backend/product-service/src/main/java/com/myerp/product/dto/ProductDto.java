@@ -19,6 +19,7 @@ public class ProductDto {
     private String status;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private boolean deleted; // 변경 피드에서만 true가 될 수 있음
 
     // Constructors
     public ProductDto() {
@@ -109,4 +110,12 @@ public class ProductDto {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
 }
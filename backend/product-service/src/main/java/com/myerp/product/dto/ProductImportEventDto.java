@@ -0,0 +1,126 @@
+package com.myerp.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * ProductImportEventDto
+ * 상품 대량 등록·갱신 응답(NDJSON)의 한 줄을 나타내는 DTO입니다.
+ * type에 따라 채워지는 필드가 다릅니다.
+ * - result: 입력 한 줄의 처리 결과. 줄 번호(line), sku, 상품 ID(id), action(created, updated, restored, unchanged, skipped)
+ *   skipped는 같은 묶음 안에서 같은 SKU가 뒤에 다시 나와 그 줄이 대신 반영된 경우이며, message에 그 줄 번호가 담깁니다.
+ * - error: 거부된 줄의 줄 번호(line)와 사유(message)
+ * - progress: 지금까지 읽은 줄 번호와 건수
+ * - summary: 최종 건수와 소요 시간
+ * - failed: 중단 사유 (이전 묶음까지는 이미 반영되어 있음)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductImportEventDto {
+    private String type;
+    private Long line;
+    private String sku;
+    private Long id;
+    private String action;
+    private Long created;
+    private Long updated;
+    private Long unchanged;
+    private Long skipped;
+    private Long rejected;
+    private Long elapsedMs;
+    private String message;
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getLine() {
+        return line;
+    }
+
+    public void setLine(Long line) {
+        this.line = line;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public Long getCreated() {
+        return created;
+    }
+
+    public void setCreated(Long created) {
+        this.created = created;
+    }
+
+    public Long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(Long updated) {
+        this.updated = updated;
+    }
+
+    public Long getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(Long unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public Long getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(Long skipped) {
+        this.skipped = skipped;
+    }
+
+    public Long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(Long rejected) {
+        this.rejected = rejected;
+    }
+
+    public Long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(Long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
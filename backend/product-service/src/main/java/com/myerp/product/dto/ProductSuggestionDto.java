@@ -0,0 +1,57 @@
+package com.myerp.product.dto;
+
+/**
+ * ProductSuggestionDto
+ * 상품 자동완성(/products/suggest) 결과 한 건을 담는 데이터 전송 객체입니다.
+ * 주문서의 상품 선택 목록에 필요한 최소 정보만 담으며, 인기도 순으로 정렬되어 반환됩니다.
+ */
+public class ProductSuggestionDto {
+
+    private Long id;
+    private String name;
+    private String sku;
+    private Long popularity; // 상품이 포함된 주문 건수 (인덱스 준비 전 SQL 검색 결과에서는 null)
+
+    public ProductSuggestionDto() {
+    }
+
+    public ProductSuggestionDto(Long id, String name, String sku, Long popularity) {
+        this.id = id;
+        this.name = name;
+        this.sku = sku;
+        this.popularity = popularity;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public Long getPopularity() {
+        return popularity;
+    }
+
+    public void setPopularity(Long popularity) {
+        this.popularity = popularity;
+    }
+}
@@ -18,13 +18,18 @@ import java.time.LocalDateTime;
  * 시스템 내 다른 서비스(Order, Inventory)에서 FeignClient를 통해 주로 참조되는 기본 정보입니다.
  */
 @Entity
-@Table(name = "products")
-@org.hibernate.annotations.SQLDelete(sql = "UPDATE products SET deleted = true WHERE id = ?")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_created_at_id", columnList = "createdAt, id"), // 커서 기반 목록 조회용
+        @Index(name = "idx_products_updated_at_id", columnList = "updatedAt, id") // 변경 피드(/products/changes) 조회용
+})
+// 삭제도 변경 피드에 나타나도록 updated_at을 함께 갱신 (JDBC 세션 타임존이 JVM 기본 타임존이므로 LocalDateTime.now()와 같은 기준)
+@org.hibernate.annotations.SQLDelete(sql = "UPDATE products SET deleted = true, updated_at = LOCALTIMESTAMP WHERE id = ?")
 @org.hibernate.annotations.SQLRestriction("deleted = false") // 일반 조회 시 삭제된 데이터 필터링
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50) // pooled: 50개 ID를 한 번에 할당하여 INSERT 배치 허용
     private Long id;
 
     @Column(nullable = false)
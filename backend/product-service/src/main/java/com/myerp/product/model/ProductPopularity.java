@@ -0,0 +1,55 @@
+package com.myerp.product.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * ProductPopularity
+ * 상품별 인기도(주문 건수 누적)를 기록하는 JPA Entity 클래스입니다.
+ * DB의 'product_popularity' 테이블과 매핑되며, 주문 생성 시 주문 서비스가 상품을 조회할 때 센 건수를
+ * 각 인스턴스가 모았다가 주기적으로 더합니다. 자동완성(/products/suggest) 결과의 순위에 사용됩니다.
+ * 조회·갱신은 ProductPopularityJdbcRepository의 SQL로 수행하고, 이 엔티티는 스키마 정의 용도로 사용됩니다.
+ */
+@Entity
+@Table(name = "product_popularity", indexes = {
+        @Index(name = "idx_product_popularity_updated_at", columnList = "updated_at, product_id") // 변경분 폴링용
+})
+public class ProductPopularity {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private long score; // 상품이 포함된 주문 건수
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt; // 마지막으로 건수가 더해진 시각
+
+    // Getters and Setters
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public long getScore() {
+        return score;
+    }
+
+    public void setScore(long score) {
+        this.score = score;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
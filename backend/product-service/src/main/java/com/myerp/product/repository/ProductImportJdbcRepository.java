@@ -0,0 +1,131 @@
+package com.myerp.product.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ProductImportJdbcRepository
+ * 상품 대량 등록·갱신(공급사 카탈로그 동기화)을 위한 JDBC 저장소입니다.
+ * 묶음마다 기존 SKU를 한 번의 집합 조회로 확인하고, INSERT ... ON CONFLICT (sku) DO UPDATE 한 문장으로 반영합니다.
+ * 새 상품의 ID는 엔티티와 같은 products_seq에서 pooled 방식(nextval 1회 = ID 50개)으로 할당하므로 JPA 저장분과 충돌하지 않습니다.
+ * 삭제(soft delete)된 상품의 SKU도 UNIQUE 제약에 남아 있으므로, 같은 SKU가 다시 들어오면 그 상품을 되살려 갱신합니다.
+ */
+@Repository
+public class ProductImportJdbcRepository {
+
+    private static final String EXISTING_SQL = "SELECT sku, id, name, category, price, status, deleted "
+            + "FROM products WHERE sku = ANY(?)";
+
+    // 묶음 전체를 배열로 넘겨 한 문장으로 반영하고 SKU 순서로 씁니다. RETURNING의 (xmax = 0)은 새로 INSERT된 행에서만 참이므로,
+    // 동시에 실행된 다른 가져오기가 먼저 만든 SKU는 갱신으로 구분되고 실제로 저장된 ID가 반환됩니다.
+    private static final String UPSERT_SQL = "INSERT INTO products AS p "
+            + "(id, name, sku, category, price, stock_quantity, status, created_at, updated_at, deleted) "
+            + "SELECT r.id, r.name, r.sku, r.category, r.price, r.stock_quantity, r.status, ?, ?, false "
+            + "FROM unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::varchar[], ?::numeric[], ?::int[], ?::varchar[]) "
+            + "     AS r(id, name, sku, category, price, stock_quantity, status) "
+            + "ORDER BY r.sku "
+            + "ON CONFLICT (sku) DO UPDATE SET name = EXCLUDED.name, category = EXCLUDED.category, "
+            + "price = EXCLUDED.price, status = EXCLUDED.status, updated_at = EXCLUDED.updated_at, deleted = false "
+            + "RETURNING p.sku, p.id, (p.xmax = 0)";
+
+    // Product의 @SequenceGenerator allocationSize와 같아야 합니다.
+    private static final int ALLOCATION_SIZE = 50;
+    private static final String NEXT_BLOCKS_SQL = "SELECT nextval('products_seq') FROM generate_series(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductImportJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 주어진 SKU 중 이미 있는 상품(삭제된 상품 포함)을 SKU별로 조회합니다.
+     */
+    public Map<String, Existing> findBySkus(Collection<String> skus) {
+        Map<String, Existing> existing = new HashMap<>();
+        if (skus.isEmpty()) {
+            return existing;
+        }
+        jdbcTemplate.query(EXISTING_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", skus.toArray())),
+                rs -> {
+                    existing.put(rs.getString(1), new Existing(rs.getLong(2), rs.getString(3), rs.getString(4),
+                            rs.getBigDecimal(5), rs.getString(6), rs.getBoolean(7)));
+                });
+        return existing;
+    }
+
+    /**
+     * 상품을 한 문장으로 등록하거나(SKU가 없으면) 갱신합니다. 재고 수량은 등록할 때만 기록하고 갱신하지 않습니다.
+     * 여러 요청이 같은 SKU를 동시에 반영해도 SKU 순서로 쓰므로 데드락이 없으며, 한 묶음 안에 같은 SKU가 두 번 있으면 안 됩니다.
+     *
+     * @return SKU별로 실제 저장된 상품 ID와 새로 등록되었는지 여부
+     */
+    public Map<String, Upserted> upsert(List<Row> rows, LocalDateTime now) {
+        Map<String, Upserted> upserted = new HashMap<>();
+        if (rows.isEmpty()) {
+            return upserted;
+        }
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.query(UPSERT_SQL, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setTimestamp(1, timestamp);
+            ps.setTimestamp(2, timestamp);
+            ps.setArray(3, connection.createArrayOf("bigint", rows.stream().map(Row::id).toArray()));
+            ps.setArray(4, connection.createArrayOf("varchar", rows.stream().map(Row::name).toArray()));
+            ps.setArray(5, connection.createArrayOf("varchar", rows.stream().map(Row::sku).toArray()));
+            ps.setArray(6, connection.createArrayOf("varchar", rows.stream().map(Row::category).toArray()));
+            ps.setArray(7, connection.createArrayOf("numeric", rows.stream().map(Row::price).toArray()));
+            ps.setArray(8, connection.createArrayOf("integer", rows.stream().map(Row::stockQuantity).toArray()));
+            ps.setArray(9, connection.createArrayOf("varchar", rows.stream().map(Row::status).toArray()));
+        }, rs -> {
+            upserted.put(rs.getString(1), new Upserted(rs.getLong(2), rs.getBoolean(3)));
+        });
+        return upserted;
+    }
+
+    // nextval 값 v 하나가 [v - 49, v] 범위의 ID 블록을 뜻합니다. (Hibernate pooled 옵티마이저와 동일한 해석)
+    public long[] allocateIds(int count) {
+        long[] ids = new long[count];
+        if (count == 0) {
+            return ids;
+        }
+        int blocks = (count + ALLOCATION_SIZE - 1) / ALLOCATION_SIZE;
+        List<Long> highs = jdbcTemplate.queryForList(NEXT_BLOCKS_SQL, Long.class, blocks);
+        int index = 0;
+        for (long high : highs) {
+            for (long id = high - ALLOCATION_SIZE + 1; id <= high && index < count; id++) {
+                ids[index++] = id;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 이미 있는 상품의 현재 값.
+     */
+    public record Existing(long id, String name, String category, BigDecimal price, String status, boolean deleted) {
+    }
+
+    /**
+     * 반영된 상품 한 건. inserted가 false이면 이미 있던(동시에 만들어진 경우 포함) 상품을 갱신한 것입니다.
+     */
+    public record Upserted(long id, boolean inserted) {
+    }
+
+    /**
+     * 반영할 상품 한 건. id는 새 상품이면 새로 할당한 값, 기존 상품이면 그 상품의 ID입니다.
+     */
+    public record Row(long id, String sku, String name, String category, BigDecimal price, int stockQuantity,
+                      String status) {
+    }
+}
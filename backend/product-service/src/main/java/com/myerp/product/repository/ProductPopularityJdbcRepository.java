@@ -0,0 +1,60 @@
+package com.myerp.product.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ProductPopularityJdbcRepository
+ * 상품별 인기도(product_popularity)를 누적하고 변경분을 조회하는 저장소입니다.
+ * 건수는 더하기로만 갱신하므로 여러 인스턴스가 각자 모은 건수를 반영해도 결과가 같습니다.
+ */
+@Repository
+public class ProductPopularityJdbcRepository {
+
+    private static final String ADD_SQL = "INSERT INTO product_popularity AS p (product_id, score, updated_at) "
+            + "VALUES (?, ?, LOCALTIMESTAMP) "
+            + "ON CONFLICT (product_id) DO UPDATE SET score = p.score + EXCLUDED.score, updated_at = EXCLUDED.updated_at";
+
+    private static final String CHANGES_SQL = "SELECT product_id, score, updated_at FROM product_popularity "
+            + "WHERE updated_at >= ? ORDER BY updated_at, product_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductPopularityJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 상품별로 모은 건수를 기존 값에 더합니다. 여러 인스턴스의 동시 반영 간 데드락이 없도록 productId 순서로 전달해야 합니다.
+     */
+    public void addAll(Map<Long, Long> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_SQL, new ArrayList<>(counts.entrySet()), counts.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getKey());
+            ps.setLong(2, entry.getValue());
+        });
+    }
+
+    /**
+     * since 이후에 갱신된 상품의 현재 인기도를 갱신 순으로 조회합니다. (since가 아주 이르면 전체)
+     */
+    public List<Score> findChanges(LocalDateTime since) {
+        return jdbcTemplate.query(CHANGES_SQL,
+                (rs, rowNum) -> new Score(rs.getLong(1), rs.getLong(2), rs.getTimestamp(3).toLocalDateTime()),
+                Timestamp.valueOf(since));
+    }
+
+    /**
+     * 한 상품의 인기도와 마지막 갱신 시각.
+     */
+    public record Score(long productId, long score, LocalDateTime updatedAt) {
+    }
+}
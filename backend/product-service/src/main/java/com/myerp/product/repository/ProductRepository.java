@@ -18,4 +18,27 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             @org.springframework.data.repository.query.Param("category") String category,
             @org.springframework.data.repository.query.Param("status") String status,
             org.springframework.data.domain.Pageable pageable);
+
+    // 커서(createdAt, id) 이후의 상품을 최신순으로 조회 (검색 조건은 searchProducts와 동일, count 쿼리 없음)
+    @org.springframework.data.jpa.repository.Query("SELECT p FROM Product p WHERE p.createdAt <= :createdAt AND " +
+            "(p.createdAt < :createdAt OR p.id < :id) AND " +
+            "(:name IS NULL OR :name = '' OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
+            "(:category IS NULL OR :category = '' OR p.category = :category) AND " +
+            "(:status IS NULL OR :status = '' OR p.status = :status) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    org.springframework.data.domain.Slice<Product> scrollProducts(
+            @org.springframework.data.repository.query.Param("name") String name,
+            @org.springframework.data.repository.query.Param("category") String category,
+            @org.springframework.data.repository.query.Param("status") String status,
+            @org.springframework.data.repository.query.Param("createdAt") java.time.LocalDateTime createdAt,
+            @org.springframework.data.repository.query.Param("id") Long id,
+            org.springframework.data.domain.Pageable pageable);
+
+    // (updatedAt, id) 이후에 변경된 상품을 변경 순으로 조회 (삭제된 상품 포함: 네이티브 쿼리에는 @SQLRestriction이 적용되지 않음)
+    @org.springframework.data.jpa.repository.Query(value = "SELECT * FROM products WHERE updated_at >= :updatedAt AND " +
+            "(updated_at > :updatedAt OR id > :id) ORDER BY updated_at, id LIMIT :size", nativeQuery = true)
+    java.util.List<Product> findChanges(
+            @org.springframework.data.repository.query.Param("updatedAt") java.time.LocalDateTime updatedAt,
+            @org.springframework.data.repository.query.Param("id") Long id,
+            @org.springframework.data.repository.query.Param("size") int size);
 }
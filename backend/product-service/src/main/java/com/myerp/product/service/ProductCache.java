@@ -0,0 +1,194 @@
+package com.myerp.product.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.myerp.product.dto.ProductDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * ProductCache
+ * 상품 단건·일괄 조회(findById, findAllById) 앞에 두는 메모리 읽기 캐시입니다.
+ * Caffeine(W-TinyLFU)으로 자주 조회되는 상품을 남기며, 항목의 추정 크기(바이트) 합이 max-weight-bytes를 넘지 않게 제한합니다.
+ * 상품을 수정·삭제하는 트랜잭션은 pg_notify로 변경을 알리고(커밋될 때만 전달됨), 모든 인스턴스의 ProductCacheListener가
+ * LISTEN 연결로 받아 해당 항목을 무효화하므로, 다른 인스턴스의 오래된 값은 알림 전달 시간(수 ms) 동안만 보일 수 있습니다.
+ * LISTEN 연결이 끊겨 있는 동안에는 알림을 놓칠 수 있으므로 캐시를 쓰지 않고 DB에서 직접 읽습니다.
+ * 캐시된 ProductDto는 여러 요청이 공유하므로 호출 측에서 수정하면 안 됩니다.
+ * 지표: cache.gets(result=hit/miss), cache.evictions, cache.eviction.weight, cache.size (cache=products)
+ */
+@Component
+public class ProductCache {
+
+    public static final String CHANNEL = "product_cache";
+    public static final String ALL = "*"; // 전체 무효화 알림 내용
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Cache<Long, ProductDto> cache;
+
+    // 무효화할 때마다 증가합니다. 조회 시작 후 값이 바뀌었으면 읽은 값이 이미 오래되었을 수 있으므로 캐시에 넣지 않습니다.
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile boolean listening; // LISTEN 연결이 살아 있는 동안만 캐시 사용
+
+    public ProductCache(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                        @Value("${product.cache.enabled:true}") boolean enabled,
+                        @Value("${product.cache.max-weight-bytes:67108864}") long maxWeightBytes,
+                        @Value("${product.cache.expire-after-write-ms:600000}") long expireAfterWriteMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher(ProductCache::weigh)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 캐시된 상품을 반환하고, 없으면 loader로 읽어 캐시에 넣습니다. (존재하지 않는 상품은 캐시하지 않음)
+     */
+    public Optional<ProductDto> get(Long id, Supplier<Optional<ProductDto>> loader) {
+        if (!enabled || !listening) {
+            return loader.get();
+        }
+        ProductDto cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long before = generation.get();
+        Optional<ProductDto> loaded = loader.get();
+        loaded.ifPresent(dto -> putIfCurrent(dto, before));
+        return loaded;
+    }
+
+    /**
+     * 여러 상품을 ID 순서대로 반환합니다. 캐시에 없는 상품만 loader로 한 번에 읽어 캐시에 넣으며, 존재하지 않는 ID는 결과에서 빠집니다.
+     */
+    public List<ProductDto> getAll(Collection<Long> ids, Function<Collection<Long>, List<ProductDto>> loader) {
+        if (!enabled || !listening) {
+            return loader.apply(ids);
+        }
+        Map<Long, ProductDto> found = new HashMap<>(cache.getAllPresent(ids));
+        if (found.size() < ids.size()) {
+            List<Long> missing = new ArrayList<>(ids.size() - found.size());
+            for (Long id : ids) {
+                if (!found.containsKey(id)) {
+                    missing.add(id);
+                }
+            }
+            long before = generation.get();
+            for (ProductDto dto : loader.apply(missing)) {
+                found.put(dto.getId(), dto);
+                putIfCurrent(dto, before);
+            }
+        }
+        List<ProductDto> result = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            ProductDto dto = found.get(id);
+            if (dto != null) {
+                result.add(dto);
+            }
+        }
+        return result;
+    }
+
+    // 조회를 시작한 뒤 무효화가 없었을 때만 넣습니다. (무효화와 같은 키 잠금 안에서 확인하므로 사이에 끼어들 수 없음)
+    private void putIfCurrent(ProductDto dto, long before) {
+        cache.asMap().compute(dto.getId(), (id, current) -> generation.get() == before ? dto : current);
+    }
+
+    /**
+     * 상품이 바뀌었음을 모든 인스턴스에 알립니다. 현재 트랜잭션 안에서 호출해야 하며, 커밋된 뒤에만 전달되고 이 인스턴스에서는 커밋 직후 무효화합니다.
+     */
+    public void evict(Long id) {
+        publish(String.valueOf(id));
+        afterCommit(() -> invalidate(id));
+    }
+
+    /**
+     * 여러 상품이 바뀌었음을 한 번의 쿼리로 모든 인스턴스에 알립니다. (상품마다 알림 하나, 현재 트랜잭션 안에서 호출)
+     */
+    public void evict(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (enabled) {
+            jdbcTemplate.query("SELECT pg_notify(?, id::text) FROM unnest(?) AS t(id)", ps -> {
+                ps.setString(1, CHANNEL);
+                ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+            }, rs -> {
+            });
+        }
+        List<Long> evicted = List.copyOf(ids);
+        afterCommit(() -> evicted.forEach(this::invalidate));
+    }
+
+    /**
+     * 여러 상품이 한꺼번에 바뀌었음을 모든 인스턴스에 알립니다. (전체 무효화, 현재 트랜잭션 안에서 호출)
+     */
+    public void evictAll() {
+        publish(ALL);
+        afterCommit(this::invalidateAll);
+    }
+
+    private void publish(String payload) {
+        if (enabled) {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, payload);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    void invalidate(Long id) {
+        generation.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    // 알림을 놓쳤을 수 있는 구간(연결 전·끊김)의 항목은 모두 버리고, 연결이 살아 있을 때만 캐시를 사용합니다.
+    void setListening(boolean listening) {
+        invalidateAll();
+        this.listening = listening;
+    }
+
+    // 추정 크기(바이트): 객체 헤더·숫자·날짜 필드 약 160바이트 + 문자열 필드(UTF-16 기준)
+    private static int weigh(Long id, ProductDto dto) {
+        return 160 + 2 * (length(dto.getName()) + length(dto.getSku()) + length(dto.getCategory()) + length(dto.getStatus()));
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
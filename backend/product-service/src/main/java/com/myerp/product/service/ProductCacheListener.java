@@ -0,0 +1,119 @@
+package com.myerp.product.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * ProductCacheListener
+ * 다른 인스턴스(및 자신)의 상품 변경 알림(NOTIFY product_cache)을 받아 ProductCache 항목을 무효화하는 컴포넌트입니다.
+ * 커넥션 풀과 별개인 전용 연결 하나로 LISTEN하며, 알림은 소켓에 도착하는 즉시 처리됩니다.
+ * 연결이 끊기면 캐시 사용을 멈추고(DB 직접 조회) reconnect-delay-ms 뒤 다시 연결한 다음, 그사이 놓친 알림 대신 캐시를 비우고 재개합니다.
+ */
+@Component
+public class ProductCacheListener {
+
+    private final ProductCache productCache;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int pollMs;
+    private final long reconnectDelayMs;
+
+    private volatile boolean running = true;
+    private Thread thread;
+
+    public ProductCacheListener(ProductCache productCache,
+                                @Value("${spring.datasource.url}") String url,
+                                @Value("${spring.datasource.username}") String username,
+                                @Value("${spring.datasource.password}") String password,
+                                @Value("${product.cache.listen-poll-ms:500}") int pollMs,
+                                @Value("${product.cache.reconnect-delay-ms:1000}") long reconnectDelayMs) {
+        this.productCache = productCache;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.pollMs = pollMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!productCache.isEnabled()) {
+            return;
+        }
+        thread = new Thread(this::run, "product-cache-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + ProductCache.CHANNEL);
+                }
+                productCache.setListening(true);
+                listen(connection.unwrap(PGConnection.class), connection);
+            } catch (SQLException e) {
+                // fall through: stop serving from the cache and reconnect
+            } finally {
+                productCache.setListening(false);
+            }
+            sleep(reconnectDelayMs);
+        }
+    }
+
+    // 알림을 기다리다가 poll-ms 동안 없으면 연결이 살아 있는지 확인합니다.
+    private void listen(PGConnection pgConnection, Connection connection) throws SQLException {
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(pollMs);
+            if (notifications == null || notifications.length == 0) {
+                if (!connection.isValid(Math.max(1, pollMs / 1000))) {
+                    return;
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                apply(notification.getParameter());
+            }
+        }
+    }
+
+    private void apply(String payload) {
+        if (ProductCache.ALL.equals(payload)) {
+            productCache.invalidateAll();
+            return;
+        }
+        try {
+            productCache.invalidate(Long.valueOf(payload));
+        } catch (NumberFormatException e) {
+            productCache.invalidateAll(); // unknown payload: be safe
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.myerp.product.service;
+
+import com.myerp.product.model.Product;
+import com.myerp.product.repository.ProductRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * ProductChangeFeed
+ * 메모리 인덱스(ProductSearchIndex, ProductSuggestIndex)가 다른 인스턴스의 상품 변경을 따라잡을 때 쓰는 변경 피드 읽기 도우미입니다.
+ * products의 (updated_at, id) 인덱스를 따라 페이지 단위로 읽으며, 삭제된 상품도 deleted = true로 전달됩니다.
+ */
+@Component
+public class ProductChangeFeed {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+
+    public ProductChangeFeed(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * since 이후의 변경(삭제 포함)을 (updated_at, id) 순으로 끝까지 읽어 consumer에 전달하고, 읽은 가장 최근 변경 시각을 반환합니다.
+     */
+    public LocalDateTime read(LocalDateTime since, Consumer<Product> consumer) {
+        LocalDateTime latest = since;
+        long afterId = 0;
+        while (true) {
+            List<Product> changes = productRepository.findChanges(since, afterId, PAGE_SIZE);
+            changes.forEach(consumer);
+            if (!changes.isEmpty()) {
+                Product last = changes.get(changes.size() - 1);
+                since = last.getUpdatedAt();
+                afterId = last.getId();
+                if (since.isAfter(latest)) {
+                    latest = since;
+                }
+            }
+            if (changes.size() < PAGE_SIZE) {
+                return latest;
+            }
+        }
+    }
+}
@@ -0,0 +1,457 @@
+package com.myerp.product.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myerp.product.dto.ProductImportEventDto;
+import com.myerp.product.repository.ProductImportJdbcRepository;
+import com.myerp.product.repository.ProductImportJdbcRepository.Existing;
+import com.myerp.product.repository.ProductImportJdbcRepository.Row;
+import com.myerp.product.repository.ProductImportJdbcRepository.Upserted;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * ProductImportService
+ * 공급사 카탈로그 동기화를 위한 상품 대량 등록·갱신(CSV 또는 NDJSON) 서비스 클래스입니다.
+ * 요청 본문을 한 줄씩 읽어 chunk-size 줄씩 묶고, 묶음마다 기존 SKU를 한 번의 집합 조회로 확인한 뒤
+ * INSERT ... ON CONFLICT (sku) DO UPDATE 배치 한 번으로 반영합니다. (상품마다 existsBySku + save를 하지 않음)
+ * 묶음 안에서 같은 SKU가 여러 번 나오면 마지막 줄만 반영하고, 값이 그대로인 상품은 쓰지 않습니다.
+ * 묶음마다 커밋한 뒤 그 묶음의 줄별 결과를 응답 스트림(NDJSON)으로 바로 내보내므로, DB 오류로 중단되어도 이전 묶음은 반영되어 있고
+ * 같은 파일을 다시 보내면 이미 반영된 줄은 unchanged로 끝납니다.
+ * 검색·자동완성 인덱스는 변경 피드로, 상품 캐시는 묶음마다 보내는 무효화 알림으로 따라잡습니다.
+ *
+ * 지원 형식 (열/필드 이름은 대소문자와 '_'를 구분하지 않음)
+ * - CSV: 첫 줄은 헤더. sku 열은 필수이고 name, category, price, stockQuantity, status 열은 선택
+ * - NDJSON: 한 줄에 {"sku": "...", "name": "...", "category": "...", "price": 1000, "stockQuantity": 10, "status": "..."} 객체 하나
+ * 새 상품에는 name, price가 필요합니다. 기존 상품은 값이 있는 필드만 바꾸며(PUT /products/{id}와 같음),
+ * stockQuantity는 새 상품의 초기 재고로만 쓰고 기존 상품의 재고는 바꾸지 않습니다. 삭제된 상품의 SKU가 오면 되살립니다.
+ */
+@Service
+public class ProductImportService {
+
+    // products의 문자열 컬럼 길이(varchar 255)와 price 컬럼의 소수 자릿수
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final int PRICE_SCALE = 2;
+    private static final String[] FIELDS = {"sku", "name", "category", "price", "stockquantity", "status"};
+
+    private final ProductImportJdbcRepository productImportRepository;
+    private final ProductCache productCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ProductImportService(ProductImportJdbcRepository productImportRepository, ProductCache productCache,
+                                TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                                @Value("${product.import.chunk-size:1000}") int chunkSize) {
+        this.productImportRepository = productImportRepository;
+        this.productCache = productCache;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 입력 스트림의 상품을 등록하거나 갱신하고, 줄별 결과와 진행 상황을 NDJSON으로 출력 스트림에 씁니다.
+     *
+     * @param csv true면 CSV, false면 NDJSON
+     */
+    public void importProducts(InputStream input, boolean csv, OutputStream output) throws IOException {
+        long start = System.nanoTime();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        Progress progress = new Progress(writer);
+
+        try {
+            int[] columns = null;
+            List<Record> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                progress.line++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && columns == null) {
+                    columns = csvColumns(line);
+                    continue;
+                }
+                try {
+                    chunk.add(parse(progress.line, csv ? csvFields(line, columns) : jsonFields(line)));
+                } catch (IllegalArgumentException e) {
+                    chunk.add(Record.rejected(progress.line, e.getMessage())); // 결과를 줄 순서대로 내보내도록 묶음에 함께 둠
+                }
+                if (chunk.size() == chunkSize) {
+                    apply(chunk, progress);
+                    chunk.clear();
+                }
+            }
+            apply(chunk, progress);
+        } catch (RuntimeException | IOException e) {
+            ProductImportEventDto failed = progress.event("failed");
+            failed.setMessage(e instanceof IOException || e instanceof UncheckedIOException
+                    ? "요청 본문을 읽지 못했습니다." : e.getMessage());
+            progress.write(failed);
+            writer.flush();
+            return;
+        }
+        ProductImportEventDto summary = progress.event("summary");
+        summary.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        progress.write(summary);
+        writer.flush();
+    }
+
+    // 한 묶음을 한 트랜잭션으로 반영하고, 커밋된 뒤 줄 순서대로 결과와 진행 상황을 씁니다.
+    private void apply(List<Record> chunk, Progress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // 같은 SKU는 마지막 줄만 남깁니다. (한 배치 안에 같은 키가 두 번 있으면 ON CONFLICT DO UPDATE가 실패함)
+        Map<String, Record> latest = new HashMap<>(chunk.size() * 2);
+        for (Record record : chunk) {
+            if (record.action != null) {
+                continue;
+            }
+            Record previous = latest.put(record.sku, record);
+            if (previous != null) {
+                previous.action = "skipped";
+                previous.message = record.line + "번째 줄이 대신 반영됨";
+            }
+        }
+        if (!latest.isEmpty()) {
+            upsert(latest);
+        }
+        for (Record record : chunk) {
+            progress.result(record);
+        }
+        progress.report();
+    }
+
+    private void upsert(Map<String, Record> latest) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, Existing> existing = productImportRepository.findBySkus(latest.keySet());
+            List<Record> changed = new ArrayList<>(latest.size());
+            int created = 0;
+            for (Record record : latest.values()) {
+                if (resolve(record, existing.get(record.sku))) {
+                    changed.add(record);
+                    if (record.id == null) {
+                        created++;
+                    }
+                }
+            }
+            long[] ids = productImportRepository.allocateIds(created);
+            int next = 0;
+            for (Record record : changed) {
+                if (record.id == null) {
+                    record.id = ids[next++];
+                }
+            }
+            List<Row> rows = new ArrayList<>(changed.size());
+            for (Record record : changed) {
+                rows.add(new Row(record.id, record.sku, record.name, record.category, record.price,
+                        record.stockQuantity != null ? record.stockQuantity : 0, record.status));
+            }
+            Map<String, Upserted> upserted = productImportRepository.upsert(rows, LocalDateTime.now());
+
+            // 실제로 쓰인 행 기준으로 ID와 action을 정합니다. (다른 가져오기가 같은 새 SKU를 먼저 만들었으면 갱신)
+            List<Long> evicted = new ArrayList<>();
+            for (Record record : changed) {
+                Upserted result = upserted.get(record.sku);
+                record.id = result.id();
+                if (result.inserted()) {
+                    record.action = "created";
+                } else {
+                    if ("created".equals(record.action)) {
+                        record.action = "updated";
+                    }
+                    evicted.add(result.id());
+                }
+            }
+            productCache.evict(evicted);
+        });
+    }
+
+    // 기존 값과 합쳐 반영할 값을 정하고 action을 매깁니다. 쓸 필요가 있으면 true를 반환합니다.
+    private static boolean resolve(Record record, Existing existing) {
+        if (existing == null) {
+            if (record.name == null || record.price == null) {
+                record.action = "error";
+                record.message = "새 상품에는 name, price가 필요합니다: " + record.sku;
+                return false;
+            }
+            if (record.status == null) {
+                record.status = "ACTIVE";
+            }
+            record.action = "created";
+            return true;
+        }
+        record.id = existing.id();
+        boolean same = (record.name == null || record.name.equals(existing.name()))
+                && (record.category == null || record.category.equals(existing.category()))
+                && (record.price == null || record.price.compareTo(existing.price()) == 0)
+                && (record.status == null || record.status.equals(existing.status()));
+        record.name = record.name != null ? record.name : existing.name();
+        record.category = record.category != null ? record.category : existing.category();
+        record.price = record.price != null ? record.price : existing.price();
+        record.status = record.status != null ? record.status : existing.status();
+        if (existing.deleted()) {
+            record.action = "restored";
+            return true;
+        }
+        record.action = same ? "unchanged" : "updated";
+        return !same;
+    }
+
+    private static Record parse(long line, String[] fields) {
+        Record record = new Record();
+        record.line = line;
+        record.sku = text(fields[0], "sku");
+        if (record.sku == null) {
+            throw new IllegalArgumentException("sku가 필요합니다.");
+        }
+        record.name = text(fields[1], "name");
+        record.category = text(fields[2], "category");
+        record.price = parsePrice(fields[3]);
+        record.stockQuantity = parseStockQuantity(fields[4]);
+        record.status = text(fields[5], "status");
+        return record;
+    }
+
+    private static BigDecimal parsePrice(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        BigDecimal price;
+        try {
+            price = new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("price가 올바르지 않습니다: " + value);
+        }
+        if (price.signum() < 0) {
+            throw new IllegalArgumentException("price는 0 이상이어야 합니다: " + value);
+        }
+        if (price.stripTrailingZeros().scale() > PRICE_SCALE) {
+            throw new IllegalArgumentException("price는 소수점 " + PRICE_SCALE + "자리까지 가능합니다: " + value);
+        }
+        return price;
+    }
+
+    private static Integer parseStockQuantity(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        int quantity;
+        try {
+            quantity = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("stockQuantity가 올바르지 않습니다: " + value);
+        }
+        if (quantity < 0) {
+            throw new IllegalArgumentException("stockQuantity는 0 이상이어야 합니다: " + quantity);
+        }
+        return quantity;
+    }
+
+    private static String text(String value, String name) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        if (trimmed.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException(name + "는 " + MAX_TEXT_LENGTH + "자를 넘을 수 없습니다.");
+        }
+        return trimmed;
+    }
+
+    // 헤더에서 sku, name, category, price, stockQuantity, status 열의 위치를 찾습니다. (없는 선택 열은 -1)
+    private int[] csvColumns(String header) {
+        List<String> names = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        int[] columns = new int[FIELDS.length];
+        Arrays.fill(columns, -1);
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().replace("_", "").toLowerCase();
+            for (int j = 0; j < FIELDS.length; j++) {
+                if (FIELDS[j].equals(name)) {
+                    columns[j] = i;
+                }
+            }
+        }
+        if (columns[0] < 0) {
+            throw new RuntimeException("CSV 헤더에 sku 열이 필요합니다.");
+        }
+        return columns;
+    }
+
+    private String[] csvFields(String line, int[] columns) {
+        List<String> values = splitCsv(line);
+        String[] fields = new String[columns.length];
+        for (int j = 0; j < columns.length; j++) {
+            if (columns[j] >= 0 && columns[j] < values.size()) {
+                fields[j] = values.get(columns[j]);
+            }
+        }
+        return fields;
+    }
+
+    // RFC 4180 형식의 한 줄을 나눕니다. (따옴표 안의 쉼표와 "" 이스케이프 지원, 여러 줄에 걸친 필드는 지원하지 않음)
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("닫히지 않은 따옴표가 있습니다.");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private String[] jsonFields(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("JSON 형식이 올바르지 않습니다.");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("한 줄에 JSON 객체 하나가 있어야 합니다.");
+        }
+        String[] fields = new String[FIELDS.length];
+        node.fields().forEachRemaining(field -> {
+            String name = field.getKey().replace("_", "").toLowerCase();
+            for (int j = 0; j < FIELDS.length; j++) {
+                if (FIELDS[j].equals(name) && !field.getValue().isNull()) {
+                    fields[j] = field.getValue().asText();
+                }
+            }
+        });
+        return fields;
+    }
+
+    /**
+     * 입력 한 줄에서 읽은 상품. 반영 과정에서 기존 값과 합쳐지고 결과(id, action, message)가 채워집니다.
+     */
+    private static class Record {
+        long line;
+        String sku;
+        String name;
+        String category;
+        BigDecimal price;
+        Integer stockQuantity;
+        String status;
+        Long id;
+        String action;
+        String message;
+
+        static Record rejected(long line, String message) {
+            Record record = new Record();
+            record.line = line;
+            record.action = "error";
+            record.message = message;
+            return record;
+        }
+    }
+
+    /**
+     * 읽은 줄 수와 결과별 건수를 세고 응답 스트림에 이벤트를 씁니다.
+     */
+    private class Progress {
+        private final Writer writer;
+        private long line;
+        private long created;
+        private long updated;
+        private long unchanged;
+        private long skipped;
+        private long rejected;
+
+        Progress(Writer writer) {
+            this.writer = writer;
+        }
+
+        ProductImportEventDto event(String type) {
+            ProductImportEventDto event = new ProductImportEventDto();
+            event.setType(type);
+            event.setLine(line);
+            event.setCreated(created);
+            event.setUpdated(updated);
+            event.setUnchanged(unchanged);
+            event.setSkipped(skipped);
+            event.setRejected(rejected);
+            return event;
+        }
+
+        void result(Record record) {
+            if ("error".equals(record.action)) {
+                reject(record.line, record.message);
+                return;
+            }
+            switch (record.action) {
+                case "created" -> created++;
+                case "updated", "restored" -> updated++;
+                case "unchanged" -> unchanged++;
+                default -> skipped++;
+            }
+            ProductImportEventDto event = new ProductImportEventDto();
+            event.setType("result");
+            event.setLine(record.line);
+            event.setSku(record.sku);
+            event.setId(record.id);
+            event.setAction(record.action);
+            event.setMessage(record.message);
+            write(event);
+        }
+
+        void reject(long line, String message) {
+            rejected++;
+            ProductImportEventDto event = new ProductImportEventDto();
+            event.setType("error");
+            event.setLine(line);
+            event.setMessage(message);
+            write(event);
+        }
+
+        // 진행 상황을 쓰고 지금까지 쌓인 결과 줄과 함께 클라이언트로 내보냅니다.
+        void report() {
+            write(event("progress"));
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void write(ProductImportEventDto event) {
+            try {
+                writer.write(objectMapper.writeValueAsString(event));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.myerp.product.service;
+
+import com.myerp.product.repository.ProductPopularityJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ProductPopularityService
+ * 자동완성 순위에 쓰는 상품 인기도(주문 건수)를 세는 서비스 클래스입니다.
+ * 주문 서비스가 주문을 만들며 상품을 일괄 조회(ordered = true)할 때 상품마다 1씩 메모리에 모았다가
+ * flush-interval-ms마다 product_popularity에 더하므로, 조회 경로에는 DB 쓰기가 늘지 않습니다.
+ * 조회 시점에 세므로 이후 재고 부족 등으로 생성에 실패한 주문도 포함되며, 비정상 종료 시 마지막 flush 이후 건수는 유실됩니다.
+ */
+@Service
+public class ProductPopularityService {
+
+    private final ProductPopularityJdbcRepository popularityRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // 아직 DB에 더하지 않은 상품별 건수
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+
+    public ProductPopularityService(ProductPopularityJdbcRepository popularityRepository,
+                                    TransactionTemplate transactionTemplate) {
+        this.popularityRepository = popularityRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * 주문 한 건에 포함된 상품들의 건수를 1씩 올립니다. (같은 상품이 여러 줄이어도 1건)
+     */
+    public void recordOrder(Collection<Long> productIds) {
+        for (Long productId : new HashSet<>(productIds)) {
+            pending.merge(productId, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * 모아 둔 건수를 productId 순으로 product_popularity에 더합니다. 실패하면 다음 flush에서 다시 시도합니다.
+     */
+    @Scheduled(fixedDelayString = "${product.popularity.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        TreeMap<Long, Long> batch = new TreeMap<>();
+        for (Long productId : pending.keySet()) {
+            Long count = pending.remove(productId);
+            if (count != null) {
+                batch.put(productId, count);
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> popularityRepository.addAll(batch));
+        } catch (RuntimeException e) {
+            batch.forEach((productId, count) -> pending.merge(productId, count, Long::sum));
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,483 @@
+package com.myerp.product.service;
+
+import com.myerp.product.model.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ProductSearchIndex
+ * 상품명 부분 일치 검색(LIKE '%키워드%')을 테이블 스캔 없이 처리하기 위한 메모리 n-gram 역색인입니다.
+ * 상품명을 NFC 정규화·소문자화한 뒤 모든 글자(1-gram)와 이웃한 두 글자(2-gram)마다 상품 목록(posting)을 유지하므로,
+ * 한글(음절 단위)과 영문 이름을 같은 방식으로 찾습니다. 검색은 키워드의 n-gram 중 가장 드문 것의 posting만 훑으면서
+ * 카테고리·상태 비트셋으로 거르고 실제 부분 문자열 포함 여부를 확인하므로, 결과는 기존 SQL 검색과 같습니다.
+ * 이 인스턴스에서 생성·수정·삭제된 상품은 커밋 직후 반영되고, 다른 인스턴스의 변경은 변경 피드(updated_at, id)를 주기적으로 읽어 반영합니다.
+ * 기동 시 전체 상품으로 새로 만들며, 수정·삭제로 쌓인 무효 항목 비율이 max-dead-ratio를 넘으면 다시 만들어 교체합니다.
+ * 정렬은 createdAt, id만 지원하며, 인덱스가 꺼져 있거나 아직 준비되지 않았거나 다른 정렬이 요청되면 호출 측이 SQL 검색을 사용해야 합니다.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ProductChangeFeed changeFeed;
+    private final boolean enabled;
+    private final long overlapMs;
+    private final double maxDeadRatio;
+
+    private volatile Segment segment; // null until the first build completes
+
+    // 인덱스에 반영된 가장 최근 변경 시각 (sync에서만 접근)
+    private LocalDateTime watermark;
+
+    public ProductSearchIndex(ProductChangeFeed changeFeed,
+                              @Value("${product.search-index.enabled:true}") boolean enabled,
+                              @Value("${product.search-index.overlap-ms:10000}") long overlapMs,
+                              @Value("${product.search-index.max-dead-ratio:0.2}") double maxDeadRatio) {
+        this.changeFeed = changeFeed;
+        this.enabled = enabled;
+        this.overlapMs = overlapMs;
+        this.maxDeadRatio = maxDeadRatio;
+    }
+
+    /**
+     * 인덱스로 검색할 수 있는지 확인합니다. (켜져 있고, 만들어졌고, 페이지 요청이며, 정렬이 createdAt/id로만 이루어진 경우)
+     */
+    public boolean canServe(Pageable pageable) {
+        if (segment == null || pageable.isUnpaged()) {
+            return false;
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!"createdAt".equals(order.getProperty()) && !"id".equals(order.getProperty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 조건에 맞는 상품 수와 요청한 페이지의 상품 ID를 정렬 순서대로 반환합니다.
+     *
+     * @param keyword  상품명 부분 일치 키워드 (null이면 조건 없음)
+     * @param category 카테고리 일치 (null이면 조건 없음)
+     * @param status   상태 일치 (null이면 조건 없음)
+     */
+    public Hits search(String keyword, String category, String status, Pageable pageable) {
+        Segment current = segment;
+        if (current == null) {
+            throw new RuntimeException("상품 검색 인덱스가 아직 준비되지 않았습니다.");
+        }
+        return current.search(keyword != null ? normalize(keyword) : null, category, status, pageable);
+    }
+
+    /**
+     * 저장된 상품을 인덱스에 반영합니다. 트랜잭션 안이면 커밋된 뒤에만 반영합니다.
+     */
+    public void onSaved(Product product) {
+        afterCommit(() -> {
+            Segment current = segment;
+            if (current != null) {
+                current.put(product);
+            }
+        });
+    }
+
+    /**
+     * 삭제된 상품을 인덱스에서 뺍니다. 트랜잭션 안이면 커밋된 뒤에만 반영합니다.
+     */
+    public void onDeleted(Long productId) {
+        afterCommit(() -> {
+            Segment current = segment;
+            if (current != null) {
+                current.remove(productId);
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        sync();
+    }
+
+    /**
+     * 마지막으로 반영한 시각(overlap-ms만큼 앞당김) 이후의 변경을 반영합니다.
+     * 아직 만들어지지 않았거나 무효 항목이 많으면 전체 상품으로 새로 만들어 교체합니다. (교체 전까지는 기존 인덱스로 검색)
+     */
+    @Scheduled(fixedDelayString = "${product.search-index.sync-interval-ms:5000}",
+            initialDelayString = "${product.search-index.sync-interval-ms:5000}")
+    public synchronized void sync() {
+        if (!enabled) {
+            return;
+        }
+        Segment current = segment;
+        if (current == null || current.deadRatio() > maxDeadRatio) {
+            Segment fresh = new Segment();
+            watermark = apply(fresh, EPOCH);
+            segment = fresh;
+            return;
+        }
+        LocalDateTime latest = apply(current, watermark.minus(Duration.ofMillis(overlapMs)));
+        if (latest.isAfter(watermark)) {
+            watermark = latest;
+        }
+    }
+
+    // since 이후의 변경(삭제 포함)을 반영하고, 읽은 가장 최근 변경 시각을 반환합니다.
+    private LocalDateTime apply(Segment target, LocalDateTime since) {
+        return changeFeed.read(since, product -> {
+            if (product.isDeleted()) {
+                target.remove(product.getId());
+            } else {
+                target.put(product);
+            }
+        });
+    }
+
+    static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+    }
+
+    // 1-gram은 글자 코드 그대로, 2-gram은 (앞 글자 << 16 | 뒤 글자). 앞 글자가 0인 2-gram은 없으므로 겹치지 않습니다.
+    private static int unigram(char c) {
+        return c;
+    }
+
+    private static int bigram(char first, char second) {
+        return (first << 16) | second;
+    }
+
+    /**
+     * 검색 결과: 조건에 맞는 전체 상품 수와 요청한 페이지의 상품 ID.
+     */
+    public record Hits(long total, List<Long> productIds) {
+    }
+
+    /**
+     * 색인 데이터 한 벌. 문서 번호(doc)는 추가 순서대로 0부터 매기며, 이름이 바뀐 상품은 새 번호로 다시 추가하고 이전 번호는 무효 처리합니다.
+     * posting은 문서 번호 오름차순으로만 늘어나므로 정렬 상태가 유지됩니다.
+     */
+    private static final class Segment {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Integer> docs = new HashMap<>();
+        private final Map<Integer, Postings> postings = new HashMap<>();
+        private final Map<String, BitSet> byCategory = new HashMap<>();
+        private final Map<String, BitSet> byStatus = new HashMap<>();
+        private final BitSet alive = new BitSet();
+        private long[] productIds = new long[1024];
+        private long[] createdAt = new long[1024];
+        private String[] names = new String[1024];
+        private String[] categories = new String[1024];
+        private String[] statuses = new String[1024];
+        private int size;
+
+        void put(Product product) {
+            String name = normalize(product.getName());
+            lock.writeLock().lock();
+            try {
+                Integer doc = docs.get(product.getId());
+                if (doc != null && names[doc].equals(name)) {
+                    setFilters(doc, product.getCategory(), product.getStatus());
+                    return;
+                }
+                if (doc != null) {
+                    kill(doc);
+                }
+                add(product, name);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long productId) {
+            lock.writeLock().lock();
+            try {
+                Integer doc = docs.remove(productId);
+                if (doc != null) {
+                    kill(doc);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        double deadRatio() {
+            lock.readLock().lock();
+            try {
+                return size == 0 ? 0 : 1.0 - (double) alive.cardinality() / size;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void add(Product product, String name) {
+            if (size == productIds.length) {
+                int capacity = size * 2;
+                productIds = Arrays.copyOf(productIds, capacity);
+                createdAt = Arrays.copyOf(createdAt, capacity);
+                names = Arrays.copyOf(names, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+            }
+            int doc = size++;
+            productIds[doc] = product.getId();
+            createdAt[doc] = product.getCreatedAt() != null
+                    ? product.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+            names[doc] = name;
+            docs.put(product.getId(), doc);
+            alive.set(doc);
+            setFilters(doc, product.getCategory(), product.getStatus());
+            for (int i = 0; i < name.length(); i++) {
+                postings.computeIfAbsent(unigram(name.charAt(i)), key -> new Postings()).add(doc);
+                if (i + 1 < name.length()) {
+                    postings.computeIfAbsent(bigram(name.charAt(i), name.charAt(i + 1)), key -> new Postings()).add(doc);
+                }
+            }
+        }
+
+        // posting의 문서 번호는 그대로 두고 alive 비트만 끕니다. (검색 시 걸러지고, 다시 만들 때 정리됨)
+        private void kill(int doc) {
+            alive.clear(doc);
+            setFilters(doc, null, null);
+        }
+
+        private void setFilters(int doc, String category, String status) {
+            categories[doc] = move(byCategory, categories[doc], category, doc);
+            statuses[doc] = move(byStatus, statuses[doc], status, doc);
+        }
+
+        private static String move(Map<String, BitSet> bitsets, String from, String to, int doc) {
+            if (Objects.equals(from, to)) {
+                return to;
+            }
+            if (from != null) {
+                bitsets.get(from).clear(doc);
+            }
+            if (to != null) {
+                bitsets.computeIfAbsent(to, key -> new BitSet()).set(doc);
+            }
+            return to;
+        }
+
+        Hits search(String keyword, String category, String status, Pageable pageable) {
+            lock.readLock().lock();
+            try {
+                BitSet categoryBits = category != null ? byCategory.get(category) : null;
+                BitSet statusBits = status != null ? byStatus.get(status) : null;
+                if ((category != null && categoryBits == null) || (status != null && statusBits == null)) {
+                    return new Hits(0, List.of());
+                }
+
+                long offset = pageable.getOffset();
+                int limit = (int) Math.min(offset + pageable.getPageSize(), Integer.MAX_VALUE);
+                TopDocs top = new TopDocs(limit, order(pageable.getSort()));
+                long total = 0;
+
+                if (keyword == null || keyword.isEmpty()) {
+                    BitSet candidates = (BitSet) alive.clone();
+                    if (categoryBits != null) {
+                        candidates.and(categoryBits);
+                    }
+                    if (statusBits != null) {
+                        candidates.and(statusBits);
+                    }
+                    for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                        total++;
+                        top.offer(doc);
+                    }
+                } else {
+                    Postings rarest = rarest(keyword);
+                    if (rarest == null) {
+                        return new Hits(0, List.of());
+                    }
+                    for (int i = 0; i < rarest.size; i++) {
+                        int doc = rarest.docs[i];
+                        if (alive.get(doc)
+                                && (categoryBits == null || categoryBits.get(doc))
+                                && (statusBits == null || statusBits.get(doc))
+                                && names[doc].contains(keyword)) {
+                            total++;
+                            top.offer(doc);
+                        }
+                    }
+                }
+
+                int[] sorted = top.sorted();
+                int from = (int) Math.min(offset, sorted.length);
+                List<Long> page = new ArrayList<>(sorted.length - from);
+                for (int i = from; i < sorted.length; i++) {
+                    page.add(productIds[sorted[i]]);
+                }
+                return new Hits(total, page);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // 요청 정렬(createdAt, id)의 정렬 키 배열과 방향. 마지막에는 상품 ID 내림차순으로 순서를 확정합니다.
+        private SortKeys order(Sort sort) {
+            List<long[]> keys = new ArrayList<>();
+            List<Boolean> descending = new ArrayList<>();
+            for (Sort.Order sortOrder : sort) {
+                keys.add("id".equals(sortOrder.getProperty()) ? productIds : createdAt);
+                descending.add(sortOrder.isDescending());
+            }
+            keys.add(productIds);
+            descending.add(true);
+            boolean[] flags = new boolean[descending.size()];
+            for (int i = 0; i < flags.length; i++) {
+                flags[i] = descending.get(i);
+            }
+            return new SortKeys(keys.toArray(new long[0][]), flags);
+        }
+
+        // 키워드의 n-gram 중 posting이 가장 짧은 것. 한 글자 키워드는 1-gram, 그 외에는 2-gram을 봅니다. (없는 n-gram이 있으면 null)
+        private Postings rarest(String keyword) {
+            if (keyword.length() == 1) {
+                return postings.get(unigram(keyword.charAt(0)));
+            }
+            Postings rarest = null;
+            for (int i = 0; i + 1 < keyword.length(); i++) {
+                Postings candidate = postings.get(bigram(keyword.charAt(i), keyword.charAt(i + 1)));
+                if (candidate == null) {
+                    return null;
+                }
+                if (rarest == null || candidate.size < rarest.size) {
+                    rarest = candidate;
+                }
+            }
+            return rarest;
+        }
+    }
+
+    /**
+     * 정렬 키 배열(문서 번호로 인덱싱)과 방향. compare가 음수면 a가 앞 순서입니다.
+     */
+    private record SortKeys(long[][] keys, boolean[] descending) {
+        int compare(int a, int b) {
+            for (int i = 0; i < keys.length; i++) {
+                int result = Long.compare(keys[i][a], keys[i][b]);
+                if (result != 0) {
+                    return descending[i] ? -result : result;
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * 정렬 순서상 앞선 limit개 문서만 유지하는 고정 크기 힙입니다. (루트가 유지 중인 문서 중 가장 뒤 순서, 박싱 없음)
+     */
+    private static final class TopDocs {
+        private final int[] heap;
+        private final SortKeys order;
+        private int size;
+
+        TopDocs(int limit, SortKeys order) {
+            this.heap = new int[Math.max(0, limit)];
+            this.order = order;
+        }
+
+        void offer(int doc) {
+            if (size < heap.length) {
+                heap[size] = doc;
+                siftUp(size++);
+            } else if (size > 0 && order.compare(doc, heap[0]) < 0) {
+                heap[0] = doc;
+                siftDown(0, size);
+            }
+        }
+
+        // 힙을 비우면서 정렬 순서대로 나열합니다.
+        int[] sorted() {
+            int[] result = new int[size];
+            for (int n = size; n > 0; n--) {
+                result[n - 1] = heap[0];
+                heap[0] = heap[n - 1];
+                siftDown(0, n - 1);
+            }
+            size = 0;
+            return result;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (order.compare(heap[i], heap[parent]) <= 0) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i, int n) {
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= n) {
+                    return;
+                }
+                if (child + 1 < n && order.compare(heap[child + 1], heap[child]) > 0) {
+                    child++;
+                }
+                if (order.compare(heap[child], heap[i]) <= 0) {
+                    return;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+
+    /**
+     * 한 n-gram을 포함하는 문서 번호 목록 (오름차순, 중복 없음).
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return; // same n-gram twice in one name
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+}
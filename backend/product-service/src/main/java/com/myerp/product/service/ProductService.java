@@ -10,14 +10,26 @@ import org.springframework.transaction.annotation.Transactional;
  * ProductService
  * 상품 핵심 관리 비즈니스 로직을 담당하는 단위입니다.
  * Entity/DTO 변환, 다중 조건 기반 상품 쿼리(Repository 연동), CRUD 및 재고 기초값 관리 등을 포함합니다.
+ * 상품명 검색은 메모리 n-gram 인덱스(ProductSearchIndex)로 처리하며, 인덱스를 쓸 수 없을 때만 SQL LIKE 검색을 사용합니다.
+ * 자동완성은 메모리 접두어 색인(ProductSuggestIndex)으로 처리하며, 순위에 쓰는 인기도는 주문 생성 시의 일괄 조회에서 셉니다.
+ * 단건·일괄 ID 조회는 읽기 캐시(ProductCache)를 거치며, 수정·삭제 시 모든 인스턴스의 캐시 항목이 무효화됩니다.
  */
 @Service
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductSearchIndex searchIndex;
+    private final ProductSuggestIndex suggestIndex;
+    private final ProductPopularityService popularityService;
+    private final ProductCache productCache;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ProductSearchIndex searchIndex,
+            ProductSuggestIndex suggestIndex, ProductPopularityService popularityService, ProductCache productCache) {
         this.productRepository = productRepository;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.popularityService = popularityService;
+        this.productCache = productCache;
     }
 
     // Entity to Dto converter
@@ -58,17 +70,105 @@ public class ProductService {
                 : null;
         String searchKeyword = (keyword != null && !keyword.trim().isEmpty()) ? keyword.trim() : null;
 
+        // 메모리 검색 인덱스로 대상 ID를 찾고 해당 페이지의 상품만 ID로 조회 (인덱스를 쓸 수 없으면 SQL 검색)
+        if (searchIndex.canServe(pageable)) {
+            ProductSearchIndex.Hits hits = searchIndex.search(searchKeyword, searchCategory, searchStatus, pageable);
+            java.util.Map<Long, Product> products = productRepository.findAllById(hits.productIds()).stream()
+                    .collect(java.util.stream.Collectors.toMap(Product::getId, product -> product));
+            java.util.List<ProductDto> content = hits.productIds().stream()
+                    .map(products::get)
+                    .filter(java.util.Objects::nonNull) // deleted after the index lookup
+                    .map(this::convertToDto)
+                    .collect(java.util.stream.Collectors.toList());
+            return new org.springframework.data.domain.PageImpl<>(content, pageable, hits.total());
+        }
+
         org.springframework.data.domain.Page<Product> productPage = productRepository.searchProducts(
                 searchKeyword, searchCategory, searchStatus, pageable);
 
         return productPage.map(this::convertToDto);
     }
 
+    /**
+     * 상품 목록을 커서 기반으로 최신순 조회합니다. (무한 스크롤용, count 쿼리 없음)
+     * 검색 조건은 getProducts와 같은 규칙으로 해석됩니다.
+     */
+    @Transactional(readOnly = true)
+    public com.myerp.product.dto.CursorPage<ProductDto> scrollProducts(String keyword, String category, String status,
+            String cursor, int size) {
+        com.myerp.product.dto.CursorPage.Cursor position = com.myerp.product.dto.CursorPage.decode(cursor);
+        String searchCategory = (category != null && !category.trim().isEmpty() && !category.contains("모든"))
+                ? category.trim()
+                : null;
+        String searchStatus = (status != null && !status.trim().isEmpty() && !status.contains("모든")) ? status.trim()
+                : null;
+        String searchKeyword = (keyword != null && !keyword.trim().isEmpty()) ? keyword.trim() : null;
+
+        return com.myerp.product.dto.CursorPage.of(
+                productRepository.scrollProducts(searchKeyword, searchCategory, searchStatus,
+                        position.createdAt(), position.id(), com.myerp.product.dto.CursorPage.limit(size)),
+                this::convertToDto, Product::getCreatedAt, Product::getId);
+    }
+
+    /**
+     * 상품명의 단어 또는 SKU가 입력값으로 시작하는 상품을 인기도 순으로 최대 limit개 조회합니다. (주문서 상품 선택 자동완성용)
+     * 색인이 준비되기 전에는 상품명 부분 일치 SQL 검색의 최신순 결과를 반환합니다. (인기도 없음)
+     */
     @Transactional(readOnly = true)
+    public java.util.List<com.myerp.product.dto.ProductSuggestionDto> suggestProducts(String query, int limit) {
+        String prefix = query != null ? query.trim() : "";
+        if (prefix.isEmpty()) {
+            return java.util.Collections.emptyList();
+        }
+        if (suggestIndex.isReady()) {
+            return suggestIndex.suggest(prefix, limit);
+        }
+        com.myerp.product.dto.CursorPage.Cursor start = com.myerp.product.dto.CursorPage.Cursor.START;
+        return productRepository.scrollProducts(prefix, null, null, start.createdAt(), start.id(),
+                        org.springframework.data.domain.PageRequest.of(0, Math.min(Math.max(limit, 1), ProductSuggestIndex.MAX_LIMIT)))
+                .stream()
+                .map(product -> new com.myerp.product.dto.ProductSuggestionDto(product.getId(), product.getName(),
+                        product.getSku(), null))
+                .collect(java.util.stream.Collectors.toList());
+    }
+
+    /**
+     * (updatedAt, afterId) 이후에 생성·수정·삭제된 상품을 변경 순으로 조회합니다.
+     * 다른 서비스가 상품 정보의 로컬 복제본을 유지하는 데 사용하며, 삭제된 상품은 deleted = true로 포함됩니다.
+     */
+    @Transactional(readOnly = true)
+    public java.util.List<ProductDto> getChanges(java.time.LocalDateTime since, Long afterId, int size) {
+        return productRepository.findChanges(since, afterId, Math.min(Math.max(size, 1), 1000)).stream()
+                .map(product -> {
+                    ProductDto dto = convertToDto(product);
+                    dto.setDeleted(product.isDeleted());
+                    return dto;
+                })
+                .collect(java.util.stream.Collectors.toList());
+    }
+
+    // 캐시 적중 시 DB 연결을 잡지 않도록 트랜잭션 없이 조회합니다. (조회 쿼리는 저장소 메서드의 트랜잭션에서 실행)
     public ProductDto getProductById(Long id) {
-        Product product = productRepository.findById(id)
+        return productCache.get(id, () -> productRepository.findById(id).map(this::convertToDto))
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
-        return convertToDto(product);
+    }
+
+    /**
+     * 여러 상품을 조회합니다. 캐시에 없는 상품만 단일 IN 쿼리(findAllById)로 읽으며, 결과는 요청한 ID 순서입니다.
+     * 존재하지 않거나 삭제된 상품은 결과에 포함되지 않으므로 호출 측에서 누락 여부를 판단해야 합니다.
+     * ordered가 true면 주문 생성을 위한 조회로 보고 각 상품의 인기도(주문 건수)를 1씩 올립니다.
+     */
+    public java.util.List<ProductDto> getProductsByIds(java.util.List<Long> ids, boolean ordered) {
+        if (ids == null || ids.isEmpty()) {
+            return java.util.Collections.emptyList();
+        }
+        if (ordered) {
+            popularityService.recordOrder(ids);
+        }
+        return productCache.getAll(new java.util.LinkedHashSet<>(ids), missing -> productRepository.findAllById(missing)
+                .stream()
+                .map(this::convertToDto)
+                .collect(java.util.stream.Collectors.toList()));
     }
 
     @Transactional
@@ -78,6 +178,8 @@ public class ProductService {
         }
         Product product = convertToEntity(productDto);
         Product savedProduct = productRepository.save(product);
+        searchIndex.onSaved(savedProduct);
+        suggestIndex.onSaved(savedProduct);
         return convertToDto(savedProduct);
     }
 
@@ -101,6 +203,9 @@ public class ProductService {
         // Note: SKU is usually not updated after creation.
 
         Product updatedProduct = productRepository.save(product);
+        productCache.evict(id);
+        searchIndex.onSaved(updatedProduct);
+        suggestIndex.onSaved(updatedProduct);
         return convertToDto(updatedProduct);
     }
 
@@ -110,5 +215,8 @@ public class ProductService {
             throw new RuntimeException("Product not found with id: " + id);
         }
         productRepository.deleteById(id);
+        productCache.evict(id);
+        searchIndex.onDeleted(id);
+        suggestIndex.onDeleted(id);
     }
 }
@@ -0,0 +1,778 @@
+package com.myerp.product.service;
+
+import com.myerp.product.dto.ProductSuggestionDto;
+import com.myerp.product.model.Product;
+import com.myerp.product.repository.ProductPopularityJdbcRepository;
+import com.myerp.product.repository.ProductPopularityJdbcRepository.Score;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * ProductSuggestIndex
+ * 상품명·SKU 자동완성(/products/suggest)을 위한 메모리 접두어 색인입니다.
+ * 상품명(NFC 정규화·소문자화)의 각 단어 시작 위치부터 끝까지의 접미 문자열과 SKU 전체를 항목으로 삼아
+ * 문자열 복사 없이 (상품, 시작 위치) 쌍의 정렬 배열로 보관하므로, 접두어에 맞는 항목은 이진 탐색 두 번으로 한 구간이 됩니다.
+ * 정렬 배열 위에 구간 최대 인기도 트리(segment tree)를 두어 구간 크기와 관계없이 인기도 상위 k개를 O(k log n)으로 꺼냅니다.
+ * 마지막 재구성 이후 이름·SKU가 바뀐 상품은 기존 항목을 무효 처리(인기도 -1)하고 별도 목록(tail)에 넣어 선형 검색하며,
+ * tail-size를 넘으면 메모리의 상품 목록으로 다시 정렬해 교체합니다. (DB를 다시 읽지 않음, 교체 전까지는 기존 색인으로 응답)
+ * 이 인스턴스의 변경은 커밋 직후, 다른 인스턴스의 변경과 인기도는 변경 피드를 주기적으로 읽어 반영합니다.
+ */
+@Component
+public class ProductSuggestIndex {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    public static final int MAX_LIMIT = 50;
+    private static final int CHUNK_CHARS = 4; // 정렬 시 한 번에 비교하는 글자 수 (16비트 × 4 = long)
+
+    private final ProductChangeFeed changeFeed;
+    private final ProductPopularityJdbcRepository popularityRepository;
+    private final boolean enabled;
+    private final long overlapMs;
+    private final int tailSize;
+
+    private final Object mutex = new Object(); // 색인 변경과 교체를 직렬화
+    private volatile Snapshot snapshot; // null until the first build completes
+    private List<Consumer<Snapshot>> replay; // 재구성 중에 들어온 변경 (mutex로 보호, 재구성 중이 아니면 null)
+
+    // 색인에 반영된 가장 최근 상품 변경·인기도 갱신 시각 (sync에서만 접근)
+    private LocalDateTime productWatermark;
+    private LocalDateTime scoreWatermark;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    public ProductSuggestIndex(ProductChangeFeed changeFeed,
+                               ProductPopularityJdbcRepository popularityRepository,
+                               @Value("${product.suggest.enabled:true}") boolean enabled,
+                               @Value("${product.suggest.overlap-ms:10000}") long overlapMs,
+                               @Value("${product.suggest.tail-size:4096}") int tailSize) {
+        this.changeFeed = changeFeed;
+        this.popularityRepository = popularityRepository;
+        this.enabled = enabled;
+        this.overlapMs = overlapMs;
+        this.tailSize = tailSize;
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * 상품명의 단어 시작 또는 SKU가 query로 시작하는 상품을 인기도 순으로 최대 limit개 반환합니다. (대소문자 무시)
+     */
+    public List<ProductSuggestionDto> suggest(String query, int limit) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new RuntimeException("상품 자동완성 색인이 아직 준비되지 않았습니다.");
+        }
+        return current.suggest(ProductSearchIndex.normalize(query), Math.min(Math.max(limit, 1), MAX_LIMIT), scratch.get());
+    }
+
+    /**
+     * 저장된 상품을 색인에 반영합니다. 트랜잭션 안이면 커밋된 뒤에만 반영합니다.
+     */
+    public void onSaved(Product product) {
+        Doc doc = Doc.of(product);
+        afterCommit(() -> mutate(target -> target.put(doc)));
+    }
+
+    /**
+     * 삭제된 상품을 색인에서 뺍니다. 트랜잭션 안이면 커밋된 뒤에만 반영합니다.
+     */
+    public void onDeleted(Long productId) {
+        afterCommit(() -> mutate(target -> target.remove(productId)));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // 현재 색인에 변경을 적용하고, 재구성 중이면 새 색인에도 다시 적용하도록 기록합니다.
+    private void mutate(Consumer<Snapshot> change) {
+        synchronized (mutex) {
+            Snapshot current = snapshot;
+            if (current != null) {
+                change.accept(current);
+            }
+            if (replay != null) {
+                replay.add(change);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        sync();
+    }
+
+    /**
+     * 마지막으로 반영한 시각(overlap-ms만큼 앞당김) 이후의 상품 변경과 인기도 갱신을 반영합니다.
+     * 아직 만들어지지 않았으면 전체 상품과 인기도로 만들고, 바뀐 상품이 tail-size를 넘으면 메모리의 상품 목록으로 다시 만들어 교체합니다.
+     */
+    @Scheduled(fixedDelayString = "${product.suggest.sync-interval-ms:5000}",
+            initialDelayString = "${product.suggest.sync-interval-ms:5000}")
+    public synchronized void sync() {
+        if (!enabled) {
+            return;
+        }
+        if (snapshot == null) {
+            rebuild(null);
+            return;
+        }
+        Duration overlap = Duration.ofMillis(overlapMs);
+        LocalDateTime latest = changeFeed.read(productWatermark.minus(overlap), product -> {
+            if (product.isDeleted()) {
+                mutate(target -> target.remove(product.getId()));
+            } else {
+                Doc doc = Doc.of(product);
+                mutate(target -> target.put(doc));
+            }
+        });
+        if (latest.isAfter(productWatermark)) {
+            productWatermark = latest;
+        }
+        List<Score> scores = popularityRepository.findChanges(scoreWatermark.minus(overlap));
+        if (!scores.isEmpty()) {
+            mutate(target -> scores.forEach(score -> target.setScore(score.productId(), score.score())));
+            LocalDateTime last = scores.get(scores.size() - 1).updatedAt();
+            if (last.isAfter(scoreWatermark)) {
+                scoreWatermark = last;
+            }
+        }
+        if (snapshot.pendingChanges() > tailSize) {
+            rebuild(snapshot);
+        }
+    }
+
+    // from의 상품 목록(null이면 DB의 전체 상품과 인기도)으로 새 색인을 만들고, 그동안 들어온 변경을 다시 적용해 교체합니다.
+    private void rebuild(Snapshot from) {
+        List<Doc> docs;
+        synchronized (mutex) {
+            replay = new ArrayList<>();
+            docs = from != null ? from.docs() : null;
+        }
+        Snapshot fresh;
+        try {
+            if (docs == null) {
+                docs = load();
+            }
+            fresh = Snapshot.build(docs);
+        } catch (RuntimeException e) {
+            synchronized (mutex) {
+                replay = null;
+            }
+            throw e;
+        }
+        synchronized (mutex) {
+            replay.forEach(change -> change.accept(fresh));
+            replay = null;
+            snapshot = fresh;
+        }
+    }
+
+    // 변경 피드 전체와 인기도 전체를 읽어 살아 있는 상품 목록을 만듭니다.
+    private List<Doc> load() {
+        Map<Long, Doc> byId = new HashMap<>();
+        LocalDateTime latestProduct = changeFeed.read(EPOCH, product -> {
+            if (product.isDeleted()) {
+                byId.remove(product.getId());
+            } else {
+                byId.put(product.getId(), Doc.of(product));
+            }
+        });
+        LocalDateTime latestScore = EPOCH;
+        for (Score score : popularityRepository.findChanges(EPOCH)) {
+            Doc doc = byId.get(score.productId());
+            if (doc != null) {
+                doc.score = score.score();
+            }
+            if (score.updatedAt().isAfter(latestScore)) {
+                latestScore = score.updatedAt();
+            }
+        }
+        productWatermark = latestProduct;
+        scoreWatermark = latestScore;
+        return new ArrayList<>(byId.values());
+    }
+
+    // 단어 시작 위치: 첫 글자이거나, 글자·숫자가 아닌 문자 뒤의 글자·숫자
+    private static boolean isWordStart(String key, int i) {
+        return i == 0 || (Character.isLetterOrDigit(key.charAt(i)) && !Character.isLetterOrDigit(key.charAt(i - 1)));
+    }
+
+    /**
+     * 색인 대상 상품 한 건. key·skuKey는 정규화한 이름·SKU이며, 원본과 같으면 같은 문자열 객체를 공유합니다.
+     */
+    private static final class Doc {
+        final long id;
+        final String name;
+        final String key;
+        final String sku;
+        final String skuKey;
+        long score; // 색인 잠금 안에서만 변경
+
+        private Doc(long id, String name, String key, String sku, String skuKey, long score) {
+            this.id = id;
+            this.name = name;
+            this.key = key;
+            this.sku = sku;
+            this.skuKey = skuKey;
+            this.score = score;
+        }
+
+        static Doc of(Product product) {
+            String name = product.getName();
+            String sku = product.getSku();
+            String key = ProductSearchIndex.normalize(name);
+            String skuKey = ProductSearchIndex.normalize(sku);
+            return new Doc(product.getId(), name, key.equals(name) ? name : key, sku, skuKey.equals(sku) ? sku : skuKey, 0);
+        }
+
+        boolean sameText(String otherName, String otherSku) {
+            return name.equals(otherName) && sku.equals(otherSku);
+        }
+
+        boolean matches(String prefix) {
+            if (skuKey.startsWith(prefix)) {
+                return true;
+            }
+            for (int i = 0; i + prefix.length() <= key.length(); i++) {
+                if (isWordStart(key, i) && key.startsWith(prefix, i)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 색인 한 벌. 상품(doc)은 productId 오름차순 번호이며, 항목(entry)은 (doc, 시작 위치)를 텍스트 순으로 정렬한 위치입니다.
+     * 시작 위치가 -1인 항목은 SKU, 그 외는 정규화한 상품명 안의 위치를 가리킵니다.
+     * 재구성 이후 바뀐 상품은 점수를 -1로 바꿔 트리에서 가라앉히고 tail에 새로 추가합니다.
+     */
+    private static final class Snapshot {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final long[] ids;
+        private final String[] names;
+        private final String[] keys;
+        private final String[] skus;
+        private final String[] skuKeys;
+        private final long[] scores; // -1: 무효 (수정·삭제됨)
+        private final int[] entryDoc;
+        private final int[] entryOffset;
+        private final int[] docEntryStart; // doc의 항목 위치는 docEntries[docEntryStart[doc] .. docEntryStart[doc + 1])
+        private final int[] docEntries;
+        private final int[] tree; // tree[node] = 노드 구간에서 점수가 가장 높은 항목 (잎 노드는 n + 항목 위치)
+        private final int n;
+        private final List<Doc> tail = new ArrayList<>();
+        private int dead;
+
+        private Snapshot(List<Doc> docs) {
+            int size = docs.size();
+            ids = new long[size];
+            names = new String[size];
+            keys = new String[size];
+            skus = new String[size];
+            skuKeys = new String[size];
+            scores = new long[size];
+            int entries = 0;
+            for (int doc = 0; doc < size; doc++) {
+                Doc source = docs.get(doc);
+                ids[doc] = source.id;
+                names[doc] = source.name;
+                keys[doc] = source.key;
+                skus[doc] = source.sku;
+                skuKeys[doc] = source.skuKey;
+                scores[doc] = source.score;
+                entries += 1 + wordStarts(source.key);
+            }
+
+            n = entries;
+            int[] unsortedDoc = new int[n];
+            int[] unsortedOffset = new int[n];
+            int e = 0;
+            for (int doc = 0; doc < size; doc++) {
+                unsortedDoc[e] = doc;
+                unsortedOffset[e++] = -1;
+                String key = keys[doc];
+                for (int i = 0; i < key.length(); i++) {
+                    if (isWordStart(key, i)) {
+                        unsortedDoc[e] = doc;
+                        unsortedOffset[e++] = i;
+                    }
+                }
+            }
+            int[] order = sortEntries(unsortedDoc, unsortedOffset);
+            entryDoc = new int[n];
+            entryOffset = new int[n];
+            for (int position = 0; position < n; position++) {
+                entryDoc[position] = unsortedDoc[order[position]];
+                entryOffset[position] = unsortedOffset[order[position]];
+            }
+
+            docEntryStart = new int[size + 1];
+            for (int position = 0; position < n; position++) {
+                docEntryStart[entryDoc[position] + 1]++;
+            }
+            for (int doc = 0; doc < size; doc++) {
+                docEntryStart[doc + 1] += docEntryStart[doc];
+            }
+            docEntries = new int[n];
+            int[] fill = Arrays.copyOf(docEntryStart, size);
+            for (int position = 0; position < n; position++) {
+                docEntries[fill[entryDoc[position]]++] = position;
+            }
+
+            tree = new int[Math.max(2 * n, 1)];
+            for (int position = 0; position < n; position++) {
+                tree[n + position] = position;
+            }
+            for (int node = n - 1; node >= 1; node--) {
+                tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
+
+        static Snapshot build(List<Doc> docs) {
+            List<Doc> sorted = new ArrayList<>(docs);
+            sorted.sort(Comparator.comparingLong(doc -> doc.id));
+            return new Snapshot(sorted);
+        }
+
+        private static int wordStarts(String key) {
+            int count = 0;
+            for (int i = 0; i < key.length(); i++) {
+                if (isWordStart(key, i)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        // ----- 변경 (mutex와 쓰기 잠금 안에서 호출) -----
+
+        void put(Doc doc) {
+            lock.writeLock().lock();
+            try {
+                int main = Arrays.binarySearch(ids, doc.id);
+                if (main >= 0 && scores[main] >= 0) {
+                    if (doc.sameText(names[main], skus[main])) {
+                        return;
+                    }
+                    doc.score = scores[main];
+                    setDocScore(main, -1);
+                    dead++;
+                    tail.add(doc);
+                    return;
+                }
+                for (int i = 0; i < tail.size(); i++) {
+                    Doc previous = tail.get(i);
+                    if (previous.id == doc.id) {
+                        if (!previous.sameText(doc.name, doc.sku)) {
+                            doc.score = previous.score;
+                            tail.set(i, doc);
+                        }
+                        return;
+                    }
+                }
+                tail.add(doc);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long productId) {
+            lock.writeLock().lock();
+            try {
+                int main = Arrays.binarySearch(ids, productId);
+                if (main >= 0 && scores[main] >= 0) {
+                    setDocScore(main, -1);
+                    dead++;
+                    return;
+                }
+                tail.removeIf(doc -> doc.id == productId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void setScore(long productId, long score) {
+            lock.writeLock().lock();
+            try {
+                int main = Arrays.binarySearch(ids, productId);
+                if (main >= 0 && scores[main] >= 0) {
+                    if (scores[main] != score) {
+                        setDocScore(main, score);
+                    }
+                    return;
+                }
+                for (Doc doc : tail) {
+                    if (doc.id == productId) {
+                        doc.score = score;
+                        return;
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // 상품의 점수를 바꾸고, 그 상품의 항목마다 잎에서 루트까지 최대값을 다시 계산합니다.
+        private void setDocScore(int doc, long score) {
+            scores[doc] = score;
+            for (int i = docEntryStart[doc]; i < docEntryStart[doc + 1]; i++) {
+                for (int node = (n + docEntries[i]) >>> 1; node >= 1; node >>>= 1) {
+                    tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+                }
+            }
+        }
+
+        int pendingChanges() {
+            lock.readLock().lock();
+            try {
+                return dead + tail.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // 재구성용 살아 있는 상품 목록 (mutex 안에서 호출)
+        List<Doc> docs() {
+            lock.readLock().lock();
+            try {
+                List<Doc> docs = new ArrayList<>(ids.length - dead + tail.size());
+                for (int doc = 0; doc < ids.length; doc++) {
+                    if (scores[doc] >= 0) {
+                        docs.add(new Doc(ids[doc], names[doc], keys[doc], skus[doc], skuKeys[doc], scores[doc]));
+                    }
+                }
+                for (Doc doc : tail) {
+                    docs.add(new Doc(doc.id, doc.name, doc.key, doc.sku, doc.skuKey, doc.score));
+                }
+                return docs;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // ----- 검색 -----
+
+        List<ProductSuggestionDto> suggest(String prefix, int limit, Scratch top) {
+            lock.readLock().lock();
+            try {
+                top.reset(limit);
+                if (prefix.isEmpty()) {
+                    return List.of();
+                }
+                int from = bound(prefix, false);
+                int to = bound(prefix, true);
+
+                // Canonical nodes covering [from, to), then expand the best node until limit distinct products are out
+                NodeHeap heap = top.heap;
+                for (int l = from + n, r = to + n; l < r; l >>>= 1, r >>>= 1) {
+                    if ((l & 1) == 1) {
+                        heap.push(l++, this);
+                    }
+                    if ((r & 1) == 1) {
+                        heap.push(--r, this);
+                    }
+                }
+                while (heap.size > 0 && top.size < limit) {
+                    int node = heap.pop(this);
+                    int doc = entryDoc[tree[node]];
+                    if (scores[doc] < 0) {
+                        break; // everything left is invalidated
+                    }
+                    if (node >= n) {
+                        top.offer(ids[doc], names[doc], skus[doc], scores[doc]);
+                    } else {
+                        heap.push(2 * node, this);
+                        heap.push(2 * node + 1, this);
+                    }
+                }
+
+                for (Doc doc : tail) {
+                    if (doc.matches(prefix)) {
+                        top.offer(doc.id, doc.name, doc.sku, doc.score);
+                    }
+                }
+                return top.toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // strict가 false면 텍스트가 prefix 이상인 첫 항목, true면 prefix로 시작하는 항목 다음의 첫 위치
+        private int bound(String prefix, boolean strict) {
+            int low = 0;
+            int high = n;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int compared = comparePrefix(middle, prefix);
+                if (compared < 0 || (strict && compared == 0)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        // 항목 텍스트의 앞 prefix.length()글자와 prefix의 비교 (prefix로 시작하면 0)
+        private int comparePrefix(int position, String prefix) {
+            String text = text(position);
+            int start = Math.max(entryOffset[position], 0);
+            int length = Math.min(text.length() - start, prefix.length());
+            for (int i = 0; i < length; i++) {
+                int diff = text.charAt(start + i) - prefix.charAt(i);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return length == prefix.length() ? 0 : -1;
+        }
+
+        private String text(int position) {
+            return entryOffset[position] < 0 ? skuKeys[entryDoc[position]] : keys[entryDoc[position]];
+        }
+
+        // 점수가 높은 항목, 같으면 텍스트 순으로 앞선 항목
+        int better(int a, int b) {
+            long scoreA = scores[entryDoc[a]];
+            long scoreB = scores[entryDoc[b]];
+            if (scoreA != scoreB) {
+                return scoreA > scoreB ? a : b;
+            }
+            return Math.min(a, b);
+        }
+
+        // 노드 a가 b보다 먼저 꺼내져야 하면 true
+        boolean before(int nodeA, int nodeB) {
+            int a = tree[nodeA];
+            int b = tree[nodeB];
+            return a != b && better(a, b) == a;
+        }
+
+        // ----- 정렬 -----
+
+        // 항목 번호를 텍스트 순으로 정렬합니다. 네 글자씩 long 하나에 담아 (키, 항목) 배열 쌍을 정렬하고, 키가 같은 구간만 다음 네 글자로 다시 정렬합니다.
+        // 비교 중에는 문자열을 따라가지 않으므로 공통 접두어가 긴 항목(SKU 등)이 많아도 캐시 적중률이 유지됩니다.
+        private int[] sortEntries(int[] docOf, int[] offsetOf) {
+            int[] order = new int[n];
+            for (int e = 0; e < n; e++) {
+                order[e] = e;
+            }
+            sortRange(order, new long[n], 0, n, 0, docOf, offsetOf);
+            return order;
+        }
+
+        // order[from, to)의 항목들은 앞 depth글자가 같습니다.
+        private void sortRange(int[] order, long[] chunks, int from, int to, int depth, int[] docOf, int[] offsetOf) {
+            for (int i = from; i < to; i++) {
+                chunks[i] = chunk(order[i], depth, docOf, offsetOf);
+            }
+            quickSort(chunks, order, from, to);
+            for (int start = from; start < to; ) {
+                int end = start + 1;
+                while (end < to && chunks[end] == chunks[start]) {
+                    end++;
+                }
+                if (end - start > 1 && (chunks[start] & 0xFFFF) != 0) { // texts continue past this chunk
+                    sortRange(order, chunks, start, end, depth + CHUNK_CHARS, docOf, offsetOf);
+                }
+                start = end;
+            }
+        }
+
+        // depth부터 네 글자를 (글자 + 1)씩 16비트로 담은 값. 텍스트가 끝난 자리는 0이므로 짧은 텍스트가 앞에 오고,
+        // 부호 비트를 뒤집어 부호 있는 비교가 글자 순서와 같게 합니다.
+        private long chunk(int e, int depth, int[] docOf, int[] offsetOf) {
+            String text = offsetOf[e] < 0 ? skuKeys[docOf[e]] : keys[docOf[e]];
+            int start = Math.max(offsetOf[e], 0) + depth;
+            long packed = 0;
+            for (int i = 0; i < CHUNK_CHARS; i++) {
+                int index = start + i;
+                int c = index < text.length() ? Math.min(text.charAt(index) + 1, 0xFFFF) : 0;
+                packed = (packed << 16) | c;
+            }
+            return packed ^ Long.MIN_VALUE;
+        }
+
+        // chunks 오름차순으로 (chunks, order)를 함께 정렬합니다. (3-way 분할, 작은 쪽만 재귀)
+        private static void quickSort(long[] chunks, int[] order, int from, int to) {
+            while (to - from > 16) {
+                long pivot = median(chunks[from], chunks[(from + to) >>> 1], chunks[to - 1]);
+                int lt = from;
+                int gt = to - 1;
+                int i = from;
+                while (i <= gt) {
+                    if (chunks[i] < pivot) {
+                        swap(chunks, order, lt++, i++);
+                    } else if (chunks[i] > pivot) {
+                        swap(chunks, order, i, gt--);
+                    } else {
+                        i++;
+                    }
+                }
+                if (lt - from < to - gt - 1) {
+                    quickSort(chunks, order, from, lt);
+                    from = gt + 1;
+                } else {
+                    quickSort(chunks, order, gt + 1, to);
+                    to = lt;
+                }
+            }
+            for (int i = from + 1; i < to; i++) {
+                long chunk = chunks[i];
+                int entry = order[i];
+                int j = i;
+                while (j > from && chunks[j - 1] > chunk) {
+                    chunks[j] = chunks[j - 1];
+                    order[j] = order[j - 1];
+                    j--;
+                }
+                chunks[j] = chunk;
+                order[j] = entry;
+            }
+        }
+
+        private static long median(long a, long b, long c) {
+            return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+        }
+
+        private static void swap(long[] chunks, int[] order, int a, int b) {
+            long chunk = chunks[a];
+            chunks[a] = chunks[b];
+            chunks[b] = chunk;
+            int entry = order[a];
+            order[a] = order[b];
+            order[b] = entry;
+        }
+    }
+
+    /**
+     * 트리 노드를 담는 최대 힙 (Snapshot.before 순서, 박싱 없음). 스레드마다 재사용합니다.
+     */
+    private static final class NodeHeap {
+        private int[] nodes = new int[256];
+        private int size;
+
+        void push(int node, Snapshot index) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            int i = size++;
+            nodes[i] = node;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!index.before(nodes[i], nodes[parent])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        int pop(Snapshot index) {
+            int top = nodes[0];
+            nodes[0] = nodes[--size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    return top;
+                }
+                if (child + 1 < size && index.before(nodes[child + 1], nodes[child])) {
+                    child++;
+                }
+                if (!index.before(nodes[child], nodes[i])) {
+                    return top;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int tmp = nodes[a];
+            nodes[a] = nodes[b];
+            nodes[b] = tmp;
+        }
+    }
+
+    /**
+     * 요청 하나의 작업 공간: 노드 힙과 점수 내림차순으로 유지하는 상위 limit개 결과. 스레드마다 재사용합니다.
+     */
+    private static final class Scratch {
+        final NodeHeap heap = new NodeHeap();
+        final long[] ids = new long[MAX_LIMIT];
+        final String[] names = new String[MAX_LIMIT];
+        final String[] skus = new String[MAX_LIMIT];
+        final long[] scores = new long[MAX_LIMIT];
+        int size;
+        int limit;
+
+        void reset(int limit) {
+            this.limit = limit;
+            size = 0;
+            heap.size = 0;
+        }
+
+        // 같은 상품은 한 번만, 점수가 같으면 먼저 들어온 결과가 앞에 옵니다.
+        void offer(long id, String name, String sku, long score) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    return;
+                }
+            }
+            int i = size;
+            while (i > 0 && scores[i - 1] < score) {
+                i--;
+            }
+            if (i >= limit) {
+                return;
+            }
+            int last = Math.min(size, limit - 1);
+            System.arraycopy(ids, i, ids, i + 1, last - i);
+            System.arraycopy(names, i, names, i + 1, last - i);
+            System.arraycopy(skus, i, skus, i + 1, last - i);
+            System.arraycopy(scores, i, scores, i + 1, last - i);
+            ids[i] = id;
+            names[i] = name;
+            skus[i] = sku;
+            scores[i] = score;
+            size = Math.min(size + 1, limit);
+        }
+
+        List<ProductSuggestionDto> toList() {
+            List<ProductSuggestionDto> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(new ProductSuggestionDto(ids[i], names[i], skus[i], scores[i]));
+                names[i] = null;
+                skus[i] = null;
+            }
+            return result;
+        }
+    }
+}
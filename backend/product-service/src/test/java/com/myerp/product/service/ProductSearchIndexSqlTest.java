@@ -0,0 +1,144 @@
+package com.myerp.product.service;
+
+import com.myerp.product.model.Product;
+import com.myerp.product.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ProductSearchIndex의 검색 결과(전체 건수, 페이지의 상품 ID와 순서)가 같은 조건의 SQL 검색
+ * (ProductRepository.searchProducts의 LIKE 쿼리)과 같은지 임베디드 H2로 비교합니다.
+ * 한글·영문 대소문자 이름, 카테고리·상태 필터, 정렬·페이지, 이름 변경과 삭제 후의 변경 피드 반영을 함께 확인합니다.
+ */
+@DataJpaTest(properties = {"spring.sql.init.mode=never", "spring.jpa.show-sql=false"})
+class ProductSearchIndexSqlTest {
+
+    private static final String[] WORDS = {"무선", "마우스", "키보드", "모니터", "케이블", "충전기", "Mouse", "KEYBOARD",
+            "usb-c", "Hub", "노트북", "거치대", "Pro", "mini", "블루투스", "스피커"};
+    private static final String[] CATEGORIES = {"전자", "사무", "가전", "주변기기"};
+    private static final String[] STATUSES = {"ACTIVE", "INACTIVE"};
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Random random = new Random(20240101L);
+
+    @Test
+    void returnsSameResultsAsSqlLikeSearch() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            products.add(product(i));
+        }
+        productRepository.saveAll(products);
+        spreadCreatedAt();
+
+        ProductSearchIndex index = new ProductSearchIndex(new ProductChangeFeed(productRepository), true, 10000, 0.2);
+        index.build();
+        assertSameAsSql(index);
+
+        // Rename and delete some products, then let the index catch up through the change feed
+        List<Product> stored = productRepository.findAll();
+        for (int i = 0; i < 300; i++) {
+            Product product = stored.get(random.nextInt(stored.size()));
+            product.setName(name());
+            product.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+        }
+        productRepository.flush();
+        for (int i = 0; i < 200; i++) {
+            productRepository.deleteById(stored.get(random.nextInt(stored.size())).getId());
+        }
+        productRepository.flush();
+        entityManager.clear();
+
+        index.sync();
+        assertSameAsSql(index);
+    }
+
+    private void assertSameAsSql(ProductSearchIndex index) {
+        List<String> keywords = new ArrayList<>(Arrays.asList(null, "마", "무선 마", "MOUSE", "usb", "b-c", "없는상품", "o"));
+        for (String word : WORDS) {
+            keywords.add(word.substring(0, Math.min(2, word.length())));
+            keywords.add(word.toUpperCase(Locale.ROOT));
+        }
+        int nonEmptyPages = 0;
+        List<Sort> sorts = List.of(
+                Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")),
+                Sort.by(Sort.Order.asc("createdAt"), Sort.Order.asc("id")),
+                Sort.by(Sort.Order.asc("id")));
+        for (String keyword : keywords) {
+            for (String category : new String[]{null, "전자", "없는카테고리"}) {
+                for (String status : new String[]{null, "ACTIVE"}) {
+                    for (Sort sort : sorts) {
+                        for (int page : new int[]{0, 3}) {
+                            Pageable pageable = PageRequest.of(page, 20, sort);
+                            assertThat(index.canServe(pageable)).isTrue();
+                            ProductSearchIndex.Hits hits = index.search(keyword, category, status, pageable);
+                            Page<Product> sql = productRepository.searchProducts(keyword, category, status, pageable);
+
+                            String query = keyword + "/" + category + "/" + status + "/" + sort + "/" + page;
+                            assertThat(hits.total()).as(query).isEqualTo(sql.getTotalElements());
+                            assertThat(hits.productIds()).as(query)
+                                    .containsExactlyElementsOf(sql.map(Product::getId).getContent());
+                            nonEmptyPages += hits.productIds().isEmpty() ? 0 : 1;
+                        }
+                    }
+                }
+            }
+        }
+        assertThat(nonEmptyPages).as("comparisons with at least one hit").isGreaterThan(300);
+    }
+
+    // 생성 시각을 분 단위로 흩어 같은 시각의 상품(정렬 동점)도 생기게 합니다. (@PrePersist가 현재 시각으로 덮어쓰므로 저장 후 갱신)
+    private void spreadCreatedAt() {
+        productRepository.flush();
+        LocalDateTime base = LocalDateTime.now().minusDays(30);
+        List<Object[]> updates = new ArrayList<>();
+        for (Long id : jdbcTemplate.queryForList("SELECT id FROM products", Long.class)) {
+            updates.add(new Object[]{Timestamp.valueOf(base.plusMinutes(random.nextInt(2000))), id});
+        }
+        jdbcTemplate.batchUpdate("UPDATE products SET created_at = ? WHERE id = ?", updates);
+        entityManager.clear();
+    }
+
+    private Product product(int i) {
+        Product product = new Product();
+        product.setName(name());
+        product.setSku("SKU-" + i);
+        product.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        product.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+        product.setPrice(BigDecimal.valueOf(1000 + random.nextInt(100000)));
+        return product;
+    }
+
+    private String name() {
+        int words = 1 + random.nextInt(3);
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                name.append(' ');
+            }
+            name.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return name.toString();
+    }
+}
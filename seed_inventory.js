@@ -15,21 +15,31 @@ async function seedInventory() {
         { productId: 3, quantityChanged: -10, reason: "Test outbound", referenceId: "TEST-OUT-02" }
     ];
 
-    for (const adj of adjustments) {
-        try {
-            const res = await fetch('http://localhost:8083/inventory/adjust', {
-                method: 'POST',
-                headers: { 'Content-Type': 'application/json' },
-                body: JSON.stringify(adj)
-            });
-            if (res.ok) {
-                console.log(`Seeded adjustment for Product ID ${adj.productId}: ${adj.quantityChanged}`);
-            } else {
-                console.error(`Failed to seed for Product ID ${adj.productId}`, await res.text());
+    // One streaming request: rows are staged with COPY and merged in a single transaction
+    try {
+        const res = await fetch('http://localhost:8083/inventory/import?mode=delta', {
+            method: 'POST',
+            headers: { 'Content-Type': 'application/x-ndjson' },
+            body: adjustments.map(adj => JSON.stringify({
+                productId: adj.productId,
+                quantity: adj.quantityChanged,
+                reason: adj.reason,
+                referenceId: adj.referenceId
+            })).join('\n')
+        });
+        // Response is NDJSON: error/progress lines, then a final summary or failed line
+        for (const line of (await res.text()).split('\n').filter(Boolean)) {
+            const event = JSON.parse(line);
+            if (event.type === 'error') {
+                console.error(`Rejected line ${event.line}: ${event.message}`);
+            } else if (event.type === 'summary') {
+                console.log(`Imported ${event.accepted} rows for ${event.products} products in ${event.elapsedMs}ms`);
+            } else if (event.type === 'failed') {
+                console.error(`Import failed: ${event.message}`);
             }
-        } catch (e) {
-            console.error(`Error for Product ID ${adj.productId}`, e.message);
         }
+    } catch (e) {
+        console.error('Error importing inventory', e.message);
     }
     console.log("Seeding complete.");
 }